@@ -0,0 +1,94 @@
+package com.github.richardflee.astroimagej;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+/**
+ * Loads benchmark fixture payloads from the jmh classpath and generates random
+ * field objects around the default wasp 12 query.
+ *
+ * <p>Fixtures in src/jmh/resources/fixtures:</p>
+ * <p>apass_wasp12_V.tsv: VizieR APASS tab-separated response, 60' fov, V band,
+ * 1500 data records + 52 records with missing mag data</p>
+ * <p>vsp_wasp12_V.json: AAVSO VSP photometry response, 60' fov, 120 records</p>
+ */
+public class BenchmarkFixtures {
+
+	public static final String APASS_TSV = "/fixtures/apass_wasp12_V.tsv";
+	public static final String VSP_JSON = "/fixtures/vsp_wasp12_V.json";
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Reads fixture resource into a single string
+	 *
+	 * @param resource classpath resource name
+	 * @return fixture text with '\n' line separators
+	 * @throws IOException if resource is missing or unreadable
+	 */
+	public static String readText(String resource) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (String line : readLines(resource)) {
+			sb.append(line).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads fixture resource into line array
+	 *
+	 * @param resource classpath resource name
+	 * @return fixture text lines
+	 * @throws IOException if resource is missing or unreadable
+	 */
+	public static List<String> readLines(String resource) throws IOException {
+		InputStream is = BenchmarkFixtures.class.getResourceAsStream(resource);
+		if (is == null) {
+			throw new IOException(String.format("Missing benchmark fixture: %s", resource));
+		}
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Generates random field objects in the 60' fov of default CatalogQuery
+	 *
+	 * @param nObjects number of field objects
+	 * @param seed random seed
+	 * @return list of reference field objects, coordinate-based object ids
+	 */
+	public static List<FieldObject> randomFieldObjects(int nObjects, long seed) {
+		CatalogQuery query = new CatalogQuery();
+		double halfFovDeg = query.getFovAmin() / 120.0;
+		double cosDec = Math.cos(Math.toRadians(query.getDecDeg()));
+
+		Random random = new Random(seed);
+		List<FieldObject> fieldObjects = new ArrayList<>(nObjects);
+		for (int idx = 0; idx < nObjects; idx++) {
+			double raHr = query.getRaHr() + (2.0 * random.nextDouble() - 1.0) * halfFovDeg / cosDec / 15.0;
+			double decDeg = query.getDecDeg() + (2.0 * random.nextDouble() - 1.0) * halfFovDeg;
+			double mag = 9.0 + 7.0 * random.nextDouble();
+			FieldObject fo = new FieldObject(null, raHr, decDeg, mag, 0.01 + 0.1 * random.nextDouble());
+			fo.setnObs(1 + random.nextInt(30));
+			fo.setTarget(false);
+			fieldObjects.add(fo);
+		}
+		return fieldObjects;
+	}
+}
@@ -0,0 +1,88 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.richardflee.astroimagej.enums.ApassEnum;
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.fileio.ApassExtractFile;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+/**
+ * Runs 60' fov V band queries at random positions on a 500k record APASS
+ * extract covering Dec 20° - 40°.
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ApassExtractBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApassExtractBenchmark {
+
+	private static final int N_ROWS = 500000;
+	private static final double DEC_MIN = 20.0;
+	private static final double DEC_MAX = 40.0;
+
+	private Path extractPath = null;
+	private ApassExtractCatalog catalog = null;
+	private Random random = new Random(1);
+
+	@Setup
+	public void setUp() throws IOException {
+		Random records = new Random(12345);
+		int nBands = ApassEnum.values().length;
+		double[] ra = new double[N_ROWS];
+		double[] dec = new double[N_ROWS];
+		int[] nObs = new int[N_ROWS];
+		float[][] mags = new float[nBands][N_ROWS];
+		float[][] errs = new float[nBands][N_ROWS];
+		for (int idx = 0; idx < N_ROWS; idx++) {
+			ra[idx] = 360.0 * records.nextDouble();
+			dec[idx] = DEC_MIN + (DEC_MAX - DEC_MIN) * records.nextDouble();
+			nObs[idx] = 1 + records.nextInt(20);
+			for (int band = 0; band < nBands; band++) {
+				mags[band][idx] = (float) (10.0 + records.nextInt(6000) / 1000.0);
+				errs[band][idx] = 0.05f;
+			}
+		}
+		extractPath = Files.createTempFile("apass_bench", ApassExtractFile.EXTRACT_FILE_EXT);
+		ApassExtractFile.write(extractPath, DEC_MIN, DEC_MAX, N_ROWS, ra, dec, nObs, mags, errs);
+		catalog = new ApassExtractCatalog(extractPath);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(extractPath);
+	}
+
+	@Benchmark
+	public List<FieldObject> extractQuery() throws IOException {
+		CatalogQuery query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.APASS);
+		query.setRaHr(24.0 * random.nextDouble());
+		query.setDecDeg(21.0 + 18.0 * random.nextDouble());
+		query.setFovAmin(60.0);
+		query.setMagBand("V");
+		return catalog.runQuery(query);
+	}
+}
@@ -0,0 +1,151 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.richardflee.astroimagej.BenchmarkFixtures;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+/**
+ * Decodes captured-format catalog responses without network access: APASS
+ * VizieR tab-separated response and VSP json photometry response.
+ *
+ * <p>APASS and VSP streaming decoders are compared with the line split / regex
+ * and json tree-walk decodes they replace.</p>
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="CatalogDecodeBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogDecodeBenchmark {
+
+	private String apassTsv = null;
+	private byte[] apassBytes = null;
+	private String vspJson = null;
+	private byte[] vspBytes = null;
+	private JsonNode vspRoot = null;
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@Setup
+	public void setUp() throws IOException {
+		apassTsv = BenchmarkFixtures.readText(BenchmarkFixtures.APASS_TSV);
+		apassBytes = apassTsv.getBytes(StandardCharsets.UTF_8);
+		vspJson = BenchmarkFixtures.readText(BenchmarkFixtures.VSP_JSON);
+		vspBytes = vspJson.getBytes(StandardCharsets.UTF_8);
+		vspRoot = objectMapper.readTree(vspJson);
+	}
+
+	// response bytes => field objects, streaming decoder
+	@Benchmark
+	public List<FieldObject> apassDecode() throws IOException {
+		return ApassCatalog.decodeFieldObjects(new ByteArrayInputStream(apassBytes));
+	}
+
+	// response text => field objects, previous line split decode
+	@Benchmark
+	public List<FieldObject> apassDecodeLines() throws IOException {
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		BufferedReader in = new BufferedReader(new StringReader(apassTsv));
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (isDataLine(line)) {
+				fieldObjects.add(compileFieldObject(line));
+			}
+		}
+		return fieldObjects;
+	}
+
+	// response text => json tree
+	@Benchmark
+	public JsonNode vspReadTree() throws IOException {
+		return objectMapper.readTree(vspJson);
+	}
+
+	// json tree => field objects
+	@Benchmark
+	public List<FieldObject> vspTreeWalk() {
+		return treeWalk(vspRoot, "V");
+	}
+
+	// response text => field objects, previous readTree & tree walk decode
+	@Benchmark
+	public List<FieldObject> vspDecodeTree() throws IOException {
+		return treeWalk(objectMapper.readTree(vspJson), "V");
+	}
+
+	// response bytes => field objects, streaming decoder
+	@Benchmark
+	public List<FieldObject> vspDecode() throws IOException {
+		return VspCatalog.decodeFieldObjects(new ByteArrayInputStream(vspBytes), "V");
+	}
+
+	// previous ApassCatalog line filter & parse
+	private static boolean isDataLine(String line) {
+		String[] terms = line.split("\t");
+		return (line.length() > 0) && (line.charAt(0) != '#') && isNumeric(terms[0]) && (terms.length == 5);
+	}
+
+	private static boolean isNumeric(String strNum) {
+		Pattern pattern = Pattern.compile("-?\\d+(\\.\\d+)?");
+		if ((strNum == null) || (strNum.length() == 0)) {
+			return false;
+		}
+		return pattern.matcher(strNum).matches();
+	}
+
+	private static FieldObject compileFieldObject(String line) {
+		String[] terms = line.replace(" ", "").split("\t");
+		FieldObject fo = new FieldObject(null, Double.valueOf(terms[0]) / 15.0, Double.valueOf(terms[1]),
+				Double.valueOf(terms[3]), Double.valueOf(terms[4]));
+		fo.setnObs(Integer.valueOf(terms[2]));
+		fo.setTarget(false);
+		fo.setSelected(true);
+		return fo;
+	}
+
+	// previous VspCatalog json tree walk
+	private static List<FieldObject> treeWalk(JsonNode root, String magBand) {
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		for (JsonNode foNode : root.findPath("photometry")) {
+			FieldObject fo = new FieldObject();
+			fo.setObjectId(foNode.findPath("auid").asText());
+			fo.setRaHr(AstroCoords.raHmsToRaHr(foNode.path("ra").asText()));
+			fo.setDecDeg(AstroCoords.decDmsToDecDeg(foNode.path("dec").asText()));
+			for (JsonNode bandNode : foNode.findPath("bands")) {
+				if (bandNode.path("band").asText().equalsIgnoreCase(magBand)) {
+					fo.setMag(bandNode.path("mag").asDouble());
+					fo.setMagErr(bandNode.path("error").asDouble());
+					fieldObjects.add(fo);
+					break;
+				}
+			}
+		}
+		return fieldObjects;
+	}
+}
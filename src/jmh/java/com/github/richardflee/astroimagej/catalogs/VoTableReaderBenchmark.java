@@ -0,0 +1,61 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.NodeList;
+
+/**
+ * Reads first row of a canned SIMBAD VOTable response (Vega): VoTableReader
+ * streaming read against the DOM + XPath read it replaces.
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="VoTableReaderBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VoTableReaderBenchmark {
+
+	private byte[] vega = null;
+	private DocumentBuilder builder = null;
+
+	@Setup
+	public void setUp() throws Exception {
+		vega = SimbadStubServer.readResource("/simbad/vega.votable.xml");
+		builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+	}
+
+	@Benchmark
+	public String[] streamingRead() throws XMLStreamException {
+		return VoTableReader.readFirstRow(new ByteArrayInputStream(vega));
+	}
+
+	// previous DOM + XPath decode, factory and expression created per read
+	@Benchmark
+	public int domRead() throws Exception {
+		XPathExpression expr = XPathFactory.newInstance().newXPath().compile("//TR[1]/TD");
+		NodeList nodes = (NodeList) expr.evaluate(builder.parse(new ByteArrayInputStream(vega)),
+				XPathConstants.NODESET);
+		return nodes.getLength();
+	}
+}
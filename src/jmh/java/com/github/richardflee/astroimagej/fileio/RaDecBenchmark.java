@@ -0,0 +1,80 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.richardflee.astroimagej.BenchmarkFixtures;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.CatalogSettings;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.QueryResult;
+
+/**
+ * Radec file export and import in memory: RaDecFileWriter line compile and
+ * RaDecFileReader QueryResult compile, no file i/o.
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RaDecBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RaDecBenchmark {
+
+	@Param({ "100", "1500" })
+	public int nRows;
+
+	private RaDecFileWriter writer = null;
+	private RaDecFileReader reader = new RaDecFileReader();
+	private QueryResult result = null;
+	private List<String> radecLines = null;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		CatalogSettings settings = new CatalogSettings();
+		settings.setTargetMagSpinnerValue(12.5);
+		result = new QueryResult(new CatalogQuery(), settings);
+		result.appendFieldObjects(BenchmarkFixtures.randomFieldObjects(nRows, 12345));
+		result.applySelectedSort();
+
+		// aperture ids as assigned by catalog table
+		int counter = 2;
+		for (FieldObject fo : result.getFieldObjects()) {
+			if (!fo.isTarget()) {
+				fo.setApertureId(String.format("C%02d", counter++));
+			}
+		}
+
+		// writer lines embed '\n', split as read from file
+		writer = new RaDecFileWriter();
+		radecLines = Arrays.asList(String.join("", writer.compileRaDecList(result)).split("\n"));
+	}
+
+	// QueryResult => radec lines
+	@Benchmark
+	public List<String> compileRaDecList() {
+		return writer.compileRaDecList(result);
+	}
+
+	// radec lines => QueryResult
+	@Benchmark
+	public QueryResult compileRaDecResult() {
+		return reader.compileRaDecResult(radecLines);
+	}
+}
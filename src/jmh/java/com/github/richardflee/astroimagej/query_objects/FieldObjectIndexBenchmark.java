@@ -0,0 +1,77 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Crowding check (any neighbour within 0.5') on every object of a 20k object
+ * field: FieldObjectIndex against the full pairwise separation scan it replaces.
+ * The full scan checks the first 500 objects only; scale by 40 for the whole
+ * field.
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FieldObjectIndexBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldObjectIndexBenchmark {
+
+	private static final int N_OBJECTS = 20000;
+	private static final int N_SCAN = 500;
+	private static final double RADIUS_AMIN = 0.5;
+
+	private List<FieldObject> fieldObjects = new ArrayList<>();
+
+	@Setup
+	public void setUp() {
+		// random field objects in 2 deg box around wasp12
+		Random random = new Random(12345);
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			double decDeg = 29.672 + 2.0 * (random.nextDouble() - 0.5);
+			double raHr = 6.508 + 2.0 * (random.nextDouble() - 0.5) / 15.0;
+			fieldObjects.add(new FieldObject(String.format("fo%05d", idx), raHr, decDeg, 12.0, 0.05));
+		}
+	}
+
+	// index build plus one crowding check per object
+	@Benchmark
+	public int indexedCrowdingCheck() {
+		FieldObjectIndex index = new FieldObjectIndex(fieldObjects);
+		int nCrowded = 0;
+		for (FieldObject fo : fieldObjects) {
+			nCrowded += index.isCrowded(fo, RADIUS_AMIN) ? 1 : 0;
+		}
+		return nCrowded;
+	}
+
+	@Benchmark
+	public int fullScanCrowdingCheck() {
+		int nCrowded = 0;
+		for (int idx = 0; idx < N_SCAN; idx++) {
+			FieldObject fo = fieldObjects.get(idx);
+			int nNeighbours = 0;
+			for (FieldObject other : fieldObjects) {
+				other.computeRadSepAmin(fo);
+				nNeighbours += (other != fo && other.getRadSepAmin() <= RADIUS_AMIN) ? 1 : 0;
+			}
+			nCrowded += (nNeighbours > 0) ? 1 : 0;
+		}
+		return nCrowded;
+	}
+}
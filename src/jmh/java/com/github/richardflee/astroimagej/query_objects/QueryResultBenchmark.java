@@ -0,0 +1,102 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.richardflee.astroimagej.BenchmarkFixtures;
+
+/**
+ * QueryResult append, sort and filter over 100 (VSP), 1500 (APASS max records)
+ * and 50000 (tiled / extract query) field objects.
+ *
+ * <p>Sort and filter benchmarks alternate settings on each invocation so that each
+ * call re-orders the table or changes accepted flags.</p>
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="QueryResultBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryResultBenchmark {
+
+	@Param({ "100", "1500", "50000" })
+	public int nRows;
+
+	private CatalogQuery query = new CatalogQuery();
+	private CatalogSettings settings = null;
+	private List<FieldObject> fieldObjects = null;
+	private QueryResult result = null;
+
+	private boolean isDistanceSort = true;
+	private boolean isTightFilter = true;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		settings = new CatalogSettings();
+		settings.setTargetMagSpinnerValue(12.5);
+		settings.setMagLimitsCheckBoxValue(true);
+		settings.setUpperLimitSpinnerValue(2.0);
+		settings.setLowerLimitSpinnerValue(-2.0);
+
+		fieldObjects = BenchmarkFixtures.randomFieldObjects(nRows, 12345);
+		result = new QueryResult(query, settings);
+		result.appendFieldObjects(fieldObjects);
+	}
+
+	// new result, computes distance & delta mag to target
+	@Benchmark
+	public QueryResult append() {
+		QueryResult appended = new QueryResult(query, settings);
+		appended.appendFieldObjects(fieldObjects);
+		return appended;
+	}
+
+	// new result, first distance sort
+	@Benchmark
+	public QueryResult appendAndSort() {
+		QueryResult sorted = new QueryResult(query, settings);
+		sorted.appendFieldObjects(fieldObjects);
+		sorted.applySelectedSort();
+		return sorted;
+	}
+
+	// toggles distance / delta mag sort option
+	@Benchmark
+	public List<FieldObject> toggleSort() {
+		isDistanceSort = !isDistanceSort;
+		result.getSettings().setDistanceRadioButtonValue(isDistanceSort);
+		result.getSettings().setDeltaMagRadioButtonValue(!isDistanceSort);
+		result.applySelectedSort();
+		return result.getFieldObjects();
+	}
+
+	// toggles nObs filter between 2 and 10 observations
+	@Benchmark
+	public int toggleFilters() {
+		isTightFilter = !isTightFilter;
+		result.getSettings().setnObsSpinnerValue(isTightFilter ? 10 : 2);
+		return result.applySelectedFilters();
+	}
+
+	// re-applies unchanged filter settings
+	@Benchmark
+	public int reapplyFilters() {
+		return result.applySelectedFilters();
+	}
+}
@@ -0,0 +1,136 @@
+package com.github.richardflee.astroimagej.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares AstroCoords sexagesimal codec with the String.format / String.split 
+ * conversions it replaces, over 1500 random coordinates (one APASS query).
+ * 
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AstroCoordsBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AstroCoordsBenchmark {
+
+	private static final int N_COORDS = 1500;
+
+	private double[] raHr = new double[N_COORDS];
+	private double[] decDeg = new double[N_COORDS];
+	private String[] raHms = new String[N_COORDS];
+	private String[] decDms = new String[N_COORDS];
+	private StringBuilder sb = new StringBuilder(32);
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(12345);
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			raHr[idx] = 24.0 * random.nextDouble();
+			decDeg[idx] = 180.0 * random.nextDouble() - 90.0;
+			raHms[idx] = AstroCoords.raHrToRaHms(raHr[idx]);
+			decDms[idx] = AstroCoords.decDegToDecDms(decDeg[idx]);
+		}
+	}
+
+	@Benchmark
+	public void formatStringFormat(Blackhole bh) {
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			bh.consume(formatRaHms(raHr[idx]));
+			bh.consume(formatDecDms(decDeg[idx]));
+		}
+	}
+
+	@Benchmark
+	public void formatAstroCoords(Blackhole bh) {
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			bh.consume(AstroCoords.raHrToRaHms(raHr[idx]));
+			bh.consume(AstroCoords.decDegToDecDms(decDeg[idx]));
+		}
+	}
+
+	@Benchmark
+	public void formatAstroCoordsReusedBuilder(Blackhole bh) {
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			sb.setLength(0);
+			AstroCoords.appendRaHms(sb, raHr[idx], true);
+			sb.append(',');
+			AstroCoords.appendDecDms(sb, decDeg[idx], true);
+			bh.consume(sb.length());
+		}
+	}
+
+	@Benchmark
+	public void parseStringSplit(Blackhole bh) {
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			bh.consume(parseRaHms(raHms[idx]));
+			bh.consume(parseDecDms(decDms[idx]));
+		}
+	}
+
+	@Benchmark
+	public void parseAstroCoords(Blackhole bh) {
+		for (int idx = 0; idx < N_COORDS; idx++) {
+			bh.consume(AstroCoords.raHmsToRaHr(raHms[idx]));
+			bh.consume(AstroCoords.decDmsToDecDeg(decDms[idx]));
+		}
+	}
+
+	// previous String.format implementation
+	private static String formatRaHms(Double raHr) {
+		double data = (raHr >= 0) ? raHr % 24 : (24 + raHr % 24);
+		int hh = (int) (1.0 * data);
+		int mm = (int) ((data - hh) * 60);
+		Double ss = 3600 * (data - hh) - 60 * mm;
+		return String.format("%02d", hh) + ":" + String.format("%02d", mm) + ":"
+				+ String.format("%5.2f", ss).replace(' ', '0');
+	}
+
+	private static String formatDecDms(Double decDeg) {
+		String sign = (decDeg >= 0) ? "+" : "-";
+		double data = (Math.abs(decDeg) > 90.0) ? 90.0 : Math.abs(decDeg);
+		int dd = (int) (1.0 * data);
+		int mm = (int) ((data - dd) * 60);
+		Double ss = ((data - dd) * 60 - mm) * 60;
+		return sign + String.format("%02d", dd) + ":" + String.format("%02d", mm) + ":"
+				+ String.format("%5.2f", ss).replace(' ', '0');
+	}
+
+	// previous String.split implementation
+	private static Double parseRaHms(String raHms) {
+		boolean isNegative = raHms.charAt(0) == '-';
+		String[] el = raHms.split(":");
+		double hh = Math.abs(Double.valueOf(el[0]));
+		double mm = Double.valueOf(el[1]) % 60;
+		double ss = Double.valueOf(el[2]) % 60;
+		double raHr = (hh + mm / 60 + ss / 3600) % 24;
+		return isNegative ? (24.0 - raHr) : raHr;
+	}
+
+	private static Double parseDecDms(String decDms) {
+		int sign = (decDms.charAt(0) == '-') ? -1 : 1;
+		String[] el = decDms.split(":");
+		double dd = Math.abs(Double.valueOf(el[0]));
+		if (dd > 90) {
+			return sign * 90.0;
+		}
+		double mm = Double.valueOf(el[1]) % 60;
+		double ss = Double.valueOf(el[2]) % 60;
+		return sign * (dd + mm / 60 + ss / 3600);
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.jfree.data.time.Minute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+
+/**
+ * Compares VisibilityEngine 24 hr alt-azm series with the per-minute
+ * AltAzmGenerator loop it replaces (1440 samples, wasp 12 from Moore obsy).
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="VisibilityBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VisibilityBenchmark {
+
+	private ObservationSite site;
+	private BaseFieldObject fo;
+	private LocalDate civilDate = LocalDate.of(2019, 1, 1);
+	private VisibilityEngine engine;
+
+	@Setup
+	public void setUp() {
+		site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		fo = new BaseFieldObject("wasp12", 6.509110, 29.672297);
+		engine = new VisibilityEngine(site);
+	}
+
+	@Benchmark
+	public void perMinuteGenerator(Blackhole bh) {
+		AltAzmGenerator gen = new AltAzmGenerator(fo, site);
+		Minute current = TimesConverter
+				.convertCivilDateTimeToMinute(LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON));
+		for (int idx = 0; idx < VisibilityEngine.N_SAMPLES; idx++) {
+			bh.consume(gen.getAltAzmObject(current));
+			current = (Minute) current.next();
+		}
+	}
+
+	@Benchmark
+	public AltAzmSeries visibilityEngine() {
+		return engine.compute(fo, civilDate);
+	}
+}
@@ -0,0 +1,64 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.VisibilityWindow;
+
+/**
+ * VisibilityPlanner run time for 1000 random targets over 30 nights at Moore
+ * obsy, 1 minute sampling, parallel and sequential target stages.
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="VisibilityPlannerBenchmark"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VisibilityPlannerBenchmark {
+
+	private static final int N_TARGETS = 1000;
+	private static final int N_NIGHTS = 30;
+
+	@Param({ "true", "false" })
+	public boolean parallel;
+
+	private List<BaseFieldObject> targets = new ArrayList<>();
+	private LocalDate firstNight = LocalDate.of(2021, 1, 1);
+	private VisibilityPlanner planner;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(12345);
+		for (int idx = 0; idx < N_TARGETS; idx++) {
+			targets.add(new BaseFieldObject(String.format("target%04d", idx), 24.0 * random.nextDouble(),
+					120.0 * random.nextDouble() - 40.0));
+		}
+		planner = new VisibilityPlanner(new ObservationSite(-85.5, 38.33, 0.0, -5.0));
+		planner.setParallel(parallel);
+	}
+
+	@Benchmark
+	public List<VisibilityWindow> plan() {
+		return planner.plan(targets, firstNight, firstNight.plusDays(N_NIGHTS - 1));
+	}
+}
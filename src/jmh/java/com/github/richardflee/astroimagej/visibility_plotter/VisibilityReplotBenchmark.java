@@ -0,0 +1,91 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+
+/**
+ * Re-plots StarAlt and StarTrack charts for a new starting night, drawn to an
+ * off-screen image at dialog size: new charts per plot against dataset swap in
+ * re-used charts (wasp 12 from Moore obsy, headless).
+ *
+ * <p>Run: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="VisibilityReplotBenchmark -prof gc"</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class VisibilityReplotBenchmark {
+
+	private ObservationSite site;
+	private BaseFieldObject fo;
+	private VisibilityEngine engine;
+	private EphemerisService ephemeris;
+	private StarAltPlotter altPlotter;
+	private StarTrackPlotter trackPlotter;
+	private BufferedImage image;
+	private Graphics2D g2;
+	private LocalDate civilDate = LocalDate.of(2019, 1, 1);
+
+	@Setup
+	public void setUp() {
+		site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		fo = new BaseFieldObject("wasp12", 6.509110, 29.672297);
+		engine = new VisibilityEngine(site);
+		ephemeris = new EphemerisService();
+		altPlotter = new StarAltPlotter();
+		trackPlotter = new StarTrackPlotter();
+		image = new BufferedImage(1000, 750, BufferedImage.TYPE_INT_RGB);
+		g2 = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g2.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage newCharts() {
+		return plot(new StarAltPlotter(), new StarTrackPlotter());
+	}
+
+	@Benchmark
+	public BufferedImage swapDatasets() {
+		return plot(altPlotter, trackPlotter);
+	}
+
+	// next night each call, series & sun times computed as VisibilityPlotter background task
+	private BufferedImage plot(StarAltPlotter alt, StarTrackPlotter track) {
+		civilDate = civilDate.plusDays(1);
+		AltAzmSeries series = engine.compute(fo, civilDate);
+		SolarTimes solarTimes = ephemeris.getCivilSunTimes(site, civilDate);
+		String title = VisibilityPlotter.getChartTitle(series.getObjectId(), civilDate);
+
+		alt.update(title, StarAltPlotter.createData(series), solarTimes);
+		track.update(title, StarTrackPlotter.createData(series), series);
+		alt.getChart().draw(g2, new Rectangle2D.Double(0, 0, 1000, 750));
+		track.getChart().draw(g2, new Rectangle2D.Double(0, 0, 750, 750));
+		return image;
+	}
+}
@@ -2,10 +2,15 @@ package com.github.richardflee.astroimagej.catalog_ui;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
+import com.github.richardflee.astroimagej.catalogs.ApassCatalog;
 import com.github.richardflee.astroimagej.catalogs.AstroCatalog;
 import com.github.richardflee.astroimagej.catalogs.CatalogFactory;
+import com.github.richardflee.astroimagej.catalogs.FederatedCatalog;
 import com.github.richardflee.astroimagej.catalogs.SimbadCatalog;
 import com.github.richardflee.astroimagej.catalogs.VspCatalog;
 import com.github.richardflee.astroimagej.exceptions.SimbadNotFoundException;
@@ -13,6 +18,7 @@ import com.github.richardflee.astroimagej.fileio.DssFitsWriter;
 import com.github.richardflee.astroimagej.fileio.PropertiesFileIO;
 import com.github.richardflee.astroimagej.fileio.RaDecFileReader;
 import com.github.richardflee.astroimagej.fileio.RaDecFileWriter;
+import com.github.richardflee.astroimagej.fileio.SimbadCache;
 import com.github.richardflee.astroimagej.listeners.CatalogDataListener;
 import com.github.richardflee.astroimagej.listeners.CatalogTableListener;
 import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
@@ -23,8 +29,9 @@ import com.github.richardflee.astroimagej.query_objects.ObservationSite;
 import com.github.richardflee.astroimagej.query_objects.QueryResult;
 import com.github.richardflee.astroimagej.query_objects.SimbadResult;
 import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+import com.github.richardflee.astroimagej.query_objects.VspResult;
 import com.github.richardflee.astroimagej.utils.AstroCoords;
-import com.github.richardflee.astroimagej.visibility_plotter.Solar;
+import com.github.richardflee.astroimagej.visibility_plotter.EphemerisService;
 import com.github.richardflee.astroimagej.visibility_plotter.VisibilityPlotter;
 
 /**
@@ -46,6 +53,9 @@ public class ActionHandler {
 	private PropertiesFileIO propertiesFile = null;
 	private RaDecFileReader radecFileReader = null;
 	private RaDecFileWriter fileWriter = null;
+	
+	// persistent cache of SIMBAD query results
+	private SimbadCache simbadCache = null;
 
 	// star chart with selected aperture overlay
 	private VspChart vspChart = null;
@@ -53,10 +63,14 @@ public class ActionHandler {
 		
 	// visibility plot
 	private ObservationSite site = null;
-	private Solar solar = null;
+	private EphemerisService ephemeris = null;
+	private VisibilityPlotter visPlotter = null;
 	
 	// observation date
 	private LocalDate startingNight = null;
+	
+	// runs network and file operations off the EDT
+	private CatalogTaskExecutor tasks = null;
 
 
 	private final String QUERY_SETTINGS_ERROR = "ERROR: Invalid input in Catalog Query settings text field";
@@ -73,14 +87,48 @@ public class ActionHandler {
 		this.fileWriter = new RaDecFileWriter();
 		this.radecFileReader = new RaDecFileReader();
 		
+		// SIMBAD results cache, cache file in properties file folder
+		this.simbadCache = new SimbadCache(propertiesFile);
+		
 		this.site = propertiesFile.getObservationSiteData();
-		this.solar = new Solar(site);
+		this.ephemeris = new EphemerisService();
+		
+		// visibility plot dialogs, re-plotted on each plot visibility press
+		this.visPlotter = new VisibilityPlotter(this.site, this.ephemeris);
 		
 		// creates vsp star chart with aperture overlay
 		this.vspChart = new VspChart();
 		
 		// initialise starting night to today
 		this.startingNight = LocalDate.now();
+		
+		this.tasks = new CatalogTaskExecutor();
+	}
+	
+	/**
+	 * Configures listener notified on the EDT when a background task starts (true) and 
+	 * ends (false)
+	 * 
+	 * @param busyListener e.g. catalog ui cancel button state
+	 */
+	public void setBusyListener(Consumer<Boolean> busyListener) {
+		this.tasks.setBusyListener(busyListener);
+	}
+	
+	/**
+	 * @return true if a background task is running
+	 */
+	public boolean isBusy() {
+		return this.tasks.isBusy();
+	}
+	
+	/**
+	 * Cancels running background task, aborting in-flight on-line queries
+	 */
+	public void doCancel() {
+		if (tasks.cancel()) {
+			catalogDataListener.updateStatus("Cancelling ...");
+		}
 	}
 
 	/**
@@ -105,6 +153,8 @@ public class ActionHandler {
 	 * Runs an objectId-based query on Simbad on-line database. 
 	 * 
 	 * <p>Updates Simbad fields with search results or with "." if no match was found</p>
+	 * 
+	 * <p>Cached results are used without querying the SIMBAD database</p>
 	 */
 	public void doSimbadQuery() {
 		SimbadCatalog simbad = new SimbadCatalog();
@@ -115,21 +165,35 @@ public class ActionHandler {
 			catalogDataListener.updateStatus(QUERY_SETTINGS_ERROR);
 			return;
 		}
-
-		// run simbad query, raises EimbadNotFound exception if no match to user input
-		// objectId
-		try {
-			simbadResult = simbad.runQuery(query);
-		} catch (SimbadNotFoundException se) {
-			simbadResult = null;
+		
+		// cached result for this objectId
+		simbadResult = simbadCache.get(query.getObjectId());
+		if (simbadResult != null) {
+			catalogDataListener.setSimbadData(simbadResult);
+			String statusMessage = String.format("Simbad cached data for ObjectID: %s", query.getObjectId());
+			catalogDataListener.updateStatus(statusMessage);
+			return;
 		}
 
-		// update catalog ui with simbad results
-		// "." in simbad fields indicates no match found
-		catalogDataListener.setSimbadData(simbadResult);
-
-		String statusMessage = simbad.getStatusMessage();
-		catalogDataListener.updateStatus(statusMessage);
+		// run simbad query in background, raises EimbadNotFound exception if no match to user input
+		// objectId
+		catalogDataListener.updateStatus(String.format("Running SIMBAD query for ObjectID: %s", query.getObjectId()));
+		tasks.submit(() -> {
+			try {
+				SimbadResult downloadResult = simbad.runQuery(query);
+				simbadCache.put(downloadResult);
+				return downloadResult;
+			} catch (SimbadNotFoundException se) {
+				return null;
+			}
+		}, downloadResult -> {
+			// update catalog ui with simbad results
+			// "." in simbad fields indicates no match found
+			catalogDataListener.setSimbadData(downloadResult);
+	
+			String statusMessage = simbad.getStatusMessage();
+			catalogDataListener.updateStatus(statusMessage);
+		}, this::taskError);
 	}
 
 	/**
@@ -146,8 +210,8 @@ public class ActionHandler {
 		// import catalog ui target mag and save
 		CatalogSettings settings = catalogDataListener.getSettingsData();
 
-		String statusMessage = propertiesFile.setPropertiesFileData(query, settings);
-		catalogDataListener.updateStatus(statusMessage);
+		tasks.submit(() -> propertiesFile.setPropertiesFileData(query, settings), 
+				statusMessage -> catalogDataListener.updateStatus(statusMessage), this::taskError);
 	}
 
 	/**
@@ -165,39 +229,105 @@ public class ActionHandler {
 		// default settings with catalog ui target mag
 		// assemble catalog result with default settings & targe mag
 		double targetMag = catalogDataListener.getSettingsData().getTargetMagSpinnerValue();
-		this.result = new QueryResult(query, new CatalogSettings(targetMag));
-
+		QueryResult queryResult = new QueryResult(query, new CatalogSettings(targetMag));
+
+		// table rows restored if partial APASS rows are shown and query fails
+		QueryResult previousResult = this.result;
+
+		catalogDataListener.updateStatus(String.format("Running %s query ...", query.getCatalogType()));
+		tasks.submit(() -> runCatalogQuery(query, queryResult), outcome -> {
+			this.result = queryResult;
+			if (outcome.isLoaded) {
+				// applies current sort and default filter settings, populates catalog table
+				// with full dataset
+				updateCatalogTable(this.result);
+		
+				// set catalog ui default settings, retaining current target spinner value
+				catalogDataListener.setSettingsData(result.getSettings());
+		
+				// draws new chart, closing any chart that is already open
+				this.vspChart.showChart(result);
+			} else {
+				restoreCatalogTable(previousResult);
+			}
+			// status message
+			catalogDataListener.updateStatus(outcome.statusMessage);
+		}, e -> {
+			restoreCatalogTable(previousResult);
+			taskError(e);
+		});
+	}
+	
+	// catalog query status, isLoaded false if query failed
+	private static class QueryOutcome {
+		private boolean isLoaded = false;
+		private String statusMessage = null;
+	}
+	
+	/*
+	 * Runs on-line catalog query and downloads VSP chart uri, runs on background thread
+	 * 
+	 * @param query catalog query parameters
+	 * @param queryResult result to append query field objects and chart uri
+	 * @return query outcome: loaded flag and catalog status message
+	 */
+	private QueryOutcome runCatalogQuery(CatalogQuery query, QueryResult queryResult) {
 		// runs query on selected on-line catalog, retruns list of field objects
 		// append this list to CatalogResut object
-		AstroCatalog catalog = CatalogFactory.createCatalog(query.getCatalogType());
-		List<FieldObject> fieldObjects = catalog.runQuery(query);
-		
-		if (fieldObjects != null) {
-			result.appendFieldObjects(fieldObjects);
+		AstroCatalog catalog = CatalogFactory.createCatalog(query);
+		List<FieldObject> fieldObjects = null;
+		String chartUri = null;
+		if (catalog instanceof VspCatalog) {
+			// field objects & chart uri from single VSP request
+			VspResult vspResult = ((VspCatalog) catalog).runVspQuery(query);
+			fieldObjects = vspResult.getFieldObjects();
+			chartUri = vspResult.getChartUri();
+		} else if (catalog instanceof FederatedCatalog) {
+			// parallel VSP & APASS queries, chart uri from VSP response
+			fieldObjects = catalog.runQuery(query);
+			chartUri = ((FederatedCatalog) catalog).getChartUri();
+		} else {
+			if (catalog instanceof ApassCatalog) {
+				// appends APASS chunk records to catalog table after target row as chunks are merged, 
+				// table sorted and filtered when query completes
+				FieldObject target = queryResult.getTargetObject();
+				List<FieldObject> loadingRows = new ArrayList<>();
+				loadingRows.add(target);
+				((ApassCatalog) catalog).setProgressListener((chunkObjects, nLoaded, nChunksDone, nChunks) -> {
+					for (FieldObject fo : chunkObjects) {
+						fo.computeRadSepAmin(target);
+						fo.computeDeltaMag(target.getMag());
+					}
+					CatalogTaskExecutor.onEdt(() -> {
+						loadingRows.addAll(chunkObjects);
+						catalogTableListener.updateTable(loadingRows);
+						catalogDataListener.updateStatus(String.format("Loading APASS records: %d, sky chunk %d of %d", 
+								nLoaded, nChunksDone, nChunks));
+					});
+				});
+			}
+			fieldObjects = catalog.runQuery(query);
 			
 			// downloads VSP chart for current query parameters
 			// Example chart X26835JN: 
 			// wasp12 / 06:30:32.80 / 29:40:20.3 / 10' fov / maglimit = 18.5 / N- E = up-left
-			VspCatalog vspChart = new VspCatalog();
-			String chartUri = vspChart.downloadVspChart(query);
-			result.setChartUri(chartUri);
-	
-			// applies current sort and default filter settings, populates catalog table
-			// with full dataset
-			updateCatalogTable(this.result);
-	
-			// set catalog ui default settings, retaining current target spinner value
-			catalogDataListener.setSettingsData(result.getSettings());
-	
-			// draws new chart, closing any chart that is already open
-			this.vspChart.showChart(result);
+			if (fieldObjects != null) {
+				VspCatalog vspChart = new VspCatalog();
+				chartUri = vspChart.downloadVspChart(query);
+			}
+		}
+		
+		QueryOutcome outcome = new QueryOutcome();
+		if (fieldObjects != null) {
+			queryResult.appendFieldObjects(fieldObjects);
+			queryResult.setChartUri(chartUri);
 			
-			// saves query & c
+			// preloads chart image
+			this.vspChart.loadChart(queryResult.getChartUri());
+			outcome.isLoaded = true;
 		}
-
-		// status message
-		String statusMessage = catalog.getStatusMessage();
-		catalogDataListener.updateStatus(statusMessage);
+		outcome.statusMessage = catalog.getStatusMessage();
+		return outcome;
 	}
 
 	/**
@@ -207,22 +337,28 @@ public class ActionHandler {
 	 * <p> Example: ./astroimagej/radec/wasp_12.Rc.020.radec.txt </p>
 	 */
 	public void doSaveRaDecFile() {
-		// writes radec with accepted (i.e. meet user filter specs) and selected records
-		this.fileWriter.writeRaDecFile(result);
-		String message = fileWriter.getStatusMessage();
-
 		// reverts catalog ui to query & settings used for on-line query
-		catalogDataListener.setQueryData(result.getQuery());
-		catalogDataListener.setSettingsData(result.getSettings());
+		QueryResult saveResult = this.result;
+		catalogDataListener.setQueryData(saveResult.getQuery());
+		catalogDataListener.setSettingsData(saveResult.getSettings());
+		boolean isSaveDss = catalogDataListener.getSettingsData().isSaveDssCheckBoxValue();
 		
-		// option to download dss fits file from SkyView server
-		String dssMessage = "DSS Fits file option not selected";
-		if (catalogDataListener.getSettingsData().isSaveDssCheckBoxValue() == true) {
-			dssMessage = DssFitsWriter.downloadDssFits(result.getQuery());
-		} 
-
-		// status line
-		catalogDataListener.updateStatus(message + "; " + dssMessage);
+		catalogDataListener.updateStatus("Saving radec file ...");
+		tasks.submit(() -> {
+			// writes radec with accepted (i.e. meet user filter specs) and selected records
+			this.fileWriter.writeRaDecFile(saveResult);
+			String message = fileWriter.getStatusMessage();
+			
+			// option to download dss fits file from SkyView server
+			String dssMessage = "DSS Fits file option not selected";
+			if (isSaveDss == true) {
+				dssMessage = DssFitsWriter.downloadDssFits(saveResult.getQuery(), (nBytes, totalBytes) -> 
+					CatalogTaskExecutor.onEdt(() -> catalogDataListener.updateStatus((totalBytes > 0)
+						? String.format("Downloading DSS fits file: %d of %d kB", nBytes / 1024, totalBytes / 1024)
+						: String.format("Downloading DSS fits file: %d kB", nBytes / 1024))));
+			}
+			return message + "; " + dssMessage;
+		}, statusMessage -> catalogDataListener.updateStatus(statusMessage), this::taskError);
 	}
 
 	/**
@@ -230,16 +366,27 @@ public class ActionHandler {
 	 * creates a new query object.
 	 */
 	public void doImportRaDecFile() {
-		// import radec file and map to catalog result object
-		QueryResult radecResult = radecFileReader.importRaDecResult();
-
-		// user pressed cancel, update status message and exit
-		if (radecResult == null) {
+		// user selects radec file, pressed cancel: update status message and exit
+		File radecFile = radecFileReader.selectRaDecFile();
+		if (radecFile == null) {
 			String message = radecFileReader.getStatusMessage();
 			catalogDataListener.updateStatus(message);
 			return;
 		}
 
+		// import radec file in background and map to catalog result object, preloads chart image
+		catalogDataListener.updateStatus(String.format("Importing radec file %s ...", radecFile.getName()));
+		tasks.submit(() -> {
+			QueryResult radecResult = radecFileReader.importRaDecResult(radecFile);
+			this.vspChart.loadChart(radecResult.getChartUri());
+			return radecResult;
+		}, radecResult -> showRaDecResult(radecResult), this::taskError);
+	}
+	
+	/*
+	 * Maps imported radec data to catalog table and ui controls
+	 */
+	private void showRaDecResult(QueryResult radecResult) {
 		// references new QueryResult object
 		this.result = radecResult;
 
@@ -316,7 +463,6 @@ public class ActionHandler {
 		
 //		this.visplot.showChart(targetObject, startingNight);
 //		
-		VisibilityPlotter visPlotter = new VisibilityPlotter(this.site);
 		visPlotter.plotVisiblityCharts(targetObject, startingNight);
 		
 
@@ -329,13 +475,29 @@ public class ActionHandler {
 	public void doNewDate(LocalDate currentDate) {
 		if (currentDate != null) {
 			this.startingNight = currentDate;
-			SolarTimes solarTimes = solar.getCivilSunTimes(currentDate);
+			SolarTimes solarTimes = ephemeris.getCivilSunTimes(this.site, currentDate);
 			catalogDataListener.setSolarTimes(solarTimes);	
 		}
 	}
 	
 	
 
+	/*
+	 * Reports background task error or user cancel in status line
+	 */
+	private void taskError(RuntimeException e) {
+		String statusMessage = (e instanceof CancellationException) ? "Cancelled by user"
+				: String.format("ERROR: %s", e.getMessage());
+		catalogDataListener.updateStatus(statusMessage);
+	}
+
+	/*
+	 * Replaces partial query rows with table rows of previous result, clears table if null
+	 */
+	private void restoreCatalogTable(QueryResult previousResult) {
+		catalogTableListener.updateTable((previousResult == null) ? null : previousResult.getFieldObjects());
+	}
+
 	/*
 	 * Sorts QueryResult result object records relative to target object. <p>Sort
 	 * options are radial distance or difference in magnitude values.</p>
@@ -1,7 +1,10 @@
 package com.github.richardflee.astroimagej.catalog_ui;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -50,39 +53,89 @@ public class CatalogTableModel extends AbstractTableModel implements CatalogTabl
 	 * Overrides CatalogTableListener -> updateTable() method.
 	 * <p>Clears table if new data is null,  otherwise updates table with new currentTableRows data</p>
 	 * 
+	 * <p>If row order is unchanged, e.g. after a filter change, only rows removed or added by 
+	 * the filter are deleted or inserted. A change of sort order replaces all table rows.</p>
+	 * 
 	 * @param new data set comprising first row target data then series of reference row data
 	 */
 	@Override
 	public void updateTable(List<FieldObject> currentTableRows) {
-		// repeat delete top row (index 0) until table is empty
-		int LastRow = tableRows.size();
-		while (tableRows.size() > 0) {
-			tableRows.remove(0);
-		}
-		fireTableRowsDeleted(0, LastRow);
-		
-		// update table with accept = true field objects
+		// accept = true field objects
+		List<FieldObject> newRows = new ArrayList<>();
 		if (currentTableRows != null) {
-			int idx = 0;
 			for (FieldObject tableRow : currentTableRows) {
 				if (tableRow.isAccepted()) {
-					addItem(idx, tableRow);
-					idx++;
+					newRows.add(tableRow);
 				}
 			}
-			updateApertureId();
 		}
-	}
 
-	/**
-	 * add row to table at row number idx & update
-	 * 
-	 * @param idx row number to inset new row 
-	 * @param tableRow new row data
+		if (newRows.isEmpty() || !updateRows(newRows)) {
+			tableRows = newRows;
+			fireTableDataChanged();
+		}
+		updateApertureId();
+	}
+	
+	/*
+	 * Deletes and inserts runs of rows to match newRows. Returns false with no change if
+	 * rows common to both lists are in a different order.
 	 */
-	private void addItem(int idx, FieldObject tableRow) {
-		tableRows.add(idx, tableRow);
-		fireTableRowsInserted(idx, idx);
+	private boolean updateRows(List<FieldObject> newRows) {
+		Set<FieldObject> newSet = Collections.newSetFromMap(new IdentityHashMap<>(2 * newRows.size()));
+		newSet.addAll(newRows);
+		
+		// old rows retained in new table
+		Set<FieldObject> oldSet = Collections.newSetFromMap(new IdentityHashMap<>(2 * tableRows.size()));
+		for (FieldObject row : tableRows) {
+			if (newSet.contains(row)) {
+				oldSet.add(row);
+			}
+		}
+		
+		// retained rows must be in same order
+		int next = 0;
+		for (FieldObject row : newRows) {
+			if (oldSet.contains(row)) {
+				while (!newSet.contains(tableRows.get(next))) {
+					next++;
+				}
+				if (tableRows.get(next++) != row) {
+					return false;
+				}
+			}
+		}
+		
+		// delete runs of old rows, last run first
+		int row = tableRows.size() - 1;
+		while (row >= 0) {
+			if (oldSet.contains(tableRows.get(row))) {
+				row--;
+				continue;
+			}
+			int last = row;
+			while (row >= 0 && !oldSet.contains(tableRows.get(row))) {
+				row--;
+			}
+			tableRows.subList(row + 1, last + 1).clear();
+			fireTableRowsDeleted(row + 1, last);
+		}
+		
+		// insert runs of new rows, first run first
+		row = 0;
+		while (row < newRows.size()) {
+			if (oldSet.contains(newRows.get(row))) {
+				row++;
+				continue;
+			}
+			int first = row;
+			while (row < newRows.size() && !oldSet.contains(newRows.get(row))) {
+				row++;
+			}
+			tableRows.addAll(first, newRows.subList(first, row));
+			fireTableRowsInserted(first, row - 1);
+		}
+		return true;
 	}
 
 
@@ -164,18 +217,24 @@ public class CatalogTableModel extends AbstractTableModel implements CatalogTabl
 	
 	/*
 	 * Updates aperture id values when user selects or deselects use_col checkbox.
-	 * No update to target aperture T01 
+	 * No update to target aperture T01, update event only for rows with changed aperture id
 	 */
 	private void updateApertureId() {
 		int counter = 2;
+		int firstChanged = -1;
+		int lastChanged = -1;
 		for (int row = 1; row < tableRows.size(); row++) {
 			FieldObject objectRow = tableRows.get(row);
-			boolean isSelected = (Boolean) getValueAt(row, USE_COL);
-
-			String apNum = isSelected ? String.format("C%02d", counter++) : "";
-			objectRow.setApertureId(apNum);
-			objectRow.setSelected(isSelected);
-			fireTableRowsUpdated(row, row);
+			String apNum = objectRow.isSelected() ? String.format("C%02d", counter++) : "";
+			if (!apNum.equals(objectRow.getApertureId())) {
+				objectRow.setApertureId(apNum);
+				firstChanged = (firstChanged < 0) ? row : firstChanged;
+				lastChanged = row;
+			}
+		}
+		// single update event spanning changed rows
+		if (firstChanged > 0) {
+			fireTableRowsUpdated(firstChanged, lastChanged);
 		}
 	}
 
@@ -0,0 +1,178 @@
+package com.github.richardflee.astroimagej.catalog_ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
+import com.github.richardflee.astroimagej.utils.CatalogTransport.RequestScope;
+
+/**
+ * Runs catalog ui network and file operations on a background thread, one task
+ * at a time. <p>Task results are published on the Swing event dispatch thread
+ * (EDT); a cancelled task publishes a CancellationException in place of its
+ * result.</p>
+ *
+ * <p>Cancel interrupts the task thread and aborts the catalog requests sent by
+ * that task, including requests from fetch threads the task creates; requests
+ * made outside the task are not affected.</p>
+ */
+public class CatalogTaskExecutor {
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	// daemon threads do not block application exit
+	private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "catalog-task-" + THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// running task, cleared on EDT when task result is published
+	private TaskHandle currentTask = null;
+
+	// notified on EDT when task starts (true) and ends (false), may be null
+	private Consumer<Boolean> busyListener = null;
+
+	// task thread, catalog requests & cancel flag
+	private static class TaskHandle {
+		private Thread thread = null;
+		private RequestScope scope = new RequestScope();
+		private boolean isCancelled = false;
+	}
+
+	/**
+	 * Sets listener notified on the EDT when a task starts and ends, e.g. to
+	 * enable a cancel button
+	 *
+	 * @param busyListener accepts true when task starts, false when task ends
+	 */
+	public void setBusyListener(Consumer<Boolean> busyListener) {
+		this.busyListener = busyListener;
+	}
+
+	/**
+	 * Runs task on the background thread and passes its result to the done
+	 * handler on the EDT. Task exceptions, and CancellationException for a
+	 * cancelled task, are passed to the error handler on the EDT.
+	 *
+	 * @param task background work, must not access Swing components
+	 * @param done receives task result on the EDT
+	 * @param error receives task exception on the EDT
+	 * @return true if task was submitted, false if a task is already running
+	 */
+	public synchronized <T> boolean submit(Supplier<T> task, Consumer<T> done, Consumer<RuntimeException> error) {
+		if (currentTask != null) {
+			return false;
+		}
+		TaskHandle handle = new TaskHandle();
+		currentTask = handle;
+		notifyBusy(true);
+		executor.execute(() -> {
+			T result = null;
+			RuntimeException exception = null;
+			try {
+				if (startTask(handle)) {
+					result = task.get();
+				}
+			} catch (RuntimeException e) {
+				exception = e;
+			} finally {
+				endTask(handle);
+			}
+			publish(handle, result, exception, done, error);
+		});
+		return true;
+	}
+
+	/**
+	 * Cancels running task: interrupts task thread and aborts the task's in-flight
+	 * catalog requests
+	 *
+	 * @return true if a running task was cancelled
+	 */
+	public synchronized boolean cancel() {
+		if (currentTask == null || currentTask.isCancelled) {
+			return false;
+		}
+		currentTask.isCancelled = true;
+		if (currentTask.thread != null) {
+			currentTask.thread.interrupt();
+		}
+		currentTask.scope.abort();
+		return true;
+	}
+
+	/**
+	 * @return true if a task is running or its result is not yet published
+	 */
+	public synchronized boolean isBusy() {
+		return currentTask != null;
+	}
+
+	/**
+	 * Runs action on the EDT: immediately if called on the EDT, otherwise
+	 * queued with invokeLater
+	 *
+	 * @param action ui update
+	 */
+	public static void onEdt(Runnable action) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			action.run();
+		} else {
+			SwingUtilities.invokeLater(action);
+		}
+	}
+
+	// registers task thread & request scope for cancel, false if cancelled before start
+	private synchronized boolean startTask(TaskHandle handle) {
+		handle.thread = Thread.currentThread();
+		CatalogTransport.setRequestScope(handle.scope);
+		return !handle.isCancelled;
+	}
+
+	// deregisters task thread & request scope, clears interrupt from cancel
+	private synchronized void endTask(TaskHandle handle) {
+		handle.thread = null;
+		CatalogTransport.setRequestScope(null);
+		Thread.interrupted();
+	}
+
+	/*
+	 * Publishes task result or exception on EDT, then notifies busy listener
+	 */
+	private <T> void publish(TaskHandle handle, T result, RuntimeException exception, Consumer<T> done,
+			Consumer<RuntimeException> error) {
+		SwingUtilities.invokeLater(() -> {
+			try {
+				if (isCancelled(handle)) {
+					error.accept(new CancellationException("Task cancelled"));
+				} else if (exception != null) {
+					error.accept(exception);
+				} else {
+					done.accept(result);
+				}
+			} finally {
+				synchronized (this) {
+					currentTask = null;
+				}
+				notifyBusy(false);
+			}
+		});
+	}
+
+	private synchronized boolean isCancelled(TaskHandle handle) {
+		return handle.isCancelled;
+	}
+
+	private void notifyBusy(boolean isBusy) {
+		if (busyListener != null) {
+			onEdt(() -> busyListener.accept(isBusy));
+		}
+	}
+}
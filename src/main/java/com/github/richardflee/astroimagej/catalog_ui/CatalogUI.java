@@ -74,6 +74,10 @@ public class CatalogUI extends JDialog implements CatalogDataListener {
 
 	// enable / disable catalog ui buttons flag
 	private boolean isTableData;
+	
+	// button that started running background task, shows Cancel while task runs
+	private JButton taskButton = null;
+	private String taskButtonText = null;
 
 	/**
 	 * Initialises catalog_ui object references
@@ -98,10 +102,14 @@ public class CatalogUI extends JDialog implements CatalogDataListener {
 
 		// configures button click events and query text input verifiers
 		setUpActionListeners();
+		
+		// toggles task button to Cancel while background task runs
+		this.handler.setBusyListener(isBusy -> setTaskBusy(isBusy));
 
 		// populate catalog combo
 		catalogCombo.addItem(CatalogsEnum.APASS.toString());
 		catalogCombo.addItem(CatalogsEnum.VSP.toString());
+		catalogCombo.addItem(CatalogsEnum.FEDERATED.toString());
 		
 		// start with Distance sort option selected
 		//distanceRadioButton.setSelected(true);
@@ -369,35 +377,20 @@ public class CatalogUI extends JDialog implements CatalogDataListener {
 	 * states
 	 */
 	private void setUpActionListeners() {
-		simbadButton.addActionListener(e -> {
-			handler.doSimbadQuery();
-			setButtonsEnabled(this.isTableData);			
-		});
+		simbadButton.addActionListener(e -> runTask(simbadButton, () -> handler.doSimbadQuery()));
 
-		saveQueryButton.addActionListener(e -> {
-			handler.doSaveQuerySettingsData();
-			setButtonsEnabled(this.isTableData);			
-		});
+		saveQueryButton.addActionListener(e -> runTask(saveQueryButton, () -> handler.doSaveQuerySettingsData()));
 
-		catalogQueryButton.addActionListener(e -> {
-			handler.doCatalogQuery();
-			setButtonsEnabled(this.isTableData);
-		});
+		catalogQueryButton.addActionListener(e -> runTask(catalogQueryButton, () -> handler.doCatalogQuery()));
 
 		updateButton.addActionListener(e -> {
 			handler.doUpdateTable();
 			setButtonsEnabled(this.isTableData);
 		});
 
-		saveRaDecButton.addActionListener(e -> {
-			handler.doSaveRaDecFile();
-			setButtonsEnabled(this.isTableData);			
-		});
+		saveRaDecButton.addActionListener(e -> runTask(saveRaDecButton, () -> handler.doSaveRaDecFile()));
 
-		importRaDecButton.addActionListener(e -> {
-			handler.doImportRaDecFile();
-			setButtonsEnabled(this.isTableData);
-		});
+		importRaDecButton.addActionListener(e -> runTask(importRaDecButton, () -> handler.doImportRaDecFile()));
 
 		clearButton.addActionListener(e -> {
 			handler.doClearTable();
@@ -425,6 +418,56 @@ public class CatalogUI extends JDialog implements CatalogDataListener {
 		catalogCombo.addItemListener(ie -> selectCatalog(ie));
 	}
 
+	/*
+	 * Runs button action, action starts a background task or updates ui directly.
+	 * Button click while its task is running cancels the task.
+	 * 
+	 * @param button button clicked
+	 * @param action handler action
+	 */
+	private void runTask(JButton button, Runnable action) {
+		if (handler.isBusy()) {
+			if (button == this.taskButton) {
+				handler.doCancel();
+			}
+			return;
+		}
+		this.taskButton = button;
+		action.run();
+		
+		// no background task started, e.g. invalid query input
+		if (!handler.isBusy()) {
+			this.taskButton = null;
+			setButtonsEnabled(this.isTableData);
+		}
+	}
+	
+	/*
+	 * Background task start: task button shows Cancel, other buttons disabled.
+	 * Task end: restores task button and data/no-data button states
+	 */
+	private void setTaskBusy(boolean isBusy) {
+		JButton[] buttons = { simbadButton, saveQueryButton, catalogQueryButton, updateButton, saveRaDecButton,
+				importRaDecButton, clearButton, visPlotterButton };
+		if (isBusy) {
+			for (JButton button : buttons) {
+				button.setEnabled(button == this.taskButton);
+			}
+			if (this.taskButton != null) {
+				this.taskButtonText = this.taskButton.getText();
+				this.taskButton.setText("Cancel");
+			}
+		} else {
+			if (this.taskButton != null) {
+				this.taskButton.setText(this.taskButtonText);
+				this.taskButton = null;
+			}
+			visPlotterButton.setEnabled(true);
+			importRaDecButton.setEnabled(true);
+			setButtonsEnabled(this.isTableData);
+		}
+	}
+
 	/*
 	 * Tests all input fileds are in range before compiling on-line database query
 	 * 
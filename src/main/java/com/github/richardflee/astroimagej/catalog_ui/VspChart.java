@@ -8,7 +8,7 @@ import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
 import java.util.List;
 
 import javax.imageio.ImageIO;
@@ -18,6 +18,7 @@ import javax.swing.JLabel;
 
 import com.github.richardflee.astroimagej.query_objects.FieldObject;
 import com.github.richardflee.astroimagej.query_objects.QueryResult;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
 
 /**
  * Plots VSP chart with apertures overlay on selected catalog table records
@@ -57,6 +58,10 @@ public class VspChart {
 	// status message
 	private String statusMessage = null;
 
+	// last downloaded chart, reused while chart uri is unchanged
+	private String cachedUri = null;
+	private BufferedImage cachedImage = null;
+
 	/**
 	 * Downloads and scales vsp chart
 	 * @param result
@@ -83,7 +88,7 @@ public class VspChart {
 		this.target = result.getTargetObject();
 
 		// downloads and scales vsp chart as buffered image; null if download fails
-		this.downloadImage = loadImage(chartUri);
+		this.downloadImage = loadChart(chartUri);
 		if (this.downloadImage == null) {
 			String statusMessage = String.format("ERROR: Error downoading chart: %s", chartUri);
 			setStatusMessage(statusMessage);
@@ -110,6 +115,28 @@ public class VspChart {
 		createChartDialog(scaledImage);
 	}
 
+	/**
+	 * Downloads chart image for chart uri unless already downloaded; may be called
+	 * on a background thread to preload the chart before showChart
+	 * 
+	 * @param chartUri vsp chart uri
+	 * @return reference to downloaded chart; null if download fails
+	 */
+	public synchronized BufferedImage loadChart(String chartUri) {
+		if (chartUri == null) {
+			return null;
+		}
+		if (chartUri.equals(this.cachedUri)) {
+			return this.cachedImage;
+		}
+		BufferedImage image = loadImage(chartUri);
+		if (image != null) {
+			this.cachedImage = image;
+			this.cachedUri = chartUri;
+		}
+		return image;
+	}
+
 	/**
 	 * Closes vsp chart
 	 */
@@ -166,8 +193,8 @@ public class VspChart {
 	 */
 	private BufferedImage loadImage(String chartUri) {
 		BufferedImage downloadImage = null;
-		try {
-			downloadImage = ImageIO.read(new URL(chartUri));
+		try (InputStream in = CatalogTransport.getDefault().openStream(chartUri)) {
+			downloadImage = ImageIO.read(in);
 		} catch (IOException ex) {
 		}
 		return downloadImage;
@@ -1,19 +1,28 @@
 package com.github.richardflee.astroimagej.catalogs;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
+import com.github.richardflee.astroimagej.enums.ApassEnum;
 import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.fileio.ApassTileCache;
+import com.github.richardflee.astroimagej.listeners.CatalogProgressListener;
 import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
 import com.github.richardflee.astroimagej.query_objects.CatalogSettings;
 import com.github.richardflee.astroimagej.query_objects.FieldObject;
 import com.github.richardflee.astroimagej.query_objects.QueryResult;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
 import com.github.richardflee.astroimagej.utils.CatalogUrls;
 
 /**
@@ -25,16 +34,71 @@ import com.github.richardflee.astroimagej.utils.CatalogUrls;
  * http://vizier.u-strasbg.fr/viz-bin/asu-tsv?-source=APASS9
  * &-c=97.63665417%20%2b29.67229722&-c.bm=60.0x60.0
  * &-out=_RAJ%20_DEJ%20nobs%20g%27mag%20e_g%27mag%20&-out.max=1500 </p>
+ * 
+ * <p>Without a tile cache, the fov is downloaded in a single request. With a
+ * tile cache, the fov is assembled from SkyTile records by magnitude band and
+ * only tiles missing from the cache are downloaded, in parallel. Downloads
+ * truncated at MAX_RECORDS records are split into smaller chunks.</p>
  */
 
 public class ApassCatalog implements AstroCatalog {
 
 	private String statusMessage = null;
 
-	private static final int N_FIELDS = 5;
+	// VizieR server base url
+	private String vizierUrl = null;
+
+	// APASS records cache, null to query VizieR for each fov
+	private ApassTileCache tileCache = null;
+
 	private final String VIZIER_APASS_CONNECTION_ERROR = "ERROR: Error in VIZIER.APASS internet connection";
+	
+	// default maximum number of records in query result
+	public static final int DEFAULT_MAX_RECORDS = 20000;
+	
+	// number of parallel VizieR requests
+	private static final int N_FETCH_THREADS = 4;
+	
+	private int maxRecords = DEFAULT_MAX_RECORDS;
+	
+	// receives records as each chunk is merged, may be null
+	private CatalogProgressListener progressListener = null;
+	
+	// records downloaded for a fov or tile chunk
+	private static class ChunkResult {
+		private QueryChunk chunk = null;
+		private int nDataLines = 0;
+		private List<FieldObject> fovObjects = new ArrayList<>();
+		private List<String> chunkLines = new ArrayList<>();
+		
+		private ChunkResult(QueryChunk chunk) {
+			this.chunk = chunk;
+		}
+	}
+	
+	// tile cache lines assembled from chunks
+	private static class TileAssembly {
+		private List<String> lines = new ArrayList<>();
+		private int nPending = 1;
+		private boolean isTruncated = false;
+	}
 
+	/**
+	 * Configures catalog for the on-line VizieR server with default tile cache
+	 */
 	public ApassCatalog() {
+		this(CatalogUrls.VIZIER_URL, new ApassTileCache());
+	}
+
+	/**
+	 * Configures catalog for the specified VizieR server and tile cache
+	 * 
+	 * @param vizierUrl base url of VizieR server, e.g. http://vizier.u-strasbg.fr/viz-bin
+	 * @param tileCache APASS tile cache, null to download the fov for each query
+	 */
+	public ApassCatalog(String vizierUrl, ApassTileCache tileCache) {
+		this.vizierUrl = vizierUrl;
+		this.tileCache = tileCache;
 	}
 
 	/**
@@ -46,13 +110,26 @@ public class ApassCatalog implements AstroCatalog {
 	 */
 	@Override
 	public List<FieldObject> runQuery(CatalogQuery query) {
-		// compiles url
-		String url = CatalogUrls.urlBuilder(query);
-		
-		// converts data lines to array field objects
-		List<FieldObject> fieldObjects = importApassData(url);
-		
-		return fieldObjects;
+		// single fov download, or fov assembled from cached and downloaded sky tiles
+		return importChunkedApassData(query);
+	}
+	
+	/**
+	 * Sets listener to receive records as each tile chunk is merged
+	 * 
+	 * @param progressListener progress listener, null for no updates
+	 */
+	public void setProgressListener(CatalogProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+	
+	/**
+	 * Sets maximum number of records in query result, records nearest fov centre are retained
+	 * 
+	 * @param maxRecords maximum number of records
+	 */
+	public void setMaxRecords(int maxRecords) {
+		this.maxRecords = maxRecords;
 	}
 	
 	/**
@@ -64,17 +141,16 @@ public class ApassCatalog implements AstroCatalog {
 	}
 	
 	/*
-	 * Compiles a list of field objects assembled from apass data line array
+	 * Decodes VizieR tab-separated response to a list of field objects
 	 * 
-	 * @param lines list of text data lines 
-	 * @return list of field objects
+	 * @param in response stream
+	 * @return list of field objects in response order
+	 * @throws IOException on read error
 	 */
-	private List<FieldObject> getFieldObjects(List<String> lines) { 
+	static List<FieldObject> decodeFieldObjects(InputStream in) throws IOException {
 		List<FieldObject> fieldObjects = new ArrayList<>();
-		for (String line : lines) {
-			FieldObject fo = compileFieldObject(line);
-			fieldObjects.add(fo);
-		}
+		new ApassTsvDecoder((raDeg, decDeg, nObs, mag, magErr) -> 
+				fieldObjects.add(compileFieldObject(raDeg, decDeg, nObs, mag, magErr))).decode(in);
 		return fieldObjects;
 	}
 	
@@ -83,26 +159,16 @@ public class ApassCatalog implements AstroCatalog {
 	 * 
 	 * <p>Auto-names APASS objects format: HHMMSSSS±DDMMSSSS</p>
 	 * 
-	 * @param line tab-delimited text data line
+	 * @param raDeg J2000 RA in degree
+	 * @param decDeg J2000 Dec in degree
+	 * @param nObs number of observations
+	 * @param mag catalog magnitude
+	 * @param magErr catalog magnitude error
 	 * @return compiled field object
 	 */
-	private FieldObject compileFieldObject(String line) {
-		
-		// remove any blank characters then splits line on tab char
-		String[] terms = line.replace(" ", "").split("\t");
-		
-		// coordinate terms
-		double raDeg = Double.valueOf(terms[0]);
-		double raHr = raDeg / 15.0;
-		double decDeg = Double.valueOf(terms[1]);
-		
-		// number obs & mag terms
-		int nObs = Integer.valueOf(terms[2]);
-		double mag = Double.valueOf(terms[3]);
-		double magErr = Double.valueOf(terms[4]);
-		
+	private static FieldObject compileFieldObject(double raDeg, double decDeg, int nObs, double mag, double magErr) {
 		// create new field object, auto-name object id & set params
-		FieldObject fo = new FieldObject(null, raHr, decDeg, mag, magErr);
+		FieldObject fo = new FieldObject(null, raDeg / 15.0, decDeg, mag, magErr);
 		fo.setnObs(nObs);
 		fo.setTarget(false);
 		fo.setSelected(true);
@@ -111,75 +177,250 @@ public class ApassCatalog implements AstroCatalog {
 	
 	
 	/**
-	 * Runs APASS catalog-based query on Vizier on-line database
+	 * Downloads APASS query fov from the Vizier on-line database. Without a tile
+	 * cache, the fov is downloaded in a single request. With a tile cache, the
+	 * query is assembled from sky tiles overlapping the fov; tiles missing from the
+	 * cache are downloaded in parallel and cached.
 	 * 
-	 * @param url Vizier / APASS url specifying query parameters
-	 * @return list of data lines extractedd from query response
+	 * <p>Downloads truncated at the VizieR record limit (MAX_RECORDS) are split 
+	 * into quadrant chunks and downloaded again; tiles with chunks still truncated at 
+	 * TileChunk.MAX_DEPTH are not cached. Records are merged as each chunk completes 
+	 * and passed to the progress listener.</p>
+	 * 
+	 * @param query CatalogQuery object encapsulating APASS query parameters
+	 * @return list of field objects inside the query fov, null on connection error
 	 */
-	private List<FieldObject> importApassData(String url) {
-		String line;
-		List<FieldObject> fieldObjects = null;
-		List<String> lines = new ArrayList<>();
+	private List<FieldObject> importChunkedApassData(CatalogQuery query) {
+		String band = ApassEnum.getEnum(query.getMagBand()).toString();
+		double raDeg = query.getRaHr() * 15.0;
+		double decDeg = query.getDecDeg();
+		double fovAmin = query.getFovAmin();
+		
+		// without a cache, single fov-sized request
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		List<SkyTile> tiles = new ArrayList<>();
+		List<QueryChunk> chunks = new ArrayList<>();
+		if (tileCache == null) {
+			chunks.add(new FovChunk(raDeg, decDeg, fovAmin));
+		} else {
+			// appends cached tile records inside query fov, tile-aligned requests for missing tiles
+			tiles = SkyTile.coveringTiles(raDeg, decDeg, fovAmin);
+			for (SkyTile tile : tiles) {
+				boolean isCached = readCachedTile(band, tile, (ra, dec, nObs, mag, magErr) -> {
+					if (isInFov(ra, dec, raDeg, decDeg, fovAmin)) {
+						fieldObjects.add(compileFieldObject(ra, dec, nObs, mag, magErr));
+					}
+				});
+				if (!isCached) {
+					chunks.add(new TileChunk(tile));
+				}
+			}
+		}
+		int nDownloads = chunks.size();
+		int nChunks = (tileCache == null) ? nDownloads : tiles.size();
+		int nChunksDone = nChunks - nDownloads;
+		if (nChunksDone > 0) {
+			notifyProgress(new ArrayList<>(fieldObjects), fieldObjects.size(), nChunksDone, nChunks);
+		}
 		
-		// run Vizier query, add valid data lines to string array
+		// download fov or missing tiles
+		ExecutorService executor = Executors.newFixedThreadPool(N_FETCH_THREADS);
+		CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(executor);
+		Map<String, TileAssembly> assemblies = new HashMap<>();
+		int nPending = 0;
+		int nRequests = 0;
+		int nTruncated = 0;
 		try {
-			// initialise connection
-			URL vizier = new URL(url);
-			URLConnection conn = vizier.openConnection();
-			conn.connect();
-			
-			BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-			// append valid data lines to lines array
-			while ((line = in.readLine()) != null)
-				if (this.isDataLine(line)) {
-					lines.add(line);
+			for (QueryChunk chunk : chunks) {
+				if (chunk.getTileId() != null) {
+					assemblies.put(chunk.getTileId(), new TileAssembly());
 				}
-			in.close();
-			
-			// converts data lines to array field objects
-			fieldObjects = getFieldObjects(lines);
+				completion.submit(() -> downloadChunk(chunk, query));
+				nPending++;
+			}
 			
-			// status message
-			String statusMessage = String.format("Downloaded %d APASS records", fieldObjects.size());
-			setStatusMessage(statusMessage);
-			
-		} catch (IOException e1) {
+			while (nPending > 0) {
+				ChunkResult result = completion.take().get();
+				nPending--;
+				nRequests++;
+				
+				// tile assembly, null for fov chunks
+				TileAssembly assembly = assemblies.get(result.chunk.getTileId());
+				
+				// replace truncated chunk with quadrant chunks, VizieR record limit counts blank mag rows
+				boolean isTruncated = result.nDataLines >= CatalogUrls.MAX_RECORDS;
+				if (isTruncated && result.chunk.canSplit()) {
+					for (QueryChunk subChunk : result.chunk.split()) {
+						completion.submit(() -> downloadChunk(subChunk, query));
+						nPending++;
+						nChunks++;
+					}
+					nChunks--;
+					if (assembly != null) {
+						assembly.nPending += 3;
+					}
+					continue;
+				}
+				if (isTruncated) {
+					nTruncated++;
+				}
+				
+				// merge chunk, cache tile when all chunks are complete
+				// chunks read from aborted requests may be incomplete, not cached
+				fieldObjects.addAll(result.fovObjects);
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedException();
+				}
+				if (assembly != null) {
+					assembly.isTruncated |= isTruncated;
+					assembly.lines.addAll(result.chunkLines);
+					if (--assembly.nPending == 0 && !assembly.isTruncated) {
+						tileCache.writeTile(band, result.chunk.getTileId(), assembly.lines);
+					}
+				}
+				nChunksDone++;
+				notifyProgress(result.fovObjects, fieldObjects.size(), nChunksDone, nChunks);
+			}
+		} catch (ExecutionException e) {
 			setStatusMessage(VIZIER_APASS_CONNECTION_ERROR);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			setStatusMessage(VIZIER_APASS_CONNECTION_ERROR);
+			return null;
+		} finally {
+			executor.shutdownNow();
 		}
-		return fieldObjects;
+		
+		// limit number of records to nearest maxRecords
+		List<FieldObject> limited = fieldObjects;
+		if (fieldObjects.size() > maxRecords) {
+			double cosDec = Math.cos(Math.toRadians(decDeg));
+			limited = fieldObjects.stream()
+					.sorted(Comparator.comparingDouble(p -> sqrDistance(p.getRaHr() * 15.0, p.getDecDeg(), raDeg, decDeg, cosDec)))
+					.limit(maxRecords)
+					.collect(Collectors.toList());
+		}
+		
+		// status message
+		String statusMessage = String.format("Loaded %d APASS records", limited.size());
+		if (tileCache != null) {
+			statusMessage += String.format(", downloaded %d of %d sky tiles", nDownloads, tiles.size());
+		}
+		if (nRequests > nDownloads) {
+			statusMessage += String.format(" in %d requests", nRequests);
+		}
+		if (nTruncated > 0) {
+			statusMessage += String.format(", %d chunks truncated at %d records", nTruncated, CatalogUrls.MAX_RECORDS);
+		}
+		if (limited.size() < fieldObjects.size()) {
+			statusMessage += String.format(", limited to nearest %d of %d records", maxRecords, fieldObjects.size());
+		}
+		setStatusMessage(statusMessage);
+		return limited;
 	}
-
-
+	
 	/*
-	 * Returns true if text line complies with data pattern tests
-	 * @param tab-delimited line of text
-	 * @return true if line complies with tests, false otherwise
+	 * Downloads chunk query box, runs in fetch thread
+	 * 
+	 * @return chunk records: field objects inside query fov and cache lines 
+	 * @throws IOException on connection error
 	 */
-	private boolean isDataLine(String line) {
-		String[] terms = line.split("\t");
-
-		// starts by exclude empty string
-		boolean isData = (line.length() > 0)
-
-				// excludes comment lines with leading '#'
-				&& (line.charAt(0) != '#')
-
-				// first data term is numeric, excludes text header
-				&& (isNumeric(terms[0]))
-
-				// excludes line with missing mag data (ra, dec, nobs, mag, mag_err)
-				&& (terms.length == N_FIELDS);
-		return isData;
+	private ChunkResult downloadChunk(QueryChunk chunk, CatalogQuery query) throws IOException {
+		double raDeg = query.getRaHr() * 15.0;
+		double decDeg = query.getDecDeg();
+		double fovAmin = query.getFovAmin();
+		
+		ChunkResult result = new ChunkResult(chunk);
+		try (InputStream in = openVizierStream(CatalogUrls.apassUrlBuilder(vizierUrl, chunkQuery(chunk, query)))) {
+			ApassTsvDecoder decoder = new ApassTsvDecoder((ra, dec, nObs, mag, magErr) -> {
+				// keep records inside chunk, query boxes of adjacent chunks overlap
+				if (chunk.contains(ra, dec)) {
+					if (chunk.getTileId() != null) {
+						result.chunkLines.add(ApassTsvDecoder.formatLine(ra, dec, nObs, mag, magErr));
+					}
+					if (isInFov(ra, dec, raDeg, decDeg, fovAmin)) {
+						result.fovObjects.add(compileFieldObject(ra, dec, nObs, mag, magErr));
+					}
+				}
+			});
+			decoder.decode(in);
+			result.nDataLines = decoder.getDataLineCount();
+		}
+		return result;
 	}
-
-	// regular expression numeric test
-	// refer: https://www.baeldung.com/java-check-string-number
-	private static boolean isNumeric(String strNum) {
-		Pattern pattern = Pattern.compile("-?\\d+(\\.\\d+)?");
-		if ((strNum == null) || (strNum.length() == 0)) {
+	
+	private void notifyProgress(List<FieldObject> chunkObjects, int nLoaded, int nChunksDone, int nChunks) {
+		if (progressListener != null) {
+			progressListener.chunkLoaded(chunkObjects, nLoaded, nChunksDone, nChunks);
+		}
+	}
+	
+	/*
+	 * Decodes cached tile records to handler
+	 * 
+	 * @return true if tile was read from cache, false if tile is not cached or unreadable
+	 */
+	private boolean readCachedTile(String band, SkyTile tile, ApassTsvDecoder.RowHandler handler) {
+		List<double[]> rows = new ArrayList<>();
+		try (InputStream in = tileCache.openTile(band, tile.getTileId())) {
+			if (in == null) {
+				return false;
+			}
+			// buffer rows, partial read falls back to download
+			new ApassTsvDecoder((ra, dec, nObs, mag, magErr) -> rows.add(new double[] { ra, dec, nObs, mag, magErr }))
+					.decode(in);
+		} catch (IOException e) {
 			return false;
 		}
-		return pattern.matcher(strNum).matches();
+		for (double[] row : rows) {
+			handler.row(row[0], row[1], (int) row[2], row[3], row[4]);
+		}
+		return true;
+	}
+	
+	/*
+	 * Opens Vizier query response stream
+	 * 
+	 * @param url Vizier / APASS url specifying query parameters
+	 * @return response stream
+	 * @throws IOException on connection error
+	 */
+	private InputStream openVizierStream(String url) throws IOException {
+		// shared transport: timeouts, retry & per-host request limit
+		return CatalogTransport.getDefault().openStream(url);
+	}
+	
+	/*
+	 * Compiles query for the square box enclosing a fov or tile chunk
+	 */
+	private CatalogQuery chunkQuery(QueryChunk chunk, CatalogQuery query) {
+		CatalogQuery cq = new CatalogQuery(query);
+		cq.setRaHr(chunk.getQueryRaDeg() / 15.0);
+		cq.setDecDeg(chunk.getQueryDecDeg());
+		cq.setFovAmin(chunk.getQueryFovAmin());
+		return cq;
+	}
+	
+	/*
+	 * Tests if coordinates lie inside square fov, RA offset scaled by cos(dec) at fov centre
+	 */
+	static boolean isInFov(double raDeg, double decDeg, double ra0, double dec0, double fovAmin) {
+		double halfDeg = fovAmin / 120.0;
+		double dRa = wrapRa(raDeg - ra0) * Math.cos(Math.toRadians(dec0));
+		return (Math.abs(decDeg - dec0) <= halfDeg) && (Math.abs(dRa) <= halfDeg);
+	}
+	
+	// squared tangent-plane distance from fov centre
+	static double sqrDistance(double raDeg, double decDeg, double ra0, double dec0, double cosDec) {
+		double dRa = wrapRa(raDeg - ra0) * cosDec;
+		double dDec = decDeg - dec0;
+		return dRa * dRa + dDec * dDec;
+	}
+	
+	// RA difference in range -180 to +180 deg
+	private static double wrapRa(double dRa) {
+		return dRa - 360.0 * Math.floor((dRa + 180.0) / 360.0);
 	}
 	
 	private void setStatusMessage(String statusMessage) {
@@ -0,0 +1,253 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.richardflee.astroimagej.enums.ApassEnum;
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.fileio.ApassExtractFile;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
+import com.github.richardflee.astroimagej.utils.CatalogUrls;
+
+/**
+ * Queries a local APASS extract file for field star photometry data, no
+ * network access. <p>Extract files cover a declination band and are kept in
+ * folder C:/Users/[user]/.astroimagej/apass_extract</p>
+ *
+ * <p>Extract files are compiled from VizieR APASS9 tab-separated data lines
+ * with columns: ra, dec, nobs, then mag and mag_err for each ApassEnum band.</p>
+ */
+public class ApassExtractCatalog implements AstroCatalog {
+
+	// default extract folder
+	public static final Path DEFAULT_EXTRACT_DIR =
+			Paths.get(System.getProperty("user.home"), ".astroimagej", "apass_extract");
+
+	// ra, dec, nobs + mag & mag_err per band
+	private static final int N_FIELDS = 3 + 2 * ApassEnum.values().length;
+
+	private ApassExtractFile extract = null;
+	private String statusMessage = null;
+
+	// maximum number of records in query result, as on-line APASS queries
+	private int maxRecords = ApassCatalog.DEFAULT_MAX_RECORDS;
+
+	/**
+	 * Opens specified extract file
+	 *
+	 * @param extractPath path to APASS extract file
+	 * @throws IOException if file cannot be read or is not an APASS extract file
+	 */
+	public ApassExtractCatalog(Path extractPath) throws IOException {
+		this.extract = ApassExtractFile.open(extractPath);
+	}
+
+	/**
+	 * Finds an extract file in the specified folder covering the query fov
+	 *
+	 * @param extractDir folder containing APASS extract files
+	 * @param query CatalogQuery object encapsulating APASS query parameters
+	 * @return catalog for covering extract, null if no extract covers query fov
+	 */
+	public static ApassExtractCatalog findExtract(Path extractDir, CatalogQuery query) {
+		if (!Files.isDirectory(extractDir)) {
+			return null;
+		}
+		double halfDeg = query.getFovAmin() / 120.0;
+		double decLo = Math.max(-90.0, query.getDecDeg() - halfDeg);
+		double decHi = Math.min(90.0, query.getDecDeg() + halfDeg);
+
+		String glob = "*" + ApassExtractFile.EXTRACT_FILE_EXT;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(extractDir, glob)) {
+			for (Path file : files) {
+				try {
+					ApassExtractCatalog catalog = new ApassExtractCatalog(file);
+					if (catalog.extract.covers(decLo, decHi)) {
+						return catalog;
+					}
+				} catch (IOException e) {
+					// skip unreadable file
+				}
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		return null;
+	}
+
+	/**
+	 * Sets maximum number of records in query result, records nearest fov centre are retained
+	 *
+	 * @param maxRecords maximum number of records
+	 */
+	public void setMaxRecords(int maxRecords) {
+		this.maxRecords = maxRecords;
+	}
+
+	/**
+	 * Runs a square fov query on the local extract
+	 *
+	 * @param query CatalogQuery object encapsulating APASS query parameters
+	 * @return list of field objects with data for the query magnitude band, nearest maxRecords
+	 */
+	@Override
+	public List<FieldObject> runQuery(CatalogQuery query) {
+		ApassEnum band = ApassEnum.getEnum(query.getMagBand());
+		double raDeg = query.getRaHr() * 15.0;
+		double decDeg = query.getDecDeg();
+		double fovAmin = query.getFovAmin();
+
+		// records in fov with data for this band
+		FieldObjectBlock block = new FieldObjectBlock();
+		extract.forEachCandidate(raDeg, decDeg, fovAmin, idx -> {
+			if (!Float.isNaN(extract.getMag(band, idx))
+					&& ApassCatalog.isInFov(extract.getRaDeg(idx), extract.getDecDeg(idx), raDeg, decDeg, fovAmin)) {
+				block.add(null, extract.getRaDeg(idx) / 15.0, extract.getDecDeg(idx),
+						round3(extract.getMag(band, idx)), round3(extract.getMagErr(band, idx)), extract.getnObs(idx));
+			}
+		});
+
+		// limit number of records to nearest maxRecords
+		List<FieldObject> fieldObjects = null;
+		if (block.size() > maxRecords) {
+			block.computeRadSepAmin(query.getRaHr(), decDeg);
+			fieldObjects = block.toFieldObjects(Arrays.copyOf(block.sortByRadSep(), maxRecords));
+		} else {
+			fieldObjects = block.toFieldObjects();
+		}
+
+		String statusMessage = String.format("Loaded %d APASS records from local extract %s", fieldObjects.size(),
+				extract.getPath().getFileName());
+		if (fieldObjects.size() < block.size()) {
+			statusMessage += String.format(", limited to nearest %d of %d records", maxRecords, block.size());
+		}
+		setStatusMessage(statusMessage);
+		return fieldObjects;
+	}
+
+	/**
+	 * Compiles an extract file from VizieR APASS9 tab-separated data lines
+	 *
+	 * @param in reader of tab-separated data lines; comment, header and incomplete lines are skipped
+	 * @param extractPath path to new extract file
+	 * @param decMin lower dec bound of extract band (deg)
+	 * @param decMax upper dec bound of extract band (deg)
+	 * @return number of records written
+	 * @throws IOException on read or write error
+	 */
+	public static int writeExtract(BufferedReader in, Path extractPath, double decMin, double decMax)
+			throws IOException {
+		int nBands = ApassEnum.values().length;
+		int capacity = 1024;
+		double[] ra = new double[capacity];
+		double[] dec = new double[capacity];
+		int[] nObs = new int[capacity];
+		float[][] mags = new float[nBands][capacity];
+		float[][] errs = new float[nBands][capacity];
+
+		int nRows = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			String[] terms = line.split("\t", -1);
+			if (line.isEmpty() || line.charAt(0) == '#' || terms.length != N_FIELDS) {
+				continue;
+			}
+			try {
+				double raDeg = Double.parseDouble(terms[0].trim());
+				double decDeg = Double.parseDouble(terms[1].trim());
+				if (decDeg < decMin || decDeg > decMax) {
+					continue;
+				}
+				if (nRows == capacity) {
+					capacity *= 2;
+					ra = Arrays.copyOf(ra, capacity);
+					dec = Arrays.copyOf(dec, capacity);
+					nObs = Arrays.copyOf(nObs, capacity);
+					for (int band = 0; band < nBands; band++) {
+						mags[band] = Arrays.copyOf(mags[band], capacity);
+						errs[band] = Arrays.copyOf(errs[band], capacity);
+					}
+				}
+				ra[nRows] = raDeg;
+				dec[nRows] = decDeg;
+				nObs[nRows] = Integer.parseInt(terms[2].trim());
+				for (int band = 0; band < nBands; band++) {
+					mags[band][nRows] = parseMag(terms[3 + 2 * band]);
+					errs[band][nRows] = parseMag(terms[4 + 2 * band]);
+				}
+				nRows++;
+			} catch (NumberFormatException e) {
+				// skips text header & unit lines
+			}
+		}
+		ApassExtractFile.write(extractPath, decMin, decMax, nRows, ra, dec, nObs, mags, errs);
+		return nRows;
+	}
+
+	/**
+	 * Downloads all APASS records in a dec band from VizieR and compiles an extract file
+	 *
+	 * @param vizierUrl base url of VizieR server
+	 * @param decMin lower dec bound of extract band (deg)
+	 * @param decMax upper dec bound of extract band (deg)
+	 * @param extractPath path to new extract file
+	 * @return number of records written
+	 * @throws IOException on connection or write error
+	 */
+	public static int downloadExtract(String vizierUrl, double decMin, double decMax, Path extractPath)
+			throws IOException {
+		String url = CatalogUrls.apassBandUrlBuilder(vizierUrl, decMin, decMax);
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(CatalogTransport.getDefault().openStream(url)))) {
+			return writeExtract(in, extractPath, decMin, decMax);
+		}
+	}
+
+	@Override
+	public String getStatusMessage() {
+		return this.statusMessage;
+	}
+
+	private void setStatusMessage(String statusMessage) {
+		this.statusMessage = statusMessage;
+	}
+
+	// empty mag field => NaN
+	private static float parseMag(String term) {
+		String text = term.trim();
+		return (text.isEmpty()) ? Float.NaN : Float.parseFloat(text);
+	}
+
+	// float column value rounded to catalog precision
+	private static double round3(float value) {
+		return Math.round(value * 1000.0) / 1000.0;
+	}
+
+	/**
+	 * Downloads APASS dec band extract: args decMin decMax
+	 */
+	public static void main(String[] args) throws IOException {
+		double decMin = (args.length > 1) ? Double.parseDouble(args[0]) : 29.0;
+		double decMax = (args.length > 1) ? Double.parseDouble(args[1]) : 30.0;
+		Path extractPath = DEFAULT_EXTRACT_DIR.resolve(
+				String.format("apass_%+05.1f_%+05.1f%s", decMin, decMax, ApassExtractFile.EXTRACT_FILE_EXT));
+
+		int nRows = downloadExtract(CatalogUrls.VIZIER_URL, decMin, decMax, extractPath);
+		System.out.println(String.format("Wrote %d APASS records to %s", nRows, extractPath));
+
+		CatalogQuery query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.APASS);
+		ApassExtractCatalog catalog = new ApassExtractCatalog(extractPath);
+		List<FieldObject> fieldObjects = catalog.runQuery(query);
+		System.out.println(String.format("No. records: %d", fieldObjects.size()));
+		System.out.println(String.format("Status message: %s", catalog.getStatusMessage()));
+	}
+}
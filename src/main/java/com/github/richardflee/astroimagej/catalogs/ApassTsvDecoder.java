@@ -0,0 +1,200 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+/**
+ * Streaming decoder for VizieR APASS tab-separated query responses. <p>Reads
+ * response bytes as they arrive and tokenises each line once, data rows are
+ * passed to a RowHandler as primitive values; no line strings are built.</p>
+ *
+ * <p>Data row: ra (deg), dec (deg), nobs, mag, mag_err. Comment lines with
+ * leading '#', header and unit lines, and rows with missing or non-numeric
+ * terms are skipped.</p>
+ *
+ * <p>Lines with numeric ra and dec terms are counted as data lines, including
+ * rows skipped for a blank or non-numeric nobs, mag or mag_err term. The
+ * VizieR -out.max record limit applies to this count.</p>
+ */
+public class ApassTsvDecoder {
+
+	/**
+	 * Receives decoded APASS data rows
+	 */
+	@FunctionalInterface
+	public interface RowHandler {
+		void row(double raDeg, double decDeg, int nObs, double mag, double magErr);
+	}
+
+	private static final int N_FIELDS = 5;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private RowHandler handler = null;
+
+	// current row terms
+	private double[] values = new double[N_FIELDS];
+
+	// char view of read buffer, parsed by AstroCoords.parseNumber
+	private ByteChars chars = new ByteChars();
+
+	// data lines decoded, including skipped rows
+	private int nDataLines = 0;
+
+	/**
+	 * @param handler receives each data row in response order
+	 */
+	public ApassTsvDecoder(RowHandler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Decodes response stream to end of stream; stream is not closed
+	 *
+	 * @param in VizieR tab-separated response stream
+	 * @return number of data rows passed to handler
+	 * @throws IOException on read error
+	 */
+	public int decode(InputStream in) throws IOException {
+		byte[] buf = new byte[BUFFER_SIZE];
+		int len = 0;
+		int nRows = 0;
+		int n;
+		while ((n = in.read(buf, len, buf.length - len)) != -1) {
+			int lineStart = 0;
+			for (int idx = len; idx < len + n; idx++) {
+				if (buf[idx] == '\n') {
+					nRows += decodeLine(buf, lineStart, idx) ? 1 : 0;
+					lineStart = idx + 1;
+				}
+			}
+			len += n;
+
+			// move partial line to buffer start, grow buffer for lines longer than buffer
+			if (lineStart > 0) {
+				System.arraycopy(buf, lineStart, buf, 0, len - lineStart);
+				len -= lineStart;
+			} else if (len == buf.length) {
+				buf = Arrays.copyOf(buf, 2 * buf.length);
+			}
+		}
+		// last line without line terminator
+		if (len > 0) {
+			nRows += decodeLine(buf, 0, len) ? 1 : 0;
+		}
+		return nRows;
+	}
+
+	/*
+	 * Tokenises line in range [start, end) on tab char and passes data rows to handler
+	 * @return true if line is a data row
+	 */
+	boolean decodeLine(byte[] buf, int start, int end) {
+		if (end > start && buf[end - 1] == '\r') {
+			end--;
+		}
+		// excludes empty and comment lines
+		if (end == start || buf[start] == '#') {
+			return false;
+		}
+
+		chars.buf = buf;
+		int nFields = 0;
+		int fieldStart = start;
+		for (int idx = start; idx <= end; idx++) {
+			if (idx == end || buf[idx] == '\t') {
+				// excludes lines with extra terms
+				if (nFields == N_FIELDS) {
+					return false;
+				}
+				// excludes header lines and lines with missing terms
+				double value = parseTerm(fieldStart, idx);
+				if (Double.isNaN(value)) {
+					return false;
+				}
+				values[nFields++] = value;
+				// numeric ra & dec terms
+				if (nFields == 2) {
+					nDataLines++;
+				}
+				fieldStart = idx + 1;
+			}
+		}
+		if (nFields < N_FIELDS) {
+			return false;
+		}
+		handler.row(values[0], values[1], (int) values[2], values[3], values[4]);
+		return true;
+	}
+
+	/*
+	 * Parses term in read buffer range [start, end) with AstroCoords.parseNumber, blanks
+	 * ignored
+	 * @return term value, NaN if term is empty or not numeric
+	 */
+	private double parseTerm(int start, int end) {
+		byte[] buf = chars.buf;
+		int lo = start;
+		int hi = end;
+		while (lo < hi && buf[lo] == ' ') {
+			lo++;
+		}
+		while (hi > lo && buf[hi - 1] == ' ') {
+			hi--;
+		}
+		// blank mag terms without exception
+		if (lo == hi) {
+			return Double.NaN;
+		}
+		try {
+			return AstroCoords.parseNumber(chars, lo, hi);
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Number of response data lines decoded, including rows with missing or
+	 * non-numeric nobs, mag or mag_err terms that were not passed to handler
+	 *
+	 * @return data line count
+	 */
+	public int getDataLineCount() {
+		return nDataLines;
+	}
+
+	/**
+	 * Compiles data line in cache format, decoded values are reproduced exactly
+	 *
+	 * @return tab-delimited line: ra, dec, nobs, mag, mag_err
+	 */
+	public static String formatLine(double raDeg, double decDeg, int nObs, double mag, double magErr) {
+		return new StringBuilder(64).append(raDeg).append('\t').append(decDeg).append('\t').append(nObs)
+				.append('\t').append(mag).append('\t').append(magErr).toString();
+	}
+
+	/*
+	 * CharSequence view of ASCII read buffer, no copy
+	 */
+	private static class ByteChars implements CharSequence {
+		private byte[] buf = new byte[0];
+
+		@Override
+		public int length() {
+			return buf.length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (buf[index] & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new String(buf, start, end - start, StandardCharsets.US_ASCII);
+		}
+	}
+}
@@ -1,12 +1,50 @@
 package com.github.richardflee.astroimagej.catalogs;
 
+import java.nio.file.Path;
+
 import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
 
 /**
- * Creates an instance of catalog type (VSP, APASS ..) selected in the catalog ui dialog.
+ * Creates an instance of catalog type (VSP, APASS, FEDERATED ..) selected in the catalog ui dialog.
  */
 public class CatalogFactory {
 
+	/**
+	 * Manages selection of astronomical database, APASS queries use a local extract
+	 * file in the default extract folder if an extract covers the query fov
+	 * 
+	 * @param query catalog query with selected database type
+	 * @return catalog object of selected database type
+	 */
+	public static AstroCatalog createCatalog(CatalogQuery query) {
+		return createCatalog(query, ApassExtractCatalog.DEFAULT_EXTRACT_DIR);
+	}
+
+	/**
+	 * Manages selection of astronomical database, APASS queries use a local extract
+	 * file in the specified folder if an extract covers the query fov
+	 * 
+	 * @param query catalog query with selected database type
+	 * @param extractDir folder containing APASS extract files
+	 * @return catalog object of selected database type
+	 */
+	public static AstroCatalog createCatalog(CatalogQuery query, Path extractDir) {
+		if (query.getCatalogType() == CatalogsEnum.APASS) {
+			AstroCatalog extract = ApassExtractCatalog.findExtract(extractDir, query);
+			if (extract != null) {
+				return extract;
+			}
+		} else if (query.getCatalogType() == CatalogsEnum.FEDERATED) {
+			// APASS source from local extract if available
+			CatalogQuery apassQuery = new CatalogQuery(query);
+			apassQuery.setCatalogType(CatalogsEnum.APASS);
+			AstroCatalog apass = createCatalog(apassQuery, extractDir);
+			return new FederatedCatalog(new VspCatalog(), apass);
+		}
+		return createCatalog(query.getCatalogType());
+	}
+
 	/**
 	 * Manages selection of on-line astronomical database
 	 * 
@@ -17,6 +55,8 @@ public class CatalogFactory {
 		AstroCatalog catalog = null;
 		if (catalogType == CatalogsEnum.VSP) {
 			catalog = new VspCatalog();
+		} else if (catalogType == CatalogsEnum.FEDERATED) {
+			catalog = new FederatedCatalog();
 		} else {
 			catalog = new ApassCatalog();
 		}
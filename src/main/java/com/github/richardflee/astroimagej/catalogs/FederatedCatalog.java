@@ -0,0 +1,274 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.FieldObjectIndex;
+import com.github.richardflee.astroimagej.query_objects.MatchedFieldObject;
+import com.github.richardflee.astroimagej.query_objects.VspResult;
+
+/**
+ * Runs VSP and APASS cone queries concurrently for the same CatalogQuery and
+ * merges the results into a single list of field objects.
+ *
+ * <p>VSP and APASS records within the match radius are cross-matched,
+ * closest pairs first, so that each record is matched at most once. Merged
+ * objects retain the magnitude reported by each source; VSP comparison star
+ * photometry is the primary magnitude where both sources report the object.
+ * Unmatched records from either source are included with a single source
+ * magnitude.</p>
+ *
+ * <p>Query wall-clock time is that of the slowest source. If one source fails,
+ * the result comprises records from the other source.</p>
+ */
+public class FederatedCatalog implements AstroCatalog {
+
+	// default cross-match tolerance in arcsec
+	public static final double DEFAULT_MATCH_RADIUS_ASEC = 2.0;
+
+	private String statusMessage = null;
+	private final String FEDERATED_CONNECTION_ERROR = "ERROR: Error in VSP and VIZIER.APASS internet connections";
+
+	private AstroCatalog vspCatalog = null;
+	private AstroCatalog apassCatalog = null;
+
+	private double matchRadiusAsec = DEFAULT_MATCH_RADIUS_ASEC;
+
+	// chart uri from VSP response, null if VSP query fails
+	private String chartUri = null;
+
+	// cross-match candidate: vsp & apass list indices, separation in arcsec
+	private static class MatchPair {
+		private int vspIdx = 0;
+		private int apassIdx = 0;
+		private double sepAsec = 0.0;
+
+		private MatchPair(int vspIdx, int apassIdx, double sepAsec) {
+			this.vspIdx = vspIdx;
+			this.apassIdx = apassIdx;
+			this.sepAsec = sepAsec;
+		}
+	}
+
+	/**
+	 * Configures federated catalog for on-line VSP and APASS servers
+	 */
+	public FederatedCatalog() {
+		this(new VspCatalog(), new ApassCatalog());
+	}
+
+	/**
+	 * Configures federated catalog with specified source catalogs
+	 *
+	 * @param vspCatalog VSP source, chart uri is retained if VspCatalog type
+	 * @param apassCatalog APASS source, on-line or local extract
+	 */
+	public FederatedCatalog(AstroCatalog vspCatalog, AstroCatalog apassCatalog) {
+		this.vspCatalog = vspCatalog;
+		this.apassCatalog = apassCatalog;
+	}
+
+	/**
+	 * Runs VSP and APASS queries in parallel and cross-matches results by position
+	 *
+	 * @param query CatalogQuery object encapsulating query parameters, magBand common to
+	 *     VSP and APASS
+	 * @return list of MatchedFieldObjects, null if both source queries fail
+	 */
+	@Override
+	public List<FieldObject> runQuery(CatalogQuery query) {
+		this.chartUri = null;
+		CatalogQuery vspQuery = sourceQuery(query, CatalogsEnum.VSP);
+		CatalogQuery apassQuery = sourceQuery(query, CatalogsEnum.APASS);
+
+		List<FieldObject> vspObjects = null;
+		List<FieldObject> apassObjects = null;
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<VspResult> vspFuture = executor.submit(() -> runVspSource(vspQuery));
+			Future<List<FieldObject>> apassFuture = executor.submit(() -> apassCatalog.runQuery(apassQuery));
+
+			VspResult vspResult = vspFuture.get();
+			vspObjects = isFailed(vspCatalog) ? null : vspResult.getFieldObjects();
+			this.chartUri = vspResult.getChartUri();
+
+			apassObjects = apassFuture.get();
+			apassObjects = isFailed(apassCatalog) ? null : apassObjects;
+		} catch (ExecutionException e) {
+			setStatusMessage(FEDERATED_CONNECTION_ERROR);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			setStatusMessage(FEDERATED_CONNECTION_ERROR);
+			return null;
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (vspObjects == null && apassObjects == null) {
+			setStatusMessage(FEDERATED_CONNECTION_ERROR);
+			return null;
+		}
+		List<FieldObject> merged = crossMatch(nonNull(vspObjects), nonNull(apassObjects), matchRadiusAsec);
+		setStatusMessage(compileStatusMessage(vspObjects, apassObjects, merged));
+		return merged;
+	}
+
+	/**
+	 * Merges VSP and APASS records, pairs within matchRadiusAsec are merged closest pairs first
+	 *
+	 * @param vspObjects VSP records, primary magnitude & object id source
+	 * @param apassObjects APASS records
+	 * @param matchRadiusAsec cross-match tolerance in arcsec
+	 * @return list of merged objects: matched VSP, unmatched VSP & unmatched APASS records
+	 */
+	public static List<FieldObject> crossMatch(List<FieldObject> vspObjects, List<FieldObject> apassObjects,
+			double matchRadiusAsec) {
+		// candidate pairs within match radius
+		List<MatchPair> pairs = new ArrayList<>();
+		if (!vspObjects.isEmpty() && !apassObjects.isEmpty()) {
+			FieldObjectIndex apassIndex = new FieldObjectIndex(apassObjects);
+			Map<FieldObject, Integer> apassIdx = new IdentityHashMap<>();
+			for (int idx = 0; idx < apassObjects.size(); idx++) {
+				apassIdx.put(apassObjects.get(idx), idx);
+			}
+			for (int idx = 0; idx < vspObjects.size(); idx++) {
+				FieldObject vsp = vspObjects.get(idx);
+				for (FieldObject apass : apassIndex.findWithinRadius(vsp.getRaHr(), vsp.getDecDeg(),
+						matchRadiusAsec / 60.0)) {
+					pairs.add(new MatchPair(idx, apassIdx.get(apass), separationAsec(vsp, apass)));
+				}
+			}
+			pairs.sort(Comparator.comparingDouble(p -> p.sepAsec));
+		}
+
+		// merge closest pairs first, each record matched at most once
+		MatchedFieldObject[] vspMatched = new MatchedFieldObject[vspObjects.size()];
+		boolean[] isApassMatched = new boolean[apassObjects.size()];
+		for (MatchPair pair : pairs) {
+			if (vspMatched[pair.vspIdx] != null || isApassMatched[pair.apassIdx]) {
+				continue;
+			}
+			FieldObject apass = apassObjects.get(pair.apassIdx);
+			MatchedFieldObject matched = new MatchedFieldObject(vspObjects.get(pair.vspIdx), CatalogsEnum.VSP);
+			matched.addSourceMag(CatalogsEnum.APASS, apass.getMag(), apass.getMagErr());
+			matched.setnObs(apass.getnObs());
+			matched.setMatchSepAsec(pair.sepAsec);
+			vspMatched[pair.vspIdx] = matched;
+			isApassMatched[pair.apassIdx] = true;
+		}
+
+		List<FieldObject> merged = new ArrayList<>(vspObjects.size() + apassObjects.size());
+		for (int idx = 0; idx < vspObjects.size(); idx++) {
+			merged.add((vspMatched[idx] != null) ? vspMatched[idx]
+					: new MatchedFieldObject(vspObjects.get(idx), CatalogsEnum.VSP));
+		}
+		for (int idx = 0; idx < apassObjects.size(); idx++) {
+			if (!isApassMatched[idx]) {
+				merged.add(new MatchedFieldObject(apassObjects.get(idx), CatalogsEnum.APASS));
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Sets cross-match tolerance
+	 *
+	 * @param matchRadiusAsec maximum separation of matched VSP and APASS records in arcsec
+	 */
+	public void setMatchRadiusAsec(double matchRadiusAsec) {
+		this.matchRadiusAsec = matchRadiusAsec;
+	}
+
+	/**
+	 * @return chart uri from last VSP response, null if VSP query failed
+	 */
+	public String getChartUri() {
+		return chartUri;
+	}
+
+	@Override
+	public String getStatusMessage() {
+		return this.statusMessage;
+	}
+
+	public void setStatusMessage(String statusMessage) {
+		this.statusMessage = statusMessage;
+	}
+
+	/*
+	 * VSP query returning chart uri from the same response where source is a VspCatalog
+	 */
+	private VspResult runVspSource(CatalogQuery vspQuery) {
+		if (vspCatalog instanceof VspCatalog) {
+			return ((VspCatalog) vspCatalog).runVspQuery(vspQuery);
+		}
+		List<FieldObject> fieldObjects = vspCatalog.runQuery(vspQuery);
+		return new VspResult(nonNull(fieldObjects), null);
+	}
+
+	// copy of federated query for source catalog
+	private static CatalogQuery sourceQuery(CatalogQuery query, CatalogsEnum source) {
+		CatalogQuery sourceQuery = new CatalogQuery(query);
+		sourceQuery.setCatalogType(source);
+		return sourceQuery;
+	}
+
+	// source reports connection error in status message
+	private static boolean isFailed(AstroCatalog catalog) {
+		String message = catalog.getStatusMessage();
+		return message != null && message.toUpperCase().contains("ERROR");
+	}
+
+	private static List<FieldObject> nonNull(List<FieldObject> fieldObjects) {
+		return (fieldObjects == null) ? new ArrayList<>() : fieldObjects;
+	}
+
+	private String compileStatusMessage(List<FieldObject> vspObjects, List<FieldObject> apassObjects,
+			List<FieldObject> merged) {
+		if (vspObjects == null) {
+			return String.format("Loaded %d APASS records; %s", apassObjects.size(), vspCatalog.getStatusMessage());
+		}
+		if (apassObjects == null) {
+			return String.format("Loaded %d VSP records; %s", vspObjects.size(), apassCatalog.getStatusMessage());
+		}
+		long nMatched = merged.stream().filter(p -> ((MatchedFieldObject) p).isCrossMatched()).count();
+		return String.format("Merged %d VSP and %d APASS records: %d cross-matched within %.1f arcsec, %d records",
+				vspObjects.size(), apassObjects.size(), nMatched, matchRadiusAsec, merged.size());
+	}
+
+	// angular separation in arcsec, haversine form for small angles
+	private static double separationAsec(FieldObject fo1, FieldObject fo2) {
+		double dec1 = Math.toRadians(fo1.getDecDeg());
+		double dec2 = Math.toRadians(fo2.getDecDeg());
+		double dRa = Math.toRadians((fo2.getRaHr() - fo1.getRaHr()) * 15.0);
+		double sinDec = Math.sin((dec2 - dec1) / 2.0);
+		double sinRa = Math.sin(dRa / 2.0);
+		double h = sinDec * sinDec + Math.cos(dec1) * Math.cos(dec2) * sinRa * sinRa;
+		return Math.toDegrees(2.0 * Math.asin(Math.min(1.0, Math.sqrt(h)))) * 3600.0;
+	}
+
+	public static void main(String[] args) {
+		CatalogQuery query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.FEDERATED);
+		query.setMagBand("V");
+
+		FederatedCatalog catalog = new FederatedCatalog();
+		List<FieldObject> fieldObjects = catalog.runQuery(query);
+		System.out.println(catalog.getStatusMessage());
+		if (fieldObjects != null) {
+			fieldObjects.stream().limit(10).forEach(p -> System.out.println(p.toString()));
+		}
+		System.out.println(catalog.getChartUri());
+	}
+}
@@ -0,0 +1,199 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+/**
+ * Column store for catalog records read from a local APASS extract: one
+ * primitive array per FieldObject field.
+ *
+ * <p>Distance and sort computations run over the column arrays, so that only
+ * records retained in the query result are created as FieldObject
+ * instances.</p>
+ *
+ * <p>Object ids may be null, in which case the coordinate-based name is
+ * compiled when the FieldObject is created.</p>
+ */
+class FieldObjectBlock {
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private int size = 0;
+
+	// data columns
+	private String[] objectIds;
+	private double[] raHr;
+	private double[] decDeg;
+	private double[] mag;
+	private double[] magErr;
+	private int[] nObs;
+
+	// computed column
+	private double[] radSepAmin;
+
+	FieldObjectBlock() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates empty block with initial capacity
+	 *
+	 * @param capacity initial number of records
+	 */
+	FieldObjectBlock(int capacity) {
+		capacity = Math.max(1, capacity);
+		objectIds = new String[capacity];
+		raHr = new double[capacity];
+		decDeg = new double[capacity];
+		mag = new double[capacity];
+		magErr = new double[capacity];
+		nObs = new int[capacity];
+		radSepAmin = new double[capacity];
+	}
+
+	/**
+	 * Appends record
+	 *
+	 * @param objectId object identifier, null for coordinate-based name
+	 * @param raHr J2000 RA in hour
+	 * @param decDeg J2000 Dec in degree
+	 * @param mag catalog magnitude
+	 * @param magErr catalog magnitude error
+	 * @param nObs number of observations
+	 * @return index of new record
+	 */
+	int add(String objectId, double raHr, double decDeg, double mag, double magErr, int nObs) {
+		if (size == this.raHr.length) {
+			grow();
+		}
+		int idx = size++;
+		this.objectIds[idx] = objectId;
+		this.raHr[idx] = raHr;
+		this.decDeg[idx] = decDeg;
+		this.mag[idx] = mag;
+		this.magErr[idx] = magErr;
+		this.nObs[idx] = nObs;
+		this.radSepAmin[idx] = 0.0;
+		return idx;
+	}
+
+	/**
+	 * Computes radial separation to target coordinates for all records
+	 *
+	 * @param targetRaHr target J2000 RA in hour
+	 * @param targetDecDeg target J2000 Dec in degree
+	 */
+	void computeRadSepAmin(double targetRaHr, double targetDecDeg) {
+		double ra0 = Math.toRadians(targetRaHr * 15.0);
+		double dec0 = Math.toRadians(targetDecDeg);
+		double sinDec0 = Math.sin(dec0);
+		double cosDec0 = Math.cos(dec0);
+		for (int idx = 0; idx < size; idx++) {
+			double dec = Math.toRadians(decDeg[idx]);
+			double dRa = Math.toRadians(raHr[idx] * 15.0) - ra0;
+			double cosA = Math.sin(dec) * sinDec0 + Math.cos(dec) * cosDec0 * Math.cos(dRa);
+			radSepAmin[idx] = Math.toDegrees(Math.acos(Math.min(1.0, cosA))) * 60.0;
+		}
+	}
+
+	/**
+	 * Record indices in ascending order of radial separation, stable for equal values
+	 *
+	 * @return sorted record indices
+	 */
+	int[] sortByRadSep() {
+		int[] rows = new int[size];
+		for (int idx = 0; idx < size; idx++) {
+			rows[idx] = idx;
+		}
+		mergeSort(rows, new int[size], radSepAmin, 0, size);
+		return rows;
+	}
+
+	/**
+	 * Creates field object from block record, selected reference object as
+	 * on-line APASS records
+	 *
+	 * @param idx record index
+	 * @return new FieldObject with record data
+	 */
+	FieldObject toFieldObject(int idx) {
+		FieldObject fo = new FieldObject(objectIds[idx], raHr[idx], decDeg[idx], mag[idx], magErr[idx]);
+		fo.setnObs(nObs[idx]);
+		fo.setRadSepAmin(radSepAmin[idx]);
+		fo.setTarget(false);
+		fo.setSelected(true);
+		return fo;
+	}
+
+	/**
+	 * Creates field objects for all records
+	 *
+	 * @return list of new FieldObjects in block order
+	 */
+	List<FieldObject> toFieldObjects() {
+		List<FieldObject> fieldObjects = new ArrayList<>(size);
+		for (int idx = 0; idx < size; idx++) {
+			fieldObjects.add(toFieldObject(idx));
+		}
+		return fieldObjects;
+	}
+
+	/**
+	 * Creates field objects for specified records
+	 *
+	 * @param rows record indices
+	 * @return list of new FieldObjects in rows order
+	 */
+	List<FieldObject> toFieldObjects(int[] rows) {
+		List<FieldObject> fieldObjects = new ArrayList<>(rows.length);
+		for (int idx : rows) {
+			fieldObjects.add(toFieldObject(idx));
+		}
+		return fieldObjects;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/*
+	 * Stable merge sort of record indices by key value
+	 */
+	private static void mergeSort(int[] rows, int[] work, double[] values, int lo, int hi) {
+		if (hi - lo < 2) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		mergeSort(rows, work, values, lo, mid);
+		mergeSort(rows, work, values, mid, hi);
+		if (Double.compare(values[rows[mid - 1]], values[rows[mid]]) <= 0) {
+			return;
+		}
+
+		System.arraycopy(rows, lo, work, lo, hi - lo);
+		int left = lo;
+		int right = mid;
+		for (int idx = lo; idx < hi; idx++) {
+			if (right >= hi || (left < mid && Double.compare(values[work[left]], values[work[right]]) <= 0)) {
+				rows[idx] = work[left++];
+			} else {
+				rows[idx] = work[right++];
+			}
+		}
+	}
+
+	private void grow() {
+		int capacity = 2 * raHr.length;
+		objectIds = Arrays.copyOf(objectIds, capacity);
+		raHr = Arrays.copyOf(raHr, capacity);
+		decDeg = Arrays.copyOf(decDeg, capacity);
+		mag = Arrays.copyOf(mag, capacity);
+		magErr = Arrays.copyOf(magErr, capacity);
+		nObs = Arrays.copyOf(nObs, capacity);
+		radSepAmin = Arrays.copyOf(radSepAmin, capacity);
+	}
+}
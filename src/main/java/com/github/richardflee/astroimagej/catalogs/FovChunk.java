@@ -0,0 +1,122 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rectangular part of a query fov downloaded in a single VizieR request, used
+ * when records are not cached.
+ *
+ * <p>The full fov is downloaded in one request; a download truncated at the
+ * VizieR record limit is split into four quadrant chunks and downloaded again,
+ * down to the TileChunk minimum chunk size. Chunk bounds are offsets from the
+ * fov centre, RA offset scaled by cos(dec) at fov centre as
+ * ApassCatalog.isInFov.</p>
+ */
+class FovChunk implements QueryChunk {
+
+	// smallest chunk side (deg), as TileChunk at MAX_DEPTH
+	private static final double MIN_CHUNK_DEG = SkyTile.TILE_DEG / (1 << TileChunk.MAX_DEPTH);
+
+	// fov centre (deg), side (arcmin) & half side (deg)
+	private double raDeg = 0.0;
+	private double decDeg = 0.0;
+	private double fovAmin = 0.0;
+	private double halfDeg = 0.0;
+
+	// chunk bounds, offsets from fov centre (deg)
+	private double x0 = 0.0;
+	private double x1 = 0.0;
+	private double y0 = 0.0;
+	private double y1 = 0.0;
+
+	/**
+	 * Chunk covering a full query fov
+	 *
+	 * @param raDeg fov centre RA (deg)
+	 * @param decDeg fov centre Dec (deg)
+	 * @param fovAmin fov side (arcmin)
+	 */
+	FovChunk(double raDeg, double decDeg, double fovAmin) {
+		this(raDeg, decDeg, fovAmin, -fovAmin / 120.0, fovAmin / 120.0, -fovAmin / 120.0, fovAmin / 120.0);
+	}
+
+	private FovChunk(double raDeg, double decDeg, double fovAmin, double x0, double x1, double y0, double y1) {
+		this.raDeg = raDeg;
+		this.decDeg = decDeg;
+		this.fovAmin = fovAmin;
+		this.halfDeg = fovAmin / 120.0;
+		this.x0 = x0;
+		this.x1 = x1;
+		this.y0 = y0;
+		this.y1 = y1;
+	}
+
+	/**
+	 * Tests if chunk can be split; chunks at minimum size and fovs including a pole
+	 * are not split
+	 */
+	@Override
+	public boolean canSplit() {
+		return (y1 - y0) > MIN_CHUNK_DEG && (Math.abs(decDeg) + halfDeg) < 90.0;
+	}
+
+	@Override
+	public List<FovChunk> split() {
+		double xMid = 0.5 * (x0 + x1);
+		double yMid = 0.5 * (y0 + y1);
+		List<FovChunk> chunks = new ArrayList<>(4);
+		chunks.add(new FovChunk(raDeg, decDeg, fovAmin, x0, xMid, y0, yMid));
+		chunks.add(new FovChunk(raDeg, decDeg, fovAmin, xMid, x1, y0, yMid));
+		chunks.add(new FovChunk(raDeg, decDeg, fovAmin, x0, xMid, yMid, y1));
+		chunks.add(new FovChunk(raDeg, decDeg, fovAmin, xMid, x1, yMid, y1));
+		return chunks;
+	}
+
+	/**
+	 * Tests if chunk contains the specified coordinates; lower bounds included, upper
+	 * bounds excluded except at the fov edge
+	 */
+	@Override
+	public boolean contains(double ra, double dec) {
+		if (!ApassCatalog.isInFov(ra, dec, raDeg, decDeg, fovAmin)) {
+			return false;
+		}
+		double dRa = ra - raDeg;
+		double x = (dRa - 360.0 * Math.floor((dRa + 180.0) / 360.0)) * Math.cos(Math.toRadians(decDeg));
+		double y = dec - decDeg;
+		boolean inX = (x >= x0 || x0 == -halfDeg) && (x < x1 || x1 == halfDeg);
+		boolean inY = (y >= y0 || y0 == -halfDeg) && (y < y1 || y1 == halfDeg);
+		return inX && inY;
+	}
+
+	@Override
+	public double getQueryRaDeg() {
+		double ra = raDeg + 0.5 * (x0 + x1) / Math.cos(Math.toRadians(decDeg));
+		return ra - 360.0 * Math.floor(ra / 360.0);
+	}
+
+	@Override
+	public double getQueryDecDeg() {
+		return decDeg + 0.5 * (y0 + y1);
+	}
+
+	@Override
+	public double getQueryFovAmin() {
+		// RA width on the sky at query box centre
+		double raSpan = (x1 - x0) * Math.cos(Math.toRadians(getQueryDecDeg())) / Math.cos(Math.toRadians(decDeg));
+		return Math.max(y1 - y0, raSpan) * 60.0 + SkyTile.MARGIN_AMIN;
+	}
+
+	// fov records are not cached
+	@Override
+	public String getTileId() {
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FovChunk [ra=%.4f, dec=%.4f, x=%.4f to %.4f, y=%.4f to %.4f]", raDeg, decDeg, x0, x1,
+				y0, y1);
+	}
+}
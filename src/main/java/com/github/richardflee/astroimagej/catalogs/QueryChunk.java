@@ -0,0 +1,51 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.List;
+
+/**
+ * Part of an APASS query downloaded in a single VizieR request.
+ *
+ * <p>A chunk whose download is truncated at the VizieR record limit is split into
+ * quadrant chunks and downloaded again. Query boxes of adjacent chunks overlap,
+ * each record is kept by the one chunk that contains it.</p>
+ */
+interface QueryChunk {
+
+	/**
+	 * Tests if chunk can be split into quadrant chunks
+	 */
+	boolean canSplit();
+
+	/**
+	 * Splits chunk into four quadrant chunks
+	 *
+	 * @return list of quadrant chunks
+	 */
+	List<? extends QueryChunk> split();
+
+	/**
+	 * Tests if chunk contains the specified coordinates
+	 */
+	boolean contains(double raDeg, double decDeg);
+
+	/**
+	 * Centre RA of the square query box enclosing this chunk
+	 */
+	double getQueryRaDeg();
+
+	/**
+	 * Centre Dec of the square query box enclosing this chunk
+	 */
+	double getQueryDecDeg();
+
+	/**
+	 * Side of the square query box enclosing this chunk (arcmin)
+	 */
+	double getQueryFovAmin();
+
+	/**
+	 * Id of the cached sky tile holding this chunk, null if chunk records are not
+	 * cached
+	 */
+	String getTileId();
+}
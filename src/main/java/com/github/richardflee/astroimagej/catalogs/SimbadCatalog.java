@@ -1,157 +1,290 @@
 package com.github.richardflee.astroimagej.catalogs;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLStreamException;
 
 import com.github.richardflee.astroimagej.enums.SimbadEnum;
 import com.github.richardflee.astroimagej.exceptions.SimbadNotFoundException;
+import com.github.richardflee.astroimagej.fileio.SimbadCache;
 import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
 import com.github.richardflee.astroimagej.query_objects.SimbadResult;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
 import com.github.richardflee.astroimagej.utils.CatalogUrls;
 
-
+/**
+ * Queries the SIMBAD on-line database for object coordinates and B, V, R, I
+ * magnitudes. <p>Decodes the VOTable response with the streaming
+ * VoTableReader.</p>
+ * 
+ * <p>runBatchQuery resolves a list of object identifiers in a single SIMBAD
+ * script request.</p>
+ */
 public class SimbadCatalog {
-	private DocumentBuilder builder = null;
-	private final String NO_DATA = "*****";
+	// start of VOTable in SIMBAD script response
+	private static final byte[] XML_DECLARATION = "<?xml".getBytes(StandardCharsets.US_ASCII);
+
+	private String simbadUrl = null;
 	private String statusMessage = null;
 
+	// identifiers not matched in last batch query
+	private List<String> notFoundIds = new ArrayList<>();
+
+	// identifiers not resolved in last batch query because the request failed
+	private List<String> failedIds = new ArrayList<>();
+
 	/**
-	 * Configure XPath to parse xml.  Note: Ignores xml namespace.
+	 * Configures catalog for the on-line SIMBAD server
 	 */
 	public SimbadCatalog() {
-		// Assemble XPath objects ..
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		try {
-			// ignore xml/VOTable namespaces
-			factory.setNamespaceAware(false);
-			this.builder = factory.newDocumentBuilder();
-		} catch (ParserConfigurationException e1) {
-			String statusMessage = "ERROR: Error compiling SIMBAD query | ";
-			statusMessage += e1.getMessage();
-			setStatusMessage(statusMessage);
-		}
+		this(CatalogUrls.SIMBAD_URL);
 	}
-	
+
 	/**
-	 * Runs a sequence of SIMBAD queries to download coordinate and magnitude data
+	 * Configures catalog for the specified SIMBAD server
+	 *
+	 * @param simbadUrl base url of SIMBAD server, e.g. http://simbad.u-strasbg.fr/simbad
+	 */
+	public SimbadCatalog(String simbadUrl) {
+		this.simbadUrl = simbadUrl;
+	}
+
+	/**
+	 * Runs a single SIMBAD query to download coordinate and magnitude data
 	 * for the user specified target name
 	 * <p>
-	 * Each parameter is an individual query with a 250 ms buffer delay between
-	 * successive queries.
+	 * The query requests all SimbadEnum parameters in one VOTable response.
 	 * </p>
-	 * 
+	 *
 	 * @param query catalog query object containing  user input name index to SIMBAD database
 	 * @return result encapsulates SimbadID, coordinates and available magnitudes
-	 *         
-	 * @throws SimbadNotFoundException throws exception if user input name is not 
+	 *
+	 * @throws SimbadNotFoundException throws exception if user input name is not
 	 *  		identified in the Simbad database
 	 */
 	public SimbadResult runQuery(CatalogQuery query) throws SimbadNotFoundException {
-		
-		// run Simbad query
-		SimbadResult simbadResult = new SimbadResult(query.getObjectId());
-		
+
 		// search database for user input object name
 		// throws SimbadNotFoundException if no match found
-		String data = downloadSimbadItem(query, SimbadEnum.USER_TARGET_NAME);
-		simbadResult.setSimbadId(data);
-		
+		String[] data = downloadSimbadData(query);
+
+		// run Simbad query
+		SimbadResult simbadResult = compileSimbadResult(query.getObjectId(), data);
+
+		String statusMessage = String.format("Simbad query successful for ObjectID: %s",  query.getObjectId());
+		setStatusMessage(statusMessage);
+
+		return simbadResult;
+	}
+
+	/**
+	 * Runs a single SIMBAD script query to resolve a list of object identifiers
+	 * <p>
+	 * Identifiers not found in the SIMBAD database are omitted from the result
+	 * map and listed in getNotFoundIds(); the batch is not aborted. If the
+	 * request fails, e.g. connection error, the result map is empty and all
+	 * identifiers are listed in getFailedIds() instead.
+	 * </p>
+	 *
+	 * @param objectIds list of user input object names
+	 * @return map of resolved SimbadResult objects keyed by user input name, in input order
+	 */
+	public Map<String, SimbadResult> runBatchQuery(List<String> objectIds) {
+		Map<String, SimbadResult> results = new LinkedHashMap<>();
+		this.notFoundIds = new ArrayList<>();
+		this.failedIds = new ArrayList<>();
+
+		// input names keyed by normalised name, duplicates dropped
+		Map<String, String> inputIds = new LinkedHashMap<>();
+		for (String objectId : objectIds) {
+			inputIds.putIfAbsent(SimbadCache.normaliseId(objectId), objectId);
+		}
+
+		// download table rows: typed_id followed by SimbadEnum data items
+		List<String[]> rows = null;
+		try {
+			rows = downloadScriptRows(new ArrayList<>(inputIds.values()));
+		} catch (IOException | XMLStreamException e1) {
+			// connection error: names unresolved, not reported as not found
+			this.failedIds.addAll(inputIds.values());
+			String statusMessage = "ERROR: Error running SIMBAD batch query | ";
+			statusMessage += e1.getMessage();
+			setStatusMessage(statusMessage);
+			return results;
+		}
+
+		// map each row to its user input name
+		Map<String, SimbadResult> resolved = new LinkedHashMap<>();
+		for (String[] row : rows) {
+			String key = SimbadCache.normaliseId(row[0]);
+			String objectId = inputIds.get(key);
+			if (objectId != null && row.length > 1) {
+				String[] data = new String[SimbadEnum.values().length];
+				for (int idx = 0; idx < data.length; idx++) {
+					data[idx] = (idx + 1 < row.length) ? row[idx + 1] : "";
+				}
+				resolved.put(key, compileSimbadResult(objectId, data));
+			}
+		}
+
+		// compile results in input order & list unmatched names
+		for (Map.Entry<String, String> entry : inputIds.entrySet()) {
+			SimbadResult result = resolved.get(entry.getKey());
+			if (result != null) {
+				results.put(entry.getValue(), result);
+			} else {
+				this.notFoundIds.add(entry.getValue());
+			}
+		}
+
+		String statusMessage = String.format("Simbad batch query resolved %d of %d objects", 
+				results.size(), inputIds.size());
+		if (!notFoundIds.isEmpty()) {
+			statusMessage += String.format(", no match found for: %s", String.join(", ", notFoundIds));
+		}
+		setStatusMessage(statusMessage);
+		return results;
+	}
+
+	/*
+	 * Posts SIMBAD script for a list of identifiers and reads VOTable rows
+	 * 
+	 * <p>Script response comprises optional ::error:: section followed by VOTable data</p>
+	 */
+	private List<String[]> downloadScriptRows(List<String> objectIds) throws IOException, XMLStreamException {
+		String body = "script=" + URLEncoder.encode(CatalogUrls.scriptBuilder(objectIds), "UTF-8");
+
+		byte[] response = null;
+		try (InputStream in = CatalogTransport.getDefault().post(CatalogUrls.scriptUrlBuilder(this.simbadUrl),
+				"application/x-www-form-urlencoded; charset=UTF-8", body.getBytes(StandardCharsets.UTF_8))) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				bos.write(buffer, 0, n);
+			}
+			response = bos.toByteArray();
+		}
+
+		// skip error section, no VOTable if no names matched
+		int start = indexOf(response, XML_DECLARATION);
+		if (start < 0) {
+			return new ArrayList<>();
+		}
+		return VoTableReader.readRows(new ByteArrayInputStream(response, start, response.length - start), Integer.MAX_VALUE);
+	}
+
+	/*
+	 * Index of first occurrence of target bytes in data, -1 if not found
+	 */
+	private static int indexOf(byte[] data, byte[] target) {
+		for (int idx = 0; idx <= data.length - target.length; idx++) {
+			int jdx = 0;
+			while (jdx < target.length && data[idx + jdx] == target[jdx]) {
+				jdx++;
+			}
+			if (jdx == target.length) {
+				return idx;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Compiles SimbadResult from SimbadEnum data items
+	 *
+	 * @param objectId user input object name
+	 * @param data text data values indexed by SimbadEnum ordinal, empty string if no data
+	 * @return result encapsulates SimbadID, coordinates and available magnitudes
+	 */
+	private SimbadResult compileSimbadResult(String objectId, String[] data) {
+		SimbadResult simbadResult = new SimbadResult(objectId);
+		simbadResult.setSimbadId(data[SimbadEnum.USER_TARGET_NAME.ordinal()]);
+
 		// no checks on coordinate data, assumed good
 		// object J2000 RA converted deg -> hrs
-		data = downloadSimbadItem(query, SimbadEnum.RA_HR);
-		simbadResult.setSimbadRaHr(Double.parseDouble(data) / 15.0);
-		
+		simbadResult.setSimbadRaHr(Double.parseDouble(data[SimbadEnum.RA_HR.ordinal()]) / 15.0);
+
 		// object J2000 Dec in deg
-		data = downloadSimbadItem(query, SimbadEnum.DEC_DEG);
-		simbadResult.setSimbadDecDeg(Double.parseDouble(data));
-		
+		simbadResult.setSimbadDecDeg(Double.parseDouble(data[SimbadEnum.DEC_DEG.ordinal()]));
+
 		// object magnitude for filters B, V, Rc and Ic.
 		// return null if no magnitude data for this filter
-		data = downloadSimbadItem(query, SimbadEnum.MAG_B);
-		Double num = (data.equals(NO_DATA)) ? null : Double.parseDouble(data);
-		simbadResult.setMagB(num);
-		
-		data = downloadSimbadItem(query, SimbadEnum.MAG_V);
-		num = (data.equals(NO_DATA)) ? null : Double.parseDouble(data);
-		simbadResult.setMagV(num);
-		
-		data = downloadSimbadItem(query, SimbadEnum.MAG_R);
-		num = (data.equals(NO_DATA)) ? null : Double.parseDouble(data);
-		simbadResult.setMagR(num);
-		
-		data = downloadSimbadItem(query, SimbadEnum.MAG_I);
-		num = (data.equals(NO_DATA)) ? null : Double.parseDouble(data);
-		simbadResult.setMagI(num);
-		
-		String statusMessage = String.format("Simbad query successful for ObjectID: %s",  query.getObjectId());
-		setStatusMessage(statusMessage);
-		
+		simbadResult.setMagB(parseMag(data[SimbadEnum.MAG_B.ordinal()]));
+		simbadResult.setMagV(parseMag(data[SimbadEnum.MAG_V.ordinal()]));
+		simbadResult.setMagR(parseMag(data[SimbadEnum.MAG_R.ordinal()]));
+		simbadResult.setMagI(parseMag(data[SimbadEnum.MAG_I.ordinal()]));
 		return simbadResult;
 	}
 
 	/*
-	 * Queries the SIMBAD database for single SimbadDataType data item. Applies 250
-	 * ms delay after query returns to buffer successive queries
-	 * 
-	 * <p>Refer reference above for details Xpath xml parser</p>
-	 * 
-	 * @param dataType query data type, SimbadId, coordinates or filter magnitudes	 
-	 * @return text data value 
+	 * Queries the SIMBAD database for all SimbadEnum data items in a single request
+	 *
+	 * @param query catalog query with user input object name
+	 * @return text data values indexed by SimbadEnum ordinal, empty string if no data
 	 * @throws SimbadNotFoundException thrown if specified object name is not found
 	 * in SIMBAD database
 	 */
-	private String downloadSimbadItem(CatalogQuery query, SimbadEnum paramType) 
-			throws SimbadNotFoundException {
-		NodeList nodes = null;
-		String result = null;
-		
-		// compile SIMBAD url for current SinbadDataType
-		String url = CatalogUrls.urlBuilder(query, paramType);
-		
-		// Create Xpath and run xml query for dataType-specified item
-		try {
-			Document doc = builder.parse(url);
-			XPath xpath = XPathFactory.newInstance().newXPath();
-			XPathExpression expr = xpath.compile("//TD/text()");
-			nodes = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
-			
-			// buffer successive queries
-			Thread.sleep(250);
-		} catch (SAXException | IOException | XPathExpressionException | InterruptedException e1) {
+	private String[] downloadSimbadData(CatalogQuery query) throws SimbadNotFoundException {
+		// compile SIMBAD url for all SimbadEnum parameters
+		String url = CatalogUrls.urlBuilder(this.simbadUrl, query);
+
+		// stream first table row from VOTable response
+		String[] cells = null;
+		try (InputStream in = CatalogTransport.getDefault().openStream(url)) {
+			cells = VoTableReader.readFirstRow(in);
+		} catch (IOException | XMLStreamException e1) {
 			String statusMessage = "ERROR: Error running SIMBAD query | ";
 			statusMessage += e1.getMessage();
 			setStatusMessage(statusMessage);
+			throw new SimbadNotFoundException(statusMessage);
 		}
-		
-		// node item 0 is SimbadId name. 
-		// Query objectId: throw SimbadNotFoundException if input does not match SIMBAD records
-		if (paramType == SimbadEnum.USER_TARGET_NAME) {
-			try {
-				result = nodes.item(0).getNodeValue();
-			} catch (NullPointerException npe) {
-				String statusMessage =  
-						String.format("No match found for ObjectID %s in the SIMBAD database", query.getObjectId());
-				setStatusMessage(statusMessage);
-				throw new SimbadNotFoundException(null);
-			}
-			// other data is node item 1. Null check manages missing magnitude data  
-		} else {
-			result = (nodes.getLength() == 1) ? NO_DATA : nodes.item(1).getNodeValue();
+		return decodeSimbadRow(cells, query.getObjectId());
+	}
+
+	/*
+	 * Maps VOTable row cells to SimbadEnum data items
+	 *
+	 * @param cells TD cell text of first table row, empty array if no table data
+	 * @param objectId user input object name
+	 * @return text data values indexed by SimbadEnum ordinal, empty string if no data
+	 * @throws SimbadNotFoundException thrown if there is no table data
+	 */
+	String[] decodeSimbadRow(String[] cells, String objectId) throws SimbadNotFoundException {
+		// no table data: throw SimbadNotFoundException if input does not match SIMBAD records
+		if (cells.length == 0) {
+			String statusMessage =
+					String.format("No match found for ObjectID %s in the SIMBAD database", objectId);
+			setStatusMessage(statusMessage);
+			throw new SimbadNotFoundException(null);
+		}
+
+		// empty cells (usually R and I mags) map to empty string
+		String[] data = new String[SimbadEnum.values().length];
+		for (int idx = 0; idx < data.length; idx++) {
+			data[idx] = (idx < cells.length) ? cells[idx] : "";
 		}
-		return result;
+		return data;
+	}
+
+	/*
+	 * Converts magnitude text to numeric value
+	 *
+	 * @param data magnitude text, empty if no data
+	 * @return magnitude value, null if no data for this filter
+	 */
+	private Double parseMag(String data) {
+		return (data.isEmpty()) ? null : Double.parseDouble(data);
 	}
 
 	public String getStatusMessage() {
@@ -160,7 +293,22 @@ public class SimbadCatalog {
 
 	public void setStatusMessage(String statusMessage) {
 		this.statusMessage = statusMessage;
-	}	
-	
-	
+	}
+
+	/**
+	 * @return identifiers not matched in the SIMBAD database in last batch query
+	 */
+	public List<String> getNotFoundIds() {
+		return notFoundIds;
+	}
+
+	/**
+	 * @return identifiers not resolved in last batch query because the request
+	 *     failed; empty if the request completed
+	 */
+	public List<String> getFailedIds() {
+		return failedIds;
+	}
+
+
 }
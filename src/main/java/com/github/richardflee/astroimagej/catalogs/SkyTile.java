@@ -0,0 +1,202 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Approximately equal-area sky partition used to cache catalog records by sky region.
+ *
+ * <p>The sky is divided into declination bands of TILE_DEG height, each band
+ * divided into RA cells of approximately TILE_DEG width on the sky. The two
+ * polar caps are single tiles.</p>
+ *
+ * <p>Tile identifier format: dDDD_rRRRR, dec band & RA cell indices</p>
+ */
+public class SkyTile {
+
+	// tile height (deg)
+	public static final double TILE_DEG = 0.5;
+
+	private static final int N_DEC_BANDS = (int) Math.round(180.0 / TILE_DEG);
+
+	// tile query box margin (arcmin)
+	static final double MARGIN_AMIN = 0.2;
+
+	private int decIdx = 0;
+	private int raIdx = 0;
+
+	// tile bounds (deg)
+	private double dec0 = 0.0;
+	private double dec1 = 0.0;
+	private double ra0 = 0.0;
+	private double ra1 = 0.0;
+
+	/**
+	 * Tile specified by dec band and RA cell indices
+	 *
+	 * @param decIdx dec band index, 0 at south pole
+	 * @param raIdx RA cell index, 0 at RA = 0
+	 */
+	public SkyTile(int decIdx, int raIdx) {
+		this.decIdx = decIdx;
+		this.raIdx = raIdx;
+
+		this.dec0 = -90.0 + decIdx * TILE_DEG;
+		this.dec1 = dec0 + TILE_DEG;
+
+		int nRa = nRaCells(decIdx);
+		double raWidth = 360.0 / nRa;
+		this.ra0 = raIdx * raWidth;
+		this.ra1 = (raIdx == nRa - 1) ? 360.0 : ra0 + raWidth;
+	}
+
+	/**
+	 * Tile containing the specified coordinates
+	 *
+	 * @param raDeg J2000 RA in degree (0 to 360)
+	 * @param decDeg J2000 Dec in degree (±90°)
+	 * @return tile containing (raDeg, decDeg)
+	 */
+	public static SkyTile getTile(double raDeg, double decDeg) {
+		int decIdx = decIndex(decDeg);
+		int nRa = nRaCells(decIdx);
+		int raIdx = (int) Math.floor(normaliseRa(raDeg) / (360.0 / nRa));
+		return new SkyTile(decIdx, Math.min(raIdx, nRa - 1));
+	}
+
+	/**
+	 * Lists tiles overlapping a square field of view
+	 *
+	 * @param raDeg fov centre J2000 RA in degree
+	 * @param decDeg fov centre J2000 Dec in degree
+	 * @param fovAmin fov side in arcmin
+	 * @return list of overlapping tiles ordered by dec band then RA cell
+	 */
+	public static List<SkyTile> coveringTiles(double raDeg, double decDeg, double fovAmin) {
+		List<SkyTile> tiles = new ArrayList<>();
+		double halfDeg = fovAmin / 120.0;
+
+		double decLo = Math.max(-90.0, decDeg - halfDeg);
+		double decHi = Math.min(90.0, decDeg + halfDeg);
+
+		// RA half-width at the poleward edge of the fov
+		double cosMin = Math.cos(Math.toRadians(Math.max(Math.abs(decLo), Math.abs(decHi))));
+		double halfRa = (cosMin > 1.0e-6) ? halfDeg / cosMin : 360.0;
+
+		for (int decIdx = decIndex(decLo); decIdx <= decIndex(decHi); decIdx++) {
+			int nRa = nRaCells(decIdx);
+			double raWidth = 360.0 / nRa;
+			int first = (int) Math.floor((raDeg - halfRa) / raWidth);
+			int last = (int) Math.floor((raDeg + halfRa) / raWidth);
+
+			// fov spans all RA cells in this band
+			if (last - first + 1 >= nRa) {
+				first = 0;
+				last = nRa - 1;
+			}
+			for (int idx = first; idx <= last; idx++) {
+				tiles.add(new SkyTile(decIdx, Math.floorMod(idx, nRa)));
+			}
+		}
+		return tiles;
+	}
+
+	/**
+	 * Tests if tile contains the specified coordinates; includes lower bounds and
+	 * excludes upper bounds except at the north pole
+	 */
+	public boolean contains(double raDeg, double decDeg) {
+		boolean inDec = (decDeg >= dec0) && ((decDeg < dec1) || (decIdx == N_DEC_BANDS - 1));
+		double ra = normaliseRa(raDeg);
+		return inDec && (ra >= ra0) && (ra < ra1);
+	}
+
+	/**
+	 * Centre RA of the square query box enclosing this tile
+	 */
+	public double getQueryRaDeg() {
+		return 0.5 * (ra0 + ra1);
+	}
+
+	/**
+	 * Centre Dec of the square query box enclosing this tile, polar caps
+	 * centred on the pole
+	 */
+	public double getQueryDecDeg() {
+		if (decIdx == 0) {
+			return -90.0;
+		} else if (decIdx == N_DEC_BANDS - 1) {
+			return 90.0;
+		}
+		return 0.5 * (dec0 + dec1);
+	}
+
+	/**
+	 * Side of the square query box enclosing this tile (arcmin)
+	 */
+	public double getQueryFovAmin() {
+		// polar cap: box centred on pole
+		if (isPolarCap()) {
+			return 2.0 * TILE_DEG * 60.0 + MARGIN_AMIN;
+		}
+
+		// RA width on the sky at the equatorward edge of the tile
+		double decEq = (dec0 < 0.0 && dec1 > 0.0) ? 0.0 : Math.min(Math.abs(dec0), Math.abs(dec1));
+		double raSpan = (ra1 - ra0) * Math.cos(Math.toRadians(decEq));
+		return Math.max(TILE_DEG, raSpan) * 60.0 + MARGIN_AMIN;
+	}
+
+	/**
+	 * Tests if tile is a polar cap
+	 */
+	public boolean isPolarCap() {
+		return decIdx == 0 || decIdx == N_DEC_BANDS - 1;
+	}
+
+	public double getRaMinDeg() {
+		return ra0;
+	}
+
+	public double getRaMaxDeg() {
+		return ra1;
+	}
+
+	public double getDecMinDeg() {
+		return dec0;
+	}
+
+	public double getDecMaxDeg() {
+		return dec1;
+	}
+
+	public String getTileId() {
+		return String.format("d%03d_r%04d", decIdx, raIdx);
+	}
+
+	// number of RA cells in dec band, single tile polar caps
+	private static int nRaCells(int decIdx) {
+		if (decIdx == 0 || decIdx == N_DEC_BANDS - 1) {
+			return 1;
+		}
+		double decMid = -90.0 + (decIdx + 0.5) * TILE_DEG;
+		int nRa = (int) Math.floor(360.0 * Math.cos(Math.toRadians(decMid)) / TILE_DEG);
+		return Math.max(1, nRa);
+	}
+
+	// dec band index, north pole assigned to last band
+	private static int decIndex(double decDeg) {
+		int decIdx = (int) Math.floor((decDeg + 90.0) / TILE_DEG);
+		return Math.max(0, Math.min(decIdx, N_DEC_BANDS - 1));
+	}
+
+	// RA in range 0 to 360 deg
+	private static double normaliseRa(double raDeg) {
+		double ra = raDeg % 360.0;
+		return (ra < 0.0) ? ra + 360.0 : ra;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SkyTile [%s, ra=%.4f to %.4f, dec=%.4f to %.4f]", getTileId(), ra0, ra1, dec0, dec1);
+	}
+}
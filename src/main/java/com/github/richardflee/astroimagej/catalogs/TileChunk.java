@@ -0,0 +1,135 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rectangular part of a SkyTile downloaded in a single VizieR request.
+ *
+ * <p>A tile whose download is truncated at the VizieR record limit is split into
+ * four quadrant chunks and downloaded again, down to MAX_DEPTH levels. Chunks
+ * of a tile partition the tile: query boxes overlap but each record is kept by
+ * the one chunk that contains it, so merged chunks hold no duplicate records.</p>
+ */
+class TileChunk implements QueryChunk {
+
+	// maximum split depth, 0.5 deg tile => 3.75' chunk
+	static final int MAX_DEPTH = 3;
+
+	private SkyTile tile = null;
+	private int depth = 0;
+
+	// chunk bounds (deg)
+	private double ra0 = 0.0;
+	private double ra1 = 0.0;
+	private double dec0 = 0.0;
+	private double dec1 = 0.0;
+
+	/**
+	 * Chunk covering a full sky tile
+	 *
+	 * @param tile sky tile
+	 */
+	TileChunk(SkyTile tile) {
+		this(tile, 0, tile.getRaMinDeg(), tile.getRaMaxDeg(), tile.getDecMinDeg(), tile.getDecMaxDeg());
+	}
+
+	private TileChunk(SkyTile tile, int depth, double ra0, double ra1, double dec0, double dec1) {
+		this.tile = tile;
+		this.depth = depth;
+		this.ra0 = ra0;
+		this.ra1 = ra1;
+		this.dec0 = dec0;
+		this.dec1 = dec1;
+	}
+
+	/**
+	 * Tests if chunk can be split; polar caps and chunks at MAX_DEPTH are not split
+	 */
+	@Override
+	public boolean canSplit() {
+		return !tile.isPolarCap() && depth < MAX_DEPTH;
+	}
+
+	/**
+	 * Splits chunk into four quadrant chunks
+	 *
+	 * @return list of quadrant chunks
+	 */
+	@Override
+	public List<TileChunk> split() {
+		double raMid = 0.5 * (ra0 + ra1);
+		double decMid = 0.5 * (dec0 + dec1);
+		List<TileChunk> chunks = new ArrayList<>(4);
+		chunks.add(new TileChunk(tile, depth + 1, ra0, raMid, dec0, decMid));
+		chunks.add(new TileChunk(tile, depth + 1, raMid, ra1, dec0, decMid));
+		chunks.add(new TileChunk(tile, depth + 1, ra0, raMid, decMid, dec1));
+		chunks.add(new TileChunk(tile, depth + 1, raMid, ra1, decMid, dec1));
+		return chunks;
+	}
+
+	/**
+	 * Tests if chunk contains the specified coordinates; lower bounds included, upper
+	 * bounds excluded except at the tile edge where SkyTile bounds apply
+	 */
+	@Override
+	public boolean contains(double raDeg, double decDeg) {
+		if (!tile.contains(raDeg, decDeg)) {
+			return false;
+		}
+		double ra = raDeg % 360.0;
+		ra = (ra < 0.0) ? ra + 360.0 : ra;
+		boolean inDec = (decDeg >= dec0) && ((decDeg < dec1) || (dec1 == tile.getDecMaxDeg()));
+		boolean inRa = (ra >= ra0) && ((ra < ra1) || (ra1 == tile.getRaMaxDeg()));
+		return inDec && inRa;
+	}
+
+	/**
+	 * Centre RA of the square query box enclosing this chunk
+	 */
+	@Override
+	public double getQueryRaDeg() {
+		return (depth == 0) ? tile.getQueryRaDeg() : 0.5 * (ra0 + ra1);
+	}
+
+	/**
+	 * Centre Dec of the square query box enclosing this chunk
+	 */
+	@Override
+	public double getQueryDecDeg() {
+		return (depth == 0) ? tile.getQueryDecDeg() : 0.5 * (dec0 + dec1);
+	}
+
+	/**
+	 * Side of the square query box enclosing this chunk (arcmin)
+	 */
+	@Override
+	public double getQueryFovAmin() {
+		if (depth == 0) {
+			return tile.getQueryFovAmin();
+		}
+		// RA width on the sky at the equatorward edge of the chunk
+		double decEq = (dec0 < 0.0 && dec1 > 0.0) ? 0.0 : Math.min(Math.abs(dec0), Math.abs(dec1));
+		double raSpan = (ra1 - ra0) * Math.cos(Math.toRadians(decEq));
+		return Math.max(dec1 - dec0, raSpan) * 60.0 + SkyTile.MARGIN_AMIN;
+	}
+
+	SkyTile getTile() {
+		return tile;
+	}
+
+	@Override
+	public String getTileId() {
+		return tile.getTileId();
+	}
+
+	int getDepth() {
+		return depth;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TileChunk [%s, depth=%d, ra=%.4f to %.4f, dec=%.4f to %.4f]", tile.getTileId(), depth,
+				ra0, ra1, dec0, dec1);
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming reader for VOTable TABLEDATA responses. <p>Pulls &lt;TD&gt; cell
+ * text as the response arrives, no document tree is built. Ignores xml
+ * namespaces.</p>
+ *
+ * <p>Ref: https://www.ivoa.net/documents/VOTable/</p>
+ */
+public class VoTableReader {
+
+	// shared StAX factory, thread-safe once configured
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private static final String TR = "TR";
+	private static final String TD = "TD";
+
+	/**
+	 * Reads the first table row of a VOTable response
+	 *
+	 * @param in VOTable response stream
+	 * @return TD cell text in column order, empty string for empty cells; empty array if no table data
+	 * @throws XMLStreamException if response is not well-formed xml
+	 */
+	public static String[] readFirstRow(InputStream in) throws XMLStreamException {
+		List<String[]> rows = readRows(in, 1);
+		return rows.isEmpty() ? new String[0] : rows.get(0);
+	}
+
+	/**
+	 * Reads table rows of a VOTable response
+	 *
+	 * @param in VOTable response stream
+	 * @param maxRows stop reading after this number of rows
+	 * @return list of rows, each row comprises TD cell text in column order
+	 * @throws XMLStreamException if response is not well-formed xml
+	 */
+	public static List<String[]> readRows(InputStream in, int maxRows) throws XMLStreamException {
+		List<String[]> rows = new ArrayList<>();
+		List<String> cells = new ArrayList<>();
+		StringBuilder text = new StringBuilder();
+		boolean inCell = false;
+
+		XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+		try {
+			while (reader.hasNext() && rows.size() < maxRows) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = reader.getLocalName();
+					if (TR.equals(name)) {
+						cells.clear();
+					} else if (TD.equals(name)) {
+						text.setLength(0);
+						inCell = true;
+					}
+				} else if (inCell && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+					text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					String name = reader.getLocalName();
+					if (TD.equals(name)) {
+						cells.add(text.toString().trim());
+						inCell = false;
+					} else if (TR.equals(name)) {
+						rows.add(cells.toArray(new String[cells.size()]));
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return rows;
+	}
+
+	/*
+	 * Configures StAX factory: namespaces, DTD and external entities disabled
+	 */
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
+}
@@ -1,17 +1,16 @@
 package com.github.richardflee.astroimagej.catalogs;
 
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.richardflee.astroimagej.enums.CatalogsEnum;
 import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
 import com.github.richardflee.astroimagej.query_objects.FieldObject;
 import com.github.richardflee.astroimagej.query_objects.QueryResult;
-import com.github.richardflee.astroimagej.utils.AstroCoords;
+import com.github.richardflee.astroimagej.query_objects.VspResult;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
 import com.github.richardflee.astroimagej.utils.CatalogUrls;
 
 /**
@@ -23,7 +22,7 @@ import com.github.richardflee.astroimagej.utils.CatalogUrls;
  * 
  * </p> <p> Example url:
  * https://app.aavso.org/vsp/api/chart/?format=json&fov=30.0&maglimit=14.5&ra=97.63665&dec=29.67230;
- * Refer getUrl() method for details</p> 
+ * Refer CatalogUrls.vspUrlBuilder() method for details</p> 
  * 
  * <p> Note that currently VSP API is not
  * documented on-line (2021-05)</p> <p> Json format response,
@@ -35,17 +34,29 @@ public class VspCatalog implements AstroCatalog {
 	private String statusMessage = null;
 	private final String VSP_CONNECTION_ERROR = "ERROR: Error in VSP internet connection";
 
-	private ObjectMapper objectMapper = null;
-	
-	// create Jackson object mapper to decode json response to vsp query
+	// VSP api base url
+	private String vspUrl = null;
+
+	/**
+	 * Configures catalog for the on-line VSP api
+	 */
 	public VspCatalog() {
-		objectMapper = new ObjectMapper();
+		this(CatalogUrls.VSP_URL);
+	}
+
+	/**
+	 * Configures catalog for the specified VSP server
+	 * 
+	 * @param vspUrl base url of VSP api, e.g. https://app.aavso.org/vsp/api
+	 */
+	public VspCatalog(String vspUrl) {
+		this.vspUrl = vspUrl;
 	}
 
 	/**
 	 * Runs the VSP database query with url compiled from user-input parameters and
-	 * decodes json response to extract photometry data. <p> Utilises Jackson api to
-	 * 'tree-walk' json node structure. </p>
+	 * decodes json response to extract photometry data. <p> Utilises Jackson streaming 
+	 * api to decode field objects as the response is read, refer VspJsonDecoder. </p>
 	 * @param query
 	 *     CatalogQuery object encapsulating VSP database query parameters
 	 * @return result VSP database QueryResult type response comprising an array of
@@ -53,39 +64,41 @@ public class VspCatalog implements AstroCatalog {
 	 */
 	@Override
 	public List<FieldObject> runQuery(CatalogQuery query) {
+		return runVspQuery(query).getFieldObjects();
+	}
 
-		List<FieldObject> fieldObjects = new ArrayList<>();
-
-		String magBand = query.getMagBand();
-
-		// reference to json root node
-		JsonNode root = null;
+	/**
+	 * Runs the VSP database query and returns field objects and chart uri decoded from 
+	 * the same VSP response
+	 * 
+	 * @param query
+	 *     CatalogQuery object encapsulating VSP database query parameters
+	 * @return VspResult with field objects matching user-input query parameters and chart
+	 * uri; empty result on connection error 
+	 */
+	public VspResult runVspQuery(CatalogQuery query) {
+		VspResult result = new VspResult();
 		try {
-			root = objectMapper.readTree(new URL(CatalogUrls.urlBuilder(query)));
-
-			// photometry node: parent node for field object nodes
-			JsonNode foNodes = root.findPath("photometry");
-			for (JsonNode foNode : foNodes) {
-				// create a new FieldObject, and add object coordinates + auid
-				FieldObject fo = new FieldObject();
-				fo.setObjectId(foNode.findPath("auid").asText());
-				fo.setRaHr(AstroCoords.raHmsToRaHr(foNode.path("ra").asText()));
-				fo.setDecDeg(AstroCoords.decDmsToDecDeg(foNode.path("dec").asText()));
-
-				// if node matching magBand is found then add mag & magErr
-				// to fieldObject (fo) and append to result list
-				JsonNode bNode = importMagData(foNode, magBand);
-				if (bNode != null) {
-					fo.setMag(bNode.path("mag").asDouble());
-					fo.setMagErr(bNode.path("error").asDouble());
-					fieldObjects.add(fo);
-				}
-			}
-			String statusMessage = String.format("Downloaded %d VSP records", fieldObjects.size());
+			result = fetchVspResult(query);
+
+			String statusMessage = String.format("Downloaded %d VSP records", result.getFieldObjects().size());
 			setStatusMessage(statusMessage);
 		} catch (IOException e) {
 			setStatusMessage(VSP_CONNECTION_ERROR);
 		}
+		return result;
+	}
+	
+	/*
+	 * Decodes VSP json response to field objects with photometry data for magBand
+	 * @param in json response stream
+	 * @param magBand selected mag band (B, V, Rc, Ic)
+	 * @return list of field objects with magBand photometry data
+	 * @throws IOException on read error or malformed json
+	 */
+	static List<FieldObject> decodeFieldObjects(InputStream in, String magBand) throws IOException {
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		new VspJsonDecoder(magBand, fo -> fieldObjects.add(fo)).decode(in);
 		return fieldObjects;
 	}
 	
@@ -104,38 +117,29 @@ public class VspCatalog implements AstroCatalog {
 	 */
 	public String downloadVspChart(CatalogQuery query) {
 		String chartUri = null;
-		JsonNode root = null;
 		query.setCatalogType(CatalogsEnum.VSP);
 		try {
-			root = objectMapper.readTree(new URL(CatalogUrls.urlBuilder(query)));
 			// full uri may include extraneous text
-			chartUri = root.findPath("image_uri").asText();
+			chartUri = fetchVspResult(query).getChartUri();
 		} catch (IOException e) {
 			setStatusMessage(VSP_CONNECTION_ERROR);
 		}
 		return chartUri;
 	}
 
-
 	/*
-	 * Searches current field object for magBand photometry data
-	 * @param foNode field object node
-	 * @param magBand selected mag band (B, V, Rc, Ic)
-	 * @return node JsonNode pointing to selected magnitude data (if found), null
-	 * otherwise
+	 * Downloads and decodes VSP json response in a single request
+	 * @param query catalog query parameters
+	 * @return VspResult with field objects and chart uri
+	 * @throws IOException on connection error or malformed response
 	 */
-	private JsonNode importMagData(JsonNode foNode, String magBand) {
-		// loop through bands nodes, return node matching magBand otherwise null
-		JsonNode node = null;
-		JsonNode bandNodes = foNode.findPath("bands");
-		for (JsonNode bandNode : bandNodes) {
-			String currentBand = bandNode.path("band").asText();
-			if (currentBand.equalsIgnoreCase(magBand)) {
-				node = bandNode;
-				break;
-			}
+	private VspResult fetchVspResult(CatalogQuery query) throws IOException {
+		try (InputStream in = CatalogTransport.getDefault().openStream(CatalogUrls.vspUrlBuilder(vspUrl, query))) {
+			List<FieldObject> fieldObjects = new ArrayList<>();
+			VspJsonDecoder decoder = new VspJsonDecoder(query.getMagBand(), fo -> fieldObjects.add(fo));
+			decoder.decode(in);
+			return new VspResult(fieldObjects, decoder.getImageUri());
 		}
-		return node;
 	}
 
 	public void setStatusMessage(String statusMessage) {
@@ -149,14 +153,12 @@ public class VspCatalog implements AstroCatalog {
 
 		QueryResult result = new QueryResult(query, null);
 
-		AstroCatalog catalog = CatalogFactory.createCatalog(query.getCatalogType());
-		List<FieldObject> fieldObjects = catalog.runQuery(query);
-		result.appendFieldObjects(fieldObjects);
-
-		VspCatalog vspChart = new VspCatalog();
-		String chartUri = vspChart.downloadVspChart(query);
+		// field objects & chart uri from single VSP request
+		VspCatalog catalog = new VspCatalog();
+		VspResult vspResult = catalog.runVspQuery(query);
+		result.appendFieldObjects(vspResult.getFieldObjects());
 		
-		System.out.println(chartUri);
-		result.setChartUri(chartUri);
+		System.out.println(vspResult.getChartUri());
+		result.setChartUri(vspResult.getChartUri());
 	}
 }
@@ -0,0 +1,161 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+/**
+ * Streaming decoder for VSP json chart responses. <p>Walks the response token
+ * stream once, field stars in the photometry array are passed to a
+ * FieldObjectHandler as each star object is read; no json tree is built.</p>
+ *
+ * <p>Json format response, [root]/[photometry]/[fieldstar[1] ...fieldstar[n]
+ * where each field star comprises auid, ra, dec and an array of wave-band
+ * magnitude data. Field stars without magBand data are skipped. The root
+ * image_uri term is retained for the chart uri.</p>
+ */
+public class VspJsonDecoder {
+
+	/**
+	 * Receives decoded VSP field objects
+	 */
+	@FunctionalInterface
+	public interface FieldObjectHandler {
+		void fieldObject(FieldObject fo);
+	}
+
+	// thread-safe parser factory
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private String magBand = null;
+	private FieldObjectHandler handler = null;
+	private String imageUri = null;
+
+	// current field star terms
+	private String auid = null;
+	private String ra = null;
+	private String dec = null;
+	private boolean hasBand = false;
+	private double mag = 0.0;
+	private double magErr = 0.0;
+
+	/**
+	 * @param magBand selected mag band (B, V, Rc, Ic), case insensitive
+	 * @param handler receives each field star with magBand data in response order
+	 */
+	public VspJsonDecoder(String magBand, FieldObjectHandler handler) {
+		this.magBand = magBand;
+		this.handler = handler;
+	}
+
+	/**
+	 * Decodes json response stream; stream is not closed
+	 *
+	 * @param in VSP json response stream
+	 * @return number of field objects passed to handler
+	 * @throws IOException on read error or malformed json
+	 */
+	public int decode(InputStream in) throws IOException {
+		int nObjects = 0;
+		try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return 0;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if ("image_uri".equals(name)) {
+					imageUri = parser.getValueAsString();
+				} else if ("photometry".equals(name) && token == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						nObjects += decodeFieldStar(parser) ? 1 : 0;
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		return nObjects;
+	}
+
+	/**
+	 * Chart image uri from last decoded response, may include extraneous text
+	 *
+	 * @return image_uri text, null if not present
+	 */
+	public String getImageUri() {
+		return imageUri;
+	}
+
+	/*
+	 * Reads field star object, parser positioned at START_OBJECT
+	 * @return true if field star has magBand data
+	 */
+	private boolean decodeFieldStar(JsonParser parser) throws IOException {
+		auid = null;
+		ra = null;
+		dec = null;
+		hasBand = false;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("auid".equals(name)) {
+				auid = parser.getValueAsString();
+			} else if ("ra".equals(name)) {
+				ra = parser.getValueAsString();
+			} else if ("dec".equals(name)) {
+				dec = parser.getValueAsString();
+			} else if ("bands".equals(name) && token == JsonToken.START_ARRAY) {
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					decodeBand(parser);
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (!hasBand || ra == null || dec == null) {
+			return false;
+		}
+		FieldObject fo = new FieldObject();
+		fo.setObjectId(auid);
+		fo.setRaHr(AstroCoords.raHmsToRaHr(ra));
+		fo.setDecDeg(AstroCoords.decDmsToDecDeg(dec));
+		fo.setMag(mag);
+		fo.setMagErr(magErr);
+		handler.fieldObject(fo);
+		return true;
+	}
+
+	/*
+	 * Reads band object, parser positioned at START_OBJECT; first magBand match is retained
+	 */
+	private void decodeBand(JsonParser parser) throws IOException {
+		String band = null;
+		double bandMag = 0.0;
+		double bandErr = 0.0;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			if ("band".equals(name)) {
+				band = parser.getValueAsString();
+			} else if ("mag".equals(name)) {
+				bandMag = parser.getValueAsDouble();
+			} else if ("error".equals(name)) {
+				bandErr = parser.getValueAsDouble();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (!hasBand && magBand.equalsIgnoreCase(band)) {
+			hasBand = true;
+			mag = bandMag;
+			magErr = bandErr;
+		}
+	}
+}
@@ -13,7 +13,7 @@ import java.util.Map;
  * for selected catalog</p>
  */
 public enum CatalogsEnum {
-	SIMBAD("B.V.R.I"), VSP("B.V.Rc.Ic"), APASS("B.V.SG.SR.SI"), DSS("");
+	SIMBAD("B.V.R.I"), VSP("B.V.Rc.Ic"), APASS("B.V.SG.SR.SI"), FEDERATED("B.V"), DSS("");
 
 	private String strVal;
 	private static final Map<String, CatalogsEnum> getEnumMap = new HashMap<>();
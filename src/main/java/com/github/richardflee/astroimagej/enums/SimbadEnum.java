@@ -2,9 +2,12 @@ package com.github.richardflee.astroimagej.enums;
 
 /**
  * Enum maps url segments to SIMBAD query type
+ * 
+ * <p>Enum order matches the column order of the VOTable returned by a single
+ * SIMBAD query for all parameters</p>
  */
 public enum SimbadEnum {
-	USER_TARGET_NAME(""), 
+	USER_TARGET_NAME("main_id"), 
 	RA_HR("ra(d;ICRS;2000.0;2000.0)"), 
 	DEC_DEG("dec(d;ICRS;2000.0;2000.0)"), 
 	MAG_B("flux(B)"),
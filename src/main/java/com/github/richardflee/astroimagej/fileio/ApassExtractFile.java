@@ -0,0 +1,317 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.github.richardflee.astroimagej.enums.ApassEnum;
+
+/**
+ * Binary columnar file of APASS records for a declination band, read through a
+ * memory-mapped buffer.
+ *
+ * <p>Records are sorted by spatial key: dec zone of ZONE_DEG height, then RA
+ * within each zone. A zone index table gives the first record of each zone.</p>
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * header: magic, version, nRows, nBands, nZones, decMin, decMax, zoneDeg
+ * int[nZones + 1]   zone start index
+ * double[nRows]     ra (deg)
+ * double[nRows]     dec (deg)
+ * int[nRows]        nobs
+ * float[nRows]      mag, mag_err for each ApassEnum band, NaN if no data
+ * </pre>
+ *
+ * <p>A single mapped file is limited to 2 GB, about 35 million records.</p>
+ */
+public class ApassExtractFile {
+
+	public static final String EXTRACT_FILE_EXT = ".apx";
+
+	// dec zone height (deg)
+	public static final double ZONE_DEG = 0.1;
+
+	private static final long MAGIC = 0x4150415353583031L; // "APASSX01"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 8 + 4 * 4 + 3 * 8;
+
+	private Path path = null;
+	private int nRows = 0;
+	private int nBands = 0;
+	private int nZones = 0;
+	private double decMin = 0.0;
+	private double decMax = 0.0;
+	private double zoneDeg = 0.0;
+
+	// column views on mapped file
+	private IntBuffer zoneStart = null;
+	private DoubleBuffer raCol = null;
+	private DoubleBuffer decCol = null;
+	private IntBuffer nObsCol = null;
+	private FloatBuffer[] magCols = null;
+	private FloatBuffer[] errCols = null;
+
+	private ApassExtractFile() {
+	}
+
+	/**
+	 * Maps extract file read-only
+	 *
+	 * @param path path to extract file
+	 * @return extract file with column views on mapped buffer
+	 * @throws IOException if file cannot be read or is not an APASS extract file
+	 */
+	public static ApassExtractFile open(Path path) throws IOException {
+		ApassExtractFile ef = new ApassExtractFile();
+		ef.path = path;
+
+		MappedByteBuffer map = null;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (map.capacity() < HEADER_BYTES || map.getLong(0) != MAGIC || map.getInt(8) != VERSION) {
+			throw new IOException(String.format("Not an APASS extract file: %s", path));
+		}
+
+		ef.nRows = map.getInt(12);
+		ef.nBands = map.getInt(16);
+		ef.nZones = map.getInt(20);
+		ef.decMin = map.getDouble(24);
+		ef.decMax = map.getDouble(32);
+		ef.zoneDeg = map.getDouble(40);
+
+		// column views
+		int offset = HEADER_BYTES;
+		ef.zoneStart = slice(map, offset).asIntBuffer();
+		offset += 4 * (ef.nZones + 1);
+		ef.raCol = slice(map, offset).asDoubleBuffer();
+		offset += 8 * ef.nRows;
+		ef.decCol = slice(map, offset).asDoubleBuffer();
+		offset += 8 * ef.nRows;
+		ef.nObsCol = slice(map, offset).asIntBuffer();
+		offset += 4 * ef.nRows;
+
+		ef.magCols = new FloatBuffer[ef.nBands];
+		ef.errCols = new FloatBuffer[ef.nBands];
+		for (int band = 0; band < ef.nBands; band++) {
+			ef.magCols[band] = slice(map, offset).asFloatBuffer();
+			offset += 4 * ef.nRows;
+			ef.errCols[band] = slice(map, offset).asFloatBuffer();
+			offset += 4 * ef.nRows;
+		}
+		if (offset > map.capacity()) {
+			throw new IOException(String.format("Truncated APASS extract file: %s", path));
+		}
+		return ef;
+	}
+
+	/**
+	 * Writes records to extract file, sorted by dec zone then RA
+	 *
+	 * @param path path to extract file
+	 * @param decMin lower dec bound of extract band (deg)
+	 * @param decMax upper dec bound of extract band (deg)
+	 * @param nRows number of records
+	 * @param ra record ra (deg)
+	 * @param dec record dec (deg)
+	 * @param nObs record number of observations
+	 * @param mags record magnitudes indexed [ApassEnum ordinal][record], NaN if no data
+	 * @param errs record magnitude errors indexed [ApassEnum ordinal][record]
+	 * @throws IOException if file cannot be written
+	 */
+	public static void write(Path path, double decMin, double decMax, int nRows, double[] ra, double[] dec,
+			int[] nObs, float[][] mags, float[][] errs) throws IOException {
+		int nBands = ApassEnum.values().length;
+		int nZones = Math.max(1, (int) Math.ceil((decMax - decMin) / ZONE_DEG - 1.0e-9));
+
+		// sort record indices by zone then ra
+		Integer[] order = new Integer[nRows];
+		int[] zones = new int[nRows];
+		for (int idx = 0; idx < nRows; idx++) {
+			order[idx] = idx;
+			zones[idx] = zoneIndex(dec[idx], decMin, ZONE_DEG, nZones);
+		}
+		Arrays.sort(order, (a, b) -> (zones[a] != zones[b]) ? Integer.compare(zones[a], zones[b])
+				: Double.compare(ra[a], ra[b]));
+
+		// zone start index table
+		int[] zoneStart = new int[nZones + 1];
+		for (int idx = 0; idx < nRows; idx++) {
+			zoneStart[zones[idx] + 1]++;
+		}
+		for (int zone = 0; zone < nZones; zone++) {
+			zoneStart[zone + 1] += zoneStart[zone];
+		}
+
+		long size = HEADER_BYTES + 4L * (nZones + 1) + (8L + 8L + 4L + 8L * nBands) * nRows;
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException(String.format("APASS extract exceeds 2 GB limit: %d records", nRows));
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size);
+		buffer.putLong(MAGIC).putInt(VERSION).putInt(nRows).putInt(nBands).putInt(nZones);
+		buffer.putDouble(decMin).putDouble(decMax).putDouble(ZONE_DEG);
+		for (int start : zoneStart) {
+			buffer.putInt(start);
+		}
+		for (Integer idx : order) {
+			buffer.putDouble(ra[idx]);
+		}
+		for (Integer idx : order) {
+			buffer.putDouble(dec[idx]);
+		}
+		for (Integer idx : order) {
+			buffer.putInt(nObs[idx]);
+		}
+		for (int band = 0; band < nBands; band++) {
+			for (Integer idx : order) {
+				buffer.putFloat(mags[band][idx]);
+			}
+			for (Integer idx : order) {
+				buffer.putFloat(errs[band][idx]);
+			}
+		}
+		buffer.flip();
+
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Tests if extract dec band includes the specified dec range
+	 */
+	public boolean covers(double decLo, double decHi) {
+		return (decLo >= decMin) && (decHi <= decMax);
+	}
+
+	/**
+	 * Passes the index of each record in the RA and dec bounds of a square fov to
+	 * the consumer. <p>Candidate records lie in the fov bounding zones and RA
+	 * range; the consumer applies exact fov tests.</p>
+	 *
+	 * @param raDeg fov centre ra (deg)
+	 * @param decDeg fov centre dec (deg)
+	 * @param fovAmin fov side (arcmin)
+	 * @param consumer receives record indices
+	 */
+	public void forEachCandidate(double raDeg, double decDeg, double fovAmin, IntConsumer consumer) {
+		double halfDeg = fovAmin / 120.0;
+		double decLo = Math.max(decMin, decDeg - halfDeg);
+		double decHi = Math.min(decMax, decDeg + halfDeg);
+		if (decLo > decHi) {
+			return;
+		}
+
+		// RA half-width at the poleward edge of the fov
+		double cosMin = Math.cos(Math.toRadians(Math.min(90.0, Math.max(Math.abs(decLo), Math.abs(decHi)))));
+		double halfRa = (cosMin > 1.0e-6) ? halfDeg / cosMin : 360.0;
+
+		int zLo = zoneIndex(decLo, decMin, zoneDeg, nZones);
+		int zHi = zoneIndex(decHi, decMin, zoneDeg, nZones);
+		for (int zone = zLo; zone <= zHi; zone++) {
+			int start = zoneStart.get(zone);
+			int end = zoneStart.get(zone + 1);
+			if (halfRa >= 180.0) {
+				scan(start, end, 0.0, 360.0, consumer);
+				continue;
+			}
+
+			// RA range, split at RA = 0
+			double raLo = raDeg - halfRa;
+			double raHi = raDeg + halfRa;
+			if (raLo < 0.0) {
+				scan(start, end, raLo + 360.0, 360.0, consumer);
+				scan(start, end, 0.0, raHi, consumer);
+			} else if (raHi >= 360.0) {
+				scan(start, end, raLo, 360.0, consumer);
+				scan(start, end, 0.0, raHi - 360.0, consumer);
+			} else {
+				scan(start, end, raLo, raHi, consumer);
+			}
+		}
+	}
+
+	// records with raLo <= ra <= raHi in zone [start, end)
+	private void scan(int start, int end, double raLo, double raHi, IntConsumer consumer) {
+		for (int idx = lowerBound(start, end, raLo); idx < end && raCol.get(idx) <= raHi; idx++) {
+			consumer.accept(idx);
+		}
+	}
+
+	// first index in [start, end) with ra >= raDeg
+	private int lowerBound(int start, int end, double raDeg) {
+		int lo = start;
+		int hi = end;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (raCol.get(mid) < raDeg) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static int zoneIndex(double decDeg, double decMin, double zoneDeg, int nZones) {
+		int zone = (int) Math.floor((decDeg - decMin) / zoneDeg);
+		return Math.max(0, Math.min(zone, nZones - 1));
+	}
+
+	private static ByteBuffer slice(ByteBuffer map, int offset) {
+		ByteBuffer dup = map.duplicate();
+		dup.position(offset);
+		return dup.slice();
+	}
+
+	public double getRaDeg(int idx) {
+		return raCol.get(idx);
+	}
+
+	public double getDecDeg(int idx) {
+		return decCol.get(idx);
+	}
+
+	public int getnObs(int idx) {
+		return nObsCol.get(idx);
+	}
+
+	public float getMag(ApassEnum band, int idx) {
+		return magCols[band.ordinal()].get(idx);
+	}
+
+	public float getMagErr(ApassEnum band, int idx) {
+		return errCols[band.ordinal()].get(idx);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public int getnRows() {
+		return nRows;
+	}
+
+	public double getDecMin() {
+		return decMin;
+	}
+
+	public double getDecMax() {
+		return decMax;
+	}
+}
@@ -0,0 +1,117 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Local disk cache of APASS records partitioned by sky tile and magnitude band.
+ * <p>Path to cache folder: C:/Users/[user]/.astroimagej/apass_cache</p>
+ *
+ * <p>Each tile is stored as a text file [band]/[tileId].tsv comprising
+ * tab-delimited VizieR data lines: ra, dec, nobs, mag, mag_err. An empty file
+ * records a tile with no APASS objects.</p>
+ */
+public class ApassTileCache {
+
+	private static final String APASS_CACHE_FOLDER = "apass_cache";
+	private static final String TILE_FILE_EXT = ".tsv";
+
+	private Path cacheDir = null;
+
+	/**
+	 * Opens cache in default folder alongside the plugin properties file
+	 */
+	public ApassTileCache() {
+		this(Paths.get(System.getProperty("user.home"), ".astroimagej", APASS_CACHE_FOLDER));
+	}
+
+	/**
+	 * Opens cache in specified folder, folder created on first write
+	 *
+	 * @param cacheDir path to cache folder
+	 */
+	public ApassTileCache(Path cacheDir) {
+		this.cacheDir = cacheDir;
+	}
+
+	/**
+	 * Opens cached tile file for streaming decode
+	 *
+	 * @param band APASS magnitude band, e.g. "V"
+	 * @param tileId sky tile identifier
+	 * @return tile file input stream, null if tile not cached or tile file unreadable
+	 */
+	public InputStream openTile(String band, String tileId) {
+		Path path = tilePath(band, tileId);
+		if (!Files.exists(path)) {
+			return null;
+		}
+		try {
+			return Files.newInputStream(path);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes tile data lines to cache
+	 *
+	 * @param band APASS magnitude band, e.g. "V"
+	 * @param tileId sky tile identifier
+	 * @param lines tab-delimited data lines of objects in this tile
+	 * @return true if tile file was written
+	 */
+	public boolean writeTile(String band, String tileId, List<String> lines) {
+		Path path = tilePath(band, tileId);
+		try {
+			Files.createDirectories(path.getParent());
+
+			// write temp file then move, readers never see a partial tile
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			Files.write(temp, lines, StandardCharsets.UTF_8);
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes all cached tiles
+	 *
+	 * @return true if all tile files were deleted
+	 */
+	public boolean clear() {
+		if (!Files.exists(cacheDir)) {
+			return true;
+		}
+		boolean isCleared = true;
+		try (DirectoryStream<Path> bands = Files.newDirectoryStream(cacheDir)) {
+			for (Path bandDir : bands) {
+				if (!Files.isDirectory(bandDir)) {
+					continue;
+				}
+				try (DirectoryStream<Path> tiles = Files.newDirectoryStream(bandDir)) {
+					for (Path tile : tiles) {
+						Files.deleteIfExists(tile);
+					}
+				}
+				Files.deleteIfExists(bandDir);
+			}
+		} catch (IOException e) {
+			isCleared = false;
+		}
+		return isCleared;
+	}
+
+	private Path tilePath(String band, String tileId) {
+		return cacheDir.resolve(band).resolve(tileId + TILE_FILE_EXT);
+	}
+}
@@ -1,15 +1,23 @@
 package com.github.richardflee.astroimagej.fileio;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 
 import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.listeners.DownloadProgressListener;
 import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
+import com.github.richardflee.astroimagej.utils.CatalogTransport.HttpStatusException;
+import com.github.richardflee.astroimagej.utils.CatalogTransport.ResponseStream;
 import com.github.richardflee.astroimagej.utils.CatalogUrls;
 
 /**
@@ -21,9 +29,21 @@ import com.github.richardflee.astroimagej.utils.CatalogUrls;
  * AstroImageJ draws photometry apertures over images of the target and listed
  * comparison stars. </p> <p> SkyView Ref:
  * https://skyview.gsfc.nasa.gov/current/docs/batchpage.html </p>
+ *
+ * <p> Downloads are written to a [filename].part file and renamed when the fits
+ * header and file size are verified. An interrupted download resumes from the end of
+ * the part file with an HTTP range request; the download restarts if the server
+ * returns the complete file. An existing fits file that fails verification is
+ * replaced.</p>
  */
 public class DssFitsWriter {
 
+	// fits file comprises 2880 byte blocks of 80 character header cards
+	private static final int FITS_BLOCK = 2880;
+	private static final int FITS_CARD = 80;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
 	/**
 	 * Compile fits filename based on catalog query data. If this is a new file in
 	 * destination folder then runs a SkyView server query on DSS catalog to
@@ -33,52 +53,200 @@ public class DssFitsWriter {
 	 * @return message whether successful in writing DSS fits file
 	 */
 	public static String downloadDssFits(CatalogQuery query) {
+		return downloadDssFits(query, null);
+	}
+
+	/**
+	 * Downloads DSS fits file for query coordinates and fov, reporting byte progress
+	 *
+	 * @param query sky coordinate and field-of-view data
+	 * @param progressListener receives bytes saved after each block, may be null
+	 * @return message whether successful in writing DSS fits file
+	 */
+	public static String downloadDssFits(CatalogQuery query, DownloadProgressListener progressListener) {
 		// compile DSS url for query parameters
 		query.setCatalogType(CatalogsEnum.DSS);
 		String skyUrl = CatalogUrls.urlBuilder(query);
+		File dir = new File(System.getProperty("user.dir"), "dss");
+		return downloadFits(skyUrl, getFile(dir, query), progressListener);
+	}
 
-		// connect a File variable with the compiled fits filename & get file path
-		File file = getFile(query);
-		// String filePath = file.toString();
+	/*
+	 * Downloads fits file unless a verified file already exists, resumes partial download
+	 * @param skyUrl SkyView url
+	 * @param file destination fits file
+	 * @param progressListener byte progress, may be null
+	 * @return status message
+	 */
+	static String downloadFits(String skyUrl, File file, DownloadProgressListener progressListener) {
 		String filename = file.getName();
-		// System.out.println(filePath);
-		System.out.println(filename);
-
-		// if fits file does not already exist
-		// attempts to download & save a new dss fits file
-		String message = String.format("Fit file: %s already exists", filename);
-		if (!file.exists()) {
+		String savedFormat = "Saved fits file: %s";
+		if (file.exists()) {
+			if (isValidFits(file)) {
+				return String.format("Fit file: %s already exists", filename);
+			}
+			file.delete();
+			savedFormat = "Replaced corrupt fits file: %s";
+		}
+		file.getParentFile().mkdirs();
+		File partFile = new File(file.getParentFile(), filename + ".part");
+		try {
 			try {
-				InputStream in = new URL(skyUrl).openStream();
-				Files.copy(in, Paths.get(file.toString()));
-				message = String.format("Saved fits file: %s", filename);
-			} catch (IOException e) {
-				message = String.format("Error in writing file: %s", filename);
+				downloadPart(skyUrl, partFile, progressListener);
+			} catch (HttpStatusException e) {
+				// part file at or beyond end of resource, restart
+				if (e.getStatus() != 416) {
+					throw e;
+				}
+				partFile.delete();
+				downloadPart(skyUrl, partFile, progressListener);
 			}
+			if (!isValidFits(partFile)) {
+				partFile.delete();
+				return String.format("ERROR: Invalid fits file downloaded: %s", filename);
+			}
+			moveAtomic(partFile, file);
+			return String.format(savedFormat, filename);
+		} catch (IOException e) {
+			// aborted connection on user cancel or interrupted transfer, part file retained
+			String format = (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted())
+					? "Cancelled fits file download: %s, %d bytes saved for resume"
+					: "Error in writing file: %s, %d bytes saved for resume";
+			return String.format(format, filename, partFile.length());
 		}
-		return message;
 	}
 
 	/*
-	 * Compiles file object to dss file path, ./astroimagej/dss. <p> Creates new
-	 * folders as necessary</p>
+	 * Appends remainder of resource to part file, or rewrites part file if server returns
+	 * complete resource
+	 */
+	private static void downloadPart(String skyUrl, File partFile, DownloadProgressListener progressListener)
+			throws IOException {
+		long offset = partFile.exists() ? partFile.length() : 0;
+		try (ResponseStream in = CatalogTransport.getDefault().openRange(skyUrl, offset)) {
+			boolean isResume = (offset > 0) && (in.getContentOffset() == offset);
+			long nBytes = isResume ? offset : 0;
+			long totalBytes = in.getTotalLength();
+			try (OutputStream out = new FileOutputStream(partFile, isResume)) {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int n;
+				while ((n = in.read(buffer)) > 0) {
+					out.write(buffer, 0, n);
+					nBytes += n;
+					if (progressListener != null) {
+						progressListener.bytesLoaded(nBytes, totalBytes);
+					}
+					if (Thread.currentThread().isInterrupted()) {
+						throw new InterruptedIOException("DSS download cancelled");
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Renames part file, replacing any existing file
+	 */
+	private static void moveAtomic(File partFile, File file) throws IOException {
+		try {
+			Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Verifies fits primary header and file size: SIMPLE = T first card, END card,
+	 * and file length covers header blocks plus data blocks from BITPIX and NAXISn
+	 *
+	 * @param file fits file
+	 * @return true if file is a complete fits file
+	 */
+	public static boolean isValidFits(File file) {
+		long length = file.length();
+		if (length < FITS_BLOCK || length % FITS_BLOCK != 0) {
+			return false;
+		}
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			byte[] block = new byte[FITS_BLOCK];
+			long nHeaderBytes = 0;
+			long bitpix = 0;
+			long nAxis = -1;
+			long nPixels = 1;
+			boolean isEnd = false;
+			while (!isEnd && readBlock(in, block)) {
+				nHeaderBytes += FITS_BLOCK;
+				for (int idx = 0; idx < FITS_BLOCK && !isEnd; idx += FITS_CARD) {
+					String card = new String(block, idx, FITS_CARD, StandardCharsets.US_ASCII);
+					String keyword = card.substring(0, 8).trim();
+					if (nHeaderBytes == FITS_BLOCK && idx == 0) {
+						// first card SIMPLE = T
+						if (!keyword.equals("SIMPLE") || !cardValue(card).equals("T")) {
+							return false;
+						}
+					} else if (keyword.equals("END")) {
+						isEnd = true;
+					} else if (keyword.equals("BITPIX")) {
+						bitpix = Long.parseLong(cardValue(card));
+					} else if (keyword.equals("NAXIS")) {
+						nAxis = Long.parseLong(cardValue(card));
+					} else if (keyword.matches("NAXIS\\d+")) {
+						nPixels *= Long.parseLong(cardValue(card));
+					}
+				}
+			}
+			if (!isEnd || bitpix == 0 || nAxis < 0) {
+				return false;
+			}
+			long nDataBytes = (nAxis == 0) ? 0 : nPixels * Math.abs(bitpix) / 8;
+			long nDataBlocks = (nDataBytes + FITS_BLOCK - 1) / FITS_BLOCK;
+			// primary hdu complete, extension hdus may follow
+			return length >= nHeaderBytes + nDataBlocks * FITS_BLOCK;
+		} catch (IOException | NumberFormatException e) {
+			return false;
+		}
+	}
+
+	// header card value: columns 11 - 80, excluding comment
+	private static String cardValue(String card) {
+		if (card.charAt(8) != '=') {
+			return "";
+		}
+		String value = card.substring(10);
+		int commentIdx = value.indexOf('/');
+		return ((commentIdx < 0) ? value : value.substring(0, commentIdx)).trim();
+	}
+
+	private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+		int nRead = 0;
+		while (nRead < block.length) {
+			int n = in.read(block, nRead, block.length - nRead);
+			if (n < 0) {
+				return false;
+			}
+			nRead += n;
+		}
+		return true;
+	}
+
+	/*
+	 * Compiles file object to dss file path, e.g. ./astroimagej/dss
+	 * @param dir dss folder
 	 * @param query on-line query parameters
-	 * @return file object with path: ./astroimagej/radec/<filename>
+	 * @return file object with path: <dir>/<filename>
 	 */
-	private static File getFile(CatalogQuery query) {
-		// path to radec file, create new folder if necessary
-		File dir = new File(System.getProperty("user.dir"), "dss");
-		File file = new File(dir, compileFilename(query));
-		return file;
+	static File getFile(File dir, CatalogQuery query) {
+		return new File(dir, compileFilename(query));
 	}
-	
+
 	/*
 	 * Compiles radec filename pattern <object_id>.<fov_amin>.fits
 	 * @param query on-line query parameters
 	 * @return formatted filename <object_id>.<fov_amin>.fits
 	 */
 	private static String compileFilename(CatalogQuery query) {
-		String filename = String.join(".", Arrays.asList(query.getObjectId(), 
+		String filename = String.join(".", Arrays.asList(query.getObjectId(),
 				String.format("%03d", query.getFovAmin().intValue()), "fits"));
 		return filename.replace(" ", "_");
 	}
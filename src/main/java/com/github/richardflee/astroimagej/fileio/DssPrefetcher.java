@@ -0,0 +1,234 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.utils.CatalogUrls;
+
+/**
+ * Downloads DSS fits images for a list of catalog queries, e.g. every field in
+ * an observing plan, before the observing session.
+ *
+ * <p>Missing or corrupt dss/[objectid].[fov_amin].fits files are downloaded by a
+ * bounded pool of worker threads; verified files already on disk are skipped.
+ * Request start times to each host are spaced by a minimum interval, in
+ * addition to the CatalogTransport per-host connection limit. Queries that map
+ * to the same fits filename are downloaded once.</p>
+ */
+public class DssPrefetcher {
+
+	// default worker threads & minimum interval between requests to the same host (ms)
+	public static final int DEFAULT_WORKERS = 4;
+	public static final long DEFAULT_MIN_INTERVAL_MS = 500;
+
+	private String skyViewUrl = null;
+	private File dssDir = null;
+	private int nWorkers = 0;
+	private long minIntervalMs = 0;
+
+	// earliest start time of next request, keyed by host
+	private Map<String, Long> nextStartMs = new HashMap<>();
+
+	/**
+	 * Summary of a prefetch run
+	 */
+	public static class Report {
+		private int nFields = 0;
+		private int nDownloaded = 0;
+		private int nExisting = 0;
+		private List<String> failures = new ArrayList<>();
+		private long elapsedMs = 0;
+
+		public int getFields() {
+			return nFields;
+		}
+
+		public int getDownloaded() {
+			return nDownloaded;
+		}
+
+		public int getExisting() {
+			return nExisting;
+		}
+
+		/**
+		 * @return status message for each field or radec file not downloaded
+		 */
+		public List<String> getFailures() {
+			return failures;
+		}
+
+		public long getElapsedMs() {
+			return elapsedMs;
+		}
+
+		/**
+		 * @return status line summary, includes ERROR if any download failed
+		 */
+		public String getSummaryMessage() {
+			String message = String.format("DSS prefetch: %d fields, %d downloaded, %d already saved", nFields,
+					nDownloaded, nExisting);
+			if (!failures.isEmpty()) {
+				message += String.format(", ERROR: %d failed", failures.size());
+			}
+			return message + String.format(" in %.1f s", elapsedMs / 1000.0);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(getSummaryMessage());
+			failures.forEach(p -> sb.append(System.lineSeparator()).append("  ").append(p));
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Configures prefetcher for the on-line SkyView server and default dss folder
+	 */
+	public DssPrefetcher() {
+		this(CatalogUrls.SKYVIEW_URL, new File(System.getProperty("user.dir"), "dss"), DEFAULT_WORKERS,
+				DEFAULT_MIN_INTERVAL_MS);
+	}
+
+	/**
+	 * Configures prefetcher for the specified server and dss folder
+	 *
+	 * @param skyViewUrl base url of SkyView server, e.g. https://skyview.gsfc.nasa.gov/cgi-bin
+	 * @param dssDir folder for downloaded fits files
+	 * @param nWorkers number of concurrent downloads
+	 * @param minIntervalMs minimum interval between request start times to the same host
+	 */
+	public DssPrefetcher(String skyViewUrl, File dssDir, int nWorkers, long minIntervalMs) {
+		this.skyViewUrl = skyViewUrl;
+		this.dssDir = dssDir;
+		this.nWorkers = Math.max(1, nWorkers);
+		this.minIntervalMs = minIntervalMs;
+	}
+
+	/**
+	 * Downloads missing fits files for the query in each radec file in the specified folder
+	 *
+	 * @param radecDir radec folder, e.g. ./astroimagej/radec
+	 * @return prefetch summary; unreadable radec files are listed as failures
+	 */
+	public Report prefetchRaDecFolder(File radecDir) {
+		File[] files = radecDir.listFiles((dir, name) -> name.endsWith(".radec.txt"));
+		List<CatalogQuery> queries = new ArrayList<>();
+		List<String> failures = new ArrayList<>();
+		RaDecFileReader reader = new RaDecFileReader();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				try {
+					queries.add(reader.importRaDecQuery(file));
+				} catch (RuntimeException e) {
+					failures.add(String.format("ERROR: Error reading radec file: %s", file.getName()));
+				}
+			}
+		}
+		Report report = prefetch(queries);
+		report.failures.addAll(0, failures);
+		return report;
+	}
+
+	/**
+	 * Downloads missing fits files for specified queries
+	 *
+	 * @param queries query coordinates, fov and object id for each field
+	 * @return prefetch summary
+	 */
+	public Report prefetch(List<CatalogQuery> queries) {
+		long start = System.currentTimeMillis();
+
+		// one download per fits filename
+		Map<File, CatalogQuery> fields = new LinkedHashMap<>();
+		for (CatalogQuery query : queries) {
+			fields.putIfAbsent(DssFitsWriter.getFile(dssDir, query), query);
+		}
+
+		Report report = new Report();
+		report.nFields = fields.size();
+		ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+		Map<File, Future<String>> futures = new LinkedHashMap<>();
+		try {
+			for (Map.Entry<File, CatalogQuery> field : fields.entrySet()) {
+				File file = field.getKey();
+				if (file.exists() && DssFitsWriter.isValidFits(file)) {
+					report.nExisting++;
+					continue;
+				}
+				String url = CatalogUrls.dssUrlBuilder(skyViewUrl, field.getValue());
+				futures.put(file, executor.submit(() -> downloadField(url, file)));
+			}
+			for (Map.Entry<File, Future<String>> item : futures.entrySet()) {
+				String message = item.getValue().get();
+				if (item.getKey().exists()) {
+					report.nDownloaded++;
+				} else {
+					report.failures.add(message);
+				}
+			}
+		} catch (ExecutionException e) {
+			report.failures.add(String.format("ERROR: DSS prefetch failed: %s", e.getCause()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			report.failures.add("Cancelled DSS prefetch");
+		} finally {
+			executor.shutdownNow();
+		}
+		report.elapsedMs = System.currentTimeMillis() - start;
+		return report;
+	}
+
+	/*
+	 * Waits for host request slot and downloads fits file
+	 */
+	private String downloadField(String url, File file) throws InterruptedException {
+		awaitSlot(hostOf(url));
+		return DssFitsWriter.downloadFits(url, file, null);
+	}
+
+	/*
+	 * Reserves next request start time for host, sleeps until reserved time
+	 */
+	private void awaitSlot(String host) throws InterruptedException {
+		long delayMs = 0;
+		synchronized (nextStartMs) {
+			long now = System.currentTimeMillis();
+			long startMs = Math.max(now, nextStartMs.getOrDefault(host, now));
+			nextStartMs.put(host, startMs + minIntervalMs);
+			delayMs = startMs - now;
+		}
+		if (delayMs > 0) {
+			Thread.sleep(delayMs);
+		}
+	}
+
+	private static String hostOf(String url) {
+		try {
+			URL target = new URL(url);
+			return target.getHost() + ":" + target.getPort();
+		} catch (MalformedURLException e) {
+			return url;
+		}
+	}
+
+	public static void main(String[] args) {
+		// downloads DSS images for all radec files in ./radec folder
+		DssPrefetcher prefetcher = new DssPrefetcher();
+		Report report = prefetcher.prefetchRaDecFolder(new File(System.getProperty("user.dir"), "radec"));
+		System.out.println(report.toString());
+	}
+}
@@ -27,9 +27,9 @@ class RaDecFileBase {
 		// assign terms[ColumnsEnum index] to corresponding FieldObject fo values
 		String[] terms = new String[ColumnsEnum.size];
 		terms[ColumnsEnum.AP_COL.getIndex()] = String.format("#%s", fo.getApertureId());
-		terms[ColumnsEnum.OBJECTID_COL.getIndex()] = String.format("%s", fo.getObjectId());
-		terms[ColumnsEnum.RA2000_COL.getIndex()] = String.format("%s", AstroCoords.raHrToRaHms(fo.getRaHr()));
-		terms[ColumnsEnum.DEC2000_COL.getIndex()] = String.format("%s", AstroCoords.decDegToDecDms(fo.getDecDeg()));
+		terms[ColumnsEnum.OBJECTID_COL.getIndex()] = fo.getObjectId();
+		terms[ColumnsEnum.RA2000_COL.getIndex()] = AstroCoords.raHrToRaHms(fo.getRaHr());
+		terms[ColumnsEnum.DEC2000_COL.getIndex()] = AstroCoords.decDegToDecDms(fo.getDecDeg());
 		terms[ColumnsEnum.MAG_COL.getIndex()] = String.format("%.3f", fo.getMag());
 		terms[ColumnsEnum.MAG_ERR_COL.getIndex()] = String.format("%.3f", fo.getMagErr());
 		terms[ColumnsEnum.MAG_DIFF_COL.getIndex()] = String.format("%.3f", fo.getDeltaMag());
@@ -46,16 +46,58 @@ public class RaDecFileReader extends RaDecFileBase {
 	 * @return QueryResult object in distance or mag difference sort order
 	 */
 	public QueryResult importRaDecResult() {
+		File file = selectRaDecFile();
+		return (file == null) ? null : importRaDecResult(file);
+	}
+
+	/**
+	 * Opens file dialog configured for radec folder and file type, runs on the EDT
+	 * @return file reference to selected file, or null if Cancel pressed
+	 */
+	public File selectRaDecFile() {
 		// open file dialog, file = null => cancel
 		File file = radecFileDialog();
 		if (file == null) {
 			String statusMessage = "Cancel pressed, no file selected";
 			setStatusMessage(statusMessage);
-			return null;
 		}
+		return file;
+	}
+
+	/**
+	 * Compiles a QueryResult object from the specified radec file. <p>Determines
+	 * sort order from radec table data</p>
+	 * @param file reference to radec file
+	 * @return QueryResult object in distance or mag difference sort order
+	 */
+	public QueryResult importRaDecResult(File file) {
 		// map radec file contents into line array
 		List<String> radecLines = loadRaDecLines(file);
+		QueryResult radecResult = compileRaDecResult(radecLines);
 
+		String statusMessage = String.format("Imported radec file: %s", file.getAbsoluteFile());
+		setStatusMessage(statusMessage);
+		return radecResult;
+	}
+	
+	/**
+	 * Reads catalog query data line from the specified radec file, e.g. to download
+	 * DSS images for a list of radec files
+	 * 
+	 * @param file reference to radec file
+	 * @return radec file catalog query object
+	 */
+	public CatalogQuery importRaDecQuery(File file) {
+		return getRaDecQuery(loadRaDecLines(file));
+	}
+	
+	/*
+	 * Compiles QueryResult object from radec file lines. 
+	 * 
+	 * @param radecLines text array mapped from selected radec file
+	 * @return QueryResult object in distance or mag difference sort order
+	 */
+	QueryResult compileRaDecResult(List<String> radecLines) {
 		// extract catalog query data
 		CatalogQuery radecQuery = getRaDecQuery(radecLines);
 
@@ -79,9 +121,6 @@ public class RaDecFileReader extends RaDecFileBase {
 		
 		// add chart uri
 		radecResult.setChartUri(chartUri);
-
-		String statusMessage = String.format("Imported radec file: %s", file.getAbsoluteFile());
-		setStatusMessage(statusMessage);
 		return radecResult;
 	}
 	
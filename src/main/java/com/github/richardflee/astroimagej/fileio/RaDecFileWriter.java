@@ -131,9 +131,12 @@ public class RaDecFileWriter extends RaDecFileBase {
 	 * @param query catalog query data for this data set
 	 * @return data and comment line string array
 	 */
-	private List<String> compileRaDecList(QueryResult result) {
+	List<String> compileRaDecList(QueryResult result) {
 		List<String> lines = new ArrayList<>();
 
+		// first data line is target object, on every write by this writer
+		isDataBlock = true;
+
 		List<FieldObject> acceptedList = result.getFieldObjects()
 				.stream()
 				.filter(p -> p.isAccepted() == true)
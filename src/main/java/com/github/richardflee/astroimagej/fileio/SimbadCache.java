@@ -0,0 +1,220 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import com.github.richardflee.astroimagej.query_objects.SimbadResult;
+
+/**
+ * Persistent cache of SIMBAD query results. <p>Path to cache file:
+ * C:/Users/[user]/.astroimagej/simbad_cache.properties, alongside the
+ * catalogs_plugin.properties file</p>
+ *
+ * <p>Results are keyed by normalised object identifier and expire after a
+ * time-to-live period. Cache file records are loaded once and held in memory;
+ * each update rewrites a temporary file that replaces the cache file in one
+ * rename, so an interrupted write leaves the previous cache file intact.</p>
+ */
+public class SimbadCache {
+
+	public static final String SIMBAD_CACHE_FILE = "simbad_cache.properties";
+
+	// default time-to-live
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+	// cache file record separator: timestamp|simbadId|ra|dec|B|V|R|I
+	private static final String SEP = "|";
+	private static final String SEP_REGEX = "\\|";
+	private static final int N_FIELDS = 8;
+
+	private Path cacheFilePath = null;
+	private long ttlMillis = 0;
+
+	// cache file records keyed by normalised id
+	private Properties records = new Properties();
+
+	/**
+	 * Opens cache file in the same folder as the plugin properties file
+	 *
+	 * @param propertiesFile plugin properties file handler
+	 */
+	public SimbadCache(PropertiesFileIO propertiesFile) {
+		this(Paths.get(propertiesFile.getPropertiesFilePath()).resolveSibling(SIMBAD_CACHE_FILE),
+				DEFAULT_TTL_MILLIS);
+	}
+
+	/**
+	 * Opens specified cache file, creates an empty cache if file not found
+	 *
+	 * @param cacheFilePath path to cache file
+	 * @param ttlMillis time-to-live of cached results (ms)
+	 */
+	public SimbadCache(Path cacheFilePath, long ttlMillis) {
+		this.cacheFilePath = cacheFilePath;
+		this.ttlMillis = ttlMillis;
+
+		if (Files.exists(cacheFilePath)) {
+			try (InputStream input = Files.newInputStream(cacheFilePath)) {
+				records.load(input);
+			} catch (IOException e) {
+				// unreadable cache file: start with empty cache
+				records = new Properties();
+			}
+		}
+	}
+
+	/**
+	 * Looks up cached SIMBAD result for the specified object identifier
+	 *
+	 * @param objectId user input object name
+	 * @return cached result with objectId set to user input, null if not cached or expired
+	 */
+	public synchronized SimbadResult get(String objectId) {
+		CacheEntry entry = decodeRecord(records.getProperty(normaliseId(objectId)));
+
+		// no entry or expired
+		if (entry == null || System.currentTimeMillis() - entry.timestamp > ttlMillis) {
+			return null;
+		}
+		return copyResult(objectId, entry.result);
+	}
+
+	/**
+	 * Adds SIMBAD result to cache and writes the cache file
+	 *
+	 * @param simbadResult SIMBAD query result keyed by its user input objectId
+	 * @return true if cache file was updated
+	 */
+	public synchronized boolean put(SimbadResult simbadResult) {
+		String key = normaliseId(simbadResult.getObjectId());
+		CacheEntry entry = new CacheEntry(System.currentTimeMillis(), simbadResult);
+		records.setProperty(key, encodeRecord(entry));
+		return save();
+	}
+
+	/**
+	 * Removes all entries from memory and from the cache file
+	 *
+	 * @return true if cache file was updated
+	 */
+	public synchronized boolean clear() {
+		records.clear();
+		return save();
+	}
+
+	/**
+	 * Normalises object identifier: lower case, leading SIMBAD "NAME" prefix removed,
+	 * white space runs collapsed to a single space, blank, hyphen or underscore between
+	 * catalog prefix and number removed.
+	 *
+	 * <p>e.g. "wasp 12", "WASP-12" and "WASP12" => "wasp12", "NAME Vega" => "vega";
+	 * "BD+1 2345" and "BD+12 345" remain distinct</p>
+	 *
+	 * @param objectId user input object name
+	 * @return normalised identifier
+	 */
+	public static String normaliseId(String objectId) {
+		String key = objectId.trim().toLowerCase();
+		key = key.replaceFirst("^name\\s+", "");
+		key = key.replaceAll("\\s+", " ");
+		return key.replaceAll("(?<=[a-z])[-_ ](?=\\d)", "");
+	}
+
+	// writes cache records to temporary file then renames to cache file, creates parent folder if required
+	private boolean save() {
+		Path tempPath = cacheFilePath.resolveSibling(cacheFilePath.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(cacheFilePath.getParent());
+			try (OutputStream output = Files.newOutputStream(tempPath)) {
+				records.store(output, "SIMBAD query cache");
+			}
+			moveAtomic(tempPath, cacheFilePath);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Renames temporary file, replacing existing cache file
+	 */
+	private static void moveAtomic(Path tempPath, Path path) throws IOException {
+		try {
+			Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	// timestamp|simbadId|ra|dec|B|V|R|I, empty fields for null magnitudes
+	private String encodeRecord(CacheEntry entry) {
+		SimbadResult sr = entry.result;
+		return String.join(SEP, Long.toString(entry.timestamp), sr.getSimbadId(),
+				toText(sr.getSimbadRaHr()), toText(sr.getSimbadDecDeg()),
+				toText(sr.getMagB()), toText(sr.getMagV()), toText(sr.getMagR()), toText(sr.getMagI()));
+	}
+
+	// null if no record or record is corrupt
+	private CacheEntry decodeRecord(String record) {
+		if (record == null) {
+			return null;
+		}
+		String[] terms = record.split(SEP_REGEX, -1);
+		if (terms.length != N_FIELDS) {
+			return null;
+		}
+		try {
+			SimbadResult sr = new SimbadResult(terms[1]);
+			sr.setSimbadId(terms[1]);
+			sr.setSimbadRaHr(toDouble(terms[2]));
+			sr.setSimbadDecDeg(toDouble(terms[3]));
+			sr.setMagB(toDouble(terms[4]));
+			sr.setMagV(toDouble(terms[5]));
+			sr.setMagR(toDouble(terms[6]));
+			sr.setMagI(toDouble(terms[7]));
+			return new CacheEntry(Long.parseLong(terms[0]), sr);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	// copy of cached result with objectId set to user input
+	private SimbadResult copyResult(String objectId, SimbadResult cached) {
+		SimbadResult sr = new SimbadResult(objectId);
+		sr.setSimbadId(cached.getSimbadId());
+		sr.setSimbadRaHr(cached.getSimbadRaHr());
+		sr.setSimbadDecDeg(cached.getSimbadDecDeg());
+		sr.setMagB(cached.getMagB());
+		sr.setMagV(cached.getMagV());
+		sr.setMagR(cached.getMagR());
+		sr.setMagI(cached.getMagI());
+		return sr;
+	}
+
+	private String toText(Double value) {
+		return (value == null) ? "" : Double.toString(value);
+	}
+
+	private Double toDouble(String text) {
+		return (text.isEmpty()) ? null : Double.valueOf(text);
+	}
+
+	// cached result & time added to cache
+	private static class CacheEntry {
+		private long timestamp;
+		private SimbadResult result;
+
+		private CacheEntry(long timestamp, SimbadResult result) {
+			this.timestamp = timestamp;
+			this.result = result;
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.github.richardflee.astroimagej.listeners;
+
+import java.util.List;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+/**
+ * Interface to handle partial results of chunked catalog queries, called in the
+ * query thread as each chunk is merged into the result
+ */
+@FunctionalInterface
+public interface CatalogProgressListener {
+
+	/**
+	 * @param chunkObjects field objects added by this chunk
+	 * @param nLoaded total number of field objects loaded so far
+	 * @param nChunksDone number of completed chunks
+	 * @param nChunks number of chunks, increases if truncated chunks are split
+	 */
+	public void chunkLoaded(List<FieldObject> chunkObjects, int nLoaded, int nChunksDone, int nChunks);
+
+}
@@ -0,0 +1,16 @@
+package com.github.richardflee.astroimagej.listeners;
+
+/**
+ * Interface to report file download progress, called in the download thread
+ * as each block of the response is written
+ */
+@FunctionalInterface
+public interface DownloadProgressListener {
+
+	/**
+	 * @param nBytes number of bytes saved so far, includes bytes from resumed partial file
+	 * @param totalBytes size of complete file in bytes, -1 if not known
+	 */
+	public void bytesLoaded(long nBytes, long totalBytes);
+
+}
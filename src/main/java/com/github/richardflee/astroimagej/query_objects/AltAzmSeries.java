@@ -0,0 +1,122 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.time.LocalDateTime;
+
+import com.github.richardflee.astroimagej.utils.MathUtils;
+
+/**
+ * Encapsulates object visibility values for a sequence of equally spaced sample
+ * times, held in primitive alt & azm arrays indexed by sample number
+ *
+ * <p>Sample idx is at civil time civilStart + idx * stepMinutes, chart time
+ * startMillis + idx * stepMinutes * 60000 ms</p>
+ */
+public class AltAzmSeries {
+
+	private static final long MILLIS_PER_MINUTE = 60_000L;
+
+	private String objectId = null;
+	private LocalDateTime civilStart = null;
+	private long startMillis = 0;
+	private int stepMinutes = 0;
+	private double[] altDeg = null;
+	private double[] azmDeg = null;
+
+	/**
+	 * @param objectId target object name
+	 * @param civilStart site civil date-time of first sample
+	 * @param startMillis chart time of first sample, JFreeChart Minute millis
+	 * @param stepMinutes sample spacing in minutes
+	 * @param altDeg object altitude at each sample
+	 * @param azmDeg object azimuth at each sample, N = 0, increasing eastwards
+	 */
+	public AltAzmSeries(String objectId, LocalDateTime civilStart, long startMillis, int stepMinutes,
+			double[] altDeg, double[] azmDeg) {
+		this.objectId = objectId;
+		this.civilStart = civilStart;
+		this.startMillis = startMillis;
+		this.stepMinutes = stepMinutes;
+		this.altDeg = altDeg;
+		this.azmDeg = azmDeg;
+	}
+
+	public int size() {
+		return altDeg.length;
+	}
+
+	public double getAltDeg(int idx) {
+		return altDeg[idx];
+	}
+
+	public double getAzmDeg(int idx) {
+		return azmDeg[idx];
+	}
+
+	/**
+	 * Polar chart X coordinate: radial distance = zenith angle, E to left
+	 */
+	public double getPolarX(int idx) {
+		return -1.0 * (90.0 - altDeg[idx]) * MathUtils.sind(azmDeg[idx]);
+	}
+
+	/**
+	 * Polar chart Y coordinate: radial distance = zenith angle, N at top
+	 */
+	public double getPolarY(int idx) {
+		return (90.0 - altDeg[idx]) * MathUtils.cosd(azmDeg[idx]);
+	}
+
+	public long getMillis(int idx) {
+		return startMillis + idx * stepMinutes * MILLIS_PER_MINUTE;
+	}
+
+	public LocalDateTime getCivilDateTime(int idx) {
+		return civilStart.plusMinutes((long) idx * stepMinutes);
+	}
+
+	/**
+	 * @return index of first sample with altitude >= minAltDeg, -1 if none
+	 */
+	public int firstIndexAbove(double minAltDeg) {
+		for (int idx = 0; idx < altDeg.length; idx++) {
+			if (altDeg[idx] >= minAltDeg) {
+				return idx;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return index of last sample with altitude >= minAltDeg, -1 if none
+	 */
+	public int lastIndexAbove(double minAltDeg) {
+		for (int idx = altDeg.length - 1; idx >= 0; idx--) {
+			if (altDeg[idx] >= minAltDeg) {
+				return idx;
+			}
+		}
+		return -1;
+	}
+
+	public String getObjectId() {
+		return objectId;
+	}
+
+	public LocalDateTime getCivilStart() {
+		return civilStart;
+	}
+
+	public long getStartMillis() {
+		return startMillis;
+	}
+
+	public int getStepMinutes() {
+		return stepMinutes;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AltAzmSeries [objectId=%s, civilStart=%s, samples=%d, stepMinutes=%d]", objectId,
+				civilStart, size(), stepMinutes);
+	}
+}
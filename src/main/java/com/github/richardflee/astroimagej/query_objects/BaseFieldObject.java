@@ -30,30 +30,43 @@ public class BaseFieldObject {
 	 * @return object name format: HHMMSSSS±DDMMSSSS
 	 */
 	private String compileObjectId() {
-		String raHms = AstroCoords.raHrToRaHms(raHr);
-		String decDms = AstroCoords.decDegToDecDms(decDeg);
-		String id = raHms + decDms;
-		return id.replace(":", "").replace(".", "");			
+		StringBuilder sb = new StringBuilder(17);
+		AstroCoords.appendRaHms(sb, raHr, false);
+		AstroCoords.appendDecDms(sb, decDeg, false);
+		return sb.toString();
 	}
 	
 	/**
-	 * Sets coordinate-based name for APASS objects
-	 * @param objectId object name format: HHMMSSSS+/-DDMMSSSS
+	 * Sets object name; null objectId selects coordinate-based name for APASS objects, 
+	 * compiled on first call to getObjectId
+	 * @param objectId object name, or null for format: HHMMSSSS+/-DDMMSSSS
 	 */
 	public void setObjectId(String objectId) {
-		this.objectId = (objectId != null) ? objectId : compileObjectId();
+		this.objectId = objectId;
 	}
 	
 	public String getObjectId() {
+		freezeObjectId();
 		return objectId;
 	}
+	
+	// compiles pending coordinate-based name from current coordinates, before coordinates change
+	private void freezeObjectId() {
+		if (objectId == null) {
+			objectId = compileObjectId();
+		}
+	}
 
 
 	public double getRaHr() {
 		return raHr;
 	}
 
+	/*
+	 * Coordinate-based name is compiled from coordinates set in constructor
+	 */
 	public void setRaHr(double raHr) {
+		freezeObjectId();
 		this.raHr = raHr;
 	}
 
@@ -62,12 +75,13 @@ public class BaseFieldObject {
 	}
 
 	public void setDecDeg(double decDeg) {
+		freezeObjectId();
 		this.decDeg = decDeg;
 	}
 
 	@Override
 	public String toString() {
-		return "AbstractFieldObject [objectId=" + objectId + ", raHr=" + raHr + ", decDeg=" + decDeg + "]";
+		return "AbstractFieldObject [objectId=" + getObjectId() + ", raHr=" + raHr + ", decDeg=" + decDeg + "]";
 	}
 	
 	public static void main(String[] args) {
@@ -180,7 +180,7 @@ public class CatalogQuery extends BaseFieldObject {
 	@Override
 	public String toString() {
 		return "CatalogQuery [fovAmin=" + fovAmin + ", magLimit=" + magLimit + ", catalogType=" + catalogType
-				+ ", magBand=" + magBand + ", objectId=" + objectId + ", raHr=" + raHr + ", decDeg=" + decDeg + "]";
+				+ ", magBand=" + magBand + ", objectId=" + getObjectId() + ", raHr=" + raHr + ", decDeg=" + decDeg + "]";
 	}
 
 	
@@ -13,7 +13,7 @@ public class FieldObject extends BaseFieldObject {
 	private double mag = 0.0;
 	private double magErr = 0.0;
 
-	private Integer nObs = 1;
+	private int nObs = 1;
 	private double radSepAmin = 0.0;
 
 	private String apertureId = "Cnn"; 
@@ -52,7 +52,7 @@ public class FieldObject extends BaseFieldObject {
 	
 	// copy constructor
 	public FieldObject (FieldObject fo) {
-		super(fo.getObjectId(), fo.getRaHr(), fo.getDecDeg());
+		super(fo.objectId, fo.getRaHr(), fo.getDecDeg());
 		
 		this.mag = fo.getMag();
 		this.magErr = fo.getMagErr();
@@ -129,35 +129,14 @@ public class FieldObject extends BaseFieldObject {
 		this.apertureId = apertureId;
 	}
 
-	public Integer getnObs() {
+	public int getnObs() {
 		return nObs;
 	}
 
-	public void setnObs(Integer nObs) {
+	public void setnObs(int nObs) {
 		this.nObs = nObs;
 	}
 
-	public String getObjectId() {
-		return objectId;
-	}
-
-
-	public double getRaHr() {
-		return raHr;
-	}
-
-	public void setRaHr(double raHr) {
-		this.raHr = raHr;
-	}
-
-	public double getDecDeg() {
-		return decDeg;
-	}
-
-	public void setDecDeg(double decDeg) {
-		this.decDeg = decDeg;
-	}
-
 	public double getMag() {
 		return mag;
 	}
@@ -210,7 +189,7 @@ public class FieldObject extends BaseFieldObject {
 	public String toString() {
 		return "FieldObject [mag=" + mag + ", magErr=" + magErr + ", nObs=" + nObs + ", radSepAmin=" + radSepAmin
 				+ ", apertureId=" + apertureId + ", selected=" + selected + ", accepted=" + accepted + ", isTarget="
-				+ isTarget + ", deltaMag=" + deltaMag + ", objectId=" + objectId + ", raHr=" + raHr + ", decDeg="
+				+ isTarget + ", deltaMag=" + deltaMag + ", objectId=" + getObjectId() + ", raHr=" + raHr + ", decDeg="
 				+ decDeg + "]";
 	}
 
@@ -0,0 +1,235 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Spatial index over a list of field objects for radius, nearest neighbour and
+ * crowding queries.
+ *
+ * <p>Objects are indexed by unit vector (x, y, z) in an implicit k-d tree
+ * stored in flat arrays. Angular separation is compared as chord length
+ * 2 sin(A / 2).</p>
+ *
+ * <p>The index is a snapshot: rebuild if object coordinates are changed.</p>
+ */
+public class FieldObjectIndex {
+
+	private List<FieldObject> fieldObjects = null;
+
+	// unit vectors in tree order, index to fieldObjects list & split axis per node
+	private double[][] xyz = null;
+	private int[] objectIdx = null;
+	private int[] axis = null;
+
+	/**
+	 * Builds index over specified field objects
+	 *
+	 * @param fieldObjects list of field objects, list order is not changed
+	 */
+	public FieldObjectIndex(List<FieldObject> fieldObjects) {
+		this.fieldObjects = new ArrayList<>(fieldObjects);
+		int n = this.fieldObjects.size();
+
+		double[][] vectors = new double[n][];
+		Integer[] order = new Integer[n];
+		for (int idx = 0; idx < n; idx++) {
+			FieldObject fo = this.fieldObjects.get(idx);
+			vectors[idx] = unitVector(fo.getRaHr(), fo.getDecDeg());
+			order[idx] = idx;
+		}
+
+		this.xyz = new double[n][];
+		this.objectIdx = new int[n];
+		this.axis = new int[n];
+		build(vectors, order, 0, n);
+	}
+
+	/**
+	 * Lists objects within radius of specified coordinates
+	 *
+	 * @param raHr J2000 RA in hour
+	 * @param decDeg J2000 Dec in degree
+	 * @param radiusAmin search radius in arcmin
+	 * @return list of objects in range, in no particular order
+	 */
+	public List<FieldObject> findWithinRadius(double raHr, double decDeg, double radiusAmin) {
+		List<FieldObject> found = new ArrayList<>();
+		double chord = chordLength(radiusAmin);
+		searchRadius(0, xyz.length, unitVector(raHr, decDeg), chord * chord, found);
+		return found;
+	}
+
+	/**
+	 * Lists the k objects nearest to specified coordinates
+	 *
+	 * @param raHr J2000 RA in hour
+	 * @param decDeg J2000 Dec in degree
+	 * @param k number of objects
+	 * @param exclude object excluded from search, e.g. target object; may be null
+	 * @return list of up to k objects in ascending order of distance
+	 */
+	public List<FieldObject> findNearest(double raHr, double decDeg, int k, FieldObject exclude) {
+		if (k <= 0) {
+			return new ArrayList<>();
+		}
+		// max-heap of best candidates: {sqr distance, node}
+		PriorityQueue<double[]> heap = new PriorityQueue<>(k + 1,
+				Comparator.comparingDouble((double[] p) -> p[0]).reversed());
+		searchNearest(0, xyz.length, unitVector(raHr, decDeg), k, exclude, heap);
+
+		List<double[]> best = new ArrayList<>(heap);
+		best.sort(Comparator.comparingDouble(p -> p[0]));
+		List<FieldObject> nearest = new ArrayList<>(best.size());
+		for (double[] item : best) {
+			nearest.add(fieldObjects.get(objectIdx[(int) item[1]]));
+		}
+		return nearest;
+	}
+
+	/**
+	 * Counts other objects within radius of a field object
+	 *
+	 * @param fo field object
+	 * @param radiusAmin crowding radius in arcmin
+	 * @return number of neighbours, excludes fo
+	 */
+	public int countNeighbours(FieldObject fo, double radiusAmin) {
+		List<FieldObject> found = findWithinRadius(fo.getRaHr(), fo.getDecDeg(), radiusAmin);
+		int count = 0;
+		for (FieldObject item : found) {
+			if (item != fo) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Tests if a field object has neighbours within the crowding radius
+	 *
+	 * @param fo field object
+	 * @param radiusAmin crowding radius in arcmin
+	 * @return true if another object lies within radiusAmin
+	 */
+	public boolean isCrowded(FieldObject fo, double radiusAmin) {
+		return countNeighbours(fo, radiusAmin) > 0;
+	}
+
+	public int size() {
+		return xyz.length;
+	}
+
+	/*
+	 * Builds sub-tree in range [lo, hi): median node at mid splits on axis of widest spread
+	 */
+	private void build(double[][] vectors, Integer[] order, int lo, int hi) {
+		if (lo >= hi) {
+			return;
+		}
+		int ax = widestAxis(vectors, order, lo, hi);
+		Arrays.sort(order, lo, hi, Comparator.comparingDouble(p -> vectors[p][ax]));
+
+		int mid = (lo + hi) >>> 1;
+		xyz[mid] = vectors[order[mid]];
+		objectIdx[mid] = order[mid];
+		axis[mid] = ax;
+
+		build(vectors, order, lo, mid);
+		build(vectors, order, mid + 1, hi);
+	}
+
+	private void searchRadius(int lo, int hi, double[] v, double maxSqr, List<FieldObject> found) {
+		if (lo >= hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (sqrDistance(xyz[mid], v) <= maxSqr) {
+			found.add(fieldObjects.get(objectIdx[mid]));
+		}
+		double diff = v[axis[mid]] - xyz[mid][axis[mid]];
+		if (diff <= 0.0 || diff * diff <= maxSqr) {
+			searchRadius(lo, mid, v, maxSqr, found);
+		}
+		if (diff >= 0.0 || diff * diff <= maxSqr) {
+			searchRadius(mid + 1, hi, v, maxSqr, found);
+		}
+	}
+
+	private void searchNearest(int lo, int hi, double[] v, int k, FieldObject exclude, PriorityQueue<double[]> heap) {
+		if (lo >= hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (fieldObjects.get(objectIdx[mid]) != exclude) {
+			double sqr = sqrDistance(xyz[mid], v);
+			if (heap.size() < k) {
+				heap.add(new double[] { sqr, mid });
+			} else if (sqr < heap.peek()[0]) {
+				heap.poll();
+				heap.add(new double[] { sqr, mid });
+			}
+		}
+
+		// near side first, far side only if it may hold closer objects
+		double diff = v[axis[mid]] - xyz[mid][axis[mid]];
+		int nearLo = (diff <= 0.0) ? lo : mid + 1;
+		int nearHi = (diff <= 0.0) ? mid : hi;
+		int farLo = (diff <= 0.0) ? mid + 1 : lo;
+		int farHi = (diff <= 0.0) ? hi : mid;
+
+		searchNearest(nearLo, nearHi, v, k, exclude, heap);
+		if (heap.size() < k || diff * diff < heap.peek()[0]) {
+			searchNearest(farLo, farHi, v, k, exclude, heap);
+		}
+	}
+
+	private static int widestAxis(double[][] vectors, Integer[] order, int lo, int hi) {
+		double[] min = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+		double[] max = { -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+		for (int idx = lo; idx < hi; idx++) {
+			double[] v = vectors[order[idx]];
+			for (int ax = 0; ax < 3; ax++) {
+				min[ax] = Math.min(min[ax], v[ax]);
+				max[ax] = Math.max(max[ax], v[ax]);
+			}
+		}
+		int widest = 0;
+		for (int ax = 1; ax < 3; ax++) {
+			if (max[ax] - min[ax] > max[widest] - min[widest]) {
+				widest = ax;
+			}
+		}
+		return widest;
+	}
+
+	private static double sqrDistance(double[] a, double[] b) {
+		double dx = a[0] - b[0];
+		double dy = a[1] - b[1];
+		double dz = a[2] - b[2];
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	// chord length for angular separation, limited to 180 deg
+	private static double chordLength(double radiusAmin) {
+		double radiusRad = Math.toRadians(Math.min(radiusAmin / 60.0, 180.0));
+		return 2.0 * Math.sin(radiusRad / 2.0);
+	}
+
+	/**
+	 * Unit vector for J2000 coordinates
+	 *
+	 * @param raHr J2000 RA in hour
+	 * @param decDeg J2000 Dec in degree
+	 * @return unit vector {x, y, z}
+	 */
+	public static double[] unitVector(double raHr, double decDeg) {
+		double ra = Math.toRadians(raHr * 15.0);
+		double dec = Math.toRadians(decDeg);
+		double cosDec = Math.cos(dec);
+		return new double[] { cosDec * Math.cos(ra), cosDec * Math.sin(ra), Math.sin(dec) };
+	}
+}
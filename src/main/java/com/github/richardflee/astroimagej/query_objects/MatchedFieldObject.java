@@ -0,0 +1,88 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+
+/**
+ * Field object merged from one or more catalog sources by position cross-match.
+ * <p>Retains the magnitude and uncertainty reported by each source catalog; the
+ * inherited mag and magErr fields hold the primary source values used for table
+ * sort and filter operations.</p>
+ */
+public class MatchedFieldObject extends FieldObject {
+
+	// magnitude & uncertainty per source catalog: {mag, magErr}
+	private Map<CatalogsEnum, double[]> sourceMags = new EnumMap<>(CatalogsEnum.class);
+
+	// angular separation between matched source positions in arcsec, 0 for single source
+	private double matchSepAsec = 0.0;
+
+	/**
+	 * Creates merged object from primary source field object
+	 *
+	 * @param fo primary source field object, provides object id, coordinates and mag
+	 * @param source primary source catalog
+	 */
+	public MatchedFieldObject(FieldObject fo, CatalogsEnum source) {
+		super(fo);
+		addSourceMag(source, fo.getMag(), fo.getMagErr());
+	}
+
+	/**
+	 * Adds magnitude data reported by a source catalog
+	 *
+	 * @param source source catalog
+	 * @param mag source magnitude
+	 * @param magErr source magnitude uncertainty
+	 */
+	public void addSourceMag(CatalogsEnum source, double mag, double magErr) {
+		sourceMags.put(source, new double[] { mag, magErr });
+	}
+
+	/**
+	 * @param source source catalog
+	 * @return source magnitude, null if object not in source catalog
+	 */
+	public Double getSourceMag(CatalogsEnum source) {
+		double[] item = sourceMags.get(source);
+		return (item == null) ? null : item[0];
+	}
+
+	/**
+	 * @param source source catalog
+	 * @return source magnitude uncertainty, null if object not in source catalog
+	 */
+	public Double getSourceMagErr(CatalogsEnum source) {
+		double[] item = sourceMags.get(source);
+		return (item == null) ? null : item[1];
+	}
+
+	public Set<CatalogsEnum> getSources() {
+		return sourceMags.keySet();
+	}
+
+	public boolean isCrossMatched() {
+		return sourceMags.size() > 1;
+	}
+
+	public double getMatchSepAsec() {
+		return matchSepAsec;
+	}
+
+	public void setMatchSepAsec(double matchSepAsec) {
+		this.matchSepAsec = matchSepAsec;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<CatalogsEnum, double[]> entry : sourceMags.entrySet()) {
+			sb.append(String.format(" %s=%.3f(%.3f)", entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+		}
+		return String.format("MatchedFieldObject [objectId=%s, matchSepAsec=%.2f, sources:%s]", getObjectId(),
+				matchSepAsec, sb.toString());
+	}
+}
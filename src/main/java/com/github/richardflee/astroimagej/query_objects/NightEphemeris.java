@@ -0,0 +1,108 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Encapsulates sun and target object event times for one starting night at an
+ * observation site, in site civil time
+ *
+ * <p>Target rise, transit and set are the next events after civil noon on the
+ * starting night. Rise and set are null if the object never rises or never sets;
+ * all target fields are unset if the ephemeris was computed without a target.</p>
+ */
+public class NightEphemeris {
+
+	private LocalDate civilDate = null;
+	private SolarTimes solarTimes = null;
+
+	private String objectId = null;
+	private LocalDateTime targetRise = null;
+	private LocalDateTime targetTransit = null;
+	private LocalDateTime targetSet = null;
+	private double transitAltDeg = 0.0;
+	private double riseAzmDeg = 0.0;
+	private boolean neverRises = false;
+	private boolean neverSets = false;
+
+	public NightEphemeris(LocalDate civilDate, SolarTimes solarTimes) {
+		this.civilDate = civilDate;
+		this.solarTimes = solarTimes;
+	}
+
+	/**
+	 * Sets target object events
+	 *
+	 * @param objectId target name
+	 * @param rise civil rise time, null if object never rises or never sets
+	 * @param transit civil meridian transit time
+	 * @param set civil set time, null if object never rises or never sets
+	 * @param transitAltDeg object altitude at transit
+	 * @param riseAzmDeg rise azimuth, set azimuth = 360 - rise azimuth
+	 */
+	public void setTargetEvents(String objectId, LocalDateTime rise, LocalDateTime transit, LocalDateTime set,
+			double transitAltDeg, double riseAzmDeg) {
+		this.objectId = objectId;
+		this.targetRise = rise;
+		this.targetTransit = transit;
+		this.targetSet = set;
+		this.transitAltDeg = transitAltDeg;
+		this.riseAzmDeg = riseAzmDeg;
+	}
+
+	public void setNeverRises(boolean neverRises) {
+		this.neverRises = neverRises;
+	}
+
+	public void setNeverSets(boolean neverSets) {
+		this.neverSets = neverSets;
+	}
+
+	public LocalDate getCivilDate() {
+		return civilDate;
+	}
+
+	public SolarTimes getSolarTimes() {
+		return solarTimes;
+	}
+
+	public String getObjectId() {
+		return objectId;
+	}
+
+	public LocalDateTime getTargetRise() {
+		return targetRise;
+	}
+
+	public LocalDateTime getTargetTransit() {
+		return targetTransit;
+	}
+
+	public LocalDateTime getTargetSet() {
+		return targetSet;
+	}
+
+	public double getTransitAltDeg() {
+		return transitAltDeg;
+	}
+
+	public double getRiseAzmDeg() {
+		return riseAzmDeg;
+	}
+
+	public boolean isNeverRises() {
+		return neverRises;
+	}
+
+	public boolean isNeverSets() {
+		return neverSets;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"NightEphemeris [civilDate=%s, %s, objectId=%s, rise=%s, transit=%s, set=%s, transitAltDeg=%.2f, neverRises=%s, neverSets=%s]",
+				civilDate, solarTimes, objectId, targetRise, targetTransit, targetSet, transitAltDeg, neverRises,
+				neverSets);
+	}
+}
@@ -1,6 +1,7 @@
 package com.github.richardflee.astroimagej.query_objects;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 /**
  * Encapsulates the results of a coordinate-based query on the on-line database
@@ -44,6 +45,22 @@ public class QueryResult {
 
 	// list of target and reference field objects
 	private List<FieldObject> fieldObjects;
+	
+	// target object, first item in fieldObjects list
+	private FieldObject targetObject = null;
+	
+	// spatial index over fieldObjects, built on demand
+	private FieldObjectIndex index = null;
+	
+	// field objects pre-sorted by distance & by abs delta mag, built on demand;
+	// sortOrder references the order currently applied to fieldObjects
+	private FieldObject[] distanceOrder = null;
+	private FieldObject[] deltaMagOrder = null;
+	private FieldObject[] sortOrder = null;
+	
+	// totals from last pass over fieldObjects
+	private int acceptedTotal = 0;
+	private int selectedTotal = 0;
 
 	private String chartUri = null;
 
@@ -67,7 +84,7 @@ public class QueryResult {
 		// creates target field object from query and saves target 1st item in
 		// FieldObjects array
 		fieldObjects = new ArrayList<>();
-		FieldObject targetObject = createTargetObject(query);
+		this.targetObject = createTargetObject(query);
 		fieldObjects.add(targetObject);
 
 		// initialise default catalog settings
@@ -94,11 +111,13 @@ public class QueryResult {
 	public void appendFieldObjects(List<FieldObject> fieldObjects) {
 		// append reference field objects to target object
 		this.fieldObjects.addAll(fieldObjects);
+		resetIndexes();
 
 		// update fields relative to target: delta mag & distance
+		FieldObject target = getTargetObject();
 		for (FieldObject fo : this.fieldObjects) {
-			fo.computeRadSepAmin(getTargetObject());
-			fo.computeDeltaMag(getTargetObject().getMag());
+			fo.computeRadSepAmin(target);
+			fo.computeDeltaMag(target.getMag());
 		}
 		setTotalsAndButtons();
 	}
@@ -132,30 +151,44 @@ public class QueryResult {
 	/**
 	 * Sorts catalog table data in ascending order by radial separation or 
 	 * absolute difference between reference and target mag
+	 * 
+	 * <p>Each sort order is computed once and re-applied in a single pass; no change if 
+	 * the selected order is already applied.</p>
 	 */
 	public void applySelectedSort() {
+		FieldObject[] selectedOrder = null;
 		// sort by distance option
 		if (this.settings.isDistanceRadioButtonValue() == true) {
-			this.fieldObjects = this.fieldObjects.stream().sorted(Comparator.comparingDouble(p -> p.getRadSepAmin()))
-					.collect(Collectors.toList());
+			if (this.distanceOrder == null) {
+				this.distanceOrder = sortedArray(Comparator.comparingDouble(p -> p.getRadSepAmin()));
+			}
+			selectedOrder = this.distanceOrder;
 			// sort by delta mag option
 		} else if (this.settings.isDeltaMagRadioButtonValue() == true) {
-			this.fieldObjects = this.fieldObjects.stream()
-					.sorted(Comparator.comparingDouble(p -> Math.abs(p.getDeltaMag()))).collect(Collectors.toList());
+			if (this.deltaMagOrder == null) {
+				this.deltaMagOrder = sortedArray(Comparator.comparingDouble(p -> Math.abs(p.getDeltaMag())));
+			}
+			selectedOrder = this.deltaMagOrder;
+		}
+		
+		if (selectedOrder != null && selectedOrder != this.sortOrder) {
+			this.fieldObjects = new ArrayList<>(Arrays.asList(selectedOrder));
+			this.sortOrder = selectedOrder;
 		}
 		setTotalsAndButtons();
 	}
 
 	/**
 	 * Applies observation number and magnitude selection filters to catalog table data
+	 * 
+	 * <p>Single pass over field objects, accepted flag is written only where its value changes</p>
+	 * 
+	 * @return number of field objects with changed accepted flag
 	 */
-	public void applySelectedFilters() {
+	public int applySelectedFilters() {
 		// nObs filter
 		int numberObs = this.settings.getnObsSpinnerValue();
-		for (FieldObject fo : this.fieldObjects) {
-			boolean isAccepted = ((fo.getnObs() >= numberObs) || (fo.isTarget() == true));
-			fo.setAccepted(isAccepted);
-		}
+
 		// current target mag
 		double targetMag = settings.getTargetMagSpinnerValue();
 
@@ -164,23 +197,26 @@ public class QueryResult {
 		double upperLimit = settings.getUpperLimitSpinnerValue();
 		double lowerLimit = settings.getLowerLimitSpinnerValue();
 
-		// disables respective range check if magnitude is less than 0.01
-		boolean disableUpperLimit = Math.abs(upperLimit) < 0.01;
-		boolean disableLowerLimit = Math.abs(lowerLimit) < 0.01;
-
-		// apply mag limits filter
-		if (settings.isMagLimitsCheckBoxValue() == true) {
-			for (FieldObject fo : fieldObjects) {
-				if (fo.isTarget() == false) {
-					// Initialise with result of nobs filter
-					boolean isAccepted = fo.isAccepted();
-					isAccepted = isAccepted && (disableUpperLimit || (fo.getMag() <= upperLimit + targetMag));
-					isAccepted = isAccepted && (disableLowerLimit || (fo.getMag() >= lowerLimit + targetMag));
-					fo.setAccepted(isAccepted);
-				}
+		// disables respective range check if magnitude is less than 0.01,
+		// or both checks if mag limits filter is not selected
+		boolean isMagLimits = settings.isMagLimitsCheckBoxValue();
+		boolean disableUpperLimit = !isMagLimits || Math.abs(upperLimit) < 0.01;
+		boolean disableLowerLimit = !isMagLimits || Math.abs(lowerLimit) < 0.01;
+		double upperMag = upperLimit + targetMag;
+		double lowerMag = lowerLimit + targetMag;
+
+		int nChanged = 0;
+		for (FieldObject fo : this.fieldObjects) {
+			boolean isAccepted = fo.isTarget() || ((fo.getnObs() >= numberObs)
+					&& (disableUpperLimit || (fo.getMag() <= upperMag))
+					&& (disableLowerLimit || (fo.getMag() >= lowerMag)));
+			if (isAccepted != fo.isAccepted()) {
+				fo.setAccepted(isAccepted);
+				nChanged++;
 			}
 		}
 		setTotalsAndButtons();
+		return nChanged;
 	}
 
 	/**
@@ -194,6 +230,55 @@ public class QueryResult {
 				.collect(Collectors.toList());
 	}
 	
+	/**
+	 * Lists field objects within radius of the target object, includes target object
+	 * 
+	 * @param radiusAmin search radius in arcmin
+	 * @return list of field objects in range, in no particular order
+	 */
+	public List<FieldObject> getObjectsWithinRadius(double radiusAmin) {
+		FieldObject target = getTargetObject();
+		return getIndex().findWithinRadius(target.getRaHr(), target.getDecDeg(), radiusAmin);
+	}
+	
+	/**
+	 * Lists the k reference field objects nearest to the target object
+	 * 
+	 * @param k number of reference objects
+	 * @return list of up to k reference objects in ascending order of distance
+	 */
+	public List<FieldObject> getNearestObjects(int k) {
+		FieldObject target = getTargetObject();
+		return getIndex().findNearest(target.getRaHr(), target.getDecDeg(), k, target);
+	}
+	
+	/**
+	 * Lists reference field objects with one or more neighbours within crowding radius
+	 * 
+	 * @param radiusAmin crowding radius in arcmin
+	 * @return list of crowded reference objects in list order
+	 */
+	public List<FieldObject> getCrowdedObjects(double radiusAmin) {
+		FieldObjectIndex idx = getIndex();
+		return this.fieldObjects.stream()
+				.filter(p -> !p.isTarget())
+				.filter(p -> idx.isCrowded(p, radiusAmin))
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Spatial index over current field objects, rebuilt after field objects are added 
+	 * or target coordinates change
+	 * 
+	 * @return spatial index
+	 */
+	public FieldObjectIndex getIndex() {
+		if (this.index == null) {
+			this.index = new FieldObjectIndex(this.fieldObjects);
+		}
+		return this.index;
+	}
+	
 	/**
 	 * Strips leading '#' fom radec chart uri & removes any text including and after embedded '?' char
 	 * 
@@ -236,14 +321,30 @@ public class QueryResult {
 		return targetObject;
 	}
 
+	// copy of fieldObjects in stable sort order
+	private FieldObject[] sortedArray(Comparator<FieldObject> comparator) {
+		FieldObject[] sorted = this.fieldObjects.toArray(new FieldObject[0]);
+		Arrays.sort(sorted, comparator);
+		return sorted;
+	}
+	
+	// field objects added or target changed
+	private void resetIndexes() {
+		this.index = null;
+		this.distanceOrder = null;
+		this.deltaMagOrder = null;
+		this.sortOrder = null;
+	}
+	
 	/*
 	 *  Updates total and filtered (accepted) labels 
 	 *  and flag indicating whether is catalog table is populated 
 	 */
 	private void setTotalsAndButtons() {
+		countTotals();
 		settings.setTotalRecordsValue(getRecordsTotal());
-		settings.setFilteredRecordsValue(getAcceptedTotal());
-		settings.setSelectedRecordsValue(getSelectedTotal());
+		settings.setFilteredRecordsValue(this.acceptedTotal);
+		settings.setSelectedRecordsValue(this.selectedTotal);
 		
 		// flags catalog table is populated
 		settings.setTableData(getRecordsTotal() > 0);
@@ -270,6 +371,7 @@ public class QueryResult {
 
 	public void setFieldObject(FieldObject fieldObject) {
 		fieldObjects.add(fieldObject);
+		resetIndexes();
 	}
 
 	/**
@@ -286,8 +388,8 @@ public class QueryResult {
 	 * @return total accepted field objects
 	 */
 	public int getAcceptedTotal() {
-		long count = getFieldObjects().stream().filter(p -> p.isAccepted()).count() - 1;
-		return Math.toIntExact(count);
+		countTotals();
+		return this.acceptedTotal;
 	}
 	
 	/**
@@ -295,20 +397,31 @@ public class QueryResult {
 	 * @return total selected field objects
 	 */
 	public int getSelectedTotal() {
-		long count = getFieldObjects().stream()
-					.filter(p -> p.isAccepted())
-					.filter(p -> p.isSelected())
-					.count() - 1;
-		return Math.toIntExact(count);
+		countTotals();
+		return this.selectedTotal;
+	}
+	
+	// accepted & selected totals in single pass, excludes target object
+	private void countTotals() {
+		int nAccepted = 0;
+		int nSelected = 0;
+		for (FieldObject fo : this.fieldObjects) {
+			if (fo.isAccepted()) {
+				nAccepted++;
+				nSelected += fo.isSelected() ? 1 : 0;
+			}
+		}
+		this.acceptedTotal = nAccepted - 1;
+		this.selectedTotal = nSelected - 1;
 	}
 	
 
 	/**
-	 * Returns first item from list where isTarget is true
+	 * Returns target object, created with this QueryResult
 	 * @return reference to target object
 	 */
 	public FieldObject getTargetObject() {
-		return fieldObjects.stream().filter(p -> p.isTarget()).findFirst().get();
+		return this.targetObject;
 	}
 
 	/**
@@ -336,6 +449,9 @@ public class QueryResult {
 		target.setnObs(1);
 		target.setSelected(true);
 		target.setAccepted(true);
+		
+		// target coordinates changed
+		resetIndexes();
 	}
 
 	public String getChartUri() {
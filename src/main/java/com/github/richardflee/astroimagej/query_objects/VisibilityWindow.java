@@ -0,0 +1,104 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Encapsulates one target's visibility on one night: the longest period in
+ * astronomical darkness with object altitude at or above the planner limit, and
+ * the object's highest altitude in darkness
+ *
+ * <p>Window start & end are null if the object does not reach the altitude limit
+ * in darkness</p>
+ */
+public class VisibilityWindow {
+
+	// sort orders
+	public static final Comparator<VisibilityWindow> BY_HOURS_DESC = Comparator
+			.comparingDouble(VisibilityWindow::getHoursVisible).reversed();
+	public static final Comparator<VisibilityWindow> BY_MAX_ALT_DESC = Comparator
+			.comparingDouble(VisibilityWindow::getMaxAltDeg).reversed();
+	public static final Comparator<VisibilityWindow> BY_NIGHT = Comparator.comparing(VisibilityWindow::getNight)
+			.thenComparing(BY_HOURS_DESC);
+
+	private String objectId = null;
+	private double raHr = 0.0;
+	private double decDeg = 0.0;
+	private LocalDate night = null;
+	private LocalDateTime windowStart = null;
+	private LocalDateTime windowEnd = null;
+	private double hoursVisible = 0.0;
+	private double maxAltDeg = 0.0;
+	private LocalDateTime maxAltTime = null;
+
+	/**
+	 * @param fo target object
+	 * @param night civil date of starting night
+	 * @param windowStart site civil time object rises above altitude limit in darkness, null if not visible
+	 * @param windowEnd site civil time object sets below altitude limit in darkness, null if not visible
+	 * @param maxAltDeg object highest altitude in darkness
+	 * @param maxAltTime site civil time of highest altitude, null if no darkness
+	 */
+	public VisibilityWindow(BaseFieldObject fo, LocalDate night, LocalDateTime windowStart, LocalDateTime windowEnd,
+			double maxAltDeg, LocalDateTime maxAltTime) {
+		this.objectId = fo.getObjectId();
+		this.raHr = fo.getRaHr();
+		this.decDeg = fo.getDecDeg();
+		this.night = night;
+		this.windowStart = windowStart;
+		this.windowEnd = windowEnd;
+		this.hoursVisible = (windowStart == null) ? 0.0
+				: Duration.between(windowStart, windowEnd).getSeconds() / 3600.0;
+		this.maxAltDeg = maxAltDeg;
+		this.maxAltTime = maxAltTime;
+	}
+
+	public boolean isVisible() {
+		return windowStart != null;
+	}
+
+	public String getObjectId() {
+		return objectId;
+	}
+
+	public double getRaHr() {
+		return raHr;
+	}
+
+	public double getDecDeg() {
+		return decDeg;
+	}
+
+	public LocalDate getNight() {
+		return night;
+	}
+
+	public LocalDateTime getWindowStart() {
+		return windowStart;
+	}
+
+	public LocalDateTime getWindowEnd() {
+		return windowEnd;
+	}
+
+	public double getHoursVisible() {
+		return hoursVisible;
+	}
+
+	public double getMaxAltDeg() {
+		return maxAltDeg;
+	}
+
+	public LocalDateTime getMaxAltTime() {
+		return maxAltTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"VisibilityWindow [objectId=%s, night=%s, windowStart=%s, windowEnd=%s, hoursVisible=%.2f, maxAltDeg=%.2f]",
+				objectId, night, windowStart, windowEnd, hoursVisible, maxAltDeg);
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.richardflee.astroimagej.query_objects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encapsulates the results of a single VSP chart query: field objects with
+ * photometry data for the query magnitude band and the VSP chart uri
+ */
+public class VspResult {
+
+	private List<FieldObject> fieldObjects = null;
+
+	// full uri may include extraneous text, refer QueryResult chart uri setter
+	private String chartUri = null;
+
+	/**
+	 * Empty result, e.g. VSP connection error
+	 */
+	public VspResult() {
+		this(new ArrayList<>(), null);
+	}
+
+	public VspResult(List<FieldObject> fieldObjects, String chartUri) {
+		this.fieldObjects = fieldObjects;
+		this.chartUri = chartUri;
+	}
+
+	public List<FieldObject> getFieldObjects() {
+		return fieldObjects;
+	}
+
+	public String getChartUri() {
+		return chartUri;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("VspResult [%d field objects, chartUri=%s]", fieldObjects.size(), chartUri);
+	}
+}
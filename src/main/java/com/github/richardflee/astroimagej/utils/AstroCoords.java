@@ -14,19 +14,31 @@ public class AstroCoords {
 	 * @param raHr in numeric format in units hr
 	 * @return ra in sexagesimal format HH:MM:SS.SS
 	 */
-	public static String raHrToRaHms(Double raHr) {
+	public static String raHrToRaHms(double raHr) {
+		StringBuilder sb = new StringBuilder(11);
+		appendRaHms(sb, raHr, true);
+		return sb.toString();
+	}
+	
+	/**
+	 * Appends sexagesimal ra HH:MM:SS.SS, or HHMMSSSS without separators, to string builder.
+	 * <p>Output matches raHrToRaHms</p>
+	 * 
+	 * @param sb string builder
+	 * @param raHr in numeric format in units hr
+	 * @param isSeparated true to include ':' and '.' separators
+	 */
+	public static void appendRaHms(StringBuilder sb, double raHr, boolean isSeparated) {
 		// coerce input data into range 0..24 (hr)
 		double data = (raHr >= 0) ? raHr % 24 : (24 + raHr % 24);
 		
 		// extract hh, mm and ss terms
 		int hh = (int) (1.0 * data);
 		int mm = (int) ((data - hh) * 60);
-		Double ss = 3600 * (data - hh) - 60 * mm;
+		double ss = 3600 * (data - hh) - 60 * mm;
 		
-		// compile, format and return sexagesimal ra
-		return String.format("%02d", hh) + ":" 
-				+ String.format("%02d", mm) + ":"
-				+ String.format("%5.2f", ss).replace(' ', '0');
+		// compile sexagesimal ra
+		appendSexagesimal(sb, hh, mm, ss, isSeparated);
 	}
 	
 	
@@ -37,8 +49,22 @@ public class AstroCoords {
 	 * @param decDeg in numeric format, where dec is in units deg
 	 * @return dec in sexagesimal format DD:MM:SS.SS
 	 */
-	public static String decDegToDecDms(Double decDeg) {
-		String sign = (decDeg >= 0) ? "+" : "-";
+	public static String decDegToDecDms(double decDeg) {
+		StringBuilder sb = new StringBuilder(12);
+		appendDecDms(sb, decDeg, true);
+		return sb.toString();
+	}
+	
+	/**
+	 * Appends sexagesimal dec ±DD:MM:SS.SS, or ±DDMMSSSS without separators, to string builder.
+	 * <p>Output matches decDegToDecDms</p>
+	 * 
+	 * @param sb string builder
+	 * @param decDeg in numeric format, where dec is in units deg
+	 * @param isSeparated true to include ':' and '.' separators
+	 */
+	public static void appendDecDms(StringBuilder sb, double decDeg, boolean isSeparated) {
+		sb.append((decDeg >= 0) ? '+' : '-');
 		
 		// coerce input data into range ±90.0
 		double data = (Math.abs(decDeg) > 90.0) ? 90.0 : Math.abs(decDeg);
@@ -46,12 +72,10 @@ public class AstroCoords {
 		// extract dd, mm, ss terms
 		int dd = (int) (1.0 * data);
 		int mm = (int) ((data - dd) * 60);
-		Double ss = ((data - dd) * 60 - mm) * 60;
+		double ss = ((data - dd) * 60 - mm) * 60;
 		
-		// compile, format and return sexagesimal dec
-		return sign + String.format("%02d", dd) + ":" 
-				+ String.format("%02d", mm) + ":"
-				+ String.format("%5.2f", ss).replace(' ', '0');
+		// compile sexagesimal dec
+		appendSexagesimal(sb, dd, mm, ss, isSeparated);
 	}
 	
 	
@@ -62,15 +86,29 @@ public class AstroCoords {
 	 * @param raHms in sexagesimal format HH:MM:SS.SS
 	 * @return numeric ra in units hr (hh.hhhh)
 	 */
-	public static Double raHmsToRaHr(String raHms) {
-
-		boolean isNegative = raHms.charAt(0) == '-';
+	public static double raHmsToRaHr(String raHms) {
+		return parseRaHms(raHms, 0, raHms.length());
+	}
+	
+	/**
+	 * Convert ra sexagesimal text in range [start, end) to numeric value (hours), 
+	 * no intermediate strings. <p>Output matches raHmsToRaHr</p>
+	 * 
+	 * @param cs text containing ra in sexagesimal format HH:MM:SS.SS
+	 * @param start index of first char
+	 * @param end index after last char
+	 * @return numeric ra in units hr (hh.hhhh)
+	 * @throws NumberFormatException if text is not in sexagesimal format
+	 */
+	public static double parseRaHms(CharSequence cs, int start, int end) {
+		boolean isNegative = cs.charAt(start) == '-';
 		
-		// split input at ':' delim and coerce elements into appropriate range
-		String[] el = raHms.split(":");
-		double hh = Math.abs(Double.valueOf(el[0]));
-		double mm = Double.valueOf(el[1]) % 60;
-		double ss = Double.valueOf(el[2]) % 60;
+		// locate ':' delims and coerce elements into appropriate range
+		int c1 = indexOfColon(cs, start, end);
+		int c2 = indexOfColon(cs, c1 + 1, end);
+		double hh = Math.abs(parseNumber(cs, start, c1));
+		double mm = parseNumber(cs, c1 + 1, c2) % 60;
+		double ss = parseNumber(cs, c2 + 1, indexOfColonOrEnd(cs, c2 + 1, end)) % 60;
 		double raHr = (hh + mm / 60 + ss / 3600) % 24;
 		return isNegative ? (24.0 - raHr) : raHr;
 	}
@@ -81,19 +119,34 @@ public class AstroCoords {
 	 * @param decDms in sexagesimal format DD:MM:SS.SS
 	 * @return numeric dec in units deg (±dd.dddd)
 	 */
-	public static Double decDmsToDecDeg(String decDms) {
-		int sign = (decDms.charAt(0) == '-') ? -1 : 1;
+	public static double decDmsToDecDeg(String decDms) {
+		return parseDecDms(decDms, 0, decDms.length());
+	}
+	
+	/**
+	 * Convert dec sexagesimal text in range [start, end) to numeric value (deg), 
+	 * no intermediate strings. <p>Output matches decDmsToDecDeg</p>
+	 * 
+	 * @param cs text containing dec in sexagesimal format DD:MM:SS.SS
+	 * @param start index of first char
+	 * @param end index after last char
+	 * @return numeric dec in units deg (±dd.dddd)
+	 * @throws NumberFormatException if text is not in sexagesimal format
+	 */
+	public static double parseDecDms(CharSequence cs, int start, int end) {
+		int sign = (cs.charAt(start) == '-') ? -1 : 1;
 		
-		// split input at ':' delim and coerce elements into appropriate range
-		String[] el = decDms.split(":");
-		double dd = Math.abs(Double.valueOf(el[0]));
+		// locate ':' delims and coerce elements into appropriate range
+		int c1 = indexOfColon(cs, start, end);
+		int c2 = indexOfColon(cs, c1 + 1, end);
+		double dd = Math.abs(parseNumber(cs, start, c1));
 		
 		// clip |dec| > 90 to 90.0
 		if (dd > 90) {
 			return sign * 90.0;
 		}
-		double mm = Double.valueOf(el[1]) % 60;
-		double ss = Double.valueOf(el[2]) % 60;
+		double mm = parseNumber(cs, c1 + 1, c2) % 60;
+		double ss = parseNumber(cs, c2 + 1, indexOfColonOrEnd(cs, c2 + 1, end)) % 60;
 		return sign * (dd + mm / 60 + ss / 3600);
 	}
 	
@@ -118,12 +171,14 @@ public class AstroCoords {
 	public static double dmsToDeg(String dms) {
 		int sign = (dms.charAt(0) == '-') ? -1 : 1;
 
-		// split input at ':' delim and coerce elements into appropriate range
-		String[] el = dms.split(":");
-		double dd = Math.abs(Double.valueOf(el[0])) % 360.0;
+		// locate ':' delims and coerce elements into appropriate range
+		int end = dms.length();
+		int c1 = indexOfColon(dms, 0, end);
+		int c2 = indexOfColon(dms, c1 + 1, end);
+		double dd = Math.abs(parseNumber(dms, 0, c1)) % 360.0;
 
-		double mm = Double.valueOf(el[1]) % 60;
-		double ss = Double.valueOf(el[2]) % 60;
+		double mm = parseNumber(dms, c1 + 1, c2) % 60;
+		double ss = parseNumber(dms, c2 + 1, indexOfColonOrEnd(dms, c2 + 1, end)) % 60;
 		return sign * (dd + mm / 60 + ss / 3600);
 	}
 
@@ -136,11 +191,130 @@ public class AstroCoords {
 		// extract dd, mm, ss terms
 		int dd = (int) (1.0 * data);
 		int mm = (int) ((data - dd) * 60);
-		Double ss = ((data - dd) * 60 - mm) * 60;
+		double ss = ((data - dd) * 60 - mm) * 60;
 
 		// compile, format and return sexagesimal dec
-		return sign + String.format("%02d", dd) + ":" + String.format("%02d", mm) + ":"
-				+ String.format("%5.2f", ss).replace(' ', '0');
-
+		StringBuilder sb = new StringBuilder(13).append(sign);
+		appendSexagesimal(sb, dd, mm, ss, true);
+		return sb.toString();
+	}
+	
+	/*
+	 * Appends units:mm:ss.ss in fixed point, equivalent to %02d, %02d and zero-padded %5.2f 
+	 * formats. Seconds close to a rounding tie, or negative, are passed to String.format 
+	 * to match its half-up rounding of the shortest decimal representation.
+	 */
+	private static void appendSexagesimal(StringBuilder sb, int units, int mm, double ss, boolean isSeparated) {
+		appendTwoDigits(sb, units);
+		if (isSeparated) {
+			sb.append(':');
+		}
+		appendTwoDigits(sb, mm);
+		if (isSeparated) {
+			sb.append(':');
+		}
+		
+		double scaled = ss * 100.0;
+		double floor = Math.floor(scaled);
+		double frac = scaled - floor;
+		if (ss < 0.0 || Math.abs(frac - 0.5) < 1.0e-6 || scaled > Integer.MAX_VALUE) {
+			String sec = String.format("%5.2f", ss).replace(' ', '0');
+			sb.append(isSeparated ? sec : sec.replace(".", ""));
+			return;
+		}
+		
+		// seconds in units 0.01 s
+		int cs = (int) floor + ((frac > 0.5) ? 1 : 0);
+		appendTwoDigits(sb, cs / 100);
+		if (isSeparated) {
+			sb.append('.');
+		}
+		appendTwoDigits(sb, cs % 100);
+	}
+	
+	// powers of ten exactly representable as double
+	private static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+			1e13, 1e14, 1e15 };
+	
+	/**
+	 * Parses decimal number in range [start, end), equivalent to Double.valueOf. Plain 
+	 * decimals with up to 15 digits are parsed in a single correctly rounded division of 
+	 * exact values; other formats are passed to Double.parseDouble.
+	 * 
+	 * @param cs text containing number
+	 * @param start index of first char
+	 * @param end index after last char
+	 * @return numeric value
+	 * @throws NumberFormatException if text is empty or not numeric
+	 */
+	public static double parseNumber(CharSequence cs, int start, int end) {
+		// Double.valueOf trims whitespace & control chars
+		int lo = start;
+		int hi = end;
+		while (lo < hi && cs.charAt(lo) <= ' ') {
+			lo++;
+		}
+		while (hi > lo && cs.charAt(hi - 1) <= ' ') {
+			hi--;
+		}
+		
+		int pos = lo;
+		boolean isNegative = false;
+		if (pos < hi && (cs.charAt(pos) == '-' || cs.charAt(pos) == '+')) {
+			isNegative = cs.charAt(pos) == '-';
+			pos++;
+		}
+		long mantissa = 0;
+		int nDigits = 0;
+		int nFraction = 0;
+		boolean isFraction = false;
+		for (; pos < hi; pos++) {
+			char ch = cs.charAt(pos);
+			if (ch >= '0' && ch <= '9') {
+				if (++nDigits > 15) {
+					break;
+				}
+				mantissa = 10 * mantissa + (ch - '0');
+				nFraction += isFraction ? 1 : 0;
+			} else if (ch == '.' && !isFraction) {
+				isFraction = true;
+			} else {
+				break;
+			}
+		}
+		
+		if (pos < hi || nDigits == 0) {
+			return Double.parseDouble(cs.subSequence(start, end).toString());
+		}
+		double value = mantissa / POW10[nFraction];
+		return isNegative ? -value : value;
+	}
+	
+	// index of ':' in range [start, end)
+	private static int indexOfColon(CharSequence cs, int start, int end) {
+		for (int idx = start; idx < end; idx++) {
+			if (cs.charAt(idx) == ':') {
+				return idx;
+			}
+		}
+		throw new NumberFormatException(String.format("Expected sexagesimal format: %s", cs.subSequence(0, end)));
+	}
+	
+	// index of ':' in range [start, end), or end if not found
+	private static int indexOfColonOrEnd(CharSequence cs, int start, int end) {
+		for (int idx = start; idx < end; idx++) {
+			if (cs.charAt(idx) == ':') {
+				return idx;
+			}
+		}
+		return end;
+	}
+	
+	// %02d for non-negative value
+	private static void appendTwoDigits(StringBuilder sb, int value) {
+		if (value < 10) {
+			sb.append('0');
+		}
+		sb.append(value);
 	}
 }
@@ -0,0 +1,435 @@
+package com.github.richardflee.astroimagej.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shared HTTP transport for on-line catalog queries: SIMBAD, VizieR, VSP and
+ * SkyView.
+ *
+ * <p>Requests are sent with bounded connect and read timeouts and accept gzip
+ * or deflate compressed responses. Connection failures, timeouts and HTTP 429 /
+ * 5xx responses are retried with jittered exponential backoff, up to
+ * maxAttempts requests. The number of concurrent requests to each host is
+ * limited by a per-host semaphore; a permit is held until the response stream
+ * is closed.</p>
+ *
+ * <p>Requests sent while a RequestScope is set on the requesting thread, or on
+ * the thread that created it, are registered in that scope; aborting the scope,
+ * e.g. on a user cancel, disconnects only those requests.</p>
+ *
+ * <p>openRange requests the remainder of a resource from a byte offset to resume
+ * a partial download; range responses are not compressed.</p>
+ *
+ * <p>Connections are reused by the JDK keep-alive cache when response streams
+ * are read to the end and closed, callers should close streams in a
+ * try-with-resources block.</p>
+ */
+public class CatalogTransport {
+
+	// default timeouts (ms), read timeout is the maximum wait between response bytes
+	public static final int DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+	public static final int DEFAULT_READ_TIMEOUT_MS = 60_000;
+
+	// default requests per call and first retry delay (ms)
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final int DEFAULT_BACKOFF_MS = 250;
+
+	// default concurrent requests per host, within JDK keep-alive cache size (http.maxConnections=5)
+	public static final int DEFAULT_MAX_PER_HOST = 4;
+
+	// upper limit on server Retry-After delay (ms)
+	private static final int MAX_RETRY_AFTER_MS = 30_000;
+
+	// Content-Range header: bytes first-last/total, total may be *
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-\\d+/(\\d+)?");
+
+	private static final CatalogTransport DEFAULT_TRANSPORT = new CatalogTransport(DEFAULT_CONNECT_TIMEOUT_MS,
+			DEFAULT_READ_TIMEOUT_MS, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_MS, DEFAULT_MAX_PER_HOST);
+
+	private int connectTimeoutMs = 0;
+	private int readTimeoutMs = 0;
+	private int maxAttempts = 0;
+	private int backoffMs = 0;
+	private int maxPerHost = 0;
+
+	// per-host request permits, keyed by host:port
+	private Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+	// request scope of current thread, inherited by fetch pool threads created in a task
+	private static final InheritableThreadLocal<RequestScope> REQUEST_SCOPE = new InheritableThreadLocal<>();
+
+	/**
+	 * Configures a transport instance
+	 *
+	 * @param connectTimeoutMs connect timeout (ms)
+	 * @param readTimeoutMs read timeout (ms)
+	 * @param maxAttempts maximum number of requests per call, including first request
+	 * @param backoffMs delay before first retry (ms), doubled for each further retry
+	 * @param maxPerHost maximum number of concurrent requests to each host
+	 */
+	public CatalogTransport(int connectTimeoutMs, int readTimeoutMs, int maxAttempts, int backoffMs, int maxPerHost) {
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.readTimeoutMs = readTimeoutMs;
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.backoffMs = backoffMs;
+		this.maxPerHost = Math.max(1, maxPerHost);
+	}
+
+	/**
+	 * Transport shared by all catalog fetchers
+	 */
+	public static CatalogTransport getDefault() {
+		return DEFAULT_TRANSPORT;
+	}
+
+	/**
+	 * Sends a GET request and opens the decoded response stream
+	 *
+	 * @param url request url
+	 * @return response stream, decompressed if required; close to release host permit
+	 * @throws IOException on connection error, timeout or error response after retries
+	 */
+	public InputStream openStream(String url) throws IOException {
+		return request(url, null, null, 0);
+	}
+
+	/**
+	 * Sends a GET request for response bytes from offset to end of resource
+	 *
+	 * @param url request url
+	 * @param offset first byte requested, 0 for complete resource
+	 * @return uncompressed response stream; content offset is 0 if the server returns
+	 *     the complete resource in place of the requested range
+	 * @throws IOException on connection error, timeout or error response after retries;
+	 *     HTTP 416 if offset is beyond end of resource
+	 */
+	public ResponseStream openRange(String url, long offset) throws IOException {
+		return request(url, null, null, offset);
+	}
+
+	/**
+	 * Sends a POST request and opens the decoded response stream
+	 *
+	 * @param url request url
+	 * @param contentType request content type, e.g. application/x-www-form-urlencoded
+	 * @param body request body
+	 * @return response stream, decompressed if required; close to release host permit
+	 * @throws IOException on connection error, timeout or error response after retries
+	 */
+	public InputStream post(String url, String contentType, byte[] body) throws IOException {
+		return request(url, contentType, body, 0);
+	}
+
+	/**
+	 * Sets request scope for requests sent by the current thread and by threads it
+	 * creates, e.g. parallel fetch pools
+	 *
+	 * @param scope request scope, null to clear
+	 */
+	public static void setRequestScope(RequestScope scope) {
+		if (scope == null) {
+			REQUEST_SCOPE.remove();
+		} else {
+			REQUEST_SCOPE.set(scope);
+		}
+	}
+
+	/*
+	 * Sends request with retry, body null for GET; offset > 0 requests byte range
+	 */
+	private ResponseStream request(String url, String contentType, byte[] body, long offset) throws IOException {
+		URL target = new URL(url);
+		RequestScope scope = REQUEST_SCOPE.get();
+		Semaphore permits = hostPermits.computeIfAbsent(target.getHost() + ":" + target.getPort(),
+				p -> new Semaphore(maxPerHost, true));
+
+		IOException lastError = null;
+		for (int attempt = 0; attempt < maxAttempts; attempt++) {
+			if (attempt > 0) {
+				sleep(retryDelayMs(attempt, lastError));
+			}
+			acquire(permits);
+			HttpURLConnection conn = null;
+			boolean isOpen = false;
+			try {
+				conn = (HttpURLConnection) target.openConnection();
+				if (scope != null && !scope.add(conn)) {
+					throw new InterruptedIOException("Catalog request cancelled");
+				}
+				int status = connect(conn, contentType, body, offset);
+				if (status / 100 == 2) {
+					ResponseStream in = new ResponseStream(decode(conn), conn, permits, scope);
+					isOpen = true;
+					return in;
+				}
+				// read error body to allow connection reuse
+				discard(conn.getErrorStream());
+				lastError = new HttpStatusException(url, status, conn.getHeaderField("Retry-After"));
+				if (!isRetryable(status)) {
+					throw lastError;
+				}
+			} catch (HttpStatusException e) {
+				throw e;
+			} catch (UnknownHostException e) {
+				throw e;
+			} catch (IOException e) {
+				// connection refused or reset, connect or read timeout
+				lastError = e;
+			} finally {
+				if (!isOpen) {
+					if (scope != null && conn != null) {
+						scope.remove(conn);
+					}
+					permits.release();
+				}
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedIOException("Catalog request cancelled");
+			}
+			checkAborted(scope);
+		}
+		throw lastError;
+	}
+
+	// stops retries once scope is aborted
+	private static void checkAborted(RequestScope scope) throws InterruptedIOException {
+		if (scope != null && scope.isAborted()) {
+			throw new InterruptedIOException("Catalog request cancelled");
+		}
+	}
+
+	/*
+	 * Configures connection, sends request and reads response status
+	 */
+	private int connect(HttpURLConnection conn, String contentType, byte[] body, long offset) throws IOException {
+		conn.setConnectTimeout(connectTimeoutMs);
+		conn.setReadTimeout(readTimeoutMs);
+		if (offset > 0) {
+			// byte offsets refer to uncompressed resource
+			conn.setRequestProperty("Accept-Encoding", "identity");
+			conn.setRequestProperty("Range", String.format("bytes=%d-", offset));
+		} else {
+			conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
+		}
+		if (body != null) {
+			conn.setRequestMethod("POST");
+			conn.setDoOutput(true);
+			conn.setRequestProperty("Content-Type", contentType);
+			conn.setFixedLengthStreamingMode(body.length);
+			try (OutputStream out = conn.getOutputStream()) {
+				out.write(body);
+			}
+		}
+		return conn.getResponseCode();
+	}
+
+	/*
+	 * Wraps response stream in decompressing stream matching Content-Encoding
+	 */
+	private static InputStream decode(HttpURLConnection conn) throws IOException {
+		InputStream in = conn.getInputStream();
+		String encoding = conn.getContentEncoding();
+		if ("gzip".equalsIgnoreCase(encoding)) {
+			return new GZIPInputStream(in, 1 << 16);
+		} else if ("deflate".equalsIgnoreCase(encoding)) {
+			return new InflaterInputStream(in);
+		}
+		return in;
+	}
+
+	// too many requests, server errors
+	private static boolean isRetryable(int status) {
+		return status == 429 || status / 100 == 5;
+	}
+
+	/*
+	 * Backoff delay: backoffMs * 2^(attempt - 1), jittered 50% to 150%; not less than server
+	 * Retry-After seconds
+	 */
+	private long retryDelayMs(int attempt, IOException lastError) {
+		long delay = (long) (backoffMs * (1L << (attempt - 1)) * (0.5 + ThreadLocalRandom.current().nextDouble()));
+		if (lastError instanceof HttpStatusException) {
+			delay = Math.max(delay, ((HttpStatusException) lastError).getRetryAfterMs());
+		}
+		return delay;
+	}
+
+	private static void acquire(Semaphore permits) throws InterruptedIOException {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for catalog connection");
+		}
+	}
+
+	private static void sleep(long millis) throws InterruptedIOException {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting to retry catalog request");
+		}
+	}
+
+	private static void discard(InputStream in) {
+		if (in == null) {
+			return;
+		}
+		try (InputStream err = in) {
+			byte[] buffer = new byte[4096];
+			while (err.read(buffer) > 0) {
+			}
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * Error HTTP response status
+	 */
+	public static class HttpStatusException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		private int status = 0;
+		private long retryAfterMs = 0;
+
+		HttpStatusException(String url, int status, String retryAfter) {
+			super(String.format("HTTP %d | %s", status, url));
+			this.status = status;
+			try {
+				long seconds = (retryAfter == null) ? 0 : Long.parseLong(retryAfter.trim());
+				this.retryAfterMs = Math.min(MAX_RETRY_AFTER_MS, Math.max(0, seconds * 1000));
+			} catch (NumberFormatException e) {
+				// http-date format not used by catalog servers
+				this.retryAfterMs = 0;
+			}
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		long getRetryAfterMs() {
+			return retryAfterMs;
+		}
+	}
+
+	/**
+	 * Requests of one task, e.g. a catalog ui query, aborted together on cancel
+	 */
+	public static class RequestScope {
+		private Set<HttpURLConnection> connections = ConcurrentHashMap.newKeySet();
+		private volatile boolean isAborted = false;
+
+		/**
+		 * Aborts requests in this scope: open connections are disconnected, blocked
+		 * reads fail with an IOException and further requests are refused. Interrupt
+		 * the requesting threads to stop retry backoff.
+		 */
+		public void abort() {
+			isAborted = true;
+			for (HttpURLConnection conn : connections) {
+				conn.disconnect();
+			}
+		}
+
+		public boolean isAborted() {
+			return isAborted;
+		}
+
+		// registers connection, false if scope already aborted
+		private boolean add(HttpURLConnection conn) {
+			connections.add(conn);
+			if (isAborted) {
+				connections.remove(conn);
+				return false;
+			}
+			return true;
+		}
+
+		private void remove(HttpURLConnection conn) {
+			connections.remove(conn);
+		}
+	}
+
+	/**
+	 * Response stream, releases connection and host permit once when closed
+	 */
+	public class ResponseStream extends FilterInputStream {
+		private HttpURLConnection conn = null;
+		private Semaphore permits = null;
+		private RequestScope scope = null;
+		private boolean isReleased = false;
+
+		// offset of first response byte & total resource length, -1 if not known
+		private long contentOffset = 0;
+		private long totalLength = -1;
+
+		ResponseStream(InputStream in, HttpURLConnection conn, Semaphore permits, RequestScope scope)
+				throws IOException {
+			super(in);
+			this.conn = conn;
+			this.permits = permits;
+			this.scope = scope;
+
+			// partial content: Content-Range bytes first-last/total
+			String contentRange = conn.getHeaderField("Content-Range");
+			if (conn.getResponseCode() == HttpURLConnection.HTTP_PARTIAL && contentRange != null) {
+				Matcher m = CONTENT_RANGE.matcher(contentRange);
+				if (m.find()) {
+					this.contentOffset = Long.parseLong(m.group(1));
+					this.totalLength = (m.group(2) == null) ? -1 : Long.parseLong(m.group(2));
+				}
+			} else if (conn.getContentEncoding() == null) {
+				this.totalLength = conn.getContentLengthLong();
+			}
+		}
+
+		/**
+		 * @return resource offset of first byte in stream, 0 for complete resource
+		 */
+		public long getContentOffset() {
+			return contentOffset;
+		}
+
+		/**
+		 * @return length of complete resource in bytes, -1 if not known
+		 */
+		public long getTotalLength() {
+			return totalLength;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				synchronized (this) {
+					if (!isReleased) {
+						isReleased = true;
+						if (scope != null) {
+							scope.remove(conn);
+						}
+						permits.release();
+					}
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,11 @@
 package com.github.richardflee.astroimagej.utils;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import com.github.richardflee.astroimagej.enums.ApassEnum;
 import com.github.richardflee.astroimagej.enums.CatalogsEnum;
 import com.github.richardflee.astroimagej.enums.SimbadEnum;
@@ -22,27 +28,95 @@ public class CatalogUrls {
 	private static final String SPACE_CHAR = "%20";		// http coding for space char ' '
 	private static final String PLUS_SIGN = "%2b";      // http coding for plus sign '+'
 
-	private static final int MAX_RECORDS = 1500;
+	// maximum number of records returned by a VizieR query
+	public static final int MAX_RECORDS = 1500;
+
+	// SIMBAD server base url
+	public static final String SIMBAD_URL = "http://simbad.u-strasbg.fr/simbad";
+
+	// VizieR server base url
+	public static final String VIZIER_URL = "http://vizier.u-strasbg.fr/viz-bin";
+
+	// VSP api base url
+	public static final String VSP_URL = "https://app.aavso.org/vsp/api";
+
+	// SkyView server base url
+	public static final String SKYVIEW_URL = "https://skyview.gsfc.nasa.gov/cgi-bin";
 
 	/**
-	 * Compiles a url for a Simbad database query, signature ([CatalogQuery], [SimbadUrlType]).
+	 * Compiles a url for a single Simbad database query returning object identifier,
+	 * coordinates and B, V, R, I magnitudes, signature ([String], [CatalogQuery]).
+	 * 
+	 * <p>VOTable columns are listed in SimbadEnum order</p>
 	 * 
+	 * @param simbadUrl base url of the SIMBAD server
 	 * @param query catalog query data
-	 * @param paramType which data item to download
-	 * @return compiled Simbad url for specified paramType
+	 * @return compiled Simbad url for all SimbadEnum parameters
 	 */
-	public static String urlBuilder(CatalogQuery query, SimbadEnum paramType) {
+	public static String urlBuilder(String simbadUrl, CatalogQuery query) {
 		// SIMBAD header
-		String url = "http://simbad.u-strasbg.fr/simbad/sim-id?output.format=votable";
+		String url = simbadUrl + "/sim-id?output.format=votable";
 
 		// embed user object id
-		url += String.format("&Ident=%s&output.params=main_id,", query.getObjectId());
+		url += String.format("&Ident=%s&output.params=", urlEncode(query.getObjectId()));
 
-		// append url fragment for selected parameter
-		url += paramType.getUrlFragment();
+		// append url fragment for each parameter
+		url += Arrays.stream(SimbadEnum.values())
+				.map(p -> p.getUrlFragment())
+				.collect(Collectors.joining(","));
 		return url;
 	}
 	
+	/**
+	 * Compiles the url of the SIMBAD script service used for batch queries
+	 * 
+	 * @param simbadUrl base url of the SIMBAD server
+	 * @return sim-script url, script text posted in parameter "script"
+	 */
+	public static String scriptUrlBuilder(String simbadUrl) {
+		return simbadUrl + "/sim-script";
+	}
+
+	/**
+	 * Compiles a SIMBAD script to resolve a list of object identifiers in a single request.
+	 * 
+	 * <p>Returns a VOTable with columns typed_id followed by SimbadEnum parameters in enum order.
+	 * Unmatched identifiers are reported in the script error section and omitted from the table.
+	 * Control characters in identifiers are replaced by spaces; blank identifiers are skipped.</p>
+	 * 
+	 * @param objectIds list of user object identifiers
+	 * @return compiled script text
+	 */
+	public static String scriptBuilder(List<String> objectIds) {
+		// suppress script & console echo
+		String script = "output console=off script=off\n";
+
+		// VOTable columns: user typed identifier then SimbadEnum parameters
+		script += "votable simbad {typed_id,";
+		script += Arrays.stream(SimbadEnum.values())
+				.map(p -> p.getUrlFragment())
+				.collect(Collectors.joining(","));
+		script += "}\n";
+
+		// one identifier query per line
+		script += "votable open simbad\n";
+		script += objectIds.stream()
+				.map(id -> scriptId(id))
+				.filter(id -> !id.isEmpty())
+				.map(id -> String.format("query id %s\n", id))
+				.collect(Collectors.joining());
+		script += "votable close\n";
+		return script;
+	}
+
+	/*
+	 * Replaces control characters, e.g. CR & LF, with spaces so that an identifier
+	 * is confined to its own script line
+	 */
+	private static String scriptId(String objectId) {
+		return objectId.replaceAll("\\p{Cntrl}", " ").trim();
+	}
+
 	/**
 	 * Compiles a url for a database query, signature ([CatalogQuery])
 	 * 
@@ -54,73 +128,148 @@ public class CatalogUrls {
 		String url = "";
 		CatalogsEnum cataogsEnum = query.getCatalogType();
 		if (cataogsEnum == CatalogsEnum.DSS) {
-			// SkyView header
-			url = "https://skyview.gsfc.nasa.gov/cgi-bin/images?Survey=digitized+sky+survey";
-
-			// chart centre coords = ra (deg) & dec (deg)
-			url += String.format("&position=%.5f,%.5f", query.getRaHr() * 15.0, query.getDecDeg());
-
-			// fov in deg
-			url += String.format("&Size=%s", query.getFovAmin() / 60.0);
-
-			// 1000x1000 pixels & append FITS file type
-			int nPix = 1000;
-			url += String.format("&Pixels=%s&Return=FITS", nPix);
+			url = dssUrlBuilder(SKYVIEW_URL, query);
 			
 		} else if (cataogsEnum == CatalogsEnum.VSP) {
-			// VSP header
-			url = "https://app.aavso.org/vsp/api/chart/?format=json";
-			
-			// fov nn.n (arcmin)
-			url +=  String.format("&fov=%.1f", query.getFovAmin());
-			
-			// magLimit nn.n (mag)
-			url += String.format("&maglimit=%.1f", query.getMagLimit()); 
-			
-			// ra nnn.nnnnn (0 to 360 deg)
-			url += String.format("&ra=%.5f", query.getRaHr() * 15.0);
-			
-			// dec nn.nnnnn (0 to ± 90 deg)
-			url += String.format("&dec=%.5f", query.getDecDeg());	
-			
-			// orientation
-			url += "&north=up&east=left";
+			url = vspUrlBuilder(VSP_URL, query);
 			
 		} else if (cataogsEnum == CatalogsEnum.APASS) {
-			// APASS header
-			url = "http://vizier.u-strasbg.fr/viz-bin/asu-tsv?-source=APASS9";
-			
-			// url coordinates and fov fragments
-			// centre ra (deg)
-			double raDeg = query.getRaHr() * 15.0;
-			String ra = String.format("&-c=%.8f", raDeg);
-			
-			// centre dec(deg), replace leading '+' sign with %2b
-			String dec = String.format("%.8f", query.getDecDeg());
-			dec = (dec.charAt(0) == '-') ? dec : PLUS_SIGN + dec;
-			
-			// square fov in arcmin
-			double fovAmin = query.getFovAmin();
-			String fov = String.format("&-c.bm=%.1fx%.1f", fovAmin, fovAmin);
-			
-			// append combined ra, dec and fov
-			url += ra  + SPACE_CHAR + dec + fov;
-			
-			// format url output contents
-			// ra and dec in J2000 equinox / epoch, number observations
-			String radec = "&-out=_RAJ" + SPACE_CHAR + "_DEJ" + SPACE_CHAR + "nobs";	
-			url += radec + SPACE_CHAR;
-			
-			// looks up ApassNum for selected filter & appends mag, mag_err url fragments
-			ApassEnum en = ApassEnum.getEnum(query.getMagBand());
-			url += en.getMagUrl() + SPACE_CHAR + en.getMagErrUrl() + SPACE_CHAR;
-			
-			// limit number of records
-			url += String.format("&-out.max=%d", MAX_RECORDS);
+			url = apassUrlBuilder(VIZIER_URL, query);
 		}
 		return url;
 	}
 	
+	/**
+	 * Compiles a url for a DSS fits image query on the specified SkyView server, signature ([String], [CatalogQuery])
+	 * 
+	 * @param skyViewUrl base url of the SkyView server
+	 * @param query catalog query data
+	 * @return compiled SkyView url for 1000x1000 pixel fits image of query fov
+	 */
+	public static String dssUrlBuilder(String skyViewUrl, CatalogQuery query) {
+		// SkyView header
+		String url = skyViewUrl + "/images?Survey=digitized+sky+survey";
+
+		// chart centre coords = ra (deg) & dec (deg)
+		url += String.format("&position=%.5f,%.5f", query.getRaHr() * 15.0, query.getDecDeg());
+
+		// fov in deg
+		url += String.format("&Size=%s", query.getFovAmin() / 60.0);
+
+		// 1000x1000 pixels & append FITS file type
+		int nPix = 1000;
+		url += String.format("&Pixels=%s&Return=FITS", nPix);
+		return url;
+	}
+	
+	/**
+	 * Compiles a url for a VSP chart query on the specified VSP server, signature ([String], [CatalogQuery])
+	 * 
+	 * @param vspUrl base url of the VSP api
+	 * @param query catalog query data
+	 * @return compiled VSP url for query coordinates, fov and mag limit, orientated N-E = up-left
+	 */
+	public static String vspUrlBuilder(String vspUrl, CatalogQuery query) {
+		// VSP header
+		String url = vspUrl + "/chart/?format=json";
+		
+		// fov nn.n (arcmin)
+		url +=  String.format("&fov=%.1f", query.getFovAmin());
+		
+		// magLimit nn.n (mag)
+		url += String.format("&maglimit=%.1f", query.getMagLimit()); 
+		
+		// ra nnn.nnnnn (0 to 360 deg)
+		url += String.format("&ra=%.5f", query.getRaHr() * 15.0);
+		
+		// dec nn.nnnnn (0 to ± 90 deg)
+		url += String.format("&dec=%.5f", query.getDecDeg());	
+		
+		// orientation
+		url += "&north=up&east=left";
+		return url;
+	}
+	
+	/**
+	 * Compiles a url for an APASS query on the specified VizieR server, signature ([String], [CatalogQuery])
+	 * 
+	 * @param vizierUrl base url of the VizieR server
+	 * @param query catalog query data
+	 * @return compiled APASS url for query coordinates, fov and magnitude band
+	 */
+	public static String apassUrlBuilder(String vizierUrl, CatalogQuery query) {
+		// APASS header
+		String url = vizierUrl + "/asu-tsv?-source=APASS9";
+		
+		// url coordinates and fov fragments
+		// centre ra (deg)
+		double raDeg = query.getRaHr() * 15.0;
+		String ra = String.format("&-c=%.8f", raDeg);
+		
+		// centre dec(deg), replace leading '+' sign with %2b
+		String dec = String.format("%.8f", query.getDecDeg());
+		dec = (dec.charAt(0) == '-') ? dec : PLUS_SIGN + dec;
+		
+		// square fov in arcmin
+		double fovAmin = query.getFovAmin();
+		String fov = String.format("&-c.bm=%.1fx%.1f", fovAmin, fovAmin);
+		
+		// append combined ra, dec and fov
+		url += ra  + SPACE_CHAR + dec + fov;
+		
+		// format url output contents
+		// ra and dec in J2000 equinox / epoch, number observations
+		String radec = "&-out=_RAJ" + SPACE_CHAR + "_DEJ" + SPACE_CHAR + "nobs";	
+		url += radec + SPACE_CHAR;
+		
+		// looks up ApassNum for selected filter & appends mag, mag_err url fragments
+		ApassEnum en = ApassEnum.getEnum(query.getMagBand());
+		url += en.getMagUrl() + SPACE_CHAR + en.getMagErrUrl() + SPACE_CHAR;
+		
+		// limit number of records
+		url += String.format("&-out.max=%d", MAX_RECORDS);
+		return url;
+	}
+	
+	/**
+	 * Compiles a url to download all APASS records in a declination band with data for all
+	 * ApassEnum magnitude bands, signature ([String], [double], [double])
+	 * 
+	 * @param vizierUrl base url of the VizieR server
+	 * @param decMin lower dec bound (deg)
+	 * @param decMax upper dec bound (deg)
+	 * @return compiled APASS url for dec band, no record limit
+	 */
+	public static String apassBandUrlBuilder(String vizierUrl, double decMin, double decMax) {
+		// APASS header
+		String url = vizierUrl + "/asu-tsv?-source=APASS9";
+		
+		// J2000 dec range constraint, replace '+' signs with %2b
+		String decRange = String.format("%+.5f..%+.5f", decMin, decMax).replace("+", PLUS_SIGN);
+		url += "&DEJ2000=" + decRange;
+		
+		// ra, dec, nobs then mag, mag_err for each band
+		url += "&-out=_RAJ" + SPACE_CHAR + "_DEJ" + SPACE_CHAR + "nobs";
+		for (ApassEnum en : ApassEnum.values()) {
+			url += SPACE_CHAR + en.getMagUrl() + SPACE_CHAR + en.getMagErrUrl();
+		}
+		
+		// no record limit
+		url += "&-out.max=unlimited";
+		return url;
+	}
+	
+	/*
+	 * Encodes url query text, e.g. object id "wasp 12" => "wasp+12"
+	 */
+	private static String urlEncode(String text) {
+		try {
+			return URLEncoder.encode(text, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			return text;
+		}
+	}
+	
 	public static void main(String[] args) {
 		
 		CatalogQuery query = new CatalogQuery();
@@ -139,6 +288,7 @@ public class CatalogUrls {
 		System.out.println();
 		
 		System.out.println(urlBuilder(query));
+		System.out.println(urlBuilder(SIMBAD_URL, query));
 		
 	}
 	
@@ -153,7 +153,7 @@ public class CoordsConverter {
 		LocalDateTime lstSetDateTime = LocalDateTime.of(utcDate, lstSetTime);
 
 		// LST -> GST -> UTC
-		TimesConverter tc = new TimesConverter(this.site);
+		TimesConverter tc = this.timesConverter;
 		LocalDateTime gstRiseDateTime = tc.convertLstToGst(lstRiseDateTime);
 		LocalDateTime gstSetDateTime = tc.convertLstToGst(lstSetDateTime);
 		
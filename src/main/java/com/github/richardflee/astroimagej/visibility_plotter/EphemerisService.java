@@ -0,0 +1,256 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.NightEphemeris;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+import com.github.richardflee.astroimagej.utils.MathUtils;
+import com.github.richardflee.astroimagej.visibility_plotter.CoordsConverter.CoordsEnum;
+
+/**
+ * Computes sunset, twilight and sunrise times, and target rise, transit and set
+ * times, for a site and starting night, and holds recent results in an in-memory
+ * LRU map keyed by site, date and target
+ *
+ * <p>Event times are solved analytically from the hour angle at the event zenith
+ * angle (PA sections 33, 50), with sidereal time as a linear function of UTC from
+ * GST at 0h, so each event needs no LocalDateTime LST-GST-UTC conversions. Sun
+ * events refine the Sun's position once at the first estimate, as
+ * Solar.getCivilSunTimes; sites where the Sun does not reach rise-set or twilight
+ * zenith angle fall back to Solar.getCivilSunTimes.</p>
+ *
+ * <p>Returned ephemeris objects are shared with the cache and are read-only.</p>
+ */
+public class EphemerisService {
+
+	// default number of site-date-target ephemerides held in memory
+	public static final int DEFAULT_MAX_ENTRIES = 128;
+
+	private Map<Key, NightEphemeris> lru = null;
+
+	/*
+	 * Cache key, copies site values since ObservationSite is mutable
+	 */
+	private static final class Key {
+		private final double siteLongitudeDeg;
+		private final double siteLatitudeDeg;
+		private final double utcOffsetHr;
+		private final LocalDate civilDate;
+		private final String objectId;
+		private final double raHr;
+		private final double decDeg;
+
+		private Key(ObservationSite site, LocalDate civilDate, BaseFieldObject fo) {
+			this.siteLongitudeDeg = site.getSiteLongitudeDeg();
+			this.siteLatitudeDeg = site.getSiteLatitudeDeg();
+			this.utcOffsetHr = site.getUtcOffsetHr();
+			this.civilDate = civilDate;
+			this.objectId = (fo == null) ? null : fo.getObjectId();
+			this.raHr = (fo == null) ? 0.0 : fo.getRaHr();
+			this.decDeg = (fo == null) ? 0.0 : fo.getDecDeg();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return Double.compare(siteLongitudeDeg, other.siteLongitudeDeg) == 0
+					&& Double.compare(siteLatitudeDeg, other.siteLatitudeDeg) == 0
+					&& Double.compare(utcOffsetHr, other.utcOffsetHr) == 0 && civilDate.equals(other.civilDate)
+					&& Objects.equals(objectId, other.objectId) && Double.compare(raHr, other.raHr) == 0
+					&& Double.compare(decDeg, other.decDeg) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(siteLongitudeDeg, siteLatitudeDeg, utcOffsetHr, civilDate, objectId, raHr, decDeg);
+		}
+	}
+
+	public EphemerisService() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries maximum number of ephemerides held in memory
+	 */
+	public EphemerisService(final int maxEntries) {
+		this.lru = new LinkedHashMap<Key, NightEphemeris>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, NightEphemeris> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Looks up or computes sun and target events for site and starting night
+	 *
+	 * @param site observation site
+	 * @param civilDate starting night
+	 * @param fo target object, null for sun times only
+	 * @return night ephemeris, shared read-only instance
+	 */
+	public synchronized NightEphemeris getEphemeris(ObservationSite site, LocalDate civilDate, BaseFieldObject fo) {
+		Key key = new Key(site, civilDate, fo);
+		NightEphemeris ephemeris = lru.get(key);
+		if (ephemeris == null) {
+			ephemeris = computeEphemeris(site, civilDate, fo);
+			lru.put(key, ephemeris);
+		}
+		return ephemeris;
+	}
+
+	/**
+	 * Looks up or computes sunset, twilight and sunrise civil times
+	 *
+	 * @param site observation site
+	 * @param civilDate starting night
+	 * @return solar times, shared read-only instance
+	 */
+	public SolarTimes getCivilSunTimes(ObservationSite site, LocalDate civilDate) {
+		return getEphemeris(site, civilDate, null).getSolarTimes();
+	}
+
+	public synchronized int size() {
+		return lru.size();
+	}
+
+	public synchronized void clear() {
+		lru.clear();
+	}
+
+	/*
+	 * Computes night ephemeris, target events if fo is not null
+	 */
+	static NightEphemeris computeEphemeris(ObservationSite site, LocalDate civilDate, BaseFieldObject fo) {
+		NightEphemeris ephemeris = new NightEphemeris(civilDate, computeSolarTimes(site, civilDate));
+		if (fo != null) {
+			setTargetEvents(ephemeris, site, civilDate, fo);
+		}
+		return ephemeris;
+	}
+
+	/*
+	 * Evening sunset & twilight on civil date, morning twilight & sunrise on next date
+	 */
+	private static SolarTimes computeSolarTimes(ObservationSite site, LocalDate civilDate) {
+		LocalDateTime sunSet = getSunEvent(site, civilDate, Solar.ZENITH_RISESET_DEG, false);
+		LocalDateTime twilightEnds = getSunEvent(site, civilDate, Solar.ZENITH_TWILIGHT_DEG, false);
+		LocalDateTime twilightStarts = getSunEvent(site, civilDate.plusDays(1), Solar.ZENITH_TWILIGHT_DEG, true);
+		LocalDateTime sunRise = getSunEvent(site, civilDate.plusDays(1), Solar.ZENITH_RISESET_DEG, true);
+		if (sunSet == null || twilightEnds == null || twilightStarts == null || sunRise == null) {
+			return new Solar(site).getCivilSunTimes(civilDate);
+		}
+		return new SolarTimes(sunSet, twilightEnds, twilightStarts, sunRise);
+	}
+
+	/*
+	 * Civil time on civil date that Sun reaches zenith angle, Sun position at utc noon
+	 * then at first estimate; null if Sun does not reach zenith angle
+	 */
+	private static LocalDateTime getSunEvent(ObservationSite site, LocalDate civilDate, double zenithDeg,
+			boolean rising) {
+		int utcOffsetMins = (int) (60.0 * site.getUtcOffsetHr());
+		LocalDateTime utcNoon = LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON).minusMinutes(utcOffsetMins);
+		LocalDate utcDate = utcNoon.toLocalDate();
+		double gst0Hr = TimesConverter.convertUtcDateToGst0Hr(utcDate);
+		double siteLongHr = site.getSiteLongitudeDeg() / 15.0;
+		double latDeg = site.getSiteLatitudeDeg();
+
+		double utcHr = TimesConverter.convertLocalTimeToHours(utcNoon.toLocalTime());
+		for (int i = 0; i < 2; i++) {
+			Map<CoordsEnum, Double> sun = Solar
+					.getSunRaDec(LocalDateTime.of(utcDate, TimesConverter.convertHoursToLocalTime(utcHr)));
+			double sunDecDeg = sun.get(CoordsEnum.DEC_DEG);
+			double haTerm = (MathUtils.cosd(zenithDeg) - MathUtils.sind(sunDecDeg) * MathUtils.sind(latDeg))
+					/ (MathUtils.cosd(sunDecDeg) * MathUtils.cosd(latDeg));
+			if (Math.abs(haTerm) > 1.0) {
+				return null;
+			}
+			double haHr = Math.toDegrees(Math.acos(haTerm)) / 15.0;
+			double lstHr = rising ? sun.get(CoordsEnum.RA_HR) - haHr : sun.get(CoordsEnum.RA_HR) + haHr;
+
+			// LST -> GST -> UTC on utc date
+			utcHr = MathUtils.reduceToRange(lstHr - siteLongHr - gst0Hr, 24.0) / TimesConverter.SIDEREAL_FACTOR;
+		}
+		double civilHr = MathUtils.reduceToRange(utcHr + utcOffsetMins / 60.0, 24.0);
+		return LocalDateTime.of(civilDate, TimesConverter.convertHoursToLocalTime(civilHr));
+	}
+
+	/*
+	 * Next target rise, transit & set after civil noon on starting night, point source
+	 * with horizon refraction as CoordsConverter
+	 */
+	private static void setTargetEvents(NightEphemeris ephemeris, ObservationSite site, LocalDate civilDate,
+			BaseFieldObject fo) {
+		double latDeg = site.getSiteLatitudeDeg();
+		double decDeg = fo.getDecDeg();
+		double raHr = fo.getRaHr();
+		double nuDeg = CoordsConverter.REFRACT_NU_DEG;
+
+		// LST at civil noon
+		int utcOffsetMins = (int) (60.0 * site.getUtcOffsetHr());
+		LocalDateTime civilNoon = LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON);
+		LocalDateTime utcNoon = civilNoon.minusMinutes(utcOffsetMins);
+		double gst0Hr = TimesConverter.convertUtcDateToGst0Hr(utcNoon.toLocalDate());
+		double utcNoonHr = TimesConverter.convertLocalTimeToHours(utcNoon.toLocalTime());
+		double lstNoonHr = gst0Hr + utcNoonHr * TimesConverter.SIDEREAL_FACTOR + site.getSiteLongitudeDeg() / 15.0;
+
+		// hour angle term at rise-set, PA section 33
+		double haTerm = -(MathUtils.sind(nuDeg) + MathUtils.sind(latDeg) * MathUtils.sind(decDeg))
+				/ (MathUtils.cosd(latDeg) * MathUtils.cosd(decDeg));
+		boolean neverRises = haTerm > 1.0;
+		boolean neverSets = haTerm < -1.0;
+
+		LocalDateTime transit = nextLstTime(civilNoon, lstNoonHr, raHr);
+		LocalDateTime rise = null;
+		LocalDateTime set = null;
+		double riseAzmDeg = neverRises ? TimesConverter.NEVER_RISES_DEG : TimesConverter.NEVER_SETS_DEG;
+		if (!neverRises && !neverSets) {
+			double haHr = Math.toDegrees(Math.acos(haTerm)) / 15.0;
+			rise = nextLstTime(civilNoon, lstNoonHr, raHr - haHr);
+			set = nextLstTime(civilNoon, lstNoonHr, raHr + haHr);
+
+			double azmTerm = (MathUtils.sind(decDeg) + MathUtils.sind(nuDeg) * MathUtils.sind(latDeg))
+					/ (MathUtils.cosd(nuDeg) * MathUtils.cosd(latDeg));
+			riseAzmDeg = Math.toDegrees(Math.acos(Math.max(-1.0, Math.min(1.0, azmTerm))));
+		}
+		double transitAltDeg = 90.0 - Math.abs(latDeg - decDeg);
+
+		ephemeris.setTargetEvents(fo.getObjectId(), rise, transit, set, transitAltDeg, riseAzmDeg);
+		ephemeris.setNeverRises(neverRises);
+		ephemeris.setNeverSets(neverSets);
+	}
+
+	/*
+	 * Civil time of next LST after civil noon
+	 */
+	private static LocalDateTime nextLstTime(LocalDateTime civilNoon, double lstNoonHr, double lstHr) {
+		double elapsedHr = MathUtils.reduceToRange(lstHr - lstNoonHr, 24.0) / TimesConverter.SIDEREAL_FACTOR;
+		return civilNoon.plusSeconds(Math.round(elapsedHr * 3600.0));
+	}
+
+	public static void main(String[] args) {
+		ObservationSite site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		double raHr = AstroCoords.raHmsToRaHr("06:30:32.797");
+		double decDeg = AstroCoords.decDmsToDecDeg("+29:40:20.27");
+		BaseFieldObject fo = new BaseFieldObject("wasp12", raHr, decDeg);
+
+		EphemerisService service = new EphemerisService();
+		LocalDate civilDate = LocalDate.of(2019, 1, 1);
+		System.out.println(service.getEphemeris(site, civilDate, fo).toString());
+		System.out.println(new Solar(site).getCivilSunTimes(civilDate).toString());
+	}
+}
@@ -52,10 +52,10 @@ public class Solar {
 	private static final double ITER_TOL = 1e-6;
 
 	// sun rise-set zenith angles, including 34' refraction
-	private static final double ZENITH_RISESET_DEG = 90.0 + SUN_SEMIDIA_DEG + CoordsConverter.REFRACT_NU_DEG;
+	static final double ZENITH_RISESET_DEG = 90.0 + SUN_SEMIDIA_DEG + CoordsConverter.REFRACT_NU_DEG;
 
 	// twilight zenith angle, no refraction correction applied
-	private static final double ZENITH_TWILIGHT_DEG = 108.0;
+	static final double ZENITH_TWILIGHT_DEG = 108.0;
 
 	// sun never rises or sets plot marker times
 	private static final LocalTime LOCAL_TIME_NEVER_RISES_START = LocalTime.of(12, 1);
@@ -2,68 +2,86 @@ package com.github.richardflee.astroimagej.visibility_plotter;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
-import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.Marker;
 import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Minute;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.xy.XYDataset;
+import org.jfree.chart.ui.Layer;
+import org.jfree.data.xy.DefaultXYDataset;
 
-import com.github.richardflee.astroimagej.query_objects.AltAzmObject;
-import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
 import com.github.richardflee.astroimagej.query_objects.SolarTimes;
 
+/**
+ * Plots object altitude against civil time over a 24 hour period, with sunset,
+ * twilight and sunrise markers
+ *
+ * <p>The chart is created once; update swaps the altitude series and markers in
+ * place so that an open chart panel is redrawn without building a new chart.</p>
+ */
 public class StarAltPlotter {
 
-	// fields
-	private static List<AltAzmObject> altAzmObjects = null;
+	// dataset series key, addSeries with an existing key replaces the series
+	private static final String SERIES_KEY = "VisibilityPlot";
 
-	public static JFreeChart createChart(List<AltAzmObject> altAzmObjects, ObservationSite site) {
-		StarAltPlotter.altAzmObjects = altAzmObjects;
+	private JFreeChart chart = null;
+	private DefaultXYDataset dataset = null;
 
-		// creates JFreeChart star track chart
-		XYDataset dataset = StarAltPlotter.createDataset();
+	public StarAltPlotter() {
+		// creates JFreeChart star altitude chart with empty dataset
+		this.dataset = new DefaultXYDataset();
 		boolean toolTips = true;
-		JFreeChart chart = ChartFactory.createTimeSeriesChart(VisibilityPlotter.getChartTitle(), "Civil Time (Hr)",
-				"Altitude (Deg)", dataset, false, toolTips, false);
+		this.chart = ChartFactory.createTimeSeriesChart(null, "Civil Time (Hr)", "Altitude (Deg)", dataset, false,
+				toolTips, false);
 
-		// initialise plot ans set y-axis scale 0-90deg
-		XYPlot plot = chart.getXYPlot();
-		ValueAxis yAxis = plot.getRangeAxis();
-		yAxis.setRange(0.0, 90.0);
+		// y-axis scale 0-90deg
+		chart.getXYPlot().getRangeAxis().setRange(0.0, 90.0);
+	}
 
-		// solar times sunset, sunrise & twilight
-		Solar solar = new Solar(site);
-		LocalDate civilDate = altAzmObjects.get(0).getCivilDateTime().toLocalDate();
-		SolarTimes solarTimes = solar.getCivilSunTimes(civilDate);
+	/**
+	 * Compiles alt-azm samples into chart x-y arrays; may be called off the EDT
+	 *
+	 * @param altAzmSeries alt-azm samples
+	 * @return x: chart time millis, y: altitude clipped at horizon
+	 */
+	public static double[][] createData(AltAzmSeries altAzmSeries) {
+		int n = altAzmSeries.size();
+		double[][] data = new double[2][n];
+		for (int idx = 0; idx < n; idx++) {
+			double altDeg = altAzmSeries.getAltDeg(idx);
+			data[0][idx] = altAzmSeries.getMillis(idx);
+			data[1][idx] = (altDeg >= 0) ? altDeg : 0.0;
+		}
+		return data;
+	}
 
-		// draw vertical sunset, sunrise & twilight markers
-		plot.addDomainMarker(riseSetMarker(solarTimes.getCivilSunSet()));
-		plot.addDomainMarker(twilightMarker(solarTimes.getCivilTwilightEnds()));
-		plot.addDomainMarker(twilightMarker(solarTimes.getCivilTwilightStarts()));
-		plot.addDomainMarker(riseSetMarker(solarTimes.getCivilSunRise()));
+	/**
+	 * Replaces chart title, altitude series and sun markers
+	 *
+	 * @param title chart title
+	 * @param data chart x-y arrays from createData
+	 * @param solarTimes sunset, twilight and sunrise times on starting night
+	 */
+	public void update(String title, double[][] data, SolarTimes solarTimes) {
+		XYPlot plot = chart.getXYPlot();
+		chart.setTitle(title);
 
-		return chart;
+		// draw vertical sunset, sunrise & twilight markers
+		plot.clearDomainMarkers();
+		plot.addDomainMarker(0, riseSetMarker(solarTimes.getCivilSunSet()), Layer.FOREGROUND, false);
+		plot.addDomainMarker(0, twilightMarker(solarTimes.getCivilTwilightEnds()), Layer.FOREGROUND, false);
+		plot.addDomainMarker(0, twilightMarker(solarTimes.getCivilTwilightStarts()), Layer.FOREGROUND, false);
+		plot.addDomainMarker(0, riseSetMarker(solarTimes.getCivilSunRise()), Layer.FOREGROUND, false);
+
+		// replaces series, one dataset change event redraws chart
+		dataset.addSeries(SERIES_KEY, data);
 	}
 
-	private static XYDataset createDataset() {
-		TimeSeries series = new TimeSeries("VisibilityPlot");
-
-		for (AltAzmObject altAzmObject : StarAltPlotter.altAzmObjects) {
-			double altDeg = altAzmObject.getAltDeg();
-			altDeg = (altDeg >= 0) ? altDeg : 0.0;
-			Minute current = altAzmObject.getCurrentMinute();
-			series.add(current, altDeg);
-		}
-		return new TimeSeriesCollection(series);
+	public JFreeChart getChart() {
+		return chart;
 	}
 
 	/*
@@ -87,10 +105,4 @@ public class StarAltPlotter {
 		marker.setStroke(new BasicStroke(0.5f));
 		return marker;
 	}
-
-	public static void main(String[] args) {
-		// TODO Auto-generated method stub
-
-	}
-
 }
@@ -6,26 +6,30 @@ import java.awt.Font;
 import java.awt.Stroke;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.annotations.XYAnnotation;
 import org.jfree.chart.annotations.XYShapeAnnotation;
 import org.jfree.chart.annotations.XYTextAnnotation;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.axis.NumberTickUnit;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.xy.XYDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
 
-import com.github.richardflee.astroimagej.query_objects.AltAzmObject;
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
 
 /**
  * Plots object track observed at selected observation site and starting night
  * over a 24 hour period. <p>Plots altitude > 10° and labels star-track start
  * and finish times</p>
+ *
+ * <p>The polar chart frame is created once; update swaps the track series and
+ * time labels in place. Samples below 10° are NaN, so the track is drawn in time
+ * order with a gap where the object is low.</p>
  */
 
 public class StarTrackPlotter {
@@ -35,49 +39,76 @@ public class StarTrackPlotter {
 	// offsets start/finish times from track plot
 	private static final int ANNOTATE_OFFSET = 5;
 
+	// dataset series key, addSeries with an existing key replaces the series
+	private static final String SERIES_KEY = "track";
+
 	// text annotate font & chart line widths
-	private static Font font = new Font("SansSerif", Font.PLAIN, 18);
-	private static Stroke lightStroke = new BasicStroke(0.5f);
-	private static Stroke stroke = new BasicStroke(1.0f);
-	private static Stroke plotStroke = new BasicStroke(1.5f);
+	private static final Font font = new Font("SansSerif", Font.PLAIN, 18);
+	private static final Stroke lightStroke = new BasicStroke(0.5f);
+	private static final Stroke stroke = new BasicStroke(1.0f);
+	private static final Stroke plotStroke = new BasicStroke(1.5f);
+
+	private JFreeChart chart = null;
+	private DefaultXYDataset dataset = null;
 
-	// fields
-	private static List<AltAzmObject> altAzmObjects = null;
+	// start & finish time labels, replaced on each update
+	private List<XYAnnotation> timeAnnotations = new ArrayList<>();
 
 	/**
-	 * Creates a XY JFreeChart chart depicted as a altitude-azimuth polar plot
-	 * @param altAzmObjects
-	 *     list of objects encapsulating X, Y plot coordinates
-	 * @return JFreeChart XYLineChart depicting an altitude-azimuth polar plot
+	 * Creates a XY JFreeChart chart depicted as a altitude-azimuth polar plot,
+	 * with empty track
 	 */
-	public static JFreeChart createChart(List<AltAzmObject> altAzmObjects) {
-		StarTrackPlotter.altAzmObjects = altAzmObjects;
-
-		// creates JFreeChart star track chart
-		XYDataset dataset = StarTrackPlotter.createDataset();
-
-		JFreeChart chart = ChartFactory.createXYLineChart(VisibilityPlotter.getChartTitle(), "E-W deg", "N-S deg",
-				dataset);
+	public StarTrackPlotter() {
+		this.dataset = new DefaultXYDataset();
+		this.chart = ChartFactory.createXYLineChart(null, "E-W deg", "N-S deg", dataset);
 
 		// adds chart text, lines and axes
-		StarTrackPlotter.formatTrackChart(chart.getXYPlot());
-		return chart;
+		formatTrackChart(chart.getXYPlot());
 	}
 
-	/*
-	 * Compiles a list of alt-azm objects into a JFreeChart XYSeries
-	 * @return JfreeChart XYSeriesCollection containing XYSeries encapsulating
-	 * alt-azm track coordinates
+	/**
+	 * Compiles alt-azm samples into polar plot x-y arrays; may be called off the
+	 * EDT
+	 *
+	 * @param altAzmSeries alt-azm samples encapsulating X, Y plot coordinates
+	 * @return x-y arrays in sample order, NaN where altitude < 10°
 	 */
-	private static XYDataset createDataset() {
-		XYSeries series = new XYSeries("track");
+	public static double[][] createData(AltAzmSeries altAzmSeries) {
+		int n = altAzmSeries.size();
+		double[][] data = new double[2][n];
+		for (int idx = 0; idx < n; idx++) {
+			boolean isPlotted = altAzmSeries.getAltDeg(idx) >= MIN_PLOT_ALT;
+			data[0][idx] = isPlotted ? altAzmSeries.getPolarX(idx) : Double.NaN;
+			data[1][idx] = isPlotted ? altAzmSeries.getPolarY(idx) : Double.NaN;
+		}
+		return data;
+	}
 
-		for (AltAzmObject altAzmObject : StarTrackPlotter.altAzmObjects) {
-			if (altAzmObject.getAltDeg() >= MIN_PLOT_ALT) {
-				series.add(altAzmObject.getPolarX(), altAzmObject.getPolarY());
-			}
+	/**
+	 * Replaces chart title, track series and start & finish time labels
+	 *
+	 * @param title chart title
+	 * @param data polar plot x-y arrays from createData
+	 * @param altAzmSeries alt-azm samples for start & finish times
+	 */
+	public void update(String title, double[][] data, AltAzmSeries altAzmSeries) {
+		XYPlot xyPlot = chart.getXYPlot();
+		chart.setTitle(title);
+
+		for (XYAnnotation annotation : timeAnnotations) {
+			xyPlot.removeAnnotation(annotation, false);
+		}
+		timeAnnotations = trackTimes(altAzmSeries);
+		for (XYAnnotation annotation : timeAnnotations) {
+			xyPlot.addAnnotation(annotation, false);
 		}
-		return new XYSeriesCollection(series);
+
+		// replaces series, one dataset change event redraws chart
+		dataset.addSeries(SERIES_KEY, data);
+	}
+
+	public JFreeChart getChart() {
+		return chart;
 	}
 
 	/*
@@ -95,7 +126,6 @@ public class StarTrackPlotter {
 		// configures chart text and line annotations
 		xyPlot = StarTrackPlotter.setTextAnnotations(xyPlot);
 		xyPlot = StarTrackPlotter.setLineAnnotations(xyPlot);
-		xyPlot = StarTrackPlotter.trackTimes(xyPlot);
 	}
 
 	/*
@@ -174,35 +204,35 @@ public class StarTrackPlotter {
 	/*
 	 * Start and finish time markers, format HH:mm
 	 */
-	private static XYPlot trackTimes(XYPlot xyPlot) {
-		// count number of plot items with altitude >= 10 deg
-		long count = StarTrackPlotter.altAzmObjects.stream().filter(p -> p.getAltDeg() >= MIN_PLOT_ALT).count();
-
-		// find the first object with altitude >= 10 deg
-		AltAzmObject start = StarTrackPlotter.altAzmObjects.stream().filter(p -> p.getAltDeg() >= MIN_PLOT_ALT)
-				.findFirst().get();
-
-		// skips to last item in plot set
-		AltAzmObject finish = StarTrackPlotter.altAzmObjects.stream().filter(p -> p.getAltDeg() >= MIN_PLOT_ALT)
-				.skip(count - 1).findFirst().get();
+	private static List<XYAnnotation> trackTimes(AltAzmSeries altAzmSeries) {
+		// first and last samples with altitude >= 10 deg, no annotation if object below 10 deg
+		List<XYAnnotation> annotations = new ArrayList<>();
+		int start = altAzmSeries.firstIndexAbove(MIN_PLOT_ALT);
+		int finish = altAzmSeries.lastIndexAbove(MIN_PLOT_ALT);
+		if (start < 0) {
+			return annotations;
+		}
+		double startX = altAzmSeries.getPolarX(start);
+		double startY = altAzmSeries.getPolarY(start);
+		double finishX = altAzmSeries.getPolarX(finish);
+		double finishY = altAzmSeries.getPolarY(finish);
 
 		// formats start and end times HH:mm
-		String strStart = Solar.LDT_FOMATTER.format(start.getCivilDateTime());
-		String strFinish = Solar.LDT_FOMATTER.format(finish.getCivilDateTime());
+		String strStart = Solar.LDT_FOMATTER.format(altAzmSeries.getCivilDateTime(start));
+		String strFinish = Solar.LDT_FOMATTER.format(altAzmSeries.getCivilDateTime(finish));
 
 		// start time annotation
-		XYTextAnnotation annotate = new XYTextAnnotation(strStart, start.getPolarX(),
-				start.getPolarY() + ANNOTATE_OFFSET);
+		XYTextAnnotation annotate = new XYTextAnnotation(strStart, startX, startY + ANNOTATE_OFFSET);
 		annotate.setFont(StarTrackPlotter.font);
-		xyPlot.addAnnotation(annotate);
+		annotations.add(annotate);
 
 		// finish time annotation, y-offset if overlaps with start
-		boolean overlap = Math.abs(finish.getPolarX() - start.getPolarX()) < 2 * ANNOTATE_OFFSET; 
+		boolean overlap = Math.abs(finishX - startX) < 2 * ANNOTATE_OFFSET; 
 		int offsetY = (overlap) ?  - ANNOTATE_OFFSET : ANNOTATE_OFFSET;
-		annotate = new XYTextAnnotation(strFinish, finish.getPolarX(), finish.getPolarY() + offsetY);
+		annotate = new XYTextAnnotation(strFinish, finishX, finishY + offsetY);
 		annotate.setFont(StarTrackPlotter.font);
-		xyPlot.addAnnotation(annotate);
+		annotations.add(annotate);
 
-		return xyPlot;
+		return annotations;
 	}
 }
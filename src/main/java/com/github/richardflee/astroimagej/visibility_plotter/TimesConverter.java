@@ -271,8 +271,20 @@ public class TimesConverter {
 	 * Code common to GST <-> UTC time conversions
 	 */
 	private double utcGstFactor(LocalDateTime dateTime) {
+		return TimesConverter.convertUtcDateToGst0Hr(dateTime.toLocalDate());
+	}
+
+	/**
+	 * Computes Greenwich Sidereal Time at 0h UTC on specified date; GST at utc hour
+	 * h on that date is gst0 + h * SIDEREAL_FACTOR, reduced to 24 hr range <p> Ref:
+	 * PA section 12 </p>
+	 * @param utcDate
+	 *     Greenwich date
+	 * @return GST at 0h in hours, range 0 to 24
+	 */
+	public static double convertUtcDateToGst0Hr(LocalDate utcDate) {
 		// Julian date at start of day (0h)
-		double jd0 = TimesConverter.convertUtcToJD0(dateTime);
+		double jd0 = TimesConverter.convertUtcToJD(LocalDateTime.of(utcDate, TimesConverter.LOCAL_TIME_0));
 		double t = (jd0 - TimesConverter.JD_2000) / TimesConverter.C_DAYS;
 		double t0 = MathUtils.reduceToRange(T00_COEF + (T01_COEF * t) + (T02_COEF * t * t), 24);
 		return t0;
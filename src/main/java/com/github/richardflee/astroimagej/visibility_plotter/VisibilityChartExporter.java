@@ -0,0 +1,260 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+/**
+ * Renders StarAlt and StarTrack visibility plots to PNG images without a
+ * display, e.g. for batch night-plan reports
+ *
+ * <p>One chart of each type is created and re-used, swapping its dataset for each
+ * target and night. Encoded images are held in an in-memory LRU map keyed by site,
+ * date, target, plot type and image size, so repeated exports are not
+ * re-rendered. Returned byte arrays are shared with the cache and are
+ * read-only.</p>
+ */
+public class VisibilityChartExporter {
+
+	// default number of images held in memory
+	public static final int DEFAULT_MAX_ENTRIES = 64;
+
+	/**
+	 * Visibility plot types with default image size, as visibility plot dialogs
+	 */
+	public enum PlotEnum {
+		ALTITUDE("alt", 1000, 750), TRACK("track", 750, 750);
+
+		private final String suffix;
+		private final int width;
+		private final int height;
+
+		private PlotEnum(String suffix, int width, int height) {
+			this.suffix = suffix;
+			this.width = width;
+			this.height = height;
+		}
+
+		public String getSuffix() {
+			return suffix;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+	}
+
+	private VisibilityEngine engine = null;
+	private EphemerisService ephemeris = null;
+	private StarAltPlotter altPlotter = new StarAltPlotter();
+	private StarTrackPlotter trackPlotter = new StarTrackPlotter();
+	private Map<Key, byte[]> lru = null;
+
+	/*
+	 * Cache key, copies site values since ObservationSite is mutable
+	 */
+	private static final class Key {
+		private final double siteLongitudeDeg;
+		private final double siteLatitudeDeg;
+		private final double utcOffsetHr;
+		private final LocalDate civilDate;
+		private final String objectId;
+		private final double raHr;
+		private final double decDeg;
+		private final PlotEnum plot;
+		private final int width;
+		private final int height;
+
+		private Key(ObservationSite site, LocalDate civilDate, BaseFieldObject fo, PlotEnum plot, int width,
+				int height) {
+			this.siteLongitudeDeg = site.getSiteLongitudeDeg();
+			this.siteLatitudeDeg = site.getSiteLatitudeDeg();
+			this.utcOffsetHr = site.getUtcOffsetHr();
+			this.civilDate = civilDate;
+			this.objectId = fo.getObjectId();
+			this.raHr = fo.getRaHr();
+			this.decDeg = fo.getDecDeg();
+			this.plot = plot;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return Double.compare(siteLongitudeDeg, other.siteLongitudeDeg) == 0
+					&& Double.compare(siteLatitudeDeg, other.siteLatitudeDeg) == 0
+					&& Double.compare(utcOffsetHr, other.utcOffsetHr) == 0 && civilDate.equals(other.civilDate)
+					&& Objects.equals(objectId, other.objectId) && Double.compare(raHr, other.raHr) == 0
+					&& Double.compare(decDeg, other.decDeg) == 0 && plot == other.plot && width == other.width
+					&& height == other.height;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(siteLongitudeDeg, siteLatitudeDeg, utcOffsetHr, civilDate, objectId, raHr, decDeg,
+					plot, width, height);
+		}
+	}
+
+	public VisibilityChartExporter(ObservationSite site) {
+		this(site, new EphemerisService(), DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param site observation site
+	 * @param ephemeris sun times cache shared with other plots
+	 * @param maxEntries maximum number of images held in memory
+	 */
+	public VisibilityChartExporter(ObservationSite site, EphemerisService ephemeris, final int maxEntries) {
+		this.engine = new VisibilityEngine(site);
+		this.ephemeris = ephemeris;
+		this.lru = new LinkedHashMap<Key, byte[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Looks up or renders visibility plot as PNG image
+	 *
+	 * @param fo target object
+	 * @param civilDate starting night
+	 * @param plot plot type
+	 * @param width image width in pixels
+	 * @param height image height in pixels
+	 * @return PNG encoded image, shared read-only array
+	 * @throws IOException if chart cannot be encoded
+	 */
+	public synchronized byte[] getPng(BaseFieldObject fo, LocalDate civilDate, PlotEnum plot, int width, int height)
+			throws IOException {
+		Key key = new Key(engine.getSite(), civilDate, fo, plot, width, height);
+		byte[] png = lru.get(key);
+		if (png == null) {
+			png = renderPng(updateChart(fo, civilDate, plot), width, height);
+			lru.put(key, png);
+		}
+		return png;
+	}
+
+	/**
+	 * Writes default size visibility plot to PNG file
+	 * <object_id>.<yyyy-mm-dd>.<alt|track>.png in the output folder
+	 *
+	 * @param fo target object
+	 * @param civilDate starting night
+	 * @param plot plot type
+	 * @param outputDir output folder, created if necessary
+	 * @return PNG file
+	 * @throws IOException if file cannot be written
+	 */
+	public File exportPng(BaseFieldObject fo, LocalDate civilDate, PlotEnum plot, File outputDir)
+			throws IOException {
+		byte[] png = getPng(fo, civilDate, plot, plot.getWidth(), plot.getHeight());
+		Files.createDirectories(outputDir.toPath());
+		File file = new File(outputDir, compileFilename(fo, civilDate, plot));
+		Files.write(file.toPath(), png);
+		return file;
+	}
+
+	/**
+	 * Writes StarAlt and StarTrack PNG files for each target on starting night
+	 *
+	 * @param targets target objects
+	 * @param civilDate starting night
+	 * @param outputDir output folder, created if necessary
+	 * @return PNG files, StarAlt then StarTrack for each target in target order
+	 * @throws IOException if a file cannot be written
+	 */
+	public List<File> exportNightPlan(List<? extends BaseFieldObject> targets, LocalDate civilDate, File outputDir)
+			throws IOException {
+		List<File> files = new ArrayList<>();
+		for (BaseFieldObject fo : targets) {
+			for (PlotEnum plot : PlotEnum.values()) {
+				files.add(exportPng(fo, civilDate, plot, outputDir));
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @return number of images held in memory
+	 */
+	public synchronized int size() {
+		return lru.size();
+	}
+
+	public synchronized void clear() {
+		lru.clear();
+	}
+
+	/*
+	 * Swaps target visibility dataset into the re-used chart of selected type
+	 */
+	private JFreeChart updateChart(BaseFieldObject fo, LocalDate civilDate, PlotEnum plot) {
+		AltAzmSeries altAzmSeries = engine.compute(fo, civilDate);
+		String title = VisibilityPlotter.getChartTitle(altAzmSeries.getObjectId(), civilDate);
+		if (plot == PlotEnum.ALTITUDE) {
+			altPlotter.update(title, StarAltPlotter.createData(altAzmSeries),
+					ephemeris.getCivilSunTimes(engine.getSite(), civilDate));
+			return altPlotter.getChart();
+		}
+		trackPlotter.update(title, StarTrackPlotter.createData(altAzmSeries), altAzmSeries);
+		return trackPlotter.getChart();
+	}
+
+	private static byte[] renderPng(JFreeChart chart, int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ChartUtils.writeChartAsPNG(out, chart, width, height);
+		return out.toByteArray();
+	}
+
+	/*
+	 * Compiles png filename <object_id>.<yyyy-mm-dd>.<alt|track>.png
+	 */
+	private static String compileFilename(BaseFieldObject fo, LocalDate civilDate, PlotEnum plot) {
+		String filename = String.join(".",
+				Arrays.asList(fo.getObjectId(), civilDate.toString(), plot.getSuffix(), "png"));
+		return filename.replace(" ", "_");
+	}
+
+	public static void main(String[] args) throws IOException {
+		ObservationSite site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		double raHr = AstroCoords.raHmsToRaHr("06:30:32.797");
+		double decDeg = AstroCoords.decDmsToDecDeg("+29:40:20.27");
+		BaseFieldObject fo = new BaseFieldObject("wasp12", raHr, decDeg);
+
+		VisibilityChartExporter exporter = new VisibilityChartExporter(site);
+		File outputDir = new File(System.getProperty("java.io.tmpdir"), "visibility");
+		for (File file : exporter.exportNightPlan(Arrays.asList(fo), LocalDate.of(2019, 1, 1), outputDir)) {
+			System.out.println(file.getAbsolutePath());
+		}
+	}
+}
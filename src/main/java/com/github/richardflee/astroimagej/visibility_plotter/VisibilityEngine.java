@@ -0,0 +1,164 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+/**
+ * Computes object altitude and azimuth over a sequence of equally spaced sample
+ * times at the observer's location
+ *
+ * <p>Local sidereal time is converted once, at the first sample; LST at sample idx
+ * is then lst0 + idx * step * SIDEREAL_FACTOR, so alt & azm arrays are filled in a
+ * single loop with no date-time or map objects. Horizon coordinates as
+ * CoordsConverter.getAltAzm, Ref: PA section 25</p>
+ */
+public class VisibilityEngine {
+
+	// default visibility plot: 24 hr from noon in 1 minute steps
+	public static final int N_SAMPLES = 24 * 60;
+	public static final int STEP_MINUTES = 1;
+
+	private TimesConverter timesConverter = null;
+
+	public VisibilityEngine(ObservationSite site) {
+		this.timesConverter = new TimesConverter(site);
+	}
+
+	/**
+	 * Computes 24 hr visibility series in 1 minute steps from noon on starting night
+	 *
+	 * @param fo target object
+	 * @param civilDate starting night
+	 * @return alt-azm series with 1440 samples
+	 */
+	public AltAzmSeries compute(BaseFieldObject fo, LocalDate civilDate) {
+		LocalDateTime civilStart = LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON);
+		return compute(fo, civilStart, N_SAMPLES, STEP_MINUTES);
+	}
+
+	/**
+	 * Computes visibility series for specified start time, sample count and spacing
+	 *
+	 * @param fo target object
+	 * @param civilStart site civil date-time of first sample
+	 * @param nSamples number of samples
+	 * @param stepMinutes sample spacing in minutes
+	 * @return alt-azm series
+	 */
+	public AltAzmSeries compute(BaseFieldObject fo, LocalDateTime civilStart, int nSamples, int stepMinutes) {
+		double[] altDeg = new double[nSamples];
+		double[] azmDeg = new double[nSamples];
+		double lst0Hr = getStartLstHr(civilStart);
+		double stepLstHr = stepMinutes / 60.0 * TimesConverter.SIDEREAL_FACTOR;
+		computeAltAzm(lst0Hr, stepLstHr, fo.getRaHr(), fo.getDecDeg(), getSite().getSiteLatitudeDeg(), altDeg,
+				azmDeg);
+		long startMillis = TimesConverter.convertCivilDateTimeToMillis(civilStart);
+		return new AltAzmSeries(fo.getObjectId(), civilStart, startMillis, stepMinutes, altDeg, azmDeg);
+	}
+
+	/**
+	 * Local sidereal time at site civil date-time
+	 *
+	 * @param civilDateTime site civil date-time
+	 * @return LST in hours, range 0 - 24
+	 */
+	public double getStartLstHr(LocalDateTime civilDateTime) {
+		LocalDateTime utcDateTime = timesConverter.convertCivilDateTimeToUtc(civilDateTime);
+		LocalDateTime lstDateTime = timesConverter.convertUtcToLst(utcDateTime);
+		return TimesConverter.convertLocalTimeToHours(lstDateTime.toLocalTime());
+	}
+
+	/**
+	 * Fills alt & azm arrays for equally spaced LST samples; array length sets the
+	 * number of samples
+	 *
+	 * @param lst0Hr LST at first sample in hours
+	 * @param stepLstHr LST increment between samples in hours
+	 * @param raHr object RA in hours
+	 * @param decDeg object Dec in degrees
+	 * @param latDeg site latitude in degrees
+	 * @param altDeg output object altitude in degrees
+	 * @param azmDeg output object azimuth in degrees, range 0 - 360
+	 */
+	public static void computeAltAzm(double lst0Hr, double stepLstHr, double raHr, double decDeg, double latDeg,
+			double[] altDeg, double[] azmDeg) {
+		// hour angle terms in radians
+		double ha0 = Math.toRadians((lst0Hr - raHr) * 15.0);
+		double stepHa = Math.toRadians(stepLstHr * 15.0);
+
+		// constant declination & latitude terms
+		double sinDec = Math.sin(Math.toRadians(decDeg));
+		double cosDec = Math.cos(Math.toRadians(decDeg));
+		double sinLat = Math.sin(Math.toRadians(latDeg));
+		double cosDecCosLat = cosDec * Math.cos(Math.toRadians(latDeg));
+		double sinDecSinLat = sinDec * sinLat;
+
+		for (int idx = 0; idx < altDeg.length; idx++) {
+			double ha = ha0 + idx * stepHa;
+			double sinAlt = sinDecSinLat + cosDecCosLat * Math.cos(ha);
+			double y = -cosDecCosLat * Math.sin(ha);
+			double x = sinDec - sinLat * sinAlt;
+			double azm = Math.toDegrees(Math.atan2(y, x));
+			altDeg[idx] = Math.toDegrees(Math.asin(sinAlt));
+			azmDeg[idx] = (azm < 0.0) ? azm + 360.0 : azm;
+		}
+	}
+
+	/**
+	 * Fills first nSamples elements of array with sine of object altitude for
+	 * equally spaced LST samples. Hour angle is advanced by angle addition, so the
+	 * loop has no trig calls; sin(alt) is monotonic in alt for altitude limit and
+	 * maximum altitude comparisons
+	 *
+	 * @param lst0Hr LST at first sample in hours
+	 * @param stepLstHr LST increment between samples in hours
+	 * @param raHr object RA in hours
+	 * @param decDeg object Dec in degrees
+	 * @param latDeg site latitude in degrees
+	 * @param sinAlt output sine of object altitude, length >= nSamples
+	 * @param nSamples number of samples
+	 */
+	public static void computeSinAlt(double lst0Hr, double stepLstHr, double raHr, double decDeg, double latDeg,
+			double[] sinAlt, int nSamples) {
+		double ha0 = Math.toRadians((lst0Hr - raHr) * 15.0);
+		double stepHa = Math.toRadians(stepLstHr * 15.0);
+		double sinDecSinLat = Math.sin(Math.toRadians(decDeg)) * Math.sin(Math.toRadians(latDeg));
+		double cosDecCosLat = Math.cos(Math.toRadians(decDeg)) * Math.cos(Math.toRadians(latDeg));
+
+		// cos & sin of current hour angle, rotated by step each sample
+		double cosHa = Math.cos(ha0);
+		double sinHa = Math.sin(ha0);
+		double cosStep = Math.cos(stepHa);
+		double sinStep = Math.sin(stepHa);
+		for (int idx = 0; idx < nSamples; idx++) {
+			sinAlt[idx] = sinDecSinLat + cosDecCosLat * cosHa;
+			double cosNext = cosHa * cosStep - sinHa * sinStep;
+			sinHa = sinHa * cosStep + cosHa * sinStep;
+			cosHa = cosNext;
+		}
+	}
+
+	public ObservationSite getSite() {
+		return timesConverter.getSite();
+	}
+
+	public static void main(String[] args) {
+		ObservationSite site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		double raHr = AstroCoords.raHmsToRaHr("06:30:32.797");
+		double decDeg = AstroCoords.decDmsToDecDeg("+29:40:20.27");
+		BaseFieldObject fo = new BaseFieldObject("wasp12", raHr, decDeg);
+
+		VisibilityEngine engine = new VisibilityEngine(site);
+		AltAzmSeries series = engine.compute(fo, LocalDate.of(2019, 1, 1));
+		System.out.println(series.toString());
+		for (int idx = 0; idx < series.size(); idx += 120) {
+			System.out.println(String.format("%s  alt %7.3f  azm %7.3f", series.getCivilDateTime(idx).toString(),
+					series.getAltDeg(idx), series.getAzmDeg(idx)));
+		}
+	}
+}
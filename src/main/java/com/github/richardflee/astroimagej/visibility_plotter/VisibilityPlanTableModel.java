@@ -0,0 +1,110 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import com.github.richardflee.astroimagej.query_objects.VisibilityWindow;
+
+/**
+ * Data model for VisibilityPlanner results, one row per target per night
+ *
+ * <p>Numeric columns report Double class and date-time columns use a sortable
+ * yyyy-MM-dd HH:mm format, so that a JTable with setAutoCreateRowSorter(true) sorts
+ * each column in natural order</p>
+ */
+public class VisibilityPlanTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	private static final DateTimeFormatter DT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+	// header column names
+	final static String headers[] = { "ObjectId", "RA (hr)", "Dec (deg)", "Night", "Start", "End", "Hours",
+			"Max Alt", "Max Alt Time" };
+
+	private static final Class<?>[] columnClasses = { String.class, Double.class, Double.class, String.class,
+			String.class, String.class, Double.class, Double.class, String.class };
+
+	private List<VisibilityWindow> tableRows = null;
+
+	public VisibilityPlanTableModel() {
+		this(new ArrayList<>());
+	}
+
+	public VisibilityPlanTableModel(List<VisibilityWindow> windows) {
+		this.tableRows = new ArrayList<>(windows);
+	}
+
+	/**
+	 * Replaces table rows with new planner results
+	 *
+	 * @param windows planner output
+	 */
+	public void setWindows(List<VisibilityWindow> windows) {
+		this.tableRows = new ArrayList<>(windows);
+		fireTableDataChanged();
+	}
+
+	public VisibilityWindow getWindow(int rowIndex) {
+		return tableRows.get(rowIndex);
+	}
+
+	@Override
+	public int getRowCount() {
+		return tableRows.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return headers.length;
+	}
+
+	@Override
+	public String getColumnName(int col) {
+		return headers[col];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int col) {
+		return columnClasses[col];
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		VisibilityWindow row = tableRows.get(rowIndex);
+		switch (columnIndex) {
+		case 0:
+			return row.getObjectId();
+		case 1:
+			return round(row.getRaHr(), 4);
+		case 2:
+			return round(row.getDecDeg(), 4);
+		case 3:
+			return row.getNight().toString();
+		case 4:
+			return format(row.getWindowStart());
+		case 5:
+			return format(row.getWindowEnd());
+		case 6:
+			return round(row.getHoursVisible(), 2);
+		case 7:
+			return round(row.getMaxAltDeg(), 2);
+		case 8:
+			return format(row.getMaxAltTime());
+		default:
+			return null;
+		}
+	}
+
+	private static String format(LocalDateTime dateTime) {
+		return (dateTime == null) ? "" : DT_FORMATTER.format(dateTime);
+	}
+
+	private static Double round(double value, int nPlaces) {
+		double scale = Math.pow(10, nPlaces);
+		return Math.round(value * scale) / scale;
+	}
+}
@@ -0,0 +1,227 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.swing.JFrame;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.WindowConstants;
+
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+import com.github.richardflee.astroimagej.query_objects.VisibilityWindow;
+
+/**
+ * Computes visible windows for a list of targets over a range of nights at the
+ * observer's location, e.g. which targets are above 30° for more than 3 hr
+ * tonight
+ *
+ * <p>Darkness runs from evening twilight end to next morning twilight start, from
+ * EphemerisService sun times. Sun times and start LST are computed once per night;
+ * target altitude curves are then sampled across darkness with
+ * VisibilityEngine.computeSinAlt, targets in parallel on the common fork-join
+ * pool. Nights with no astronomical darkness, e.g. polar sites, give windows with
+ * zero hours.</p>
+ */
+public class VisibilityPlanner {
+
+	// default altitude limit and sample spacing
+	public static final double DEFAULT_MIN_ALT_DEG = 30.0;
+	public static final int DEFAULT_STEP_MINUTES = 1;
+
+	private VisibilityEngine engine = null;
+	private EphemerisService ephemeris = null;
+	private double minAltDeg = DEFAULT_MIN_ALT_DEG;
+	private int stepMinutes = DEFAULT_STEP_MINUTES;
+	private boolean parallel = true;
+
+	/*
+	 * Darkness start, sample count and start LST for one night, common to all targets
+	 */
+	private static class Night {
+		private LocalDate date = null;
+		private LocalDateTime darkStart = null;
+		private int nSamples = 0;
+		private double lst0Hr = 0.0;
+	}
+
+	public VisibilityPlanner(ObservationSite site) {
+		this(site, new EphemerisService());
+	}
+
+	/**
+	 * @param site observation site
+	 * @param ephemeris sun times cache, shared so that repeated plans reuse night darkness times
+	 */
+	public VisibilityPlanner(ObservationSite site, EphemerisService ephemeris) {
+		this.engine = new VisibilityEngine(site);
+		this.ephemeris = ephemeris;
+	}
+
+	/**
+	 * Computes visible window for each target on each night from firstNight to
+	 * lastNight inclusive
+	 *
+	 * @param targets target objects
+	 * @param firstNight civil date of first starting night
+	 * @param lastNight civil date of last starting night
+	 * @return one window per target per night, in target order then night order
+	 */
+	public List<VisibilityWindow> plan(List<? extends BaseFieldObject> targets, LocalDate firstNight,
+			LocalDate lastNight) {
+		List<Night> nights = getNights(firstNight, lastNight);
+		int maxSamples = nights.stream().mapToInt(p -> p.nSamples).max().orElse(0);
+
+		Stream<? extends BaseFieldObject> stream = parallel ? targets.parallelStream() : targets.stream();
+		List<List<VisibilityWindow>> rows = stream.map(fo -> planTarget(fo, nights, maxSamples))
+				.collect(Collectors.toList());
+		return rows.stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	/**
+	 * Filters plan for targets visible for at least minHours
+	 *
+	 * @param windows planner output
+	 * @param minHours minimum hours above altitude limit in darkness
+	 * @return visible windows sorted by night then by decreasing hours visible
+	 */
+	public static List<VisibilityWindow> filterByHours(List<VisibilityWindow> windows, double minHours) {
+		return windows.stream().filter(p -> p.isVisible() && p.getHoursVisible() >= minHours)
+				.sorted(VisibilityWindow.BY_NIGHT).collect(Collectors.toList());
+	}
+
+	/*
+	 * Computes target windows for each night, reusing one altitude buffer
+	 */
+	private List<VisibilityWindow> planTarget(BaseFieldObject fo, List<Night> nights, int maxSamples) {
+		double[] sinAlt = new double[maxSamples];
+		double stepLstHr = stepMinutes / 60.0 * TimesConverter.SIDEREAL_FACTOR;
+		double latDeg = engine.getSite().getSiteLatitudeDeg();
+
+		List<VisibilityWindow> windows = new ArrayList<>(nights.size());
+		for (Night night : nights) {
+			VisibilityEngine.computeSinAlt(night.lst0Hr, stepLstHr, fo.getRaHr(), fo.getDecDeg(), latDeg, sinAlt,
+					night.nSamples);
+			windows.add(getWindow(fo, night, sinAlt));
+		}
+		return windows;
+	}
+
+	/*
+	 * Finds longest run of samples at or above altitude limit and highest altitude in darkness
+	 */
+	private VisibilityWindow getWindow(BaseFieldObject fo, Night night, double[] sinAlt) {
+		double sinMinAlt = Math.sin(Math.toRadians(minAltDeg));
+		int bestStart = -1;
+		int bestLength = 0;
+		int runStart = -1;
+		int maxIdx = -1;
+		double maxSinAlt = -1.0;
+		for (int idx = 0; idx < night.nSamples; idx++) {
+			if (sinAlt[idx] > maxSinAlt) {
+				maxSinAlt = sinAlt[idx];
+				maxIdx = idx;
+			}
+			if (sinAlt[idx] >= sinMinAlt) {
+				runStart = (runStart < 0) ? idx : runStart;
+				if (idx - runStart + 1 > bestLength) {
+					bestStart = runStart;
+					bestLength = idx - runStart + 1;
+				}
+			} else {
+				runStart = -1;
+			}
+		}
+		LocalDateTime windowStart = (bestStart < 0) ? null : sampleTime(night, bestStart);
+		LocalDateTime windowEnd = (bestStart < 0) ? null : sampleTime(night, bestStart + bestLength - 1);
+		LocalDateTime maxAltTime = (maxIdx < 0) ? null : sampleTime(night, maxIdx);
+		double maxAltDeg = (maxIdx < 0) ? 0.0 : Math.toDegrees(Math.asin(Math.min(1.0, maxSinAlt)));
+		return new VisibilityWindow(fo, night.date, windowStart, windowEnd, maxAltDeg, maxAltTime);
+	}
+
+	private LocalDateTime sampleTime(Night night, int idx) {
+		return night.darkStart.plusMinutes((long) idx * stepMinutes);
+	}
+
+	/*
+	 * Computes darkness and start LST for each night, before the parallel target stage
+	 */
+	private List<Night> getNights(LocalDate firstNight, LocalDate lastNight) {
+		List<Night> nights = new ArrayList<>();
+		for (LocalDate date = firstNight; !date.isAfter(lastNight); date = date.plusDays(1)) {
+			SolarTimes solarTimes = ephemeris.getCivilSunTimes(engine.getSite(), date);
+			Night night = new Night();
+			night.date = date;
+			night.darkStart = solarTimes.getCivilTwilightEnds();
+			long darkMinutes = Duration.between(night.darkStart, solarTimes.getCivilTwilightStarts()).toMinutes();
+			night.nSamples = (darkMinutes > 0) ? (int) (darkMinutes / stepMinutes) + 1 : 0;
+			night.lst0Hr = engine.getStartLstHr(night.darkStart);
+			nights.add(night);
+		}
+		return nights;
+	}
+
+	public double getMinAltDeg() {
+		return minAltDeg;
+	}
+
+	public void setMinAltDeg(double minAltDeg) {
+		this.minAltDeg = minAltDeg;
+	}
+
+	public int getStepMinutes() {
+		return stepMinutes;
+	}
+
+	public void setStepMinutes(int stepMinutes) {
+		this.stepMinutes = Math.max(1, stepMinutes);
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @param parallel true (default) to compute targets in parallel, false for
+	 * sequential computation in the calling thread
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	public static void main(String[] args) {
+		// 300 random northern targets, Moore obsy, next 7 nights
+		ObservationSite site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		Random random = new Random(12345);
+		List<BaseFieldObject> targets = new ArrayList<>();
+		for (int idx = 0; idx < 300; idx++) {
+			targets.add(new BaseFieldObject(String.format("target%03d", idx), 24.0 * random.nextDouble(),
+					90.0 * random.nextDouble() - 20.0));
+		}
+		LocalDate firstNight = LocalDate.of(2021, 1, 1);
+
+		long start = System.currentTimeMillis();
+		VisibilityPlanner planner = new VisibilityPlanner(site);
+		List<VisibilityWindow> windows = planner.plan(targets, firstNight, firstNight.plusDays(6));
+		List<VisibilityWindow> visible = VisibilityPlanner.filterByHours(windows, 3.0);
+		System.out.println(String.format("%d windows, %d above 30 deg for 3 hr or more, %d ms", windows.size(),
+				visible.size(), System.currentTimeMillis() - start));
+
+		// sortable table
+		JTable table = new JTable(new VisibilityPlanTableModel(visible));
+		table.setAutoCreateRowSorter(true);
+		JFrame frame = new JFrame("Visibility Planner");
+		frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		frame.add(new JScrollPane(table));
+		frame.setSize(900, 600);
+		frame.setVisible(true);
+	}
+}
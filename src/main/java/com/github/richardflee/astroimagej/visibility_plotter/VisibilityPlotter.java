@@ -3,74 +3,160 @@ package com.github.richardflee.astroimagej.visibility_plotter;
 import java.awt.Dialog;
 import java.awt.Dimension;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JDialog;
+import javax.swing.SwingUtilities;
 
 import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.data.time.Minute;
 
-import com.github.richardflee.astroimagej.query_objects.AltAzmObject;
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
 import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
 import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
 import com.github.richardflee.astroimagej.utils.AstroCoords;
 
 /**
- * Creates Altitude and StarTrack visibility plots at observer's location 
- * for the current target object on selected starting night  
+ * Creates Altitude and StarTrack visibility plots at observer's location
+ * for the current target object on selected starting night
  *
+ * <p>Alt-azm series, sun times and chart datasets are computed on a background
+ * thread; the charts and their dialogs are created once and re-plotted on the
+ * EDT by swapping datasets, so changing target or date redraws the open dialogs.
+ * Only the most recent plot request is drawn.</p>
  */
 public class VisibilityPlotter {
 
-	private TimesConverter timesConverter = null;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	// daemon thread does not block application exit
+	private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "visibility-plot-" + THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// id of most recent plot request, older results are discarded
+	private AtomicLong latestRequest = new AtomicLong();
+
+	private VisibilityEngine engine = null;
+	private EphemerisService ephemeris = null;
+
+	private StarAltPlotter altPlotter = null;
+	private StarTrackPlotter trackPlotter = null;
+	private ChartPanel altitudePanel = null;
+	private ChartPanel trackPanel = null;
 
 	private JDialog trackDialog = null;
-    private JDialog altitudeDialog = null;
-    private static String chartTitle = null;
+	private JDialog altitudeDialog = null;
+
+	/*
+	 * Chart title and datasets computed off the EDT
+	 */
+	private static class PlotData {
+		private String title = null;
+		private AltAzmSeries altAzmSeries = null;
+		private SolarTimes solarTimes = null;
+		private double[][] altData = null;
+		private double[][] trackData = null;
+	}
 
 	public VisibilityPlotter(ObservationSite site) {
-		this.timesConverter = new TimesConverter(site);
+		this(site, new EphemerisService());
+	}
+
+	/**
+	 * @param site observation site
+	 * @param ephemeris sun times cache shared with other plots and date changes
+	 */
+	public VisibilityPlotter(ObservationSite site, EphemerisService ephemeris) {
+		this.engine = new VisibilityEngine(site);
+		this.ephemeris = ephemeris;
 	}
 
+	/**
+	 * Computes target visibility on a background thread, then updates and shows
+	 * the StarAlt and StarTrack dialogs on the EDT. Call from the EDT.
+	 *
+	 * @param fo target object
+	 * @param civilDate starting night
+	 */
 	public void plotVisiblityCharts(BaseFieldObject fo, LocalDate civilDate) {
-		// compiles a list of alt-azm objects with chart coordinate and time data
-		// with 1 minute (60s) sample spacing
-		List<AltAzmObject> altAzmObjects = getAltAzmObjects(fo, civilDate);
-		
-		// chart title <target_name> <start night>
-		VisibilityPlotter.chartTitle = String.format("%s %s", AltAzmObject.getName(), civilDate.toString());
-		
-		// StarAlt plot
-		JFreeChart starAltChart = StarAltPlotter.createChart(altAzmObjects, this.timesConverter.getSite());
-		showAltitudeDialog(starAltChart);
-		
-		// StarTrack plot
-		JFreeChart starTrackChart = StarTrackPlotter.createChart(altAzmObjects);
-		showTrackDialog(starTrackChart);
+		long request = latestRequest.incrementAndGet();
+		executor.execute(() -> {
+			PlotData plotData = computePlotData(fo, civilDate);
+			SwingUtilities.invokeLater(() -> {
+				if (request == latestRequest.get()) {
+					showCharts(plotData);
+				}
+			});
+		});
+	}
+
+	/**
+	 * Chart title <target_name> <start night>
+	 *
+	 * @param objectId target name
+	 * @param civilDate starting night
+	 * @return chart title
+	 */
+	public static String getChartTitle(String objectId, LocalDate civilDate) {
+		return String.format("%s %s", objectId, civilDate.toString());
 	}
-	
 
-	private void showTrackDialog(JFreeChart chart) {
-		this.trackDialog = createDialog("StarTrack Visibility Plot");
-		this.trackDialog.setSize(new Dimension(750, 750));
+	/*
+	 * Computes 24 hr alt-azm series with 1 minute (60s) sample spacing, sun
+	 * times and chart x-y arrays
+	 */
+	private PlotData computePlotData(BaseFieldObject fo, LocalDate civilDate) {
+		PlotData plotData = new PlotData();
+		plotData.altAzmSeries = engine.compute(fo, civilDate);
+		plotData.title = getChartTitle(plotData.altAzmSeries.getObjectId(), civilDate);
+		plotData.solarTimes = ephemeris.getCivilSunTimes(this.engine.getSite(), civilDate);
+		plotData.altData = StarAltPlotter.createData(plotData.altAzmSeries);
+		plotData.trackData = StarTrackPlotter.createData(plotData.altAzmSeries);
+		return plotData;
+	}
+
+	/*
+	 * Swaps chart datasets and shows dialogs, creating charts and dialogs on
+	 * first plot or after a dialog is closed
+	 */
+	private void showCharts(PlotData plotData) {
+		if (this.altPlotter == null) {
+			this.altPlotter = new StarAltPlotter();
+			this.trackPlotter = new StarTrackPlotter();
+			this.altitudePanel = new ChartPanel(altPlotter.getChart());
+			this.trackPanel = new ChartPanel(trackPlotter.getChart());
+		}
+
+		// StarAlt plot
+		altPlotter.update(plotData.title, plotData.altData, plotData.solarTimes);
+		this.altitudeDialog = showDialog(this.altitudeDialog, this.altitudePanel, "StarAlt Visibility Plot",
+				new Dimension(1000, 750));
 
-		ChartPanel chartPanel = new ChartPanel(chart);
-		this.trackDialog.add(chartPanel);
-		this.trackDialog.setVisible(true);
+		// StarTrack plot
+		trackPlotter.update(plotData.title, plotData.trackData, plotData.altAzmSeries);
+		this.trackDialog = showDialog(this.trackDialog, this.trackPanel, "StarTrack Visibility Plot",
+				new Dimension(750, 750));
 	}
-	
-	private void showAltitudeDialog(JFreeChart chart) {
-		this.altitudeDialog = createDialog("StarAlt Visibility Plot");
-		this.altitudeDialog.setSize(new Dimension(1000, 750));
-
-		ChartPanel chartPanel = new ChartPanel(chart);
-		this.altitudeDialog.add(chartPanel);
-		this.altitudeDialog.setVisible(true);	
+
+	/*
+	 * Shows open dialog, or creates a new dialog holding the existing chart panel if closed
+	 */
+	private JDialog showDialog(JDialog dialog, ChartPanel chartPanel, String title, Dimension size) {
+		if (dialog == null || !dialog.isDisplayable()) {
+			dialog = createDialog(title);
+			dialog.setSize(size);
+			dialog.add(chartPanel);
+		}
+		dialog.setVisible(true);
+		return dialog;
 	}
-	
+
 	private JDialog createDialog(String title) {
 		JDialog dialog = new JDialog();
 		dialog.setTitle(title);
@@ -80,30 +166,6 @@ public class VisibilityPlotter {
 		return dialog;
 	}
 
-	private List<AltAzmObject> getAltAzmObjects(BaseFieldObject fo, LocalDate civilDate) {
-
-		List<AltAzmObject> altAzmList = new ArrayList<>();
-		ObservationSite site = timesConverter.getSite();
-		AltAzmGenerator gen = new AltAzmGenerator(fo, site);
-
-		// noon on starting night
-		LocalDateTime civilDateTime = LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON);
-		Minute current = TimesConverter.convertCivilDateTimeToMinute(civilDateTime);
-
-		// 24 hr in 1 minute steps
-		for (int i = 0; i < 24 * 60; i++) {
-			altAzmList.add(gen.getAltAzmObject(current));
-			// LocalDateTime ldt = TimesConverter.convertMinuteToCivilDateTime(current);
-			current = (Minute) current.next();
-		}
-		return altAzmList;
-	}
-
-
-	public static String getChartTitle() {
-		return chartTitle;
-	}
-
 	public static void main(String[] args) {
 		// site
 		ObservationSite site;
@@ -122,7 +184,7 @@ public class VisibilityPlotter {
 		LocalDate civilDate = LocalDate.of(2019, 1, 1);
 
 		VisibilityPlotter visPlotter = new VisibilityPlotter(site);
-		visPlotter.plotVisiblityCharts(fo, civilDate);
+		SwingUtilities.invokeLater(() -> visPlotter.plotVisiblityCharts(fo, civilDate));
 	}
 
 }
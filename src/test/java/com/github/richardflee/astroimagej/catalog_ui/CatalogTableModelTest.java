@@ -0,0 +1,114 @@
+package com.github.richardflee.astroimagej.catalog_ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.swing.event.TableModelEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+class CatalogTableModelTest {
+
+	private static final int N_ROWS = 1500;
+
+	private CatalogTableModel model;
+	private List<TableModelEvent> events;
+	private List<FieldObject> fieldObjects;
+
+	@BeforeEach
+	void setUp() {
+		model = new CatalogTableModel();
+		events = new ArrayList<>();
+		model.addTableModelListener(e -> events.add(e));
+
+		fieldObjects = new ArrayList<>();
+		for (int idx = 0; idx < N_ROWS; idx++) {
+			FieldObject fo = new FieldObject(String.format("fo%04d", idx), 6.5, 29.0, 12.0, 0.05);
+			fo.setTarget(idx == 0);
+			fo.setApertureId((idx == 0) ? "T01" : "");
+			fieldObjects.add(fo);
+		}
+	}
+
+	@DisplayName("Filter change deletes and inserts runs of rows, table matches accepted rows")
+	@Test
+	void updateTable_FilterChange_MinimalEvents() {
+		model.updateTable(fieldObjects);
+		assertEquals(N_ROWS, model.getRowCount());
+		events.clear();
+
+		// reject rows 100-199 and 500-549
+		for (int idx = 100; idx < 200; idx++) {
+			fieldObjects.get(idx).setAccepted(false);
+		}
+		for (int idx = 500; idx < 550; idx++) {
+			fieldObjects.get(idx).setAccepted(false);
+		}
+		model.updateTable(fieldObjects);
+		assertRows();
+		assertEquals(2, countEvents(TableModelEvent.DELETE));
+
+		// re-accept rows 100-199
+		for (int idx = 100; idx < 200; idx++) {
+			fieldObjects.get(idx).setAccepted(true);
+		}
+		events.clear();
+		model.updateTable(fieldObjects);
+		assertRows();
+		assertEquals(1, countEvents(TableModelEvent.INSERT));
+		assertEquals(0, countEvents(TableModelEvent.DELETE));
+		assertEquals("C299", model.getValueAt(298, 0));
+	}
+
+	@DisplayName("Sort change replaces rows with single event, null clears table")
+	@Test
+	void updateTable_SortChange_ReplacesRows() {
+		model.updateTable(fieldObjects);
+		List<FieldObject> reversed = new ArrayList<>(fieldObjects.subList(1, N_ROWS));
+		Collections.reverse(reversed);
+		reversed.add(0, fieldObjects.get(0));
+		fieldObjects = reversed;
+		events.clear();
+
+		model.updateTable(fieldObjects);
+		assertRows();
+		assertEquals(0, countEvents(TableModelEvent.DELETE) + countEvents(TableModelEvent.INSERT));
+		assertEquals("C02", model.getValueAt(1, 0));
+
+		model.updateTable(null);
+		assertEquals(0, model.getRowCount());
+	}
+
+	@DisplayName("Toggling use checkbox renumbers following apertures")
+	@Test
+	void setValueAt_TogglesSelected() {
+		model.updateTable(fieldObjects.subList(0, 5));
+		int useCol = model.getColumnCount() - 1;
+		model.setValueAt(Boolean.FALSE, 2, useCol);
+		assertEquals("C02", model.getValueAt(1, 0));
+		assertEquals("", model.getValueAt(2, 0));
+		assertEquals("C03", model.getValueAt(3, 0));
+		assertEquals("C04", model.getValueAt(4, 0));
+	}
+
+	private void assertRows() {
+		List<FieldObject> accepted = fieldObjects.stream().filter(p -> p.isAccepted()).collect(Collectors.toList());
+		assertEquals(accepted.size(), model.getRowCount());
+		for (int row = 0; row < accepted.size(); row++) {
+			assertSame(accepted.get(row).getObjectId(), model.getValueAt(row, 1));
+		}
+	}
+
+	private long countEvents(int type) {
+		return events.stream().filter(e -> e.getType() == type).count();
+	}
+}
@@ -0,0 +1,171 @@
+package com.github.richardflee.astroimagej.catalog_ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.utils.CatalogTransport;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CatalogTaskExecutor tests: results published on the EDT, errors and user
+ * cancel
+ */
+class CatalogTaskExecutorTest {
+
+	private CatalogTaskExecutor tasks = new CatalogTaskExecutor();
+
+	// published results & thread flags
+	private BlockingQueue<Object> published = new ArrayBlockingQueue<>(4);
+
+	@DisplayName("Task runs off the EDT, result published on the EDT")
+	@Test
+	void submit_PublishesOnEdt() throws Exception {
+		assertTrue(tasks.submit(() -> SwingUtilities.isEventDispatchThread(), isTaskOnEdt -> {
+			published.add(isTaskOnEdt);
+			published.add(SwingUtilities.isEventDispatchThread());
+		}, e -> published.add(e)));
+
+		assertEquals(false, published.poll(5, TimeUnit.SECONDS));
+		assertEquals(true, published.poll(5, TimeUnit.SECONDS));
+		awaitIdle();
+	}
+
+	@DisplayName("Task exception passed to error handler")
+	@Test
+	void submit_TaskException() throws Exception {
+		tasks.submit(() -> {
+			throw new IllegalStateException("bad query");
+		}, result -> published.add(result), e -> published.add(e));
+
+		Object error = published.poll(5, TimeUnit.SECONDS);
+		assertTrue(error instanceof IllegalStateException);
+		awaitIdle();
+	}
+
+	@DisplayName("Second task refused while first task runs")
+	@Test
+	void submit_RefusedWhileBusy() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		assertTrue(tasks.submit(() -> await(release), result -> published.add("first"), e -> published.add(e)));
+		assertFalse(tasks.submit(() -> "second", result -> published.add(result), e -> published.add(e)));
+		assertTrue(tasks.isBusy());
+
+		release.countDown();
+		assertEquals("first", published.poll(5, TimeUnit.SECONDS));
+		awaitIdle();
+		assertTrue(tasks.submit(() -> "third", result -> published.add(result), e -> published.add(e)));
+		assertEquals("third", published.poll(5, TimeUnit.SECONDS));
+	}
+
+	@DisplayName("Cancelled task publishes CancellationException, busy flag cleared")
+	@Test
+	void cancel_BlockedTask() throws Exception {
+		BlockingQueue<Boolean> busyStates = new ArrayBlockingQueue<>(4);
+		tasks.setBusyListener(isBusy -> busyStates.add(isBusy));
+		CountDownLatch never = new CountDownLatch(1);
+		tasks.submit(() -> await(never), result -> published.add("done"), e -> published.add(e));
+
+		assertEquals(true, busyStates.poll(5, TimeUnit.SECONDS));
+		assertTrue(tasks.cancel());
+		assertTrue(published.poll(5, TimeUnit.SECONDS) instanceof CancellationException);
+		assertEquals(false, busyStates.poll(5, TimeUnit.SECONDS));
+		assertFalse(tasks.isBusy());
+		assertFalse(tasks.cancel());
+	}
+
+	@DisplayName("Cancel aborts task's in-flight catalog request, other requests unaffected")
+	@Test
+	void cancel_AbortsTaskRequest() throws Exception {
+		// server holds requests until released
+		CountDownLatch received = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		ExecutorService serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.createContext("/held", ex -> {
+			received.countDown();
+			await(release);
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			ex.sendResponseHeaders(200, body.length);
+			try (OutputStream out = ex.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		String url = String.format("http://localhost:%d/held", server.getAddress().getPort());
+		ExecutorService other = Executors.newSingleThreadExecutor();
+
+		try {
+			// request outside task, e.g. another plugin using the shared transport
+			Future<String> otherRequest = other.submit(() -> read(url));
+			tasks.submit(() -> read(url), result -> published.add(result), e -> published.add(e));
+
+			assertTrue(received.await(5, TimeUnit.SECONDS));
+			tasks.cancel();
+			assertTrue(published.poll(5, TimeUnit.SECONDS) instanceof CancellationException);
+
+			release.countDown();
+			assertEquals("ok", otherRequest.get(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			other.shutdownNow();
+			server.stop(0);
+			serverExecutor.shutdownNow();
+		}
+	}
+
+	// reads response text with shared transport
+	private static String read(String url) {
+		try (InputStream in = CatalogTransport.getDefault().openStream(url)) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				bos.write(buffer, 0, n);
+			}
+			return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// waits for latch, returns null when interrupted
+	private static String await(CountDownLatch latch) {
+		try {
+			latch.await();
+			return "released";
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	// waits for pending EDT events, i.e. busy flag cleared
+	private void awaitIdle() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+		});
+		assertFalse(tasks.isBusy());
+	}
+}
@@ -0,0 +1,266 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.fileio.ApassTileCache;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.CatalogUrls;
+
+/**
+ * ApassCatalog tests run against a local VizieR stub server
+ */
+class ApassCatalogStubTest {
+
+	@TempDir
+	Path tempDir;
+
+	private VizierStubServer server;
+	private CatalogQuery query;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new VizierStubServer(0.05);
+
+		// fov edges offset from stub star lattice
+		query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.APASS);
+		query.setRaHr(97.6123 / 15.0);
+		query.setDecDeg(29.6723);
+		query.setFovAmin(60.0);
+		query.setMagBand("V");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	@DisplayName("Tiled query returns same records with and without tile cache")
+	@Test
+	void tiledQuery_MatchesFovDownload() {
+		ApassCatalog direct = new ApassCatalog(server.getVizierUrl(), null);
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+
+		List<String> expected = coords(direct.runQuery(query));
+		List<String> actual = coords(tiled.runQuery(query));
+
+		assertTrue(expected.size() > 0);
+		assertEquals(latticeCoords(0.05, query), expected);
+		assertEquals(expected, actual);
+	}
+
+	@DisplayName("Wide fov returns all records beyond the VizieR record limit, without duplicates")
+	@Test
+	void wideFov_ChunkedDownload() throws Exception {
+		server.stop();
+		server = new VizierStubServer(0.01);
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+
+		List<Integer> nLoaded = new ArrayList<>();
+		List<FieldObject> chunkObjects = new ArrayList<>();
+		tiled.setProgressListener((objects, n, nDone, nChunks) -> {
+			chunkObjects.addAll(objects);
+			nLoaded.add(n);
+		});
+		List<FieldObject> fieldObjects = tiled.runQuery(query);
+
+		List<String> expected = latticeCoords(0.01, query);
+		assertTrue(expected.size() > CatalogUrls.MAX_RECORDS);
+		assertEquals(expected, coords(fieldObjects));
+		assertTrue(tiled.getStatusMessage().contains("requests"));
+
+		// growing count, chunk records add up to result
+		for (int idx = 1; idx < nLoaded.size(); idx++) {
+			assertTrue(nLoaded.get(idx) >= nLoaded.get(idx - 1));
+		}
+		assertEquals(fieldObjects.size(), (int) nLoaded.get(nLoaded.size() - 1));
+		assertEquals(expected, coords(chunkObjects));
+
+		// chunked tiles are cached
+		server.resetRequestCount();
+		assertEquals(expected, coords(tiled.runQuery(query)));
+		assertEquals(0, server.getRequestCount());
+	}
+
+	@DisplayName("Without tile cache, fov downloaded in a single request")
+	@Test
+	void noCache_SingleFovRequest() {
+		ApassCatalog direct = new ApassCatalog(server.getVizierUrl(), null);
+		List<String> actual = coords(direct.runQuery(query));
+
+		assertEquals(latticeCoords(0.05, query), actual);
+		assertEquals(1, server.getRequestCount());
+		assertFalse(direct.getStatusMessage().contains("sky tiles"));
+		assertFalse(direct.getStatusMessage().contains("requests"));
+	}
+
+	@DisplayName("Without tile cache, truncated fov download split into chunks, without duplicates")
+	@Test
+	void noCache_TruncatedFovChunked() throws Exception {
+		server.stop();
+		server = new VizierStubServer(0.01);
+		ApassCatalog direct = new ApassCatalog(server.getVizierUrl(), null);
+
+		List<String> expected = latticeCoords(0.01, query);
+		assertTrue(expected.size() > CatalogUrls.MAX_RECORDS);
+		assertEquals(expected, coords(direct.runQuery(query)));
+		assertTrue(server.getRequestCount() > 1);
+		assertTrue(direct.getStatusMessage().contains("requests"));
+		assertFalse(direct.getStatusMessage().contains("truncated"));
+	}
+
+	@DisplayName("Download capped by blank mag rows is split, with and without tile cache")
+	@Test
+	void blankMagRows_TruncatedChunked() throws Exception {
+		server.stop();
+		server = new VizierStubServer(0.01);
+		server.setBlankMagStride(2);
+
+		// valid rows in a capped response are below the record limit
+		List<String> expected = latticeCoords(0.01, query).stream()
+				.filter(key -> !isBlankMag(server, 0.01, key))
+				.collect(Collectors.toList());
+		assertTrue(expected.size() > CatalogUrls.MAX_RECORDS);
+
+		ApassCatalog direct = new ApassCatalog(server.getVizierUrl(), null);
+		assertEquals(expected, coords(direct.runQuery(query)));
+		assertTrue(server.getRequestCount() > 1);
+
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+		assertEquals(expected, coords(tiled.runQuery(query)));
+		assertFalse(tiled.getStatusMessage().contains("truncated"));
+	}
+
+	@DisplayName("Records limited to nearest maxRecords")
+	@Test
+	void maxRecords_NearestRecords() {
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), null);
+		tiled.setMaxRecords(100);
+		List<FieldObject> fieldObjects = tiled.runQuery(query);
+		assertEquals(100, fieldObjects.size());
+		assertTrue(tiled.getStatusMessage().contains("limited to nearest 100"));
+
+		// all retained records within 0.3 deg of fov centre
+		double cosDec = Math.cos(Math.toRadians(query.getDecDeg()));
+		for (FieldObject fo : fieldObjects) {
+			assertTrue(ApassCatalog.sqrDistance(fo.getRaHr() * 15.0, fo.getDecDeg(), query.getRaHr() * 15.0,
+					query.getDecDeg(), cosDec) < 0.09);
+		}
+	}
+
+	@DisplayName("Repeated and overlapping queries are answered from cached tiles")
+	@Test
+	void repeatedQuery_NoDownloads() {
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+		ApassCatalog direct = new ApassCatalog(server.getVizierUrl(), null);
+
+		// first query downloads each covering tile once
+		tiled.runQuery(query);
+		int nTiles = SkyTile.coveringTiles(query.getRaHr() * 15.0, query.getDecDeg(), query.getFovAmin()).size();
+		assertEquals(nTiles, server.getRequestCount());
+
+		// same field with smaller fov
+		server.resetRequestCount();
+		query.setFovAmin(45.0);
+		List<String> actual = coords(tiled.runQuery(query));
+		assertEquals(0, server.getRequestCount());
+		assertTrue(tiled.getStatusMessage().contains("downloaded 0 of"));
+		assertEquals(coords(direct.runQuery(query)), actual);
+
+		// new instance reads tile files from disk
+		server.resetRequestCount();
+		new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir)).runQuery(query);
+		assertEquals(0, server.getRequestCount());
+	}
+
+	@DisplayName("Tiles cached by magnitude band")
+	@Test
+	void newBand_DownloadsTiles() {
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+		tiled.runQuery(query);
+
+		server.resetRequestCount();
+		query.setMagBand("B");
+		tiled.runQuery(query);
+		assertTrue(server.getRequestCount() > 0);
+	}
+
+	@DisplayName("Tiles with chunks truncated at maximum split depth are not cached")
+	@Test
+	void truncatedTiles_NotCached() throws Exception {
+		server.stop();
+		server = new VizierStubServer(0.001);
+		query.setFovAmin(2.0);
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+
+		tiled.runQuery(query);
+		assertTrue(tiled.getStatusMessage().contains("truncated"));
+
+		server.resetRequestCount();
+		tiled.runQuery(query);
+		assertTrue(server.getRequestCount() > 0);
+	}
+
+	@DisplayName("Connection error returns null with error status")
+	@Test
+	void connectionError_ReturnsNull() {
+		ApassCatalog tiled = new ApassCatalog(server.getVizierUrl(), new ApassTileCache(tempDir));
+		server.stop();
+		assertNull(tiled.runQuery(query));
+		assertTrue(tiled.getStatusMessage().startsWith("ERROR"));
+	}
+
+	// sorted coordinate keys of stub lattice stars inside query fov
+	private static List<String> latticeCoords(double gridDeg, CatalogQuery query) {
+		double raDeg = query.getRaHr() * 15.0;
+		List<String> keys = new ArrayList<>();
+		int nGridRa = (int) Math.round(360.0 / gridDeg);
+		for (int j = (int) Math.round(-90.0 / gridDeg); j <= (int) Math.round(90.0 / gridDeg); j++) {
+			double dec = j * gridDeg;
+			if (Math.abs(dec - query.getDecDeg()) > query.getFovAmin() / 120.0) {
+				continue;
+			}
+			for (int i = 0; i < nGridRa; i++) {
+				double ra = i * gridDeg;
+				if (ApassCatalog.isInFov(ra, dec, raDeg, query.getDecDeg(), query.getFovAmin())) {
+					keys.add(String.format("%.6f %.6f", ra, dec));
+				}
+			}
+		}
+		Collections.sort(keys);
+		return keys;
+	}
+
+	// tests if lattice star with coordinate key "ra dec" is served with blank mag
+	private static boolean isBlankMag(VizierStubServer server, double gridDeg, String key) {
+		String[] terms = key.split(" ");
+		int i = (int) Math.round(Double.parseDouble(terms[0]) / gridDeg);
+		int j = (int) Math.round(Double.parseDouble(terms[1]) / gridDeg);
+		return server.isBlankMag(i, j);
+	}
+
+	// sorted coordinate keys
+	private static List<String> coords(List<FieldObject> fieldObjects) {
+		return fieldObjects.stream()
+				.map(p -> String.format("%.6f %.6f", p.getRaHr() * 15.0, p.getDecDeg()))
+				.sorted()
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,173 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.enums.ApassEnum;
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.fileio.ApassExtractFile;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.CatalogUrls;
+
+class ApassExtractCatalogTest {
+
+	private static final int N_ROWS = 500000;
+	private static final double DEC_MIN = 20.0;
+	private static final double DEC_MAX = 40.0;
+
+	@TempDir
+	static Path tempDir;
+
+	private static Path extractPath;
+
+	// random records, V mag missing for every 10th record
+	private static double[] ra = new double[N_ROWS];
+	private static double[] dec = new double[N_ROWS];
+	private static float[][] mags = new float[ApassEnum.values().length][N_ROWS];
+
+	@BeforeAll
+	static void setUp() throws IOException {
+		Random random = new Random(12345);
+		int nBands = ApassEnum.values().length;
+		int[] nObs = new int[N_ROWS];
+		float[][] errs = new float[nBands][N_ROWS];
+		for (int idx = 0; idx < N_ROWS; idx++) {
+			ra[idx] = 360.0 * random.nextDouble();
+			dec[idx] = DEC_MIN + (DEC_MAX - DEC_MIN) * random.nextDouble();
+			nObs[idx] = 1 + random.nextInt(20);
+			for (int band = 0; band < nBands; band++) {
+				mags[band][idx] = (float) (10.0 + random.nextInt(6000) / 1000.0);
+				errs[band][idx] = 0.05f;
+			}
+			if (idx % 10 == 0) {
+				mags[ApassEnum.V.ordinal()][idx] = Float.NaN;
+			}
+		}
+		extractPath = tempDir.resolve("apass_test" + ApassExtractFile.EXTRACT_FILE_EXT);
+		ApassExtractFile.write(extractPath, DEC_MIN, DEC_MAX, N_ROWS, ra, dec, nObs, mags, errs);
+	}
+
+	@DisplayName("Extract query returns the same records as a full scan")
+	@ParameterizedTest
+	@CsvSource({ "97.6123, 29.6723, 60.0", "0.05, 25.0, 30.0", "359.98, 35.5, 45.0", "180.0, 20.1, 20.0" })
+	void runQuery_MatchesFullScan(double raDeg, double decDeg, double fovAmin) throws IOException {
+		CatalogQuery query = apassQuery(raDeg, decDeg, fovAmin);
+		ApassExtractCatalog catalog = new ApassExtractCatalog(extractPath);
+
+		List<String> expected = new ArrayList<>();
+		int vBand = ApassEnum.V.ordinal();
+		for (int idx = 0; idx < N_ROWS; idx++) {
+			if (!Float.isNaN(mags[vBand][idx]) && ApassCatalog.isInFov(ra[idx], dec[idx], raDeg, decDeg, fovAmin)) {
+				expected.add(String.format("%.6f %.6f %.3f", ra[idx], dec[idx], mags[vBand][idx]));
+			}
+		}
+		List<String> actual = catalog.runQuery(query).stream()
+				.map(p -> String.format("%.6f %.6f %.3f", p.getRaHr() * 15.0, p.getDecDeg(), p.getMag()))
+				.collect(Collectors.toList());
+
+		assertTrue(expected.size() > 0);
+		assertEquals(expected.stream().sorted().collect(Collectors.toList()),
+				actual.stream().sorted().collect(Collectors.toList()));
+		assertTrue(catalog.getStatusMessage().startsWith(String.format("Loaded %d APASS", expected.size())));
+	}
+
+	@DisplayName("Records limited to nearest maxRecords, default limit as on-line catalog")
+	@Test
+	void runQuery_MaxRecords() throws IOException {
+		// wide fov: more records than a single VizieR request
+		CatalogQuery query = apassQuery(97.6123, 29.6723, 360.0);
+		ApassExtractCatalog catalog = new ApassExtractCatalog(extractPath);
+		List<FieldObject> all = catalog.runQuery(query);
+		assertTrue(all.size() > CatalogUrls.MAX_RECORDS);
+		assertTrue(all.size() < ApassCatalog.DEFAULT_MAX_RECORDS);
+		assertFalse(catalog.getStatusMessage().contains("limited"));
+
+		catalog.setMaxRecords(100);
+		List<FieldObject> nearest = catalog.runQuery(query);
+		assertEquals(100, nearest.size());
+		assertTrue(catalog.getStatusMessage().contains(String.format("limited to nearest 100 of %d", all.size())));
+
+		// retained records no further from fov centre than dropped records
+		double maxRetained = nearest.stream().mapToDouble(p -> radSepAmin(p, query)).max().getAsDouble();
+		long nCloser = all.stream().filter(p -> radSepAmin(p, query) < maxRetained).count();
+		assertTrue(nCloser < 100);
+	}
+
+	@DisplayName("Factory selects extract when it covers the fov, on-line catalog otherwise")
+	@Test
+	void createCatalog_SelectsCoveringExtract() {
+		CatalogQuery query = apassQuery(97.6123, 29.6723, 60.0);
+		assertTrue(CatalogFactory.createCatalog(query, tempDir) instanceof ApassExtractCatalog);
+
+		query.setDecDeg(39.9);
+		assertTrue(CatalogFactory.createCatalog(query, tempDir) instanceof ApassCatalog);
+
+		query.setDecDeg(29.6723);
+		query.setCatalogType(CatalogsEnum.VSP);
+		assertTrue(CatalogFactory.createCatalog(query, tempDir) instanceof VspCatalog);
+
+		assertNull(ApassExtractCatalog.findExtract(tempDir.resolve("missing"), query));
+	}
+
+	@DisplayName("Extract compiled from VizieR tab-separated lines, incomplete and out of band lines skipped")
+	@Test
+	void writeExtract_FromTsv() throws IOException {
+		String tsv = "#RESOURCE=yCat_2336\n"
+				+ "_RAJ2000\t_DEJ2000\tnobs\tBmag\te_Bmag\tVmag\te_Vmag\tr'mag\te_r'mag\tg'mag\te_g'mag\ti'mag\te_i'mag\n"
+				+ "deg\tdeg\t\tmag\tmag\tmag\tmag\tmag\tmag\tmag\tmag\tmag\tmag\n"
+				+ "097.600000\t+29.600000\t  3\t12.100\t0.050\t11.500\t0.040\t11.300\t0.030\t11.800\t0.030\t11.100\t0.060\n"
+				+ "097.610000\t+29.610000\t  2\t      \t     \t13.250\t0.020\t      \t     \t      \t     \t      \t     \n"
+				+ "097.620000\t+35.000000\t  2\t12.100\t0.050\t11.500\t0.040\t11.300\t0.030\t11.800\t0.030\t11.100\t0.060\n"
+				+ "097.630000\t+29.620000\t  2\t12.100\n";
+		Path path = tempDir.resolve("tsv.apx.tmp");
+		int nRows = ApassExtractCatalog.writeExtract(new BufferedReader(new StringReader(tsv)), path, 29.0, 30.0);
+		assertEquals(2, nRows);
+
+		ApassExtractCatalog catalog = new ApassExtractCatalog(path);
+		CatalogQuery query = apassQuery(97.605, 29.605, 10.0);
+		List<FieldObject> vObjects = catalog.runQuery(query);
+		assertEquals(2, vObjects.size());
+
+		query.setMagBand("B");
+		List<FieldObject> bObjects = catalog.runQuery(query);
+		assertEquals(1, bObjects.size());
+		assertEquals(12.1, bObjects.get(0).getMag(), 1.0e-9);
+		assertEquals(0.05, bObjects.get(0).getMagErr(), 1.0e-9);
+		assertEquals(3, bObjects.get(0).getnObs());
+	}
+
+	// radial separation from fov centre (arcmin)
+	private static double radSepAmin(FieldObject fo, CatalogQuery query) {
+		fo.computeRadSepAmin(new FieldObject(null, query.getRaHr(), query.getDecDeg(), 0.0, 0.0));
+		return fo.getRadSepAmin();
+	}
+
+	private static CatalogQuery apassQuery(double raDeg, double decDeg, double fovAmin) {
+		CatalogQuery query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.APASS);
+		query.setRaHr(raDeg / 15.0);
+		query.setDecDeg(decDeg);
+		query.setFovAmin(fovAmin);
+		query.setMagBand("V");
+		return query;
+	}
+}
@@ -0,0 +1,164 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+class ApassTsvDecoderTest {
+
+	private static final String HEADER = "#\n#   VizieR Astronomical Server (stub)\n#RESOURCE=yCat_2336\n#\n"
+			+ "_RAJ2000\t_DEJ2000\tnobs\tVmag\te_Vmag\n"
+			+ "deg\tdeg\t\tmag\tmag\n"
+			+ "----------\t----------\t---\t------\t-----\n";
+
+	@DisplayName("Decoded values match Double.valueOf of blank-stripped terms")
+	@Test
+	void decode_MatchesLineSplit() throws IOException {
+		Random random = new Random(12345);
+		StringBuilder sb = new StringBuilder(HEADER);
+		List<String> dataLines = new ArrayList<>();
+		for (int idx = 0; idx < 5000; idx++) {
+			String line = String.format("%010.6f\t%+010.6f\t%3d\t%6.3f\t%5.3f", 360.0 * random.nextDouble(),
+					180.0 * random.nextDouble() - 90.0, 1 + random.nextInt(200), 7.0 + 10.0 * random.nextDouble(),
+					random.nextDouble() / 2.0);
+			dataLines.add(line);
+			sb.append(line).append('\n');
+		}
+
+		List<double[]> rows = decode(sb.toString(), 1 << 20);
+		assertEquals(dataLines.size(), rows.size());
+		for (int idx = 0; idx < rows.size(); idx++) {
+			String[] terms = dataLines.get(idx).replace(" ", "").split("\t");
+			double[] row = rows.get(idx);
+			assertEquals(Double.valueOf(terms[0]), row[0]);
+			assertEquals(Double.valueOf(terms[1]), row[1]);
+			assertEquals(Integer.valueOf(terms[2]), (int) row[2]);
+			assertEquals(Double.valueOf(terms[3]), row[3]);
+			assertEquals(Double.valueOf(terms[4]), row[4]);
+		}
+	}
+
+	@DisplayName("Lines split across stream reads decode to same rows")
+	@ParameterizedTest
+	@CsvSource({ "1", "7", "4096", "1048576" })
+	void decode_ChunkedReads(int chunkSize) throws IOException {
+		StringBuilder sb = new StringBuilder(HEADER);
+		for (int idx = 0; idx < 3000; idx++) {
+			sb.append(String.format("%010.6f\t%+010.6f\t%3d\t%6.3f\t%5.3f\r\n", 97.0 + idx * 1.0e-4, 29.5,
+					idx % 50, 12.0 + idx * 1.0e-3, 0.05));
+		}
+		// last line without terminator
+		sb.append("097.700000\t+29.600000\t  4\t13.000\t0.010");
+
+		List<double[]> rows = decode(sb.toString(), chunkSize);
+		assertEquals(3001, rows.size());
+		assertEquals(97.0 + 2999 * 1.0e-4, rows.get(2999)[0], 1.0e-9);
+		assertEquals(13.0, rows.get(3000)[3]);
+		assertEquals(4, (int) rows.get(3000)[2]);
+	}
+
+	@DisplayName("Comment, header, missing mag and extra term lines are skipped")
+	@Test
+	void decode_SkipsNonDataLines() throws IOException {
+		String tsv = HEADER
+				+ "097.600000\t+29.600000\t  3\t11.500\t0.040\n"
+				+ "097.610000\t+29.610000\t  2\t\t\n"
+				+ "097.620000\t+29.620000\t  2\t      \t0.040\n"
+				+ "097.630000\t+29.630000\t  2\t11.500\t0.040\t0.030\n"
+				+ "097.640000\t+29.640000\t  2\t11.5x0\t0.040\n"
+				+ "\n"
+				+ "9.7640E1\t-2.9E-5\t  5\t11.500\t0.040\n";
+		List<double[]> rows = decode(tsv, 16);
+		assertEquals(2, rows.size());
+		assertEquals(97.64, rows.get(1)[0]);
+		assertEquals(-2.9e-5, rows.get(1)[1]);
+	}
+
+	@DisplayName("Data line count includes rows skipped for blank or non-numeric terms")
+	@Test
+	void getDataLineCount_IncludesSkippedRows() throws IOException {
+		String tsv = HEADER
+				+ "097.600000\t+29.600000\t  3\t11.500\t0.040\n"
+				+ "097.610000\t+29.610000\t  1\t      \t     \n"
+				+ "097.620000\t+29.620000\t  2\t11.5x0\t0.040\n"
+				+ "# 097.630000\t+29.630000\t  2\t11.500\t0.040\n"
+				+ "\n";
+		ApassTsvDecoder decoder = new ApassTsvDecoder((raDeg, decDeg, nObs, mag, magErr) -> {
+		});
+		assertEquals(1, decoder.decode(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8))));
+		assertEquals(3, decoder.getDataLineCount());
+	}
+
+	@DisplayName("Cache format lines decode to the original values")
+	@Test
+	void formatLine_RoundTrip() throws IOException {
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder();
+		List<double[]> expected = new ArrayList<>();
+		for (int idx = 0; idx < 1000; idx++) {
+			double[] row = { 360.0 * random.nextDouble(), 180.0 * random.nextDouble() - 90.0, random.nextInt(100),
+					20.0 * random.nextDouble(), 1.0e-4 * random.nextDouble() };
+			expected.add(row);
+			sb.append(ApassTsvDecoder.formatLine(row[0], row[1], (int) row[2], row[3], row[4])).append('\n');
+		}
+		List<double[]> rows = decode(sb.toString(), 1 << 20);
+		assertEquals(expected.size(), rows.size());
+		for (int idx = 0; idx < rows.size(); idx++) {
+			for (int col = 0; col < 5; col++) {
+				assertEquals(expected.get(idx)[col], rows.get(idx)[col]);
+			}
+		}
+	}
+
+	@DisplayName("Field objects compiled with RA in hour and coordinate-based object id")
+	@Test
+	void decodeFieldObjects_CompilesFieldObjects() throws IOException {
+		String tsv = HEADER + "097.636654\t+29.672297\t 12\t11.690\t0.041\n";
+		List<FieldObject> fieldObjects = ApassCatalog
+				.decodeFieldObjects(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(1, fieldObjects.size());
+		FieldObject fo = fieldObjects.get(0);
+		assertEquals(97.636654 / 15.0, fo.getRaHr());
+		assertEquals(12, fo.getnObs());
+		assertTrue(fo.isSelected() && fo.isAccepted() && !fo.isTarget());
+		assertTrue(fo.getObjectId().startsWith("06303280+294020"));
+	}
+
+	private static List<double[]> decode(String text, int chunkSize) throws IOException {
+		List<double[]> rows = new ArrayList<>();
+		ApassTsvDecoder decoder = new ApassTsvDecoder(
+				(raDeg, decDeg, nObs, mag, magErr) -> rows.add(new double[] { raDeg, decDeg, nObs, mag, magErr }));
+		int nRows = decoder.decode(new ChunkedInputStream(text.getBytes(StandardCharsets.UTF_8), chunkSize));
+		assertEquals(rows.size(), nRows);
+		return rows;
+	}
+
+	// returns at most chunkSize bytes per read
+	private static class ChunkedInputStream extends FilterInputStream {
+		private int chunkSize;
+
+		ChunkedInputStream(byte[] bytes, int chunkSize) {
+			super(new ByteArrayInputStream(bytes));
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return in.read(b, off, Math.min(len, chunkSize));
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.MatchedFieldObject;
+import com.github.richardflee.astroimagej.query_objects.VspResult;
+
+/**
+ * FederatedCatalog cross-match and parallel query tests
+ */
+class FederatedCatalogTest {
+
+	// 1 arcsec in RA hr at dec 0
+	private static final double ASEC_HR = 1.0 / 3600.0 / 15.0;
+
+	private CatalogQuery query;
+	private VspStubServer server;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new VspStubServer(30);
+
+		query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.FEDERATED);
+		query.setMagBand("V");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	@DisplayName("Records within match radius merged with per-source magnitudes")
+	@Test
+	void crossMatch_MergesWithinRadius() {
+		List<FieldObject> vsp = Arrays.asList(new FieldObject("000-AAA-001", 6.0, 0.0, 10.10, 0.01),
+				new FieldObject("000-AAA-002", 6.1, 0.0, 11.20, 0.02));
+		List<FieldObject> apass = Arrays.asList(new FieldObject(null, 6.0 + 1.5 * ASEC_HR, 0.0, 10.15, 0.05),
+				new FieldObject(null, 6.1 + 3.0 * ASEC_HR, 0.0, 11.30, 0.06),
+				new FieldObject(null, 6.2, 0.0, 12.40, 0.07));
+
+		List<FieldObject> merged = FederatedCatalog.crossMatch(vsp, apass, 2.0);
+
+		// 1 matched, 1 VSP outside tolerance, 2 unmatched APASS
+		assertEquals(4, merged.size());
+		MatchedFieldObject matched = (MatchedFieldObject) merged.get(0);
+		assertTrue(matched.isCrossMatched());
+		assertEquals("000-AAA-001", matched.getObjectId());
+		assertEquals(10.10, matched.getMag(), 1e-9);
+		assertEquals(10.10, matched.getSourceMag(CatalogsEnum.VSP), 1e-9);
+		assertEquals(10.15, matched.getSourceMag(CatalogsEnum.APASS), 1e-9);
+		assertEquals(0.05, matched.getSourceMagErr(CatalogsEnum.APASS), 1e-9);
+		assertEquals(1.5, matched.getMatchSepAsec(), 0.01);
+
+		MatchedFieldObject vspOnly = (MatchedFieldObject) merged.get(1);
+		assertFalse(vspOnly.isCrossMatched());
+		assertNull(vspOnly.getSourceMag(CatalogsEnum.APASS));
+		assertEquals(11.30, ((MatchedFieldObject) merged.get(2)).getSourceMag(CatalogsEnum.APASS), 1e-9);
+	}
+
+	@DisplayName("Each record matched at most once, closest pair first")
+	@Test
+	void crossMatch_ClosestPairFirst() {
+		// two VSP records compete for one APASS record
+		List<FieldObject> vsp = Arrays.asList(new FieldObject("far", 6.0 - 1.5 * ASEC_HR, 0.0, 10.0, 0.01),
+				new FieldObject("near", 6.0 + 0.5 * ASEC_HR, 0.0, 10.5, 0.01));
+		List<FieldObject> apass = Arrays.asList(new FieldObject(null, 6.0, 0.0, 10.4, 0.05));
+
+		List<FieldObject> merged = FederatedCatalog.crossMatch(vsp, apass, 2.0);
+
+		assertEquals(2, merged.size());
+		assertFalse(((MatchedFieldObject) merged.get(0)).isCrossMatched());
+		assertTrue(((MatchedFieldObject) merged.get(1)).isCrossMatched());
+		assertEquals("near", merged.get(1).getObjectId());
+	}
+
+	@DisplayName("Source queries run in parallel, VSP chart uri retained")
+	@Test
+	void runQuery_ParallelSources() {
+		// each source waits for the other inside its query, sequential queries time out
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		AtomicInteger nOverlapped = new AtomicInteger();
+		VspCatalog vsp = new VspCatalog(server.getVspUrl()) {
+			@Override
+			public VspResult runVspQuery(CatalogQuery vspQuery) {
+				nOverlapped.addAndGet(awaitOther(barrier) ? 1 : 0);
+				return super.runVspQuery(vspQuery);
+			}
+		};
+		StubCatalog apass = new StubCatalog(new ArrayList<>()) {
+			@Override
+			public List<FieldObject> runQuery(CatalogQuery apassQuery) {
+				nOverlapped.addAndGet(awaitOther(barrier) ? 1 : 0);
+				return super.runQuery(apassQuery);
+			}
+		};
+
+		FederatedCatalog catalog = new FederatedCatalog(vsp, apass);
+		List<FieldObject> merged = catalog.runQuery(query);
+
+		assertEquals(2, nOverlapped.get());
+		assertEquals(30, merged.size());
+		assertEquals(VspStubServer.CHART_URI, catalog.getChartUri());
+		assertEquals(CatalogsEnum.APASS, apass.queryType);
+		assertTrue(catalog.getStatusMessage().startsWith("Merged 30 VSP and 0 APASS records"));
+	}
+
+	@DisplayName("Failed source omitted, other source records returned")
+	@Test
+	void runQuery_SourceFailure() {
+		VspCatalog vsp = new VspCatalog(server.getVspUrl());
+		server.stop();
+		List<FieldObject> apassObjects = Arrays.asList(new FieldObject(null, 6.0, 0.0, 10.4, 0.05));
+
+		FederatedCatalog catalog = new FederatedCatalog(vsp, new StubCatalog(apassObjects));
+		List<FieldObject> merged = catalog.runQuery(query);
+
+		assertEquals(1, merged.size());
+		assertNull(catalog.getChartUri());
+		assertTrue(catalog.getStatusMessage().startsWith("Loaded 1 APASS records; ERROR"));
+	}
+
+	@DisplayName("Both sources failed returns null with error status")
+	@Test
+	void runQuery_AllSourcesFailed() {
+		VspCatalog vsp = new VspCatalog(server.getVspUrl());
+		server.stop();
+
+		FederatedCatalog catalog = new FederatedCatalog(vsp, new StubCatalog(null));
+		assertNull(catalog.runQuery(query));
+		assertTrue(catalog.getStatusMessage().startsWith("ERROR"));
+	}
+
+	// in-memory catalog source, returns fixed records; null records for connection error
+	private static class StubCatalog implements AstroCatalog {
+		private List<FieldObject> fieldObjects = null;
+		private String statusMessage = null;
+		private CatalogsEnum queryType = null;
+
+		private StubCatalog(List<FieldObject> fieldObjects) {
+			this.fieldObjects = fieldObjects;
+		}
+
+		@Override
+		public List<FieldObject> runQuery(CatalogQuery query) {
+			queryType = query.getCatalogType();
+			statusMessage = (fieldObjects == null) ? "ERROR: Error in VIZIER.APASS internet connection" : "Loaded";
+			return fieldObjects;
+		}
+
+		@Override
+		public String getStatusMessage() {
+			return statusMessage;
+		}
+	}
+
+	// true if the other source reached the barrier while this source was waiting
+	private static boolean awaitOther(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+			return true;
+		} catch (TimeoutException | BrokenBarrierException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
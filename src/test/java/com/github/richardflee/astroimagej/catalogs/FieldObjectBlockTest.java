@@ -0,0 +1,92 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+
+class FieldObjectBlockTest {
+
+	private static final int N_OBJECTS = 5000;
+	private static final double TARGET_RA_HR = 6.5091;
+	private static final double TARGET_DEC_DEG = 29.6723;
+
+	private List<FieldObject> fieldObjects;
+	private FieldObjectBlock block;
+
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(12345);
+		fieldObjects = new ArrayList<>();
+		block = new FieldObjectBlock();
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			double raHr = TARGET_RA_HR + (random.nextDouble() - 0.5) / 15.0;
+			double decDeg = TARGET_DEC_DEG + (random.nextDouble() - 0.5);
+			FieldObject fo = new FieldObject(null, raHr, decDeg, 8.0 + random.nextInt(8000) / 1000.0, 0.05);
+			fo.setnObs(1 + random.nextInt(10));
+			fieldObjects.add(fo);
+			block.add(null, raHr, decDeg, fo.getMag(), fo.getMagErr(), fo.getnObs());
+		}
+	}
+
+	@DisplayName("Field objects created from block match source records, selected reference objects")
+	@Test
+	void toFieldObjects_MatchRecords() {
+		assertEquals(N_OBJECTS, block.size());
+		List<FieldObject> copies = block.toFieldObjects();
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			FieldObject copy = copies.get(idx);
+			assertEquals(fieldObjects.get(idx).toString(), copy.toString());
+			assertTrue(copy.isSelected());
+			assertTrue(copy.isAccepted());
+			assertFalse(copy.isTarget());
+		}
+	}
+
+	@DisplayName("Block distance matches FieldObject computation, distance sort is stable")
+	@Test
+	void computeAndSort_MatchFieldObjects() {
+		FieldObject target = new FieldObject("wasp12", TARGET_RA_HR, TARGET_DEC_DEG, 11.5, 0.0);
+		block.computeRadSepAmin(TARGET_RA_HR, TARGET_DEC_DEG);
+		List<FieldObject> copies = block.toFieldObjects();
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			FieldObject fo = fieldObjects.get(idx);
+			fo.computeRadSepAmin(target);
+			assertEquals(fo.getRadSepAmin(), copies.get(idx).getRadSepAmin(), 1.0e-6);
+		}
+
+		int[] byDistance = IntStream.range(0, N_OBJECTS).boxed()
+				.sorted(Comparator.comparingDouble(idx -> copies.get(idx).getRadSepAmin()))
+				.mapToInt(Integer::intValue).toArray();
+		assertArrayEquals(byDistance, block.sortByRadSep());
+
+		// nearest records in distance order
+		List<FieldObject> nearest = block.toFieldObjects(new int[] { byDistance[0], byDistance[1] });
+		assertEquals(copies.get(byDistance[0]).toString(), nearest.get(0).toString());
+		assertEquals(copies.get(byDistance[1]).toString(), nearest.get(1).toString());
+	}
+
+	@DisplayName("Block grows from small capacity, null object id compiled on demand")
+	@Test
+	void add_GrowsAndCompilesId() {
+		FieldObjectBlock small = new FieldObjectBlock(1);
+		for (int idx = 0; idx < 100; idx++) {
+			assertEquals(idx, small.add(null, 6.50862013, 29.688453, 14.716, 0.09, idx));
+		}
+		assertEquals(100, small.size());
+		assertEquals(99, small.toFieldObject(99).getnObs());
+		assertEquals("06303103+29411843", small.toFieldObject(50).getObjectId());
+	}
+}
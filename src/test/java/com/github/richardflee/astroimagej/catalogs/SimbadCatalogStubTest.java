@@ -0,0 +1,163 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.exceptions.SimbadNotFoundException;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.SimbadResult;
+import com.github.richardflee.astroimagej.utils.CatalogUrls;
+
+/**
+ * SimbadCatalog tests run against a local SIMBAD stub server
+ */
+class SimbadCatalogStubTest {
+	private SimbadStubServer server;
+	private SimbadCatalog simbad;
+	private CatalogQuery query;
+
+	private final double epsilon = 1.0e-5;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new SimbadStubServer(0);
+		simbad = new SimbadCatalog(server.getSimbadUrl());
+		query = new CatalogQuery();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	@DisplayName("Default WASP-12 data decoded from single VOTable response")
+	@Test
+	void defaultData_SingleRequest_IsCorrect() throws SimbadNotFoundException {
+		SimbadResult simbadResult = simbad.runQuery(query);
+
+		assertEquals("WASP-12", simbadResult.getSimbadId());
+		assertEquals(6.50911, simbadResult.getSimbadRaHr(), epsilon);
+		assertEquals(29.67230, simbadResult.getSimbadDecDeg(), epsilon);
+		assertEquals(12.14, simbadResult.getMagB(), epsilon);
+		assertEquals(11.57, simbadResult.getMagV(), epsilon);
+		assertNull(simbadResult.getMagR());
+		assertNull(simbadResult.getMagI());
+
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@DisplayName("Vega data decoded with all magnitudes")
+	@Test
+	void vegaData_SingleRequest_IsCorrect() throws SimbadNotFoundException {
+		query.setObjectId("vega");
+		SimbadResult simbadResult = simbad.runQuery(query);
+
+		assertEquals("* alf Lyr", simbadResult.getSimbadId());
+		assertEquals(18.61565, simbadResult.getSimbadRaHr(), epsilon);
+		assertEquals(38.78369, simbadResult.getSimbadDecDeg(), epsilon);
+		assertEquals(0.03, simbadResult.getMagB(), epsilon);
+		assertEquals(0.03, simbadResult.getMagV(), epsilon);
+		assertEquals(0.07, simbadResult.getMagR(), epsilon);
+		assertEquals(0.10, simbadResult.getMagI(), epsilon);
+	}
+
+	@DisplayName("Identifier not matched in stub SIMBAD throws SimbadNotFoundException")
+	@Test
+	void whenNotFound_thenSimbadNotFoundExceptionThrown() {
+		query.setObjectId("WISP-12");
+		assertThrows(SimbadNotFoundException.class, () -> simbad.runQuery(query));
+		assertTrue(simbad.getStatusMessage().contains("No match found"));
+	}
+
+	@DisplayName("Each lookup, found or not found, is a single SIMBAD request")
+	@Test
+	void lookups_OneRequestEach() throws SimbadNotFoundException {
+		simbad.runQuery(query);
+		query.setObjectId("vega");
+		simbad.runQuery(query);
+		query.setObjectId("WISP-12");
+		assertThrows(SimbadNotFoundException.class, () -> simbad.runQuery(query));
+
+		// previous sequence sent one request per SimbadEnum item
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@DisplayName("Batch query resolves matched names in one request, unmatched names reported")
+	@Test
+	void batchQuery_MixedNames_ResolvedInOneRequest() {
+		List<String> names = Arrays.asList("wasp 12", "WISP-12", "Vega", "WASP12", "unknown star");
+		Map<String, SimbadResult> results = simbad.runBatchQuery(names);
+
+		// "WASP12" duplicates "wasp 12" after normalisation
+		assertEquals(Arrays.asList("wasp 12", "Vega"), Arrays.asList(results.keySet().toArray()));
+		assertEquals(Arrays.asList("WISP-12", "unknown star"), simbad.getNotFoundIds());
+		assertEquals(1, server.getRequestCount());
+
+		SimbadResult wasp12 = results.get("wasp 12");
+		assertEquals("wasp 12", wasp12.getObjectId());
+		assertEquals("WASP-12", wasp12.getSimbadId());
+		assertEquals(6.50911, wasp12.getSimbadRaHr(), epsilon);
+		assertNull(wasp12.getMagR());
+
+		SimbadResult vega = results.get("Vega");
+		assertEquals("* alf Lyr", vega.getSimbadId());
+		assertEquals(0.10, vega.getMagI(), epsilon);
+
+		assertTrue(simbad.getStatusMessage().contains("resolved 2 of 4"));
+		assertTrue(simbad.getStatusMessage().contains("WISP-12, unknown star"));
+	}
+
+	@DisplayName("Batch names differing only in digit grouping resolved separately")
+	@Test
+	void batchQuery_DigitGroups_NotMerged() {
+		Map<String, SimbadResult> results = simbad.runBatchQuery(Arrays.asList("BD+1 2345", "BD+12  345"));
+		assertEquals(Arrays.asList("BD+1 2345", "BD+12  345"), Arrays.asList(results.keySet().toArray()));
+		assertEquals("BD+01 2345", results.get("BD+1 2345").getSimbadId());
+		assertEquals("BD+12 345", results.get("BD+12  345").getSimbadId());
+		assertTrue(simbad.getNotFoundIds().isEmpty());
+	}
+
+	@DisplayName("Batch query with no matched names returns empty map")
+	@Test
+	void batchQuery_NoMatches_ReturnsEmptyMap() {
+		Map<String, SimbadResult> results = simbad.runBatchQuery(Arrays.asList("WISP-12"));
+		assertTrue(results.isEmpty());
+		assertEquals(Arrays.asList("WISP-12"), simbad.getNotFoundIds());
+	}
+
+	@DisplayName("Batch query connection error reports all names failed, none not found")
+	@Test
+	void batchQuery_ConnectionError_AllFailed() {
+		server.stop();
+		Map<String, SimbadResult> results = simbad.runBatchQuery(Arrays.asList("wasp 12", "vega"));
+		assertTrue(results.isEmpty());
+		assertEquals(Arrays.asList("wasp 12", "vega"), simbad.getFailedIds());
+		assertTrue(simbad.getNotFoundIds().isEmpty());
+		assertTrue(simbad.getStatusMessage().startsWith("ERROR"));
+	}
+
+	@DisplayName("Line breaks in batch names cannot add script lines")
+	@Test
+	void batchQuery_LineBreakInName_ConfinedToOneLine() {
+		String script = CatalogUrls.scriptBuilder(Arrays.asList("wasp 12\nquery id vega", "\r\n", "vega"));
+		// blank name skipped, one query line per remaining name
+		assertEquals(2, Arrays.stream(script.split("\n")).filter(p -> p.startsWith("query id ")).count());
+		assertTrue(script.contains("query id wasp 12 query id vega\n"));
+
+		Map<String, SimbadResult> results = simbad.runBatchQuery(Arrays.asList("wasp 12\nquery id vega"));
+		assertTrue(results.isEmpty());
+		assertEquals(1, simbad.getNotFoundIds().size());
+		assertTrue(simbad.getFailedIds().isEmpty());
+	}
+}
@@ -0,0 +1,181 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the SIMBAD server, serves canned VOTable payloads from
+ * test resources folder simbad/
+ *
+ * <p>Identifiers "wasp 12" and "vega" return object data, any other identifier
+ * returns SIMBAD not-found response. Batch requests also match "BD+1 2345" and
+ * "BD+12 345"</p>
+ * 
+ * <p>sim-script batch requests return a VOTable row for each matched
+ * "query id" line, unmatched identifiers listed in the ::error:: section</p>
+ */
+class SimbadStubServer {
+
+	// SIMBAD data rows: main_id, ra, dec, B, V, R, I; keyed by lower case id, single spaced
+	private static final Map<String, String[]> OBJECTS = new HashMap<>();
+	static {
+		OBJECTS.put("wasp 12", new String[] { "WASP-12", "97.63665417", "+29.67229722", "12.14", "11.57", "", "" });
+		OBJECTS.put("vega", new String[] { "* alf Lyr", "279.23473479", "+38.78368896", "0.03", "0.03", "0.07", "0.10" });
+		OBJECTS.put("bd+1 2345", new String[] { "BD+01 2345", "147.20351250", "+01.42197222", "10.71", "9.82", "", "" });
+		OBJECTS.put("bd+12 345", new String[] { "BD+12 345", "41.85537500", "+12.93011111", "10.05", "9.46", "", "" });
+	}
+
+	private HttpServer server = null;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private long latencyMillis = 0;
+
+	/**
+	 * Starts server on a free localhost port
+	 *
+	 * @param latencyMillis simulated network delay applied to each request
+	 */
+	SimbadStubServer(long latencyMillis) throws IOException {
+		this.latencyMillis = latencyMillis;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/simbad/sim-id", ex -> handleSimId(ex));
+		this.server.createContext("/simbad/sim-script", ex -> handleSimScript(ex));
+		this.server.start();
+	}
+
+	/**
+	 * Base url to configure SimbadCatalog, equivalent to CatalogUrls.SIMBAD_URL
+	 */
+	String getSimbadUrl() {
+		return String.format("http://localhost:%d/simbad", server.getAddress().getPort());
+	}
+
+	int getRequestCount() {
+		return requestCount.get();
+	}
+
+	void stop() {
+		server.stop(0);
+	}
+
+	private void handleSimId(HttpExchange ex) throws IOException {
+		requestCount.incrementAndGet();
+		sleep();
+		String ident = queryParams(ex.getRequestURI().getRawQuery()).get("Ident");
+		String name = (ident == null) ? "" : ident.toLowerCase().replace(" ", "");
+		String resource = "notfound";
+		if (name.equals("wasp12") || name.equals("vega")) {
+			resource = name;
+		}
+		sendResource(ex, String.format("/simbad/%s.votable.xml", resource));
+	}
+
+	private void handleSimScript(HttpExchange ex) throws IOException {
+		requestCount.incrementAndGet();
+		sleep();
+		String body = new String(readAll(ex.getRequestBody()), StandardCharsets.UTF_8);
+		String script = queryParams(body).get("script");
+
+		StringBuilder errors = new StringBuilder();
+		StringBuilder rows = new StringBuilder();
+		int lineNum = 0;
+		for (String line : script.split("\n")) {
+			lineNum++;
+			if (!line.startsWith("query id ")) {
+				continue;
+			}
+			String typedId = line.substring("query id ".length());
+			String[] data = OBJECTS.get(typedId.toLowerCase().replaceAll("\\s+", " "));
+			if (data == null) {
+				errors.append(String.format("[%d] Identifier not found: %s%n", lineNum, typedId));
+			} else {
+				rows.append("<TR><TD>").append(typedId).append("</TD>");
+				for (String cell : data) {
+					rows.append("<TD>").append(cell.replace("&", "&amp;")).append("</TD>");
+				}
+				rows.append("</TR>\n");
+			}
+		}
+
+		StringBuilder response = new StringBuilder();
+		if (errors.length() > 0) {
+			response.append("::error::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::\n\n");
+			response.append(errors).append("\n");
+		}
+		response.append("::data::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::\n\n");
+		response.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		response.append("<VOTABLE version=\"1.2\" xmlns=\"http://www.ivoa.net/xml/VOTable/v1.2\">\n");
+		response.append("<RESOURCE><TABLE ID=\"simbad\">\n");
+		for (String field : new String[] { "TYPED_ID", "MAIN_ID", "RA_d", "DEC_d", "FLUX_B", "FLUX_V", "FLUX_R", "FLUX_I" }) {
+			response.append(String.format("<FIELD ID=\"%s\" name=\"%s\" datatype=\"char\" arraysize=\"*\"/>%n", field, field));
+		}
+		response.append("<DATA><TABLEDATA>\n").append(rows).append("</TABLEDATA></DATA>\n");
+		response.append("</TABLE></RESOURCE>\n</VOTABLE>\n");
+
+		byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+		ex.getResponseHeaders().add("Content-Type", "text/plain;charset=UTF-8");
+		ex.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	// sends test resource file as text/xml response
+	static void sendResource(HttpExchange ex, String resource) throws IOException {
+		byte[] body = readResource(resource);
+		ex.getResponseHeaders().add("Content-Type", "text/xml;charset=UTF-8");
+		ex.sendResponseHeaders(200, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	static byte[] readResource(String resource) throws IOException {
+		try (InputStream in = SimbadStubServer.class.getResourceAsStream(resource)) {
+			return readAll(in);
+		}
+	}
+
+	static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int n;
+		while ((n = in.read(buffer)) > 0) {
+			bos.write(buffer, 0, n);
+		}
+		return bos.toByteArray();
+	}
+
+	static Map<String, String> queryParams(String rawQuery) throws UnsupportedEncodingException {
+		Map<String, String> params = new HashMap<>();
+		if (rawQuery == null) {
+			return params;
+		}
+		for (String term : rawQuery.split("&")) {
+			int idx = term.indexOf('=');
+			if (idx > 0) {
+				params.put(term.substring(0, idx), URLDecoder.decode(term.substring(idx + 1), "UTF-8"));
+			}
+		}
+		return params;
+	}
+
+	private void sleep() {
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SkyTileTest {
+
+	@DisplayName("Covering tiles contain every point in the fov, each tile listed once")
+	@ParameterizedTest
+	@CsvSource({ "97.6123, 29.6723, 60.0", "0.1, 0.0, 30.0", "359.9, -45.2, 90.0", "180.0, 89.8, 30.0",
+			"10.0, -89.9, 20.0", "250.0, 75.3, 120.0" })
+	void coveringTiles_ContainFov(double raDeg, double decDeg, double fovAmin) {
+		List<SkyTile> tiles = SkyTile.coveringTiles(raDeg, decDeg, fovAmin);
+		Set<String> ids = tiles.stream().map(p -> p.getTileId()).collect(Collectors.toSet());
+		assertEquals(tiles.size(), ids.size());
+
+		Random random = new Random(1);
+		double halfDeg = fovAmin / 120.0;
+		for (int idx = 0; idx < 2000; idx++) {
+			double dec = decDeg + (2.0 * random.nextDouble() - 1.0) * halfDeg;
+			if (Math.abs(dec) > 90.0) {
+				continue;
+			}
+			double ra = raDeg + (2.0 * random.nextDouble() - 1.0) * halfDeg / Math.cos(Math.toRadians(decDeg));
+			ra = (ra + 360.0) % 360.0;
+
+			String tileId = SkyTile.getTile(ra, dec).getTileId();
+			assertTrue(ids.contains(tileId), String.format("ra=%.4f, dec=%.4f", ra, dec));
+		}
+	}
+
+	@DisplayName("Tile contains the coordinates used to find it")
+	@ParameterizedTest
+	@CsvSource({ "0.0, 0.0", "359.99999, 12.3", "97.6, 29.67", "45.0, 90.0", "300.0, -90.0", "123.4, -0.0001" })
+	void getTile_ContainsCoordinates(double raDeg, double decDeg) {
+		assertTrue(SkyTile.getTile(raDeg, decDeg).contains(raDeg, decDeg));
+	}
+}
@@ -0,0 +1,137 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the VizieR asu-tsv service, serves APASS9 box queries
+ * from a synthetic star lattice
+ *
+ * <p>Stars lie on a regular RA / Dec grid of gridDeg spacing. Box queries
+ * "-c=ra dec&amp;-c.bm=WxH" return stars with |dDec| &lt;= H/2 and |dRa| cos(dec)
+ * &lt;= W/2, limited to -out.max records.</p>
+ *
+ * <p>With a blank mag stride set, every stride-th lattice star is served with
+ * blank mag and mag_err terms, counted in the -out.max limit as by VizieR.</p>
+ */
+class VizierStubServer {
+
+	private HttpServer server = null;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private double gridDeg = 0.0;
+	private int blankMagStride = 0;
+
+	// serves parallel chunk requests
+	private ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	/**
+	 * Starts server on a free localhost port
+	 *
+	 * @param gridDeg star lattice spacing (deg)
+	 */
+	VizierStubServer(double gridDeg) throws IOException {
+		this.gridDeg = gridDeg;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/viz-bin/asu-tsv", ex -> handleAsuTsv(ex));
+		this.server.setExecutor(executor);
+		this.server.start();
+	}
+
+	/**
+	 * Base url to configure ApassCatalog, equivalent to CatalogUrls.VIZIER_URL
+	 */
+	String getVizierUrl() {
+		return String.format("http://localhost:%d/viz-bin", server.getAddress().getPort());
+	}
+
+	int getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Serves blank mag rows for lattice stars with (i + j) % stride == 0, 0 for none
+	 */
+	void setBlankMagStride(int stride) {
+		this.blankMagStride = stride;
+	}
+
+	/**
+	 * Tests if lattice star at RA index i and Dec index j is served with blank mag
+	 */
+	boolean isBlankMag(int i, int j) {
+		return blankMagStride > 0 && Math.floorMod(i + j, blankMagStride) == 0;
+	}
+
+	void resetRequestCount() {
+		requestCount.set(0);
+	}
+
+	void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handleAsuTsv(HttpExchange ex) throws IOException {
+		requestCount.incrementAndGet();
+		Map<String, String> params = SimbadStubServer.queryParams(ex.getRequestURI().getRawQuery());
+
+		// centre coordinates "ra +dec" & box "WxH" arcmin
+		String[] centre = params.get("-c").trim().split("\\s+");
+		double ra0 = Double.parseDouble(centre[0]);
+		double dec0 = Double.parseDouble(centre[1]);
+		String[] box = params.get("-c.bm").split("x");
+		double halfRa = Double.parseDouble(box[0]) / 120.0;
+		double halfDec = Double.parseDouble(box[1]) / 120.0;
+		int maxRecords = Integer.parseInt(params.get("-out.max"));
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("#\n#   VizieR Astronomical Server (stub)\n#RESOURCE=yCat_2336\n#\n");
+		sb.append("_RAJ2000\t_DEJ2000\tnobs\tVmag\te_Vmag\n");
+		sb.append("deg\tdeg\t\tmag\tmag\n");
+		sb.append("----------\t----------\t---\t------\t-----\n");
+
+		double cosDec = Math.cos(Math.toRadians(dec0));
+		int jMin = (int) Math.ceil(Math.max(-90.0, dec0 - halfDec) / gridDeg);
+		int jMax = (int) Math.floor(Math.min(90.0, dec0 + halfDec) / gridDeg);
+		int nGridRa = (int) Math.round(360.0 / gridDeg);
+		// RA lattice index range enclosing box, full circle near poles
+		double halfRaDeg = (cosDec > halfRa / 180.0) ? halfRa / cosDec : 180.0;
+		int iMin = (int) Math.floor((ra0 - halfRaDeg) / gridDeg);
+		int iMax = Math.min(iMin + nGridRa - 1, (int) Math.ceil((ra0 + halfRaDeg) / gridDeg));
+		int count = 0;
+		for (int j = jMin; j <= jMax && count < maxRecords; j++) {
+			double dec = j * gridDeg;
+			for (int k = iMin; k <= iMax && count < maxRecords; k++) {
+				int i = Math.floorMod(k, nGridRa);
+				double ra = i * gridDeg;
+				double dRa = ra - ra0;
+				dRa -= 360.0 * Math.floor((dRa + 180.0) / 360.0);
+				if (Math.abs(dRa) * cosDec <= halfRa) {
+					double mag = 10.0 + Math.floorMod(i + j, 50) * 0.1;
+					if (isBlankMag(i, j)) {
+						sb.append(String.format("%010.6f\t%+010.6f\t%3d\t%6s\t%5s%n", ra, dec, 1, "", ""));
+					} else {
+						sb.append(String.format("%010.6f\t%+010.6f\t%3d\t%6.3f\t%5.3f%n", ra, dec, 3, mag, 0.05));
+					}
+					count++;
+				}
+			}
+		}
+
+		byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+		ex.getResponseHeaders().add("Content-Type", "text/plain;charset=UTF-8");
+		ex.sendResponseHeaders(200, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
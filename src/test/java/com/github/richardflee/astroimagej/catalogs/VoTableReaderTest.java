@@ -0,0 +1,75 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * VoTableReader tests on canned SIMBAD payloads
+ */
+class VoTableReaderTest {
+
+	private static byte[] wasp12 = null;
+	private static byte[] vega = null;
+	private static byte[] notFound = null;
+
+	@BeforeAll
+	static void setUp() throws Exception {
+		wasp12 = SimbadStubServer.readResource("/simbad/wasp12.votable.xml");
+		vega = SimbadStubServer.readResource("/simbad/vega.votable.xml");
+		notFound = SimbadStubServer.readResource("/simbad/notfound.votable.xml");
+	}
+
+	@DisplayName("WASP-12 row read with empty R and I cells")
+	@Test
+	void wasp12_FirstRow_IsCorrect() throws XMLStreamException {
+		String[] expected = { "WASP-12", "97.63665417", "+29.67229722", "12.14", "11.57", "", "" };
+		assertArrayEquals(expected, VoTableReader.readFirstRow(new ByteArrayInputStream(wasp12)));
+	}
+
+	@DisplayName("Vega row read with all magnitude cells")
+	@Test
+	void vega_FirstRow_IsCorrect() throws XMLStreamException {
+		String[] expected = { "* alf Lyr", "279.23473479", "+38.78368896", "0.03", "0.03", "0.07", "0.10" };
+		assertArrayEquals(expected, VoTableReader.readFirstRow(new ByteArrayInputStream(vega)));
+	}
+
+	@DisplayName("Not-found response returns empty row")
+	@Test
+	void notFound_FirstRow_IsEmpty() throws XMLStreamException {
+		assertEquals(0, VoTableReader.readFirstRow(new ByteArrayInputStream(notFound)).length);
+	}
+
+	@DisplayName("Multiple rows read in table order, cells split across text events joined")
+	@Test
+	void multipleRows_ReadInOrder() throws XMLStreamException {
+		String xml = "<VOTABLE><RESOURCE><TABLE><DATA><TABLEDATA>"
+				+ "<TR><TD>a&amp;b</TD><TD><![CDATA[1.5]]></TD></TR>"
+				+ "<TR><TD> c </TD><TD/></TR>"
+				+ "<TR><TD>d</TD><TD>3</TD></TR>"
+				+ "</TABLEDATA></DATA></TABLE></RESOURCE></VOTABLE>";
+		List<String[]> rows = VoTableReader.readRows(
+				new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), 2);
+
+		assertEquals(2, rows.size());
+		assertArrayEquals(new String[] { "a&b", "1.5" }, rows.get(0));
+		assertArrayEquals(new String[] { "c", "" }, rows.get(1));
+	}
+
+	@DisplayName("Malformed response throws XMLStreamException")
+	@Test
+	void whenMalformed_thenXMLStreamExceptionThrown() {
+		byte[] bad = "<VOTABLE><TR><TD>1</TR>".getBytes(StandardCharsets.UTF_8);
+		assertThrows(XMLStreamException.class, () -> VoTableReader.readFirstRow(new ByteArrayInputStream(bad)));
+	}
+}
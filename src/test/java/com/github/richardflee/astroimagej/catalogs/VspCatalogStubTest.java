@@ -0,0 +1,71 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.enums.CatalogsEnum;
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.VspResult;
+
+/**
+ * VspCatalog tests run against a local VSP stub server
+ */
+class VspCatalogStubTest {
+
+	private VspStubServer server;
+	private CatalogQuery query;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new VspStubServer(30);
+
+		query = new CatalogQuery();
+		query.setCatalogType(CatalogsEnum.VSP);
+		query.setMagBand("Rc");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	@DisplayName("Field objects and chart uri returned from a single VSP request")
+	@Test
+	void runVspQuery_SingleRequest() {
+		VspCatalog catalog = new VspCatalog(server.getVspUrl());
+		VspResult result = catalog.runVspQuery(query);
+
+		assertEquals(1, server.getRequestCount());
+		assertEquals(10, result.getFieldObjects().size());
+		assertEquals(VspStubServer.CHART_URI, result.getChartUri());
+		assertEquals("000-AAA-000", result.getFieldObjects().get(0).getObjectId());
+		assertEquals("Downloaded 10 VSP records", catalog.getStatusMessage());
+	}
+
+	@DisplayName("runQuery and downloadVspChart decode the same response")
+	@Test
+	void runQuery_MatchesVspResult() {
+		VspCatalog catalog = new VspCatalog(server.getVspUrl());
+		query.setMagBand("V");
+		assertEquals(30, catalog.runQuery(query).size());
+		assertEquals(VspStubServer.CHART_URI, catalog.downloadVspChart(query));
+		assertEquals(2, server.getRequestCount());
+	}
+
+	@DisplayName("Connection error returns empty result with error status")
+	@Test
+	void connectionError_EmptyResult() {
+		VspCatalog catalog = new VspCatalog(server.getVspUrl());
+		server.stop();
+		VspResult result = catalog.runVspQuery(query);
+		assertTrue(result.getFieldObjects().isEmpty());
+		assertNull(result.getChartUri());
+		assertTrue(catalog.getStatusMessage().startsWith("ERROR"));
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+class VspJsonDecoderTest {
+
+	// root terms before and after photometry, nested terms to skip
+	private static final String VSP_JSON = "{\n"
+			+ " \"chartid\": \"X26835JN\",\n"
+			+ " \"image_uri\": \"https://app.aavso.org/vsp/chart/X26835JN.png?type=chart\",\n"
+			+ " \"special\": {\"auid\": \"999-XXX-999\", \"bands\": [{\"band\": \"V\", \"mag\": 1.0}]},\n"
+			+ " \"photometry\": [\n"
+			+ "  {\"auid\": \"000-BWX-000\", \"ra\": \"06:28:49.64\", \"dec\": \"29:32:35.5\", \"label\": \"122\",\n"
+			+ "   \"bands\": [{\"band\": \"B\", \"mag\": 13.323, \"error\": 0.072},\n"
+			+ "             {\"band\": \"Rc\", \"mag\": 12.059, \"error\": 0.047}], \"comments\": \"\"},\n"
+			+ "  {\"auid\": \"000-BUR-001\", \"ra\": \"06:31:45.11\", \"dec\": \"-29:11:09.0\", \"label\": \"103\",\n"
+			+ "   \"bands\": [{\"band\": \"B\", \"mag\": 10.616, \"error\": 0.056},\n"
+			+ "             {\"band\": \"V\", \"mag\": 10.271, \"error\": 0.086, \"extra\": [1, {\"x\": 2}]},\n"
+			+ "             {\"band\": \"V\", \"mag\": 99.0, \"error\": 9.0}], \"comments\": null},\n"
+			+ "  {\"bands\": [{\"error\": 0.033, \"mag\": 14.607, \"band\": \"v\"}],\n"
+			+ "   \"dec\": \"30:08:07.9\", \"ra\": \"06:30:51.22\", \"auid\": \"000-BNY-002\"}\n"
+			+ " ],\n"
+			+ " \"title\": \"\"\n"
+			+ "}";
+
+	@DisplayName("Field stars with selected band decoded in response order")
+	@Test
+	void decode_SelectedBand() throws IOException {
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		VspJsonDecoder decoder = new VspJsonDecoder("V", fo -> fieldObjects.add(fo));
+		assertEquals(2, decoder.decode(stream(VSP_JSON)));
+		assertEquals(2, fieldObjects.size());
+
+		// first V band retained
+		FieldObject fo = fieldObjects.get(0);
+		assertEquals("000-BUR-001", fo.getObjectId());
+		assertEquals(AstroCoords.raHmsToRaHr("06:31:45.11"), fo.getRaHr());
+		assertEquals(AstroCoords.decDmsToDecDeg("-29:11:09.0"), fo.getDecDeg());
+		assertEquals(10.271, fo.getMag());
+		assertEquals(0.086, fo.getMagErr());
+
+		// band match case insensitive, terms in any order
+		fo = fieldObjects.get(1);
+		assertEquals("000-BNY-002", fo.getObjectId());
+		assertEquals(14.607, fo.getMag());
+		assertEquals(0.033, fo.getMagErr());
+
+		assertEquals("https://app.aavso.org/vsp/chart/X26835JN.png?type=chart", decoder.getImageUri());
+	}
+
+	@DisplayName("Number of field objects by band")
+	@ParameterizedTest
+	@CsvSource({ "B, 2", "Rc, 1", "Ic, 0" })
+	void decode_BandCounts(String band, int expected) throws IOException {
+		assertEquals(expected, VspCatalog.decodeFieldObjects(stream(VSP_JSON), band).size());
+	}
+
+	@DisplayName("Response without photometry decodes to no field objects")
+	@Test
+	void decode_NoPhotometry() throws IOException {
+		VspJsonDecoder decoder = new VspJsonDecoder("V", fo -> {
+		});
+		assertEquals(0, decoder.decode(stream("{\"chartid\": \"X1\", \"photometry\": []}")));
+		assertNull(decoder.getImageUri());
+		assertEquals(0, decoder.decode(stream("[]")));
+	}
+
+	@DisplayName("Malformed response throws IOException")
+	@Test
+	void decode_Malformed() {
+		assertThrows(IOException.class,
+				() -> VspCatalog.decodeFieldObjects(stream("{\"photometry\": [{\"auid\": }]}"), "V"));
+	}
+
+	private static InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,86 @@
+package com.github.richardflee.astroimagej.catalogs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the VSP chart api, serves json chart responses with
+ * field stars on a diagonal line through the query centre
+ *
+ * <p>Each field star has B and V band photometry, every third star also has
+ * Rc band photometry.</p>
+ */
+class VspStubServer {
+
+	static final String CHART_URI = "https://app.aavso.org/vsp/chart/X00000XX.png?type=chart";
+
+	private HttpServer server = null;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private int nStars = 0;
+
+	/**
+	 * Starts server on a free localhost port
+	 *
+	 * @param nStars number of field stars in each response
+	 */
+	VspStubServer(int nStars) throws IOException {
+		this.nStars = nStars;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/vsp/api/chart/", ex -> handleChart(ex));
+		this.server.start();
+	}
+
+	/**
+	 * Base url to configure VspCatalog, equivalent to CatalogUrls.VSP_URL
+	 */
+	String getVspUrl() {
+		return String.format("http://localhost:%d/vsp/api", server.getAddress().getPort());
+	}
+
+	int getRequestCount() {
+		return requestCount.get();
+	}
+
+	void stop() {
+		server.stop(0);
+	}
+
+	private void handleChart(HttpExchange ex) throws IOException {
+		requestCount.incrementAndGet();
+		Map<String, String> params = SimbadStubServer.queryParams(ex.getRequestURI().getRawQuery());
+		double raHr = Double.parseDouble(params.get("ra")) / 15.0;
+		double decDeg = Double.parseDouble(params.get("dec"));
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("{\"chartid\": \"X00000XX\", \"image_uri\": \"%s\", \"fov\": %s, \"photometry\": [",
+				CHART_URI, params.get("fov")));
+		for (int idx = 0; idx < nStars; idx++) {
+			double offset = (idx - nStars / 2) * 1.0e-3;
+			sb.append((idx > 0) ? ",\n" : "\n");
+			sb.append(String.format("{\"auid\": \"000-AAA-%03d\", \"ra\": \"%s\", \"dec\": \"%s\", \"bands\": [", idx,
+					AstroCoords.raHrToRaHms(raHr + offset / 15.0), AstroCoords.decDegToDecDms(decDeg + offset)));
+			sb.append(String.format("{\"band\": \"B\", \"mag\": %.3f, \"error\": 0.05}", 11.0 + idx * 0.01));
+			sb.append(String.format(", {\"band\": \"V\", \"mag\": %.3f, \"error\": 0.04}", 10.5 + idx * 0.01));
+			if (idx % 3 == 0) {
+				sb.append(String.format(", {\"band\": \"Rc\", \"mag\": %.3f, \"error\": 0.03}", 10.2 + idx * 0.01));
+			}
+			sb.append("], \"comments\": \"\"}");
+		}
+		sb.append("\n]}");
+
+		byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+		ex.getResponseHeaders().add("Content-Type", "application/json");
+		ex.sendResponseHeaders(200, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * DssFitsWriter download, resume and fits verification tests run against a local
+ * http server
+ */
+class DssFitsWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	// 100 x 100 16 bit image: 1 header block & 7 data blocks
+	private static final byte[] FITS = fitsImage(100, 100);
+
+	private HttpServer server;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private volatile String rangeHeader = null;
+	private volatile boolean isRangeSupported = true;
+
+	private File file;
+	private File partFile;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/fits", ex -> serveFits(ex));
+		server.createContext("/html", ex -> {
+			requestCount.incrementAndGet();
+			respond(ex, 200, "<html>No image</html>".getBytes(StandardCharsets.UTF_8), null);
+		});
+		server.start();
+
+		file = tempDir.resolve("dss").resolve("wasp_12.060.fits").toFile();
+		partFile = new File(file.getParentFile(), file.getName() + ".part");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@DisplayName("Complete download verified and renamed, progress reported")
+	@Test
+	void download_NewFile() throws IOException {
+		AtomicLong progress = new AtomicLong();
+		AtomicLong total = new AtomicLong();
+		String message = DssFitsWriter.downloadFits(url("/fits"), file, (nBytes, totalBytes) -> {
+			progress.set(nBytes);
+			total.set(totalBytes);
+		});
+
+		assertEquals("Saved fits file: wasp_12.060.fits", message);
+		assertArrayEquals(FITS, Files.readAllBytes(file.toPath()));
+		assertFalse(partFile.exists());
+		assertEquals(FITS.length, progress.get());
+		assertEquals(FITS.length, total.get());
+		assertNull(rangeHeader);
+	}
+
+	@DisplayName("Partial file resumed with range request")
+	@Test
+	void download_ResumesPartFile() throws IOException {
+		writePart(5000);
+		AtomicLong progress = new AtomicLong();
+		DssFitsWriter.downloadFits(url("/fits"), file, (nBytes, totalBytes) -> progress.set(nBytes));
+
+		assertEquals("bytes=5000-", rangeHeader);
+		assertArrayEquals(FITS, Files.readAllBytes(file.toPath()));
+		assertEquals(FITS.length, progress.get());
+	}
+
+	@DisplayName("Partial file rewritten if server ignores range request")
+	@Test
+	void download_RangeNotSupported() throws IOException {
+		isRangeSupported = false;
+		writePart(5000);
+		DssFitsWriter.downloadFits(url("/fits"), file, null);
+
+		assertArrayEquals(FITS, Files.readAllBytes(file.toPath()));
+	}
+
+	@DisplayName("Partial file beyond end of resource restarts download")
+	@Test
+	void download_RangeNotSatisfiable() throws IOException {
+		Files.createDirectories(partFile.toPath().getParent());
+		Files.write(partFile.toPath(), Arrays.copyOf(FITS, FITS.length + 100));
+		DssFitsWriter.downloadFits(url("/fits"), file, null);
+
+		assertArrayEquals(FITS, Files.readAllBytes(file.toPath()));
+		assertEquals(2, requestCount.get());
+	}
+
+	@DisplayName("Existing valid file not downloaded, truncated file replaced")
+	@Test
+	void download_ExistingFile() throws IOException {
+		Files.createDirectories(file.toPath().getParent());
+		Files.write(file.toPath(), Arrays.copyOf(FITS, 2880 * 4));
+		assertEquals("Replaced corrupt fits file: wasp_12.060.fits", DssFitsWriter.downloadFits(url("/fits"), file, null));
+		assertArrayEquals(FITS, Files.readAllBytes(file.toPath()));
+
+		assertEquals("Fit file: wasp_12.060.fits already exists", DssFitsWriter.downloadFits(url("/fits"), file, null));
+		assertEquals(1, requestCount.get());
+	}
+
+	@DisplayName("Non-fits response rejected")
+	@Test
+	void download_InvalidResponse() {
+		String message = DssFitsWriter.downloadFits(url("/html"), file, null);
+		assertTrue(message.startsWith("ERROR"));
+		assertFalse(file.exists());
+		assertFalse(partFile.exists());
+	}
+
+	@DisplayName("Connection error keeps partial file for resume")
+	@Test
+	void download_ConnectionError() throws IOException {
+		writePart(5000);
+		server.stop(0);
+		String message = DssFitsWriter.downloadFits(url("/fits"), file, null);
+		assertTrue(message.startsWith("Error in writing file"));
+		assertEquals(5000, partFile.length());
+		assertFalse(file.exists());
+	}
+
+	@DisplayName("Fits verification: header and data size")
+	@Test
+	void isValidFits() throws IOException {
+		Path path = tempDir.resolve("test.fits");
+		Files.write(path, FITS);
+		assertTrue(DssFitsWriter.isValidFits(path.toFile()));
+
+		Files.write(path, Arrays.copyOf(FITS, FITS.length - 2880));
+		assertFalse(DssFitsWriter.isValidFits(path.toFile()));
+
+		byte[] bad = FITS.clone();
+		bad[0] = 'X';
+		Files.write(path, bad);
+		assertFalse(DssFitsWriter.isValidFits(path.toFile()));
+	}
+
+	private void serveFits(HttpExchange ex) throws IOException {
+		requestCount.incrementAndGet();
+		String range = ex.getRequestHeaders().getFirst("Range");
+		rangeHeader = range;
+		if (range == null || !isRangeSupported) {
+			respond(ex, 200, FITS, null);
+			return;
+		}
+		int offset = Integer.parseInt(range.replaceAll("\\D", ""));
+		if (offset >= FITS.length) {
+			ex.getResponseHeaders().add("Content-Range", String.format("bytes */%d", FITS.length));
+			ex.sendResponseHeaders(416, -1);
+			ex.close();
+			return;
+		}
+		respond(ex, 206, Arrays.copyOfRange(FITS, offset, FITS.length),
+				String.format("bytes %d-%d/%d", offset, FITS.length - 1, FITS.length));
+	}
+
+	private void respond(HttpExchange ex, int status, byte[] body, String contentRange) throws IOException {
+		if (contentRange != null) {
+			ex.getResponseHeaders().add("Content-Range", contentRange);
+		}
+		ex.sendResponseHeaders(status, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private void writePart(int nBytes) throws IOException {
+		Files.createDirectories(partFile.toPath().getParent());
+		Files.write(partFile.toPath(), Arrays.copyOf(FITS, nBytes));
+	}
+
+	private String url(String path) {
+		return String.format("http://localhost:%d%s", server.getAddress().getPort(), path);
+	}
+
+	// minimal fits primary hdu with 16 bit image data
+	static byte[] fitsImage(int nx, int ny) {
+		String[] cards = { "SIMPLE  =                    T", "BITPIX  =                   16",
+				"NAXIS   =                    2", String.format("NAXIS1  = %20d", nx),
+				String.format("NAXIS2  = %20d / image height", ny), "END" };
+		StringBuilder sb = new StringBuilder();
+		for (String card : cards) {
+			sb.append(String.format("%-80s", card));
+		}
+		int nDataBytes = nx * ny * 2;
+		byte[] fits = new byte[2880 + (nDataBytes + 2879) / 2880 * 2880];
+		Arrays.fill(fits, 0, 2880, (byte) ' ');
+		byte[] header = sb.toString().getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(header, 0, fits, 0, header.length);
+		for (int idx = 2880; idx < 2880 + nDataBytes; idx++) {
+			fits[idx] = (byte) (idx * 31);
+		}
+		return fits;
+	}
+}
@@ -0,0 +1,164 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.CatalogSettings;
+import com.github.richardflee.astroimagej.query_objects.QueryResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * DssPrefetcher batch download tests run against a local SkyView stand-in
+ */
+class DssPrefetcherTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static final byte[] FITS = DssFitsWriterTest.fitsImage(50, 50);
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private AtomicInteger inFlight = new AtomicInteger();
+	private AtomicInteger maxInFlight = new AtomicInteger();
+
+	// request start times (ms)
+	private List<Long> startTimes = Collections.synchronizedList(new ArrayList<>());
+
+	private File dssDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		serverExecutor = Executors.newFixedThreadPool(8);
+		server.setExecutor(serverExecutor);
+		server.createContext("/cgi-bin/images", ex -> serveFits(ex));
+		server.start();
+		dssDir = tempDir.resolve("dss").toFile();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@DisplayName("Missing fields downloaded concurrently, existing and duplicate fields skipped")
+	@Test
+	void prefetch_DownloadsMissingFields() throws IOException {
+		List<CatalogQuery> queries = new ArrayList<>();
+		for (int idx = 0; idx < 8; idx++) {
+			queries.add(createQuery("field" + idx, idx));
+		}
+		// duplicate of field0 & previously saved field1
+		queries.add(createQuery("field0", 0));
+		File saved = DssFitsWriter.getFile(dssDir, queries.get(1));
+		Files.createDirectories(dssDir.toPath());
+		Files.write(saved.toPath(), FITS);
+
+		DssPrefetcher prefetcher = new DssPrefetcher(skyViewUrl(), dssDir, 3, 0);
+		DssPrefetcher.Report report = prefetcher.prefetch(queries);
+
+		assertEquals(8, report.getFields());
+		assertEquals(7, report.getDownloaded());
+		assertEquals(1, report.getExisting());
+		assertTrue(report.getFailures().isEmpty());
+		assertEquals(7, requestCount.get());
+		assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+		for (CatalogQuery query : queries) {
+			assertTrue(DssFitsWriter.isValidFits(DssFitsWriter.getFile(dssDir, query)));
+		}
+		assertTrue(report.getSummaryMessage().startsWith("DSS prefetch: 8 fields, 7 downloaded, 1 already saved in"));
+	}
+
+	@DisplayName("Request start times spaced by minimum interval")
+	@Test
+	void prefetch_RateLimited() {
+		List<CatalogQuery> queries = new ArrayList<>();
+		for (int idx = 0; idx < 4; idx++) {
+			queries.add(createQuery("field" + idx, idx));
+		}
+		new DssPrefetcher(skyViewUrl(), dssDir, 4, 150).prefetch(queries);
+
+		List<Long> times = new ArrayList<>(startTimes);
+		Collections.sort(times);
+		for (int idx = 1; idx < times.size(); idx++) {
+			assertTrue(times.get(idx) - times.get(idx - 1) >= 120, "interval " + (times.get(idx) - times.get(idx - 1)));
+		}
+	}
+
+	@DisplayName("Fields listed in radec folder downloaded, failures reported")
+	@Test
+	void prefetchRaDecFolder() throws IOException {
+		Path radecDir = Files.createDirectories(tempDir.resolve("radec"));
+		RaDecFileWriter writer = new RaDecFileWriter();
+		for (int idx = 0; idx < 3; idx++) {
+			QueryResult result = new QueryResult(createQuery("target" + idx, idx), new CatalogSettings(12.0));
+			Files.write(radecDir.resolve(String.format("target%d.V.030.radec.txt", idx)),
+					String.join("", writer.compileRaDecList(result)).getBytes());
+		}
+		Files.write(radecDir.resolve("broken.V.030.radec.txt"), "not a radec file".getBytes());
+		Files.write(radecDir.resolve("notes.txt"), "ignored".getBytes());
+
+		DssPrefetcher.Report report = new DssPrefetcher(skyViewUrl(), dssDir, 2, 0)
+				.prefetchRaDecFolder(radecDir.toFile());
+
+		assertEquals(3, report.getDownloaded());
+		assertEquals(1, report.getFailures().size());
+		assertTrue(report.getFailures().get(0).contains("broken.V.030.radec.txt"));
+		assertTrue(report.getSummaryMessage().contains("ERROR: 1 failed"));
+	}
+
+	private CatalogQuery createQuery(String objectId, int idx) {
+		CatalogQuery query = new CatalogQuery();
+		query.setObjectId(objectId);
+		query.setRaHr(1.0 + idx);
+		query.setDecDeg(10.0 + idx);
+		query.setFovAmin(30.0);
+		query.setMagBand("V");
+		return query;
+	}
+
+	private String skyViewUrl() {
+		return String.format("http://localhost:%d/cgi-bin", server.getAddress().getPort());
+	}
+
+	private void serveFits(HttpExchange ex) throws IOException {
+		startTimes.add(System.currentTimeMillis());
+		requestCount.incrementAndGet();
+		int n = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(n, Math::max);
+		try {
+			Thread.sleep(100);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		inFlight.decrementAndGet();
+		ex.sendResponseHeaders(200, FITS.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(FITS);
+		}
+	}
+}
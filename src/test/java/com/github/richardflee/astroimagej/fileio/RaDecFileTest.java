@@ -0,0 +1,85 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.CatalogSettings;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.QueryResult;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+class RaDecFileTest {
+
+	@DisplayName("Radec lines compiled by writer import to the same table data")
+	@Test
+	void compileRaDecList_RoundTrip() {
+		QueryResult result = createResult(50);
+		RaDecFileWriter writer = new RaDecFileWriter();
+		List<String> lines = writer.compileRaDecList(result);
+		assertTrue(lines.get(1).endsWith(",0,1,99.99\n"));
+
+		List<String> radecLines = Arrays.asList(String.join("", lines).split("\n"));
+		QueryResult imported = new RaDecFileReader().compileRaDecResult(radecLines);
+
+		assertEquals(result.getChartUri(), imported.getChartUri());
+		assertEquals(result.getQuery().getMagBand(), imported.getQuery().getMagBand());
+		assertEquals(result.getQuery().getFovAmin(), imported.getQuery().getFovAmin());
+		assertEquals(result.getFieldObjects().size(), imported.getFieldObjects().size());
+		for (int idx = 0; idx < result.getFieldObjects().size(); idx++) {
+			FieldObject expected = result.getFieldObjects().get(idx);
+			FieldObject actual = imported.getFieldObjects().get(idx);
+			assertEquals(expected.getApertureId(), actual.getApertureId());
+			// radec table lines are read with blanks removed
+			assertEquals(expected.getObjectId().replace(" ", ""), actual.getObjectId());
+			assertEquals(AstroCoords.raHrToRaHms(expected.getRaHr()), AstroCoords.raHrToRaHms(actual.getRaHr()));
+			assertEquals(expected.getMag(), actual.getMag(), 0.0005);
+			assertEquals(expected.getnObs(), actual.getnObs());
+		}
+	}
+
+	@DisplayName("Second write with the same writer flags target as first data line")
+	@Test
+	void compileRaDecList_ReusedWriter_TargetFirst() {
+		QueryResult result = createResult(10);
+		RaDecFileWriter writer = new RaDecFileWriter();
+		List<String> first = writer.compileRaDecList(result);
+		List<String> second = writer.compileRaDecList(result);
+
+		// target: ref = 0, mag = 99.99; reference stars: ref = 1
+		assertTrue(second.get(1).endsWith(",0,1,99.99\n"));
+		assertEquals(1, second.stream().filter(p -> p.endsWith(",0,1,99.99\n")).count());
+		assertEquals(first, second);
+	}
+
+	private static QueryResult createResult(int nObjects) {
+		CatalogSettings settings = new CatalogSettings(12.5);
+		settings.setDistanceRadioButtonValue(true);
+		QueryResult result = new QueryResult(new CatalogQuery(), settings);
+
+		Random random = new Random(12345);
+		FieldObject target = result.getTargetObject();
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		for (int idx = 0; idx < nObjects; idx++) {
+			double raHr = target.getRaHr() + 0.03 * (random.nextDouble() - 0.5);
+			double decDeg = target.getDecDeg() + 0.5 * (random.nextDouble() - 0.5);
+			FieldObject fo = new FieldObject(String.format("000-BBB-%03d", idx), raHr, decDeg,
+					9.0 + 7.0 * random.nextDouble(), 0.05);
+			fo.setnObs(1 + random.nextInt(30));
+			fo.setTarget(false);
+			fo.setApertureId(String.format("C%02d", idx + 2));
+			fieldObjects.add(fo);
+		}
+		result.appendFieldObjects(fieldObjects);
+		result.applySelectedSort();
+		return result;
+	}
+}
@@ -0,0 +1,135 @@
+package com.github.richardflee.astroimagej.fileio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.query_objects.SimbadResult;
+
+class SimbadCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	private Path cacheFile;
+	private SimbadResult vega;
+
+	private final double epsilon = 1.0e-8;
+
+	@BeforeEach
+	void setUp() {
+		cacheFile = tempDir.resolve(SimbadCache.SIMBAD_CACHE_FILE);
+
+		vega = new SimbadResult("vega");
+		vega.setSimbadId("* alf Lyr");
+		vega.setSimbadRaHr(18.61564898);
+		vega.setSimbadDecDeg(38.78368896);
+		vega.setMagB(0.03);
+		vega.setMagV(0.03);
+		vega.setMagR(0.07);
+		vega.setMagI(null);
+	}
+
+	@DisplayName("Normalised identifiers ignore case, white space runs and catalog prefix separators")
+	@ParameterizedTest
+	@CsvSource({ "wasp 12, wasp12", "WASP-12, wasp12", " Wasp_12 , wasp12", "NAME Vega, vega",
+			"HD  172167, hd172167", "BD+29 1234, bd+29 1234", "BD+29\t 1234, bd+29 1234", "* alf  Lyr, * alf lyr" })
+	void normaliseId_IsCorrect(String objectId, String expected) {
+		assertEquals(expected, SimbadCache.normaliseId(objectId));
+	}
+
+	@DisplayName("Identifiers differing in digit grouping are not merged")
+	@Test
+	void normaliseId_DigitGroups_NoCollision() {
+		assertNotEquals(SimbadCache.normaliseId("BD+1 2345"), SimbadCache.normaliseId("BD+12 345"));
+
+		SimbadCache cache = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		SimbadResult bd = new SimbadResult("BD+1 2345");
+		bd.setSimbadId("BD+01 2345");
+		assertTrue(cache.put(bd));
+		assertNotNull(cache.get("bd+1  2345"));
+		assertNull(cache.get("BD+12 345"));
+	}
+
+	@DisplayName("Cached result returned for equivalent identifier with user input objectId")
+	@Test
+	void put_thenGet_ReturnsCachedResult() {
+		SimbadCache cache = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		assertTrue(cache.put(vega));
+
+		SimbadResult sr = cache.get("VEGA");
+		assertNotNull(sr);
+		assertEquals("VEGA", sr.getObjectId());
+		assertEquals("* alf Lyr", sr.getSimbadId());
+		assertEquals(18.61564898, sr.getSimbadRaHr(), epsilon);
+		assertEquals(0.07, sr.getMagR(), epsilon);
+		assertNull(sr.getMagI());
+
+		assertNull(cache.get("wasp 12"));
+	}
+
+	@DisplayName("Cache file read by a new cache instance")
+	@Test
+	void put_thenNewInstance_ReadsCacheFile() {
+		new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS).put(vega);
+		assertTrue(Files.exists(cacheFile));
+
+		SimbadCache cache = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		SimbadResult sr = cache.get("NAME Vega");
+		assertNotNull(sr);
+		assertEquals(38.78368896, sr.getSimbadDecDeg(), epsilon);
+		assertEquals(0.03, sr.getMagB(), epsilon);
+	}
+
+	@DisplayName("Expired result not returned")
+	@Test
+	void whenExpired_thenGetReturnsNull() throws InterruptedException {
+		SimbadCache cache = new SimbadCache(cacheFile, 20);
+		cache.put(vega);
+		Thread.sleep(50);
+		assertNull(cache.get("vega"));
+	}
+
+	@DisplayName("Each put replaces cache file in one rename, no temporary file left")
+	@Test
+	void put_ReplacesCacheFile() throws IOException {
+		SimbadCache cache = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		cache.put(vega);
+		SimbadResult wasp12 = new SimbadResult("wasp 12");
+		wasp12.setSimbadId("WASP-12");
+		assertTrue(cache.put(wasp12));
+
+		try (Stream<Path> files = Files.list(tempDir)) {
+			assertEquals(Arrays.asList(cacheFile), files.collect(Collectors.toList()));
+		}
+		SimbadCache reloaded = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		assertEquals("* alf Lyr", reloaded.get("vega").getSimbadId());
+		assertEquals("WASP-12", reloaded.get("wasp12").getSimbadId());
+	}
+
+	@DisplayName("Clear removes cached results")
+	@Test
+	void clear_RemovesResults() {
+		SimbadCache cache = new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS);
+		cache.put(vega);
+		cache.clear();
+		assertNull(cache.get("vega"));
+		assertNull(new SimbadCache(cacheFile, SimbadCache.DEFAULT_TTL_MILLIS).get("vega"));
+	}
+}
@@ -0,0 +1,129 @@
+package com.github.richardflee.astroimagej.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.FieldObjectIndex;
+import com.github.richardflee.astroimagej.query_objects.QueryResult;
+
+class FieldObjectIndexTest {
+
+	private static final int N_OBJECTS = 20000;
+
+	// random field objects in 2 deg box around wasp12, plus RA = 0 and polar fields
+	private static List<FieldObject> fieldObjects = new ArrayList<>();
+
+	@BeforeAll
+	static void setUp() {
+		Random random = new Random(12345);
+		double[][] centres = { { 6.508, 29.672 }, { 0.001, 10.0 }, { 12.0, 88.5 } };
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			double[] centre = centres[idx % centres.length];
+			double decDeg = centre[1] + 2.0 * (random.nextDouble() - 0.5);
+			double raHr = centre[0] + 2.0 * (random.nextDouble() - 0.5) / 15.0;
+			raHr = (raHr + 24.0) % 24.0;
+			FieldObject fo = new FieldObject(String.format("fo%05d", idx), raHr, decDeg, 12.0, 0.05);
+			fo.setTarget(false);
+			fieldObjects.add(fo);
+		}
+	}
+
+	@DisplayName("Radius query returns the same objects as a full scan")
+	@ParameterizedTest
+	@CsvSource({ "6.508, 29.672, 5.0", "6.508, 29.672, 30.0", "23.999, 10.0, 10.0", "0.0, 10.2, 20.0",
+			"18.0, 89.4, 25.0", "12.0, -30.0, 60.0" })
+	void findWithinRadius_MatchesFullScan(double raHr, double decDeg, double radiusAmin) {
+		FieldObjectIndex index = new FieldObjectIndex(fieldObjects);
+		FieldObject centre = new FieldObject("centre", raHr, decDeg, 0.0, 0.0);
+
+		Set<FieldObject> expected = new HashSet<>();
+		for (FieldObject fo : fieldObjects) {
+			fo.computeRadSepAmin(centre);
+			if (fo.getRadSepAmin() <= radiusAmin) {
+				expected.add(fo);
+			}
+		}
+		List<FieldObject> actual = index.findWithinRadius(raHr, decDeg, radiusAmin);
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, new HashSet<>(actual));
+	}
+
+	@DisplayName("Nearest neighbour query returns the same objects as a full sort")
+	@ParameterizedTest
+	@CsvSource({ "6.508, 29.672, 1", "6.508, 29.672, 20", "0.0, 10.0, 50", "6.0, 89.4, 10" })
+	void findNearest_MatchesFullSort(double raHr, double decDeg, int k) {
+		FieldObjectIndex index = new FieldObjectIndex(fieldObjects);
+		FieldObject centre = new FieldObject("centre", raHr, decDeg, 0.0, 0.0);
+
+		fieldObjects.forEach(fo -> fo.computeRadSepAmin(centre));
+		List<FieldObject> expected = fieldObjects.stream()
+				.sorted(Comparator.comparingDouble(FieldObject::getRadSepAmin))
+				.limit(k)
+				.collect(Collectors.toList());
+		assertEquals(expected, index.findNearest(raHr, decDeg, k, null));
+	}
+
+	@DisplayName("QueryResult index lookups around target, target excluded from nearest objects")
+	@Test
+	void queryResult_IndexLookups() {
+		CatalogQuery query = new CatalogQuery();
+		QueryResult result = new QueryResult(query, null);
+		FieldObject target = result.getTargetObject();
+		assertTrue(target.isTarget());
+
+		result.appendFieldObjects(fieldObjects);
+		assertSame(target, result.getTargetObject());
+		assertEquals(N_OBJECTS + 1, result.getIndex().size());
+
+		List<FieldObject> nearest = result.getNearestObjects(10);
+		assertEquals(10, nearest.size());
+		assertFalse(nearest.contains(target));
+		for (int idx = 1; idx < nearest.size(); idx++) {
+			assertTrue(nearest.get(idx).getRadSepAmin() >= nearest.get(idx - 1).getRadSepAmin());
+		}
+
+		double radiusAmin = 5.0;
+		long expected = result.getFieldObjects().stream().filter(p -> p.getRadSepAmin() <= radiusAmin).count();
+		List<FieldObject> inRange = result.getObjectsWithinRadius(radiusAmin);
+		assertEquals(expected, inRange.size());
+		assertTrue(inRange.contains(target));
+	}
+
+	@DisplayName("Crowded objects have a neighbour within crowding radius")
+	@Test
+	void isCrowded_PairsAndSingles() {
+		List<FieldObject> objects = new ArrayList<>();
+		FieldObject a = new FieldObject("a", 6.5, 29.0, 12.0, 0.05);
+		FieldObject b = new FieldObject("b", 6.5, 29.0 + 0.2 / 60.0, 12.0, 0.05);
+		FieldObject c = new FieldObject("c", 6.5, 29.5, 12.0, 0.05);
+		objects.add(a);
+		objects.add(b);
+		objects.add(c);
+
+		FieldObjectIndex index = new FieldObjectIndex(objects);
+		assertTrue(index.isCrowded(a, 0.3));
+		assertTrue(index.isCrowded(b, 0.3));
+		assertFalse(index.isCrowded(c, 0.3));
+		assertFalse(index.isCrowded(a, 0.1));
+		assertEquals(2, index.countNeighbours(c, 31.0));
+		assertEquals(0, new FieldObjectIndex(new ArrayList<>()).findNearest(6.5, 29.0, 5, null).size());
+	}
+}
@@ -63,5 +63,32 @@ class FieldObjectTest {
 		System.out.println(bkg_164.getRadSepAmin());
 		assertEquals(5.8246672, bkg_164.getRadSepAmin(), tol);
 	}
+	
+	@DisplayName("Verify coordinate-based object id compiled on demand from constructor coordinates")
+	@Test
+	void testCompiledObjectId() {
+		FieldObject fo = new FieldObject(null, 6.50862013, 29.688453, 14.716, 0.09);
+		FieldObject copy = new FieldObject(fo);
+		fo.setRaHr(1.0);
+		assertEquals("06303103+29411843", fo.getObjectId());
+		assertEquals("06303103+29411843", copy.getObjectId());
+		
+		FieldObject named = new FieldObject("wasp12", 6.50862013, 29.688453, 14.716, 0.09);
+		assertEquals("wasp12", named.getObjectId());
+	}
+	
+	@DisplayName("Verify coordinate-based object id unchanged by RA and Dec set after construction")
+	@Test
+	void testObjectIdFrozenBySetCoords() {
+		FieldObject fo = new FieldObject(null, 6.50862013, 29.688453, 14.716, 0.09);
+		fo.setDecDeg(-10.0);
+		fo.setRaHr(12.0);
+		assertEquals("06303103+29411843", fo.getObjectId());
+		assertEquals(12.0, fo.getRaHr());
+		assertEquals(-10.0, fo.getDecDeg());
+		
+		fo.setDecDeg(45.0);
+		assertEquals("06303103+29411843", fo.getObjectId());
+	}
 
 }
@@ -0,0 +1,116 @@
+package com.github.richardflee.astroimagej.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.github.richardflee.astroimagej.query_objects.CatalogQuery;
+import com.github.richardflee.astroimagej.query_objects.CatalogSettings;
+import com.github.richardflee.astroimagej.query_objects.FieldObject;
+import com.github.richardflee.astroimagej.query_objects.QueryResult;
+
+class QueryResultTest {
+
+	private static final int N_OBJECTS = 1500;
+
+	private QueryResult result;
+
+	@BeforeEach
+	void setUp() {
+		CatalogQuery query = new CatalogQuery();
+		result = new QueryResult(query, new CatalogSettings(12.0));
+
+		Random random = new Random(12345);
+		List<FieldObject> fieldObjects = new ArrayList<>();
+		for (int idx = 0; idx < N_OBJECTS; idx++) {
+			double raHr = query.getRaHr() + (random.nextDouble() - 0.5) / 15.0;
+			double decDeg = query.getDecDeg() + (random.nextDouble() - 0.5);
+			FieldObject fo = new FieldObject(String.format("fo%04d", idx), raHr, decDeg,
+					8.0 + random.nextInt(8000) / 1000.0, 0.05);
+			fo.setnObs(1 + random.nextInt(10));
+			fo.setTarget(false);
+			fieldObjects.add(fo);
+		}
+		result.appendFieldObjects(fieldObjects);
+	}
+
+	@DisplayName("Sort orders match full stream sort, target first")
+	@Test
+	void applySelectedSort_MatchesStreamSort() {
+		CatalogSettings settings = result.getSettings();
+		settings.setDistanceRadioButtonValue(true);
+		settings.setDeltaMagRadioButtonValue(false);
+		List<FieldObject> byDistance = result.getFieldObjects().stream()
+				.sorted(Comparator.comparingDouble(FieldObject::getRadSepAmin)).collect(Collectors.toList());
+		List<FieldObject> byDeltaMag = byDistance.stream()
+				.sorted(Comparator.comparingDouble(p -> Math.abs(p.getDeltaMag()))).collect(Collectors.toList());
+
+		result.applySelectedSort();
+		assertEquals(byDistance, result.getFieldObjects());
+		assertSame(result.getTargetObject(), result.getFieldObjects().get(0));
+
+		settings.setDistanceRadioButtonValue(false);
+		settings.setDeltaMagRadioButtonValue(true);
+		result.applySelectedSort();
+		assertEquals(byDeltaMag, result.getFieldObjects());
+		assertSame(result.getTargetObject(), result.getFieldObjects().get(0));
+
+		// re-applied order is unchanged
+		List<FieldObject> current = result.getFieldObjects();
+		result.applySelectedSort();
+		assertSame(current, result.getFieldObjects());
+	}
+
+	@DisplayName("Filters match nObs & mag limits, only changed flags counted")
+	@ParameterizedTest
+	@CsvSource({ "1, false, 0.0, 0.0", "4, false, 0.0, 0.0", "1, true, 1.0, -1.0", "3, true, 0.0, -2.0",
+			"6, true, 2.5, 0.0" })
+	void applySelectedFilters_MatchesLimits(int nObs, boolean isMagLimits, double upper, double lower) {
+		CatalogSettings settings = result.getSettings();
+		settings.setnObsSpinnerValue(nObs);
+		settings.setMagLimitsCheckBoxValue(isMagLimits);
+		settings.setUpperLimitSpinnerValue(upper);
+		settings.setLowerLimitSpinnerValue(lower);
+		result.applySelectedFilters();
+
+		double targetMag = settings.getTargetMagSpinnerValue();
+		int nAccepted = 0;
+		for (FieldObject fo : result.getFieldObjects()) {
+			boolean isAccepted = fo.isTarget() || (fo.getnObs() >= nObs
+					&& (!isMagLimits || Math.abs(upper) < 0.01 || fo.getMag() <= upper + targetMag)
+					&& (!isMagLimits || Math.abs(lower) < 0.01 || fo.getMag() >= lower + targetMag));
+			assertEquals(isAccepted, fo.isAccepted());
+			nAccepted += (isAccepted && !fo.isTarget()) ? 1 : 0;
+		}
+		assertEquals(nAccepted, result.getAcceptedTotal());
+		assertEquals(String.valueOf(nAccepted), settings.getFilteredRecordsValue());
+
+		// no change on second pass
+		assertEquals(0, result.applySelectedFilters());
+	}
+
+	@DisplayName("Changed flag count on nObs step")
+	@Test
+	void applySelectedFilters_CountsChangedFlags() {
+		CatalogSettings settings = result.getSettings();
+		settings.setnObsSpinnerValue(1);
+		result.applySelectedFilters();
+
+		long nObs1 = result.getFieldObjects().stream().filter(p -> !p.isTarget() && p.getnObs() == 1).count();
+		settings.setnObsSpinnerValue(2);
+		assertEquals(nObs1, result.applySelectedFilters());
+		assertTrue(result.getSelectedTotal() <= result.getAcceptedTotal());
+	}
+}
@@ -1,8 +1,12 @@
 package com.github.richardflee.astroimagej.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -87,6 +91,131 @@ class AstroCoordsTest {
 	void testUserFormat_ToSexagemsimal_DecDms_IsCorrect(String formattedRaHms, String input) {
 		assertEquals(formattedRaHms, AstroCoords.sexagesimalFormatter(input, QueryEnum.DEC_DMS));
 	}
+	
+	@DisplayName("Verify fixed-point ra & dec formatting matches String.format, including rounding ties")
+	@Test
+	void testFixedPointFormat_MatchesStringFormat() {
+		Random random = new Random(12345);
+		for (int idx = 0; idx < 200000; idx++) {
+			double raHr = 24.0 * random.nextDouble();
+			double decDeg = 180.0 * random.nextDouble() - 90.0;
+			assertEquals(referenceRaHms(raHr), AstroCoords.raHrToRaHms(raHr));
+			assertEquals(referenceDecDms(decDeg), AstroCoords.decDegToDecDms(decDeg));
+		}
+		// seconds on 0.005 s boundaries
+		for (int idx = 0; idx < 20000; idx++) {
+			double raHr = (idx * 0.005 + 0.0025) / 3600.0 + 6.0;
+			double decDeg = -((idx * 0.005 + 0.0025) / 3600.0 + 29.0);
+			assertEquals(referenceRaHms(raHr), AstroCoords.raHrToRaHms(raHr));
+			assertEquals(referenceDecDms(decDeg), AstroCoords.decDegToDecDms(decDeg));
+		}
+	}
+	
+	@DisplayName("Verify appended coordinates without separators match stripped sexagesimal format")
+	@ParameterizedTest
+	@CsvSource({ "6.50862013, 29.688453", "0.0, 0.0", "23.999996, -89.999996", "12.34567, -12.34567" })
+	void testAppendCoords_NoSeparators(double raHr, double decDeg) {
+		StringBuilder sb = new StringBuilder();
+		AstroCoords.appendRaHms(sb, raHr, false);
+		AstroCoords.appendDecDms(sb, decDeg, false);
+		String expected = AstroCoords.raHrToRaHms(raHr) + AstroCoords.decDegToDecDms(decDeg);
+		assertEquals(expected.replace(":", "").replace(".", ""), sb.toString());
+	}
+	
+	// String.format ra conversion
+	private static String referenceRaHms(double raHr) {
+		double data = (raHr >= 0) ? raHr % 24 : (24 + raHr % 24);
+		int hh = (int) (1.0 * data);
+		int mm = (int) ((data - hh) * 60);
+		double ss = 3600 * (data - hh) - 60 * mm;
+		return String.format("%02d", hh) + ":" + String.format("%02d", mm) + ":"
+				+ String.format("%5.2f", ss).replace(' ', '0');
+	}
+	
+	// String.format dec conversion
+	private static String referenceDecDms(double decDeg) {
+		String sign = (decDeg >= 0) ? "+" : "-";
+		double data = (Math.abs(decDeg) > 90.0) ? 90.0 : Math.abs(decDeg);
+		int dd = (int) (1.0 * data);
+		int mm = (int) ((data - dd) * 60);
+		double ss = ((data - dd) * 60 - mm) * 60;
+		return sign + String.format("%02d", dd) + ":" + String.format("%02d", mm) + ":"
+				+ String.format("%5.2f", ss).replace(' ', '0');
+	}
+	
+	@DisplayName("Verify sexagesimal parsing matches String.split & Double.valueOf conversion")
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+		"06:30:32.797", "+29:40:20.27", "-16:42:58.02", "-1:2:3.455", "1: 2: 3.454", " 23:59:59.999 ",
+		"+95:00:00", "00:00:00", "12:60:61.5", "1.5:2.25:3", "12:34:56.1234567890123456", "12:34:5e1",
+		"-00:30:00", "12:34:56:78", "+1:2:3." })
+	void testParse_MatchesSplitParse(String sexagesimal) {
+		assertEquals(referenceRaHr(sexagesimal), AstroCoords.raHmsToRaHr(sexagesimal));
+		assertEquals(referenceDecDeg(sexagesimal), AstroCoords.decDmsToDecDeg(sexagesimal));
+	}
+	
+	@DisplayName("Verify format => parse round trip within 0.005 s, slice parsing of comma-separated line")
+	@Test
+	void testRoundTrip_FormatParse() {
+		Random random = new Random(54321);
+		StringBuilder sb = new StringBuilder();
+		for (int idx = 0; idx < 100000; idx++) {
+			double raHr = 24.0 * random.nextDouble();
+			double decDeg = 180.0 * random.nextDouble() - 90.0;
+			sb.setLength(0);
+			AstroCoords.appendRaHms(sb, raHr, true);
+			int comma = sb.length();
+			sb.append(',');
+			AstroCoords.appendDecDms(sb, decDeg, true);
+			sb.append(",1,1,12.345");
+			int end = sb.indexOf(",", comma + 1);
+			
+			double parsedRaHr = AstroCoords.parseRaHms(sb, 0, comma);
+			double parsedDecDeg = AstroCoords.parseDecDms(sb, comma + 1, end);
+			assertEquals(referenceRaHr(sb.substring(0, comma)), parsedRaHr);
+			assertEquals(referenceDecDeg(sb.substring(comma + 1, end)), parsedDecDeg);
+			
+			// 0.005 s rounding; seconds formatted 60.00 (not carried) are parsed modulo 60
+			if (!sb.substring(0, comma).endsWith("60.00")) {
+				double raDiff = Math.abs(parsedRaHr - raHr);
+				assertEquals(0.0, Math.min(raDiff, 24.0 - raDiff), 0.0051 / 3600.0);
+			}
+			if (!sb.substring(comma + 1, end).endsWith("60.00")) {
+				assertEquals(decDeg, parsedDecDeg, 0.0051 / 3600.0);
+			}
+		}
+	}
+	
+	@DisplayName("Verify missing sexagesimal fields throw NumberFormatException")
+	@ParameterizedTest
+	@CsvSource({ "12:34", "1234", "ab:cd:ef" })
+	void testParse_InvalidFormat(String input) {
+		assertThrows(NumberFormatException.class, () -> AstroCoords.raHmsToRaHr(input));
+		assertThrows(NumberFormatException.class, () -> AstroCoords.decDmsToDecDeg(input));
+	}
+	
+	// String.split ra conversion
+	private static double referenceRaHr(String raHms) {
+		boolean isNegative = raHms.charAt(0) == '-';
+		String[] el = raHms.split(":");
+		double hh = Math.abs(Double.valueOf(el[0]));
+		double mm = Double.valueOf(el[1]) % 60;
+		double ss = Double.valueOf(el[2]) % 60;
+		double raHr = (hh + mm / 60 + ss / 3600) % 24;
+		return isNegative ? (24.0 - raHr) : raHr;
+	}
+	
+	// String.split dec conversion
+	private static double referenceDecDeg(String decDms) {
+		int sign = (decDms.charAt(0) == '-') ? -1 : 1;
+		String[] el = decDms.split(":");
+		double dd = Math.abs(Double.valueOf(el[0]));
+		if (dd > 90) {
+			return sign * 90.0;
+		}
+		double mm = Double.valueOf(el[1]) % 60;
+		double ss = Double.valueOf(el[2]) % 60;
+		return sign * (dd + mm / 60 + ss / 3600);
+	}
 
 }
-
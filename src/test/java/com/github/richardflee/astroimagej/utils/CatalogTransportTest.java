@@ -0,0 +1,274 @@
+package com.github.richardflee.astroimagej.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.utils.CatalogTransport.HttpStatusException;
+import com.github.richardflee.astroimagej.utils.CatalogTransport.RequestScope;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CatalogTransport tests run against a local http server
+ */
+class CatalogTransportTest {
+
+	private static final String TEXT = "#RESOURCE=yCat_2336\n097.636654\t+29.672297\t 12\t11.690\t0.041\n";
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private AtomicInteger requestCount = new AtomicInteger();
+	private AtomicInteger inFlight = new AtomicInteger();
+	private AtomicInteger maxInFlight = new AtomicInteger();
+
+	// held requests respond on release
+	private CountDownLatch nHeld = new CountDownLatch(2);
+	private CountDownLatch release = new CountDownLatch(1);
+
+	// number of 503 responses before success
+	private volatile int nFailures = 0;
+
+	// fast transport: short timeouts & backoff
+	private CatalogTransport transport = new CatalogTransport(1000, 300, 3, 10, 2);
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		serverExecutor = Executors.newFixedThreadPool(8);
+		server.setExecutor(serverExecutor);
+		server.createContext("/plain", ex -> respond(ex, TEXT.getBytes(StandardCharsets.UTF_8), null));
+		server.createContext("/gzip", ex -> respond(ex, compress(true), "gzip"));
+		server.createContext("/deflate", ex -> respond(ex, compress(false), "deflate"));
+		server.createContext("/flaky", ex -> {
+			if (requestCount.get() < nFailures) {
+				error(ex, 503);
+			} else {
+				respond(ex, TEXT.getBytes(StandardCharsets.UTF_8), null);
+			}
+		});
+		server.createContext("/missing", ex -> error(ex, 404));
+		server.createContext("/hung", ex -> {
+			requestCount.incrementAndGet();
+			sleep(2000);
+			ex.close();
+		});
+		server.createContext("/held", ex -> {
+			nHeld.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(ex, TEXT.getBytes(StandardCharsets.UTF_8), null);
+		});
+		server.createContext("/slow", ex -> {
+			int n = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(n, Math::max);
+			sleep(100);
+			inFlight.decrementAndGet();
+			respond(ex, TEXT.getBytes(StandardCharsets.UTF_8), null);
+		});
+		server.createContext("/echo", ex -> {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = ex.getRequestBody().read(buffer)) > 0) {
+				bos.write(buffer, 0, n);
+			}
+			respond(ex, bos.toByteArray(), null);
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@DisplayName("gzip, deflate and identity responses decoded to same text")
+	@Test
+	void openStream_DecodesContentEncoding() throws IOException {
+		assertEquals(TEXT, read(transport.openStream(url("/plain"))));
+		assertEquals(TEXT, read(transport.openStream(url("/gzip"))));
+		assertEquals(TEXT, read(transport.openStream(url("/deflate"))));
+	}
+
+	@DisplayName("Server errors retried until success")
+	@Test
+	void openStream_RetriesServerError() throws IOException {
+		nFailures = 2;
+		assertEquals(TEXT, read(transport.openStream(url("/flaky"))));
+		assertEquals(3, requestCount.get());
+	}
+
+	@DisplayName("Server errors reported after maxAttempts requests")
+	@Test
+	void openStream_RetriesExhausted() {
+		nFailures = 10;
+		HttpStatusException e = assertThrows(HttpStatusException.class, () -> transport.openStream(url("/flaky")));
+		assertEquals(503, e.getStatus());
+		assertEquals(3, requestCount.get());
+	}
+
+	@DisplayName("Client errors not retried")
+	@Test
+	void openStream_NoRetryClientError() {
+		HttpStatusException e = assertThrows(HttpStatusException.class, () -> transport.openStream(url("/missing")));
+		assertEquals(404, e.getStatus());
+		assertEquals(1, requestCount.get());
+	}
+
+	@DisplayName("Hung request times out within bounded time")
+	@Test
+	void openStream_ReadTimeout() {
+		long start = System.currentTimeMillis();
+		assertThrows(SocketTimeoutException.class, () -> transport.openStream(url("/hung")));
+		assertTrue(System.currentTimeMillis() - start < 1900);
+		assertEquals(3, requestCount.get());
+	}
+
+	@DisplayName("Concurrent requests limited per host")
+	@Test
+	void openStream_PerHostLimit() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		List<Future<String>> futures = new ArrayList<>();
+		for (int idx = 0; idx < 6; idx++) {
+			futures.add(executor.submit(() -> read(transport.openStream(url("/slow")))));
+		}
+		for (Future<String> future : futures) {
+			assertEquals(TEXT, future.get());
+		}
+		executor.shutdown();
+		assertEquals(2, maxInFlight.get());
+	}
+
+	@DisplayName("Aborted scope fails its own requests, other requests unaffected")
+	@Test
+	void requestScope_AbortsOwnRequests() throws Exception {
+		// single attempt, read timeout longer than test
+		CatalogTransport heldTransport = new CatalogTransport(1000, 30_000, 1, 10, 4);
+		RequestScope scope = new RequestScope();
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		ExecutorService scoped = null;
+		try {
+			Future<String> otherRequest = other.submit(() -> read(heldTransport.openStream(url("/held"))));
+
+			// fetch thread created in scope, as catalog query pools
+			CatalogTransport.setRequestScope(scope);
+			Future<String> scopedRequest;
+			try {
+				scoped = Executors.newSingleThreadExecutor();
+				scopedRequest = scoped.submit(() -> read(heldTransport.openStream(url("/held"))));
+			} finally {
+				CatalogTransport.setRequestScope(null);
+			}
+			assertTrue(nHeld.await(5, TimeUnit.SECONDS));
+
+			scope.abort();
+			ExecutionException e = assertThrows(ExecutionException.class,
+					() -> scopedRequest.get(5, TimeUnit.SECONDS));
+			assertTrue(e.getCause() instanceof IOException);
+
+			release.countDown();
+			assertEquals(TEXT, otherRequest.get(5, TimeUnit.SECONDS));
+		} finally {
+			other.shutdownNow();
+			if (scoped != null) {
+				scoped.shutdownNow();
+			}
+		}
+
+		// further requests in aborted scope refused
+		CatalogTransport.setRequestScope(scope);
+		try {
+			assertThrows(InterruptedIOException.class, () -> transport.openStream(url("/plain")));
+		} finally {
+			CatalogTransport.setRequestScope(null);
+		}
+	}
+
+	@DisplayName("Post body sent to server")
+	@Test
+	void post_SendsBody() throws IOException {
+		byte[] body = "script=votable".getBytes(StandardCharsets.UTF_8);
+		assertEquals("script=votable",
+				read(transport.post(url("/echo"), "application/x-www-form-urlencoded; charset=UTF-8", body)));
+	}
+
+	private String url(String path) {
+		return String.format("http://localhost:%d%s", server.getAddress().getPort(), path);
+	}
+
+	private static String read(InputStream stream) throws IOException {
+		try (InputStream in = stream) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				bos.write(buffer, 0, n);
+			}
+			return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static byte[] compress(boolean isGzip) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = isGzip ? new GZIPOutputStream(bos) : new DeflaterOutputStream(bos)) {
+			out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+		}
+		return bos.toByteArray();
+	}
+
+	private void respond(HttpExchange ex, byte[] body, String encoding) throws IOException {
+		requestCount.incrementAndGet();
+		if (encoding != null) {
+			ex.getResponseHeaders().add("Content-Encoding", encoding);
+		}
+		ex.sendResponseHeaders(200, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private void error(HttpExchange ex, int status) throws IOException {
+		requestCount.incrementAndGet();
+		ex.sendResponseHeaders(status, -1);
+		ex.close();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
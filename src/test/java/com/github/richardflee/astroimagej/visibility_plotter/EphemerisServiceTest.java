@@ -0,0 +1,161 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.NightEphemeris;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+import com.github.richardflee.astroimagej.visibility_plotter.CoordsConverter.CoordsEnum;
+
+class EphemerisServiceTest {
+
+	// comparing times to 1 sec
+	private static final long SECOND_TOL = 1;
+
+	private static final ObservationSite BOSTON = new ObservationSite(-71.05, 42.37, 0.0, -5.0);
+	private static final ObservationSite SIDING = new ObservationSite(AstroCoords.dmsToDeg("149:03:42"),
+			-AstroCoords.dmsToDeg("31:16:24"), 1100.0, 11.0);
+	private static final ObservationSite POLAR = new ObservationSite(-71.05, 82.0, 0.0, -5.0);
+
+	private static final BaseFieldObject WASP12 = new BaseFieldObject("wasp12",
+			AstroCoords.raHmsToRaHr("06:30:32.797"), AstroCoords.decDmsToDecDeg("+29:40:20.27"));
+
+	@DisplayName("Sun times match Solar iteration at N & S sites through the year")
+	@Test
+	void solarTimes_MatchSolar() {
+		for (ObservationSite site : new ObservationSite[] { BOSTON, SIDING }) {
+			Solar solar = new Solar(site);
+			for (int month = 1; month <= 12; month++) {
+				LocalDate civilDate = LocalDate.of(2021, month, 15);
+				assertSolarTimes(solar.getCivilSunTimes(civilDate),
+						new EphemerisService().getCivilSunTimes(site, civilDate));
+			}
+		}
+	}
+
+	@DisplayName("Polar summer and winter fall back to Solar times")
+	@Test
+	void solarTimes_PolarFallback() {
+		Solar solar = new Solar(POLAR);
+		for (LocalDate civilDate : new LocalDate[] { LocalDate.of(2021, 6, 21), LocalDate.of(2021, 12, 21) }) {
+			assertSolarTimes(solar.getCivilSunTimes(civilDate),
+					new EphemerisService().getCivilSunTimes(POLAR, civilDate));
+		}
+	}
+
+	@DisplayName("Target rise & set match CoordsConverter, transit at LST = RA")
+	@Test
+	void targetEvents_MatchCoordsConverter() {
+		LocalDate civilDate = LocalDate.of(2019, 1, 1);
+		NightEphemeris ephemeris = new EphemerisService().getEphemeris(BOSTON, civilDate, WASP12);
+		CoordsConverter coords = new CoordsConverter(WASP12, BOSTON);
+		LocalDateTime civilNoon = LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON);
+
+		assertEquals("wasp12", ephemeris.getObjectId());
+		assertFalse(ephemeris.isNeverRises() || ephemeris.isNeverSets());
+		for (LocalDateTime event : new LocalDateTime[] { ephemeris.getTargetRise(), ephemeris.getTargetTransit(),
+				ephemeris.getTargetSet() }) {
+			assertTrue(!event.isBefore(civilNoon) && event.isBefore(civilNoon.plusDays(1)), event.toString());
+		}
+
+		// rise & set utc hours
+		LocalDateTime utcRise = ephemeris.getTargetRise().plusHours(5);
+		LocalDateTime utcSet = ephemeris.getTargetSet().plusHours(5);
+		double riseHr = coords.getRiseSetHr(utcRise.toLocalDate()).get(CoordsEnum.RISE_TIME);
+		double setHr = coords.getRiseSetHr(utcSet.toLocalDate()).get(CoordsEnum.SET_TIME);
+		assertEquals(riseHr, TimesConverter.convertLocalTimeToHours(utcRise.toLocalTime()), 2.0 / 3600);
+		assertEquals(setHr, TimesConverter.convertLocalTimeToHours(utcSet.toLocalTime()), 2.0 / 3600);
+		assertEquals(coords.getRiseAzm(civilDate), ephemeris.getRiseAzmDeg(), 1e-6);
+
+		// transit
+		double lstHr = new VisibilityEngine(BOSTON).getStartLstHr(ephemeris.getTargetTransit());
+		assertEquals(WASP12.getRaHr(), lstHr, 1.0 / 3600);
+		assertEquals(90.0 - (42.37 - WASP12.getDecDeg()), ephemeris.getTransitAltDeg(), 1e-9);
+	}
+
+	@DisplayName("Circumpolar and never-rising targets have transit only")
+	@Test
+	void targetEvents_CircumpolarAndNeverRises() {
+		LocalDate civilDate = LocalDate.of(2019, 1, 1);
+		EphemerisService service = new EphemerisService();
+		NightEphemeris polar = service.getEphemeris(BOSTON, civilDate, new BaseFieldObject("polar", 2.5, 89.0));
+		NightEphemeris south = service.getEphemeris(BOSTON, civilDate, new BaseFieldObject("south", 12.0, -80.0));
+
+		assertTrue(polar.isNeverSets());
+		assertNull(polar.getTargetRise());
+		assertNull(polar.getTargetSet());
+		assertTrue(polar.getTargetTransit() != null);
+		assertEquals(TimesConverter.NEVER_SETS_DEG, polar.getRiseAzmDeg());
+
+		assertTrue(south.isNeverRises());
+		assertNull(south.getTargetRise());
+		assertEquals(TimesConverter.NEVER_RISES_DEG, south.getRiseAzmDeg());
+	}
+
+	@DisplayName("Repeated requests served from LRU, least recently used evicted")
+	@Test
+	void cache_LruBehaviour() {
+		EphemerisService service = new EphemerisService(2);
+		LocalDate day1 = LocalDate.of(2021, 1, 1);
+		LocalDate day2 = day1.plusDays(1);
+		LocalDate day3 = day1.plusDays(2);
+
+		NightEphemeris first = service.getEphemeris(BOSTON, day1, WASP12);
+		assertSame(first, service.getEphemeris(BOSTON, day1, WASP12));
+		assertNotSame(first, service.getEphemeris(BOSTON, day1, null));
+		assertEquals(2, service.size());
+
+		// day1 target most recently used, day1 sun-only evicted
+		service.getEphemeris(BOSTON, day1, WASP12);
+		service.getEphemeris(BOSTON, day2, null);
+		assertSame(first, service.getEphemeris(BOSTON, day1, WASP12));
+		service.getEphemeris(BOSTON, day3, null);
+		assertEquals(2, service.size());
+		assertSame(first, service.getEphemeris(BOSTON, day1, WASP12));
+
+		// day3 then day2 requests evict day1 target
+		service.getEphemeris(BOSTON, day3, null);
+		service.getEphemeris(BOSTON, day2, null);
+		assertNotSame(first, service.getEphemeris(BOSTON, day1, WASP12));
+
+		// site values are part of key
+		ObservationSite site = new ObservationSite(-71.05, 42.37, 0.0, -5.0);
+		SolarTimes boston = service.getCivilSunTimes(site, day1);
+		site.setUtcOffsetHr(-4.0);
+		assertNotSame(boston, service.getCivilSunTimes(site, day1));
+
+		service.clear();
+		assertEquals(0, service.size());
+	}
+
+	private void assertSolarTimes(SolarTimes expected, SolarTimes actual) {
+		Map<String, LocalDateTime[]> events = new LinkedHashMap<>();
+		events.put("sunset", new LocalDateTime[] { expected.getCivilSunSet(), actual.getCivilSunSet() });
+		events.put("twilight ends",
+				new LocalDateTime[] { expected.getCivilTwilightEnds(), actual.getCivilTwilightEnds() });
+		events.put("twilight starts",
+				new LocalDateTime[] { expected.getCivilTwilightStarts(), actual.getCivilTwilightStarts() });
+		events.put("sunrise", new LocalDateTime[] { expected.getCivilSunRise(), actual.getCivilSunRise() });
+		for (Map.Entry<String, LocalDateTime[]> event : events.entrySet()) {
+			long diff = Math.abs(Duration.between(event.getValue()[0], event.getValue()[1]).getSeconds());
+			assertTrue(diff <= SECOND_TOL, String.format("%s: %s %s", event.getKey(), event.getValue()[0],
+					event.getValue()[1]));
+		}
+	}
+}
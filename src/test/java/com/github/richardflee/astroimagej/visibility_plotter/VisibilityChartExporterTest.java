@@ -0,0 +1,134 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.ui.Layer;
+import org.jfree.data.xy.XYDataset;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+import com.github.richardflee.astroimagej.visibility_plotter.VisibilityChartExporter.PlotEnum;
+
+class VisibilityChartExporterTest {
+
+	private static final ObservationSite SITE = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+	private static final LocalDate NIGHT = LocalDate.of(2019, 1, 1);
+
+	private static final BaseFieldObject WASP12 = new BaseFieldObject("wasp12",
+			AstroCoords.raHmsToRaHr("06:30:32.797"), AstroCoords.decDmsToDecDeg("+29:40:20.27"));
+	private static final BaseFieldObject POLAR = new BaseFieldObject("polar star", 2.5, 89.0);
+
+	@BeforeAll
+	static void setHeadless() {
+		System.setProperty("java.awt.headless", "true");
+	}
+
+	@DisplayName("Chart update replaces series and title in the same chart")
+	@Test
+	void update_SwapsDataset() {
+		VisibilityEngine engine = new VisibilityEngine(SITE);
+		EphemerisService ephemeris = new EphemerisService();
+		StarAltPlotter altPlotter = new StarAltPlotter();
+		StarTrackPlotter trackPlotter = new StarTrackPlotter();
+		JFreeChart altChart = altPlotter.getChart();
+		JFreeChart trackChart = trackPlotter.getChart();
+		int nAnnotations = trackChart.getXYPlot().getAnnotations().size();
+
+		for (BaseFieldObject fo : new BaseFieldObject[] { WASP12, POLAR, WASP12 }) {
+			AltAzmSeries series = engine.compute(fo, NIGHT);
+			String title = VisibilityPlotter.getChartTitle(fo.getObjectId(), NIGHT);
+			altPlotter.update(title, StarAltPlotter.createData(series), ephemeris.getCivilSunTimes(SITE, NIGHT));
+			trackPlotter.update(title, StarTrackPlotter.createData(series), series);
+
+			assertSame(altChart, altPlotter.getChart());
+			assertEquals(title, altChart.getTitle().getText());
+			assertEquals(title, trackChart.getTitle().getText());
+			assertEquals(4, altChart.getXYPlot().getDomainMarkers(Layer.FOREGROUND).size());
+			// start & finish labels replace previous labels
+			assertEquals(nAnnotations + 2, trackChart.getXYPlot().getAnnotations().size());
+
+			XYDataset altData = altChart.getXYPlot().getDataset();
+			XYDataset trackData = trackChart.getXYPlot().getDataset();
+			assertEquals(1, altData.getSeriesCount());
+			assertEquals(1, trackData.getSeriesCount());
+			assertEquals(series.size(), altData.getItemCount(0));
+			for (int idx = 0; idx < series.size(); idx += 60) {
+				assertEquals(series.getMillis(idx), altData.getXValue(0, idx));
+				assertEquals(Math.max(0.0, series.getAltDeg(idx)), altData.getYValue(0, idx), 1e-12);
+				boolean isPlotted = series.getAltDeg(idx) >= 10.0;
+				assertEquals(isPlotted, !Double.isNaN(trackData.getYValue(0, idx)));
+			}
+		}
+	}
+
+	@DisplayName("PNG rendered at requested size and served from LRU")
+	@Test
+	void getPng_RendersAndCaches() throws IOException {
+		VisibilityChartExporter exporter = new VisibilityChartExporter(SITE, new EphemerisService(), 2);
+		byte[] png = exporter.getPng(WASP12, NIGHT, PlotEnum.ALTITUDE, 400, 300);
+
+		assertArrayEquals(new byte[] { (byte) 0x89, 'P', 'N', 'G' }, Arrays.copyOf(png, 4));
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+		assertEquals(400, image.getWidth());
+		assertEquals(300, image.getHeight());
+
+		// repeat served from cache, size & plot type are part of key
+		assertSame(png, exporter.getPng(WASP12, NIGHT, PlotEnum.ALTITUDE, 400, 300));
+		byte[] track = exporter.getPng(WASP12, NIGHT, PlotEnum.TRACK, 300, 300);
+		assertNotSame(png, track);
+		assertEquals(2, exporter.size());
+
+		// third image evicts least recently used
+		exporter.getPng(WASP12, NIGHT.plusDays(1), PlotEnum.TRACK, 300, 300);
+		assertEquals(2, exporter.size());
+		assertNotSame(png, exporter.getPng(WASP12, NIGHT, PlotEnum.ALTITUDE, 400, 300));
+
+		exporter.clear();
+		assertEquals(0, exporter.size());
+	}
+
+	@DisplayName("Night plan writes StarAlt and StarTrack files per target")
+	@Test
+	void exportNightPlan_WritesFiles(@TempDir Path tempDir) throws IOException {
+		VisibilityChartExporter exporter = new VisibilityChartExporter(SITE);
+		File outputDir = tempDir.resolve("plots").toFile();
+		List<File> files = exporter.exportNightPlan(Arrays.asList(WASP12, POLAR), NIGHT, outputDir);
+
+		assertEquals(4, files.size());
+		assertEquals("wasp12.2019-01-01.alt.png", files.get(0).getName());
+		assertEquals("wasp12.2019-01-01.track.png", files.get(1).getName());
+		assertEquals("polar_star.2019-01-01.alt.png", files.get(2).getName());
+		for (File file : files) {
+			assertTrue(file.isFile());
+			BufferedImage image = ImageIO.read(file);
+			PlotEnum plot = file.getName().endsWith(".alt.png") ? PlotEnum.ALTITUDE : PlotEnum.TRACK;
+			assertEquals(plot.getWidth(), image.getWidth());
+			assertEquals(plot.getHeight(), image.getHeight());
+		}
+		assertArrayEquals(exporter.getPng(WASP12, NIGHT, PlotEnum.TRACK, 750, 750),
+				Files.readAllBytes(files.get(1).toPath()));
+	}
+}
@@ -0,0 +1,82 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.jfree.data.time.Minute;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmObject;
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.utils.AstroCoords;
+
+class VisibilityEngineTest {
+
+	private static final double TOL = 1e-6;
+
+	@DisplayName("24 hr series matches per-minute AltAzmGenerator, W site with utc offset")
+	@Test
+	void compute_MatchesGenerator_WestSite() {
+		ObservationSite site = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+		BaseFieldObject fo = new BaseFieldObject("wasp12", AstroCoords.raHmsToRaHr("06:30:32.797"),
+				AstroCoords.decDmsToDecDeg("+29:40:20.27"));
+		assertMatchesGenerator(fo, site, LocalDate.of(2019, 1, 1));
+	}
+
+	@DisplayName("24 hr series matches per-minute AltAzmGenerator, S site across utc midnight")
+	@Test
+	void compute_MatchesGenerator_SouthSite() {
+		ObservationSite site = new ObservationSite(149.0617, -31.2733, 1100.0, 10.0);
+		BaseFieldObject fo = new BaseFieldObject("south", AstroCoords.raHmsToRaHr("20:15:00.0"),
+				AstroCoords.decDmsToDecDeg("-60:30:00.0"));
+		assertMatchesGenerator(fo, site, LocalDate.of(2020, 2, 28));
+	}
+
+	@DisplayName("Sample times and indices above altitude limit")
+	@Test
+	void compute_SampleTimes() {
+		ObservationSite site = new ObservationSite(0.0, 51.5, 0.0, 0.0);
+		BaseFieldObject fo = new BaseFieldObject("test", 6.0, 20.0);
+		LocalDateTime civilStart = LocalDateTime.of(2021, 3, 1, 18, 0, 0);
+		AltAzmSeries series = new VisibilityEngine(site).compute(fo, civilStart, 97, 5);
+
+		assertEquals(97, series.size());
+		assertEquals("test", series.getObjectId());
+		assertEquals(civilStart.plusHours(8), series.getCivilDateTime(96));
+		assertEquals(TimesConverter.convertCivilDateTimeToMillis(civilStart) + 8 * 3600_000L, series.getMillis(96));
+
+		int first = series.firstIndexAbove(10.0);
+		int last = series.lastIndexAbove(10.0);
+		assertTrue(first >= 0 && last >= first);
+		assertTrue(series.getAltDeg(first) >= 10.0 && series.getAltDeg(last) >= 10.0);
+		assertTrue(first == 0 || series.getAltDeg(first - 1) < 10.0);
+		assertTrue(last == 96 || series.getAltDeg(last + 1) < 10.0);
+		assertEquals(-1, series.firstIndexAbove(90.0));
+	}
+
+	private void assertMatchesGenerator(BaseFieldObject fo, ObservationSite site, LocalDate civilDate) {
+		AltAzmSeries series = new VisibilityEngine(site).compute(fo, civilDate);
+		AltAzmGenerator gen = new AltAzmGenerator(fo, site);
+		Minute current = TimesConverter
+				.convertCivilDateTimeToMinute(LocalDateTime.of(civilDate, TimesConverter.LOCAL_TIME_NOON));
+
+		assertEquals(VisibilityEngine.N_SAMPLES, series.size());
+		for (int idx = 0; idx < series.size(); idx++) {
+			AltAzmObject expected = gen.getAltAzmObject(current);
+			assertEquals(expected.getAltDeg(), series.getAltDeg(idx), TOL);
+			double dAzm = Math.abs(expected.getAzmDeg() - series.getAzmDeg(idx));
+			assertEquals(0.0, Math.min(dAzm, 360.0 - dAzm), TOL);
+			assertEquals(expected.getPolarX(), series.getPolarX(idx), TOL);
+			assertEquals(expected.getPolarY(), series.getPolarY(idx), TOL);
+			assertEquals(expected.getCivilDateTime(), series.getCivilDateTime(idx));
+			assertEquals(current.getFirstMillisecond(), series.getMillis(idx));
+			current = (Minute) current.next();
+		}
+	}
+}
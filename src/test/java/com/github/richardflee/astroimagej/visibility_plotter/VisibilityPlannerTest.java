@@ -0,0 +1,119 @@
+package com.github.richardflee.astroimagej.visibility_plotter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.richardflee.astroimagej.query_objects.AltAzmSeries;
+import com.github.richardflee.astroimagej.query_objects.BaseFieldObject;
+import com.github.richardflee.astroimagej.query_objects.ObservationSite;
+import com.github.richardflee.astroimagej.query_objects.SolarTimes;
+import com.github.richardflee.astroimagej.query_objects.VisibilityWindow;
+
+class VisibilityPlannerTest {
+
+	private static final ObservationSite SITE = new ObservationSite(-85.5, 38.33, 0.0, -5.0);
+	private static final LocalDate NIGHT = LocalDate.of(2021, 1, 1);
+
+	@DisplayName("Window matches engine altitude series across darkness")
+	@Test
+	void plan_MatchesEngineSeries() {
+		BaseFieldObject fo = new BaseFieldObject("wasp12", 6.509110, 29.672297);
+		VisibilityWindow window = new VisibilityPlanner(SITE).plan(Arrays.asList(fo), NIGHT, NIGHT).get(0);
+
+		SolarTimes solarTimes = new Solar(SITE).getCivilSunTimes(NIGHT);
+		int nSamples = (int) Duration
+				.between(solarTimes.getCivilTwilightEnds(), solarTimes.getCivilTwilightStarts()).toMinutes() + 1;
+		AltAzmSeries series = new VisibilityEngine(SITE).compute(fo, solarTimes.getCivilTwilightEnds(), nSamples, 1);
+		int first = series.firstIndexAbove(VisibilityPlanner.DEFAULT_MIN_ALT_DEG);
+		int last = series.lastIndexAbove(VisibilityPlanner.DEFAULT_MIN_ALT_DEG);
+
+		assertTrue(window.isVisible());
+		assertEquals(NIGHT, window.getNight());
+		assertEquals(series.getCivilDateTime(first), window.getWindowStart());
+		assertEquals(series.getCivilDateTime(last), window.getWindowEnd());
+		assertEquals((last - first) / 60.0, window.getHoursVisible(), 1e-9);
+		double maxAlt = -90.0;
+		for (int idx = 0; idx < nSamples; idx++) {
+			maxAlt = Math.max(maxAlt, series.getAltDeg(idx));
+		}
+		assertEquals(maxAlt, window.getMaxAltDeg(), 1e-6);
+	}
+
+	@DisplayName("Never-rising target not visible, circumpolar target visible throughout darkness")
+	@Test
+	void plan_NeverRisesAndCircumpolar() {
+		BaseFieldObject south = new BaseFieldObject("south", 12.0, -80.0);
+		BaseFieldObject polar = new BaseFieldObject("polar", 2.5, 89.0);
+		List<VisibilityWindow> windows = new VisibilityPlanner(SITE).plan(Arrays.asList(south, polar), NIGHT,
+				NIGHT.plusDays(1));
+
+		assertEquals(4, windows.size());
+		assertFalse(windows.get(0).isVisible());
+		assertNull(windows.get(0).getWindowStart());
+		assertEquals(0.0, windows.get(1).getHoursVisible());
+
+		SolarTimes solarTimes = new Solar(SITE).getCivilSunTimes(NIGHT);
+		VisibilityWindow polarWindow = windows.get(2);
+		assertEquals(solarTimes.getCivilTwilightEnds(), polarWindow.getWindowStart());
+		assertEquals(NIGHT.plusDays(1), windows.get(3).getNight());
+
+		List<VisibilityWindow> visible = VisibilityPlanner.filterByHours(windows, 3.0);
+		assertEquals(2, visible.size());
+		assertTrue(visible.stream().allMatch(p -> p.getObjectId().equals("polar")));
+	}
+
+	@DisplayName("Parallel and sequential plans identical, target then night order")
+	@Test
+	void plan_ParallelMatchesSequential() {
+		Random random = new Random(12345);
+		List<BaseFieldObject> targets = new ArrayList<>();
+		for (int idx = 0; idx < 200; idx++) {
+			targets.add(new BaseFieldObject("t" + idx, 24.0 * random.nextDouble(), 180.0 * random.nextDouble() - 90.0));
+		}
+		VisibilityPlanner planner = new VisibilityPlanner(SITE);
+		planner.setStepMinutes(5);
+		List<VisibilityWindow> parallel = planner.plan(targets, NIGHT, NIGHT.plusDays(2));
+		planner.setParallel(false);
+		List<VisibilityWindow> sequential = planner.plan(targets, NIGHT, NIGHT.plusDays(2));
+
+		assertEquals(600, parallel.size());
+		for (int idx = 0; idx < parallel.size(); idx++) {
+			VisibilityWindow expected = sequential.get(idx);
+			VisibilityWindow actual = parallel.get(idx);
+			assertEquals("t" + idx / 3, actual.getObjectId());
+			assertEquals(NIGHT.plusDays(idx % 3), actual.getNight());
+			assertEquals(expected.getWindowStart(), actual.getWindowStart());
+			assertEquals(expected.getWindowEnd(), actual.getWindowEnd());
+			assertEquals(expected.getMaxAltDeg(), actual.getMaxAltDeg());
+		}
+	}
+
+	@DisplayName("Table model column classes and values support row sorting")
+	@Test
+	void tableModel_Values() {
+		BaseFieldObject fo = new BaseFieldObject("wasp12", 6.509110, 29.672297);
+		List<VisibilityWindow> windows = new VisibilityPlanner(SITE).plan(Arrays.asList(fo), NIGHT, NIGHT);
+		VisibilityPlanTableModel model = new VisibilityPlanTableModel(windows);
+
+		assertEquals(1, model.getRowCount());
+		assertEquals(9, model.getColumnCount());
+		assertEquals(Double.class, model.getColumnClass(6));
+		assertEquals("wasp12", model.getValueAt(0, 0));
+		assertEquals(6.5091, model.getValueAt(0, 1));
+		assertEquals("2021-01-01", model.getValueAt(0, 3));
+		assertTrue(((String) model.getValueAt(0, 4)).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}"));
+		assertEquals(Math.round(windows.get(0).getHoursVisible() * 100) / 100.0, model.getValueAt(0, 6));
+	}
+}